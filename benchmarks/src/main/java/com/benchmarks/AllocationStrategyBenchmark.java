@@ -0,0 +1,100 @@
+package com.benchmarks;
+
+import com.order.allocation.Allocation;
+import com.order.allocation.StandardAllocationStrategy;
+import com.order.dto.InventoryBatchDto;
+import com.order.service.InventoryAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Every {@link StandardAllocationStrategy} over {@code batchCount} batches listed in FEFO order, as inventory returns
+ * them. Ids follow creation order and shelf lives vary, so FIFO has to sort. Quantities follow {@code distribution}:
+ * <ul>
+ *     <li>UNIFORM: 1 to 100</li>
+ *     <li>LONG_TAIL: mostly small batches with a few very large ones</li>
+ *     <li>FRAGMENTED: nine in ten batches hold 1 to 3 units, the rest 100 to 500</li>
+ * </ul>
+ * The order asks for {@code fillPercent} of the total stock. {@code pick} returns the primitive picks;
+ * {@code allocate} also builds the batchNumber -> quantity map sent to inventory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AllocationStrategyBenchmark {
+
+    public enum Distribution { UNIFORM, LONG_TAIL, FRAGMENTED }
+
+    @Param({"10", "1000", "10000"})
+    private int batchCount;
+
+    @Param({"UNIFORM", "LONG_TAIL", "FRAGMENTED"})
+    private Distribution distribution;
+
+    @Param({"FEFO", "FIFO", "FEWEST_BATCHES", "LARGEST_FIRST"})
+    private StandardAllocationStrategy strategy;
+
+    @Param({"10", "60"})
+    private int fillPercent;
+
+    private final InventoryAllocator allocator = new InventoryAllocator();
+    private List<InventoryBatchDto> batches;
+    private int requestedQuantity;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(7);
+        LocalDate today = LocalDate.now();
+        batches = new ArrayList<>(batchCount);
+        long total = 0;
+        for (int i = 0; i < batchCount; i++) {
+            InventoryBatchDto batch = new InventoryBatchDto();
+            batch.setId((long) i + 1);
+            batch.setBatchNumber("B" + i);
+            batch.setQuantity(quantity(random));
+            batch.setExpiryDate(today.plusDays(i / 4 + random.nextInt(180)));
+            batches.add(batch);
+            total += batch.getQuantity();
+        }
+        batches.sort(Comparator.comparing(InventoryBatchDto::getExpiryDate));
+        requestedQuantity = (int) Math.max(1, total * fillPercent / 100);
+    }
+
+    private int quantity(Random random) {
+        return switch (distribution) {
+            case UNIFORM -> 1 + random.nextInt(100);
+            case LONG_TAIL -> (int) Math.min(10_000, 1 + 5 / Math.pow(1 - random.nextDouble(), 1.2));
+            case FRAGMENTED -> random.nextInt(10) == 0 ? 100 + random.nextInt(401) : 1 + random.nextInt(3);
+        };
+    }
+
+    @Benchmark
+    public Allocation pick() {
+        return allocator.pick(batches, requestedQuantity, null, strategy);
+    }
+
+    @Benchmark
+    public Map<String, Integer> allocate() {
+        return allocator.allocate(batches, requestedQuantity, null, strategy);
+    }
+}
@@ -0,0 +1,65 @@
+package com.benchmarks;
+
+import com.order.dto.InventoryBatchDto;
+import com.order.service.InventoryAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link InventoryAllocator#allocate} over lists of {@code batchCount} batches, asking for
+ * {@code fillPercent} of the total stock (100 walks every batch).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AllocatorBenchmark {
+
+    private static final int QUANTITY_PER_BATCH = 10;
+
+    @Param({"1", "10", "100", "1000"})
+    private int batchCount;
+
+    @Param({"10", "100"})
+    private int fillPercent;
+
+    private final InventoryAllocator allocator = new InventoryAllocator();
+    private List<InventoryBatchDto> batches;
+    private int requestedQuantity;
+
+    @Setup
+    public void setUp() {
+        batches = new ArrayList<>(batchCount);
+        LocalDate expiry = LocalDate.now();
+        for (int i = 0; i < batchCount; i++) {
+            InventoryBatchDto batch = new InventoryBatchDto();
+            batch.setBatchNumber("B" + i);
+            batch.setQuantity(QUANTITY_PER_BATCH);
+            batch.setExpiryDate(expiry.plusDays(i));
+            batches.add(batch);
+        }
+        requestedQuantity = Math.max(1, batchCount * QUANTITY_PER_BATCH * fillPercent / 100);
+    }
+
+    @Benchmark
+    public Map<String, Integer> allocate() {
+        return allocator.allocate(batches, requestedQuantity);
+    }
+}
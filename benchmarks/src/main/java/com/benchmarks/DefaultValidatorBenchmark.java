@@ -0,0 +1,93 @@
+package com.benchmarks;
+
+import com.inventory.InventoryServiceApplication;
+import com.inventory.dto.UpdateInventoryRequest;
+import com.inventory.entity.InventoryBatch;
+import com.inventory.entity.Product;
+import com.inventory.repository.ProductRepository;
+import com.inventory.validation.DefaultInventoryValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link DefaultInventoryValidator#updateInventory} end to end against the inventory service's embedded H2,
+ * deducting one unit from each of {@code batchesPerRequest} batches per call. The application context is
+ * started without a web server; batches are seeded with enough stock that the run never exhausts them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DefaultValidatorBenchmark {
+
+    private static final String SKU = "BENCH-SKU";
+
+    @Param({"1", "10"})
+    private int batchesPerRequest;
+
+    private ConfigurableApplicationContext context;
+    private DefaultInventoryValidator validator;
+    private UpdateInventoryRequest request;
+
+    @Setup
+    public void setUp() {
+        // command-line arguments take precedence over the service's application.yml
+        context = new SpringApplicationBuilder(InventoryServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmarkdb;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN");
+        validator = context.getBean(DefaultInventoryValidator.class);
+
+        Product product = new Product();
+        product.setSku(SKU);
+        product.setName("Benchmark product");
+        List<InventoryBatch> batches = new ArrayList<>(batchesPerRequest);
+        Map<String, Integer> deductions = new LinkedHashMap<>();
+        for (int i = 0; i < batchesPerRequest; i++) {
+            InventoryBatch batch = new InventoryBatch();
+            batch.setBatchNumber("B" + i);
+            batch.setQuantity(Integer.MAX_VALUE);
+            batch.setExpiryDate(LocalDate.now().plusDays(i));
+            batch.setProduct(product);
+            batches.add(batch);
+            deductions.put(batch.getBatchNumber(), 1);
+        }
+        product.setBatches(batches);
+        context.getBean(ProductRepository.class).save(product);
+
+        request = new UpdateInventoryRequest(SKU, deductions);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void updateInventory() {
+        validator.updateInventory(request);
+    }
+}
@@ -0,0 +1,67 @@
+package com.benchmarks;
+
+import com.common.idempotency.IdempotencyStore;
+import com.common.idempotency.IdempotencyStore.Claim;
+import com.common.idempotency.IdempotencyStore.StoredResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What an {@code Idempotency-Key} adds to a request before the database: fingerprinting an order body, claiming a
+ * new key and recording its response, and answering a repeat from memory. The store is full ({@code max-size}
+ * keys) so every new claim also evicts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdempotencyBenchmark {
+
+    private static final int MAX_SIZE = 20_000;
+    private static final byte[] ORDER_BODY = "{\"sku\":\"SKU1\",\"quantity\":1}".getBytes(StandardCharsets.UTF_8);
+
+    private IdempotencyStore store;
+    private String fingerprint;
+    private StoredResponse response;
+    private long next;
+
+    @Setup
+    public void setUp() {
+        store = new IdempotencyStore("order.idempotency", MAX_SIZE, 86_400_000, 15_000);
+        fingerprint = IdempotencyStore.fingerprint("POST", "/order", null, ORDER_BODY);
+        response = new StoredResponse(fingerprint, 200, "application/json", new byte[512]);
+        for (int i = 0; i < MAX_SIZE; i++) {
+            store.complete(store.claim("key-" + i, fingerprint), response);
+        }
+    }
+
+    @Benchmark
+    public String fingerprint() {
+        return IdempotencyStore.fingerprint("POST", "/order", null, ORDER_BODY);
+    }
+
+    @Benchmark
+    public Claim claimAndComplete() {
+        Claim claim = store.claim("new-" + next++, fingerprint);
+        store.complete(claim, response);
+        return claim;
+    }
+
+    @Benchmark
+    public Claim replay() {
+        return store.claim("key-" + (MAX_SIZE - 1), fingerprint);
+    }
+}
@@ -0,0 +1,79 @@
+package com.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.order.dto.InventoryBatchDto;
+import com.order.dto.OrderRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON (de)serialization of the payloads on the order path: the {@code InventoryBatchDto[]} returned by
+ * {@code GET /inventory/batches} and the {@code OrderRequest} body of {@code POST /order}.
+ * The mapper is built with Spring's defaults, as both services use it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JacksonBenchmark {
+
+    @Param({"10", "1000"})
+    private int batchCount;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private InventoryBatchDto[] batches;
+    private byte[] batchesJson;
+    private OrderRequest orderRequest;
+    private byte[] orderRequestJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        LocalDate expiry = LocalDate.now();
+        batches = new InventoryBatchDto[batchCount];
+        for (int i = 0; i < batchCount; i++) {
+            InventoryBatchDto batch = new InventoryBatchDto();
+            batch.setBatchNumber("B" + i);
+            batch.setQuantity(i % 100);
+            batch.setExpiryDate(expiry.plusDays(i % 365));
+            batches[i] = batch;
+        }
+        batchesJson = objectMapper.writeValueAsBytes(batches);
+        orderRequest = OrderRequest.builder().sku("SKU1").quantity(5).build();
+        orderRequestJson = objectMapper.writeValueAsBytes(orderRequest);
+    }
+
+    @Benchmark
+    public byte[] serializeBatches() throws Exception {
+        return objectMapper.writeValueAsBytes(batches);
+    }
+
+    @Benchmark
+    public InventoryBatchDto[] deserializeBatches() throws Exception {
+        return objectMapper.readValue(batchesJson, InventoryBatchDto[].class);
+    }
+
+    @Benchmark
+    public byte[] serializeOrderRequest() throws Exception {
+        return objectMapper.writeValueAsBytes(orderRequest);
+    }
+
+    @Benchmark
+    public OrderRequest deserializeOrderRequest() throws Exception {
+        return objectMapper.readValue(orderRequestJson, OrderRequest.class);
+    }
+}
@@ -0,0 +1,68 @@
+package com.benchmarks;
+
+import com.inventory.dto.InventoryBatchDto;
+import com.inventory.entity.InventoryBatch;
+import com.inventory.entity.Product;
+import com.inventory.mapper.InventoryBatchMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link InventoryBatchMapper#toDto} applied to every entity of a {@code size}-element list, the way
+ * the non-projected batch reads map repository results.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int size;
+
+    private final InventoryBatchMapper mapper = new InventoryBatchMapper();
+    private List<InventoryBatch> entities;
+
+    @Setup
+    public void setUp() {
+        Product product = new Product();
+        product.setId(1L);
+        product.setSku("SKU1");
+        LocalDate expiry = LocalDate.now();
+        entities = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            InventoryBatch batch = new InventoryBatch();
+            batch.setId((long) i);
+            batch.setBatchNumber("B" + i);
+            batch.setQuantity(i % 100);
+            batch.setExpiryDate(expiry.plusDays(i % 365));
+            batch.setProduct(product);
+            entities.add(batch);
+        }
+    }
+
+    @Benchmark
+    public List<InventoryBatchDto> toDtoList() {
+        List<InventoryBatchDto> dtos = new ArrayList<>(entities.size());
+        for (InventoryBatch entity : entities) {
+            dtos.add(mapper.toDto(entity));
+        }
+        return dtos;
+    }
+}
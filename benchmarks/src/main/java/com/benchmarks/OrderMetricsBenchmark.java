@@ -0,0 +1,81 @@
+package com.benchmarks;
+
+import com.order.dto.InventoryBatchDto;
+import com.order.metrics.OrderMetrics;
+import com.order.metrics.OrderMetrics.Path;
+import com.order.metrics.OrderMetrics.Stage;
+import com.order.service.InventoryAllocator;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the order-path instrumentation: the same allocation with and without an {@link OrderMetrics} stage
+ * around it, recording into a Prometheus registry with histogram buckets on, as configured in the service.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderMetricsBenchmark {
+
+    private final InventoryAllocator allocator = new InventoryAllocator();
+    private OrderMetrics metrics;
+    private List<InventoryBatchDto> batches;
+
+    @Setup
+    public void setUp() {
+        PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        registry.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                return id.getName().startsWith("order.placement")
+                        ? DistributionStatisticConfig.builder().percentilesHistogram(true).build().merge(config)
+                        : config;
+            }
+        });
+        metrics = new OrderMetrics(registry);
+        batches = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            InventoryBatchDto batch = new InventoryBatchDto();
+            batch.setBatchNumber("B" + i);
+            batch.setQuantity(10);
+            batches.add(batch);
+        }
+    }
+
+    @Benchmark
+    public Map<String, Integer> bare() {
+        return allocator.allocate(batches, 50);
+    }
+
+    @Benchmark
+    public Map<String, Integer> timedStage() {
+        return metrics.stage(Path.BLOCKING, Stage.ALLOCATE, () -> allocator.allocate(batches, 50));
+    }
+
+    @Benchmark
+    public Map<String, Integer> timedPlacement() {
+        return metrics.placement(Path.BLOCKING,
+                () -> metrics.stage(Path.BLOCKING, Stage.ALLOCATE, () -> allocator.allocate(batches, 50)));
+    }
+}
@@ -0,0 +1,146 @@
+package com.benchmarks;
+
+import com.inventory.InventoryServiceApplication;
+import com.inventory.entity.InventoryBatch;
+import com.inventory.entity.Product;
+import com.inventory.repository.ProductRepository;
+import com.order.config.WebClientConfig;
+import com.order.dto.InventoryBatchDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sustained {@code GET /inventory/batches?sku=} calls from several threads against a real inventory service,
+ * comparing transports:
+ * <ul>
+ *     <li>{@code default}: Reactor Netty's default pool and Tomcat's defaults, which close a keep-alive
+ *     connection after 100 requests</li>
+ *     <li>{@code http11}: the order service's tuned pool ({@link WebClientConfig}) with gzip, against the inventory
+ *     service's own settings</li>
+ *     <li>{@code h2c}: the same over cleartext HTTP/2</li>
+ * </ul>
+ * TCP connections opened during the trial are printed at the end, to show connection churn.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class TransportBenchmark {
+
+    private static final String SKU = "BENCH-SKU";
+
+    @Param({"default", "http11", "h2c"})
+    private String transport;
+
+    @Param({"10", "500"})
+    private int batchCount;
+
+    private ConfigurableApplicationContext context;
+    private ConnectionProvider connectionProvider;
+    private WebClient client;
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final LongAdder connectionsOpened = new LongAdder();
+    private final LongAdder calls = new LongAdder();
+
+    @Setup
+    public void setUp() {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:transportdb;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.show-sql=false",
+                "--inventory.idempotency.persist=false",
+                "--logging.level.root=WARN"));
+        if (transport.equals("default")) {
+            args.addAll(List.of(
+                    "--server.http2.enabled=false",
+                    "--server.compression.enabled=false",
+                    "--server.tomcat.max-keep-alive-requests=100"));
+        }
+        context = new SpringApplicationBuilder(InventoryServiceApplication.class).run(args.toArray(String[]::new));
+        seed();
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        ClientHttpConnector connector;
+        if (transport.equals("default")) {
+            connectionProvider = ConnectionProvider.create("benchmark-default");
+            connector = new ReactorClientHttpConnector(HttpClient.create(connectionProvider)
+                    .doOnChannelInit((observer, channel, remoteAddress) -> connectionsOpened.increment()));
+        } else {
+            connectionProvider = new WebClientConfig().inventoryConnectionProvider(200, 1000, 2000, 20_000, 600_000, 10_000);
+            connector = new WebClientConfig().inventoryClientHttpConnector(connectionProvider, registry,
+                    1000, 5000, transport, true);
+        }
+        client = WebClient.builder()
+                .clientConnector(connector)
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(16 * 1024 * 1024))
+                .baseUrl("http://localhost:" + port)
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        // the tuned connector counts into its own meter
+        double opened = transport.equals("default")
+                ? connectionsOpened.sum()
+                : registry.get("inventory.client.connections.opened").counter().count();
+        System.out.printf("%n%s/%d: %.0f connections opened over %d calls%n", transport, batchCount, opened, calls.sum());
+        connectionProvider.dispose();
+        context.close();
+    }
+
+    @Benchmark
+    public InventoryBatchDto[] getBatches() {
+        calls.increment();
+        return client.get()
+                .uri(uriBuilder -> uriBuilder.path("/inventory/batches").queryParam("sku", SKU).build())
+                .retrieve()
+                .bodyToMono(InventoryBatchDto[].class)
+                .block();
+    }
+
+    private void seed() {
+        Product product = new Product();
+        product.setSku(SKU);
+        product.setName("Benchmark product");
+        List<InventoryBatch> batches = new ArrayList<>(batchCount);
+        for (int i = 0; i < batchCount; i++) {
+            InventoryBatch batch = new InventoryBatch();
+            batch.setBatchNumber("BATCH-" + i);
+            batch.setQuantity(1_000);
+            batch.setExpiryDate(LocalDate.now().plusDays(i));
+            batch.setProduct(product);
+            batches.add(batch);
+        }
+        product.setBatches(batches);
+        context.getBean(ProductRepository.class).save(product);
+    }
+}
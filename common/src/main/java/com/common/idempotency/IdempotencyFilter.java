@@ -0,0 +1,187 @@
+package com.common.idempotency;
+
+import com.common.idempotency.IdempotencyStore.Claim;
+import com.common.idempotency.IdempotencyStore.StoredResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Makes POSTs to the configured paths safe to retry: a request carrying an {@code Idempotency-Key} header runs
+ * once, and repeats of it get the first response back with {@code Idempotent-Replayed: true}.
+ * <p>
+ * 5xx responses and unhandled exceptions are not recorded, so a retry after a server failure runs again.
+ * Reusing a key for a different request is refused with 422, and a duplicate that is still waiting when the
+ * first request's in-flight timeout passes gets 409. Requests without the header are not touched.
+ * Async dispatches (POST /order?mode=reactive) are recorded when the final dispatch completes.
+ * <p>
+ * Refusals are written with the calling service's {@link ErrorBody}, so they look like its other errors.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final String CLAIM_ATTRIBUTE = IdempotencyFilter.class.getName() + ".claim";
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final String KEY_TOO_LONG_MSG = "Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters";
+    private static final String KEY_REUSED_MSG = "Idempotency-Key was already used for a different request";
+    private static final String KEY_IN_FLIGHT_MSG = "A request with this Idempotency-Key is still in progress";
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Set<String> paths;
+    private final ErrorBody errorBody;
+
+    public IdempotencyFilter(IdempotencyStore store,
+                             ObjectMapper objectMapper,
+                             boolean enabled,
+                             Set<String> paths,
+                             ErrorBody errorBody) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.paths = paths;
+        this.errorBody = errorBody;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled
+                || !HttpMethod.POST.matches(request.getMethod())
+                || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null
+                || !paths.contains(request.getRequestURI());
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (isAsyncDispatch(request)) {
+            // the claim was taken by the initial dispatch; the response is ready once the last dispatch returns
+            filterChain.doFilter(request, response);
+            if (!isAsyncStarted(request)) {
+                record(request, response);
+            }
+            return;
+        }
+
+        String key = request.getHeader(IDEMPOTENCY_KEY_HEADER);
+        if (key.length() > MAX_KEY_LENGTH) {
+            reject(request, response, HttpStatus.BAD_REQUEST, KEY_TOO_LONG_MSG);
+            return;
+        }
+        byte[] body = request.getInputStream().readAllBytes();
+        String fingerprint = IdempotencyStore.fingerprint(request.getMethod(), request.getRequestURI(),
+                request.getQueryString(), body);
+
+        for (;;) {
+            Claim claim = store.claim(key, fingerprint);
+            switch (claim.outcome()) {
+                case EXECUTE -> {
+                    execute(new CachedBodyRequest(request, body), response, filterChain, claim);
+                    return;
+                }
+                case MISMATCH -> {
+                    reject(request, response, HttpStatus.UNPROCESSABLE_ENTITY, KEY_REUSED_MSG);
+                    return;
+                }
+                default -> {
+                    StoredResponse stored;
+                    try {
+                        stored = claim.await();
+                    } catch (TimeoutException e) {
+                        reject(request, response, HttpStatus.CONFLICT, KEY_IN_FLIGHT_MSG);
+                        return;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        reject(request, response, HttpStatus.CONFLICT, KEY_IN_FLIGHT_MSG);
+                        return;
+                    }
+                    if (stored != null) {
+                        replay(stored, response);
+                        return;
+                    }
+                    // the first request failed and gave the key up; claim it again
+                }
+            }
+        }
+    }
+
+    private void execute(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain, Claim claim)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper cachingResponse = new ContentCachingResponseWrapper(response);
+        request.setAttribute(CLAIM_ATTRIBUTE, claim);
+        try {
+            filterChain.doFilter(request, cachingResponse);
+        } catch (ServletException | IOException | RuntimeException e) {
+            request.removeAttribute(CLAIM_ATTRIBUTE);
+            store.abandon(claim);
+            throw e;
+        }
+        if (!isAsyncStarted(request)) {
+            record(request, cachingResponse);
+        }
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Claim claim = (Claim) request.getAttribute(CLAIM_ATTRIBUTE);
+        ContentCachingResponseWrapper cachingResponse = WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class);
+        if (claim == null || cachingResponse == null) {
+            return;
+        }
+        request.removeAttribute(CLAIM_ATTRIBUTE);
+        int status = cachingResponse.getStatus();
+        if (status >= HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+            store.abandon(claim);
+        } else {
+            store.complete(claim, new StoredResponse(claim.fingerprint(), status,
+                    cachingResponse.getContentType(), cachingResponse.getContentAsByteArray()));
+        }
+        cachingResponse.copyBodyToResponse();
+    }
+
+    private void replay(StoredResponse stored, HttpServletResponse response) throws IOException {
+        response.setStatus(stored.status());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, HttpStatus status, String message)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorBody.build(status, message, request.getRequestURI()));
+    }
+
+    /**
+     * JSON body of a refusal, in the shape of the service's {@code GlobalExceptionHandler}, which filters are
+     * outside of.
+     */
+    @FunctionalInterface
+    public interface ErrorBody {
+        Map<String, Object> build(HttpStatus status, String message, String path);
+    }
+}
@@ -0,0 +1,40 @@
+package com.common.idempotency;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Response recorded for an {@code Idempotency-Key}, so a retry is answered from here after the in-memory
+ * entry was evicted or the service restarted. Rows are purged once {@code expiresAt} has passed. Each service keeps
+ * its own {@code idempotency_keys} table.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "idempotency_keys", indexes = @Index(name = "ix_idempotency_keys_expires_at", columnList = "expiresAt"))
+public class IdempotencyRecord {
+    @Id
+    @Column(length = 255)
+    private String idempotencyKey;
+
+    // hash of method, path, query and body; a retry must match it to be replayed
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    private int status;
+    private String contentType;
+
+    @Lob
+    private byte[] body;
+
+    private LocalDateTime createdAt;
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+}
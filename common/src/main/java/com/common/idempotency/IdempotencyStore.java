@@ -0,0 +1,360 @@
+package com.common.idempotency;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Responses by {@code Idempotency-Key}, so a retried request is answered without running it again.
+ * <p>
+ * Keys live in a size-bounded LRU map and expire {@code ttl-ms} after they were answered. The first request for a
+ * key runs; duplicates that arrive while it is in flight wait for its response instead of running in parallel.
+ * A claim not answered within {@code in-flight-timeout-ms} is treated as abandoned; claims still in flight are never
+ * evicted, so a duplicate cannot slip past one that is running. With a repository, answers are written behind to
+ * {@code idempotency_keys} by {@link #flush()}, and a key not in memory is looked up there before it runs, which
+ * covers evicted keys and restarts.
+ * <p>
+ * Shared by both services; each builds its own instance from its {@code <service>.idempotency.*} properties and
+ * schedules {@link #flush()} and {@link #purgeExpired()}.
+ */
+public class IdempotencyStore implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyStore.class);
+
+    private final String meterPrefix;
+    private final IdempotencyRecordRepository repository;
+    private final long ttlMillis;
+    private final long inFlightTimeoutNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, Entry> entries;
+    private final Queue<IdempotencyRecord> unflushed = new ConcurrentLinkedQueue<>();
+    // one flush at a time: a second caller waits until the first one's batch is committed or put back
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder replayed = new LongAdder();
+    private final LongAdder joined = new LongAdder();
+    private final LongAdder mismatched = new LongAdder();
+
+    /**
+     * @param meterPrefix prefix of the meter names, e.g. {@code order.idempotency}
+     * @param repository  where answers are written behind, or null to keep them in memory only
+     */
+    public IdempotencyStore(String meterPrefix,
+                            IdempotencyRecordRepository repository,
+                            int maxSize,
+                            long ttlMillis,
+                            long inFlightTimeoutMillis) {
+        this.meterPrefix = meterPrefix;
+        this.repository = repository;
+        this.ttlMillis = ttlMillis;
+        this.inFlightTimeoutNanos = inFlightTimeoutMillis * 1_000_000L;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > maxSize) {
+                    evictAnswered(maxSize);
+                }
+                return false;
+            }
+        };
+    }
+
+    // In-memory only, for unit tests and benchmarks
+    public IdempotencyStore(String meterPrefix, int maxSize, long ttlMillis, long inFlightTimeoutMillis) {
+        this(meterPrefix, null, maxSize, ttlMillis, inFlightTimeoutMillis);
+    }
+
+    /**
+     * Claims {@code key} for a request with the given fingerprint. The caller runs the request only when the
+     * outcome is {@link Outcome#EXECUTE}, and must then {@link #complete} or {@link #abandon} the claim.
+     */
+    public Claim claim(String key, String fingerprint) {
+        Entry entry;
+        boolean owner = false;
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            entry = entries.get(key);
+            if (entry == null || entry.isStale(now, ttlMillis * 1_000_000L)) {
+                entry = new Entry(fingerprint, now + inFlightTimeoutNanos);
+                entries.put(key, entry);
+                owner = true;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (owner) {
+            Optional<StoredResponse> persisted = loadPersisted(key);
+            if (persisted.isEmpty()) {
+                executed.increment();
+                return new Claim(Outcome.EXECUTE, key, entry);
+            }
+            Entry restored = new Entry(persisted.get().fingerprint(), entry.inFlightDeadline);
+            restored.complete(persisted.get());
+            lock.lock();
+            try {
+                entries.replace(key, entry, restored);
+            } finally {
+                lock.unlock();
+            }
+            // duplicates that joined this claim look again and find the restored answer
+            entry.result.complete(null);
+            entry = restored;
+        }
+
+        if (!entry.fingerprint.equals(fingerprint)) {
+            mismatched.increment();
+            return new Claim(Outcome.MISMATCH, key, entry);
+        }
+        if (entry.result.isDone()) {
+            replayed.increment();
+            return new Claim(Outcome.REPLAY, key, entry);
+        }
+        joined.increment();
+        return new Claim(Outcome.WAIT, key, entry);
+    }
+
+    /**
+     * Records the response of an executed claim and hands it to any duplicates waiting on it.
+     */
+    public void complete(Claim claim, StoredResponse response) {
+        claim.entry.complete(response);
+        if (repository != null) {
+            LocalDateTime now = LocalDateTime.now();
+            unflushed.add(IdempotencyRecord.builder()
+                    .idempotencyKey(claim.key)
+                    .fingerprint(response.fingerprint())
+                    .status(response.status())
+                    .contentType(response.contentType())
+                    .body(response.body())
+                    .createdAt(now)
+                    .expiresAt(now.plusNanos(ttlMillis * 1_000_000L))
+                    .build());
+        }
+    }
+
+    /**
+     * Forgets an executed claim that failed, so the next request with the key runs again; waiting duplicates
+     * re-claim it and one of them runs.
+     */
+    public void abandon(Claim claim) {
+        lock.lock();
+        try {
+            entries.remove(claim.key, claim.entry);
+        } finally {
+            lock.unlock();
+        }
+        claim.entry.result.complete(null);
+    }
+
+    /**
+     * Writes the answers recorded since the last flush in one batch. A failed batch goes back on the queue and is
+     * retried by the next flush, less any answers that have expired meanwhile.
+     */
+    public void flush() {
+        if (repository == null) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            List<IdempotencyRecord> batch = new ArrayList<>();
+            IdempotencyRecord record;
+            while ((record = unflushed.poll()) != null) {
+                batch.add(record);
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                repository.saveAll(batch);
+            } catch (RuntimeException e) {
+                LocalDateTime now = LocalDateTime.now();
+                batch.removeIf(failed -> !failed.getExpiresAt().isAfter(now));
+                unflushed.addAll(batch);
+                log.warn("Failed to persist {} idempotency keys, will retry", batch.size(), e);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    public void purgeExpired() {
+        if (repository != null) {
+            repository.deleteExpired(LocalDateTime.now());
+        }
+    }
+
+    public long getExecuted() {
+        return executed.sum();
+    }
+
+    public long getReplayed() {
+        return replayed.sum();
+    }
+
+    public long getJoined() {
+        return joined.sum();
+    }
+
+    public long getMismatched() {
+        return mismatched.sum();
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder(meterPrefix + ".requests", this, IdempotencyStore::getExecuted)
+                .tag("result", "executed").register(registry);
+        FunctionCounter.builder(meterPrefix + ".requests", this, IdempotencyStore::getReplayed)
+                .tag("result", "replayed").register(registry);
+        FunctionCounter.builder(meterPrefix + ".requests", this, IdempotencyStore::getJoined)
+                .tag("result", "joined").register(registry);
+        FunctionCounter.builder(meterPrefix + ".requests", this, IdempotencyStore::getMismatched)
+                .tag("result", "mismatched").register(registry);
+        Gauge.builder(meterPrefix + ".keys", this, IdempotencyStore::size)
+                .register(registry);
+    }
+
+    /**
+     * SHA-256 of method, path, query and body; the same key with a different fingerprint is a client error.
+     */
+    public static String fingerprint(String method, String path, String query, byte[] body) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        digest.update((method + ' ' + path + '?' + (query != null ? query : "") + '\n').getBytes(StandardCharsets.UTF_8));
+        digest.update(body);
+        return Base64.getEncoder().encodeToString(digest.digest());
+    }
+
+    // called from removeEldestEntry with the lock held: drops answered or abandoned entries, least recently used
+    // first, until the map fits; claims still in flight stay, so the map may briefly exceed maxSize
+    private void evictAnswered(int maxSize) {
+        long now = System.nanoTime();
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (entries.size() > maxSize && iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.result.isDone() || now - entry.inFlightDeadline > 0) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private Optional<StoredResponse> loadPersisted(String key) {
+        if (repository == null) {
+            return Optional.empty();
+        }
+        return repository.findById(key)
+                .filter(record -> record.getExpiresAt().isAfter(LocalDateTime.now()))
+                .map(record -> new StoredResponse(record.getFingerprint(), record.getStatus(),
+                        record.getContentType(), record.getBody() != null ? record.getBody() : new byte[0]));
+    }
+
+    public enum Outcome {
+        // first request for the key: run it
+        EXECUTE,
+        // answered before: send the stored response
+        REPLAY,
+        // the first request is still running: wait for its response
+        WAIT,
+        // the key was used for a different request
+        MISMATCH
+    }
+
+    public record StoredResponse(String fingerprint, int status, String contentType, byte[] body) {
+    }
+
+    public static final class Claim {
+        private final Outcome outcome;
+        private final String key;
+        private final Entry entry;
+
+        private Claim(Outcome outcome, String key, Entry entry) {
+            this.outcome = outcome;
+            this.key = key;
+            this.entry = entry;
+        }
+
+        public Outcome outcome() {
+            return outcome;
+        }
+
+        public String fingerprint() {
+            return entry.fingerprint;
+        }
+
+        /**
+         * The stored response, waiting for it while the first request is in flight. Returns null when that
+         * request was abandoned, in which case the caller claims the key again.
+         */
+        public StoredResponse await() throws TimeoutException, InterruptedException {
+            try {
+                return entry.result.get(entry.inFlightRemaining(), TimeUnit.NANOSECONDS);
+            } catch (ExecutionException e) {
+                return null;
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final String fingerprint;
+        private final long inFlightDeadline;
+        private final CompletableFuture<StoredResponse> result = new CompletableFuture<>();
+        private volatile long completedAt;
+
+        private Entry(String fingerprint, long inFlightDeadline) {
+            this.fingerprint = fingerprint;
+            this.inFlightDeadline = inFlightDeadline;
+        }
+
+        private void complete(StoredResponse response) {
+            completedAt = System.nanoTime();
+            result.complete(response);
+        }
+
+        private boolean isStale(long now, long ttlNanos) {
+            return result.isDone() ? now - completedAt > ttlNanos : now - inFlightDeadline > 0;
+        }
+
+        private long inFlightRemaining() {
+            return Math.max(0, inFlightDeadline - System.nanoTime());
+        }
+    }
+}
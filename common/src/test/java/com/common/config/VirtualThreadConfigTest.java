@@ -0,0 +1,37 @@
+package com.common.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class VirtualThreadConfigTest {
+
+    private final VirtualThreadConfig config = new VirtualThreadConfig();
+
+    @Test
+    @EnabledForJreRange(max = JRE.JAVA_20)
+    void virtualThreadExecutor_failsFastBeforeJava21() {
+        assertThatThrownBy(config::virtualThreadExecutor)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("requires Java 21");
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    void virtualThreadExecutor_runsTasksOnVirtualThreads() throws Exception {
+        ExecutorService executor = config.virtualThreadExecutor();
+        try {
+            Object virtual = executor.submit(() -> Thread.class.getMethod("isVirtual").invoke(Thread.currentThread()))
+                    .get(5, TimeUnit.SECONDS);
+            assertThat(virtual).isEqualTo(true);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.common.idempotency;
+
+import com.common.idempotency.IdempotencyStore.Claim;
+import com.common.idempotency.IdempotencyStore.Outcome;
+import com.common.idempotency.IdempotencyStore.StoredResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IdempotencyStoreTest {
+
+    private static final String KEY = "key-1";
+    private static final String FINGERPRINT = IdempotencyStore.fingerprint("POST", "/order", null,
+            "{\"sku\":\"SKU1\",\"quantity\":1}".getBytes(StandardCharsets.UTF_8));
+
+    private static StoredResponse ok(String body) {
+        return new StoredResponse(FINGERPRINT, 200, "application/json", body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void claim_firstRequestExecutesAndRepeatsReplay() throws Exception {
+        IdempotencyStore store = new IdempotencyStore("order.idempotency", 10, 60_000, 5_000);
+
+        Claim first = store.claim(KEY, FINGERPRINT);
+        store.complete(first, ok("{\"id\":1}"));
+        Claim repeat = store.claim(KEY, FINGERPRINT);
+
+        assertThat(first.outcome()).isEqualTo(Outcome.EXECUTE);
+        assertThat(repeat.outcome()).isEqualTo(Outcome.REPLAY);
+        assertThat(new String(repeat.await().body(), StandardCharsets.UTF_8)).isEqualTo("{\"id\":1}");
+        assertThat(store.getExecuted()).isEqualTo(1);
+        assertThat(store.getReplayed()).isEqualTo(1);
+    }
+
+    @Test
+    void claim_sameKeyForDifferentRequestIsMismatch() {
+        IdempotencyStore store = new IdempotencyStore("order.idempotency", 10, 60_000, 5_000);
+        store.complete(store.claim(KEY, FINGERPRINT), ok("{}"));
+
+        String other = IdempotencyStore.fingerprint("POST", "/order", null, "{\"sku\":\"SKU2\"}".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(store.claim(KEY, other).outcome()).isEqualTo(Outcome.MISMATCH);
+        assertThat(store.getMismatched()).isEqualTo(1);
+    }
+
+    @Test
+    void claim_duplicateInFlightWaitsForFirstResponse() throws Exception {
+        IdempotencyStore store = new IdempotencyStore("order.idempotency", 10, 60_000, 5_000);
+        Claim first = store.claim(KEY, FINGERPRINT);
+
+        Claim duplicate = store.claim(KEY, FINGERPRINT);
+        CompletableFuture<StoredResponse> waited = CompletableFuture.supplyAsync(() -> {
+            try {
+                return duplicate.await();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        store.complete(first, ok("{\"id\":7}"));
+
+        assertThat(duplicate.outcome()).isEqualTo(Outcome.WAIT);
+        assertThat(waited.get(5, TimeUnit.SECONDS).status()).isEqualTo(200);
+        assertThat(store.getJoined()).isEqualTo(1);
+    }
+
+    @Test
+    void abandon_releasesWaitersAndLetsTheKeyRunAgain() throws Exception {
+        IdempotencyStore store = new IdempotencyStore("order.idempotency", 10, 60_000, 5_000);
+        Claim first = store.claim(KEY, FINGERPRINT);
+        Claim duplicate = store.claim(KEY, FINGERPRINT);
+
+        store.abandon(first);
+
+        assertThat(duplicate.await()).isNull();
+        assertThat(store.claim(KEY, FINGERPRINT).outcome()).isEqualTo(Outcome.EXECUTE);
+    }
+
+    @Test
+    void claim_inFlightClaimPastTimeoutIsTakenOver() throws Exception {
+        IdempotencyStore store = new IdempotencyStore("order.idempotency", 10, 60_000, 1);
+        store.claim(KEY, FINGERPRINT);
+        Thread.sleep(5);
+
+        assertThat(store.claim(KEY, FINGERPRINT).outcome()).isEqualTo(Outcome.EXECUTE);
+    }
+
+    @Test
+    void await_timesOutWhenFirstRequestDoesNotAnswer() {
+        IdempotencyStore store = new IdempotencyStore("order.idempotency", 10, 60_000, 50);
+        store.claim(KEY, FINGERPRINT);
+
+        Claim duplicate = store.claim(KEY, FINGERPRINT);
+
+        assertThatThrownBy(duplicate::await).isInstanceOf(TimeoutException.class);
+    }
+
+    @Test
+    void claim_expiredAnswerRunsAgain() throws Exception {
+        IdempotencyStore store = new IdempotencyStore("order.idempotency", 10, 1, 5_000);
+        store.complete(store.claim(KEY, FINGERPRINT), ok("{}"));
+        Thread.sleep(5);
+
+        assertThat(store.claim(KEY, FINGERPRINT).outcome()).isEqualTo(Outcome.EXECUTE);
+    }
+
+    @Test
+    void claim_evictsLeastRecentlyUsedBeyondMaxSize() {
+        IdempotencyStore store = new IdempotencyStore("order.idempotency", 2, 60_000, 5_000);
+        store.complete(store.claim("A", FINGERPRINT), ok("{}"));
+        store.complete(store.claim("B", FINGERPRINT), ok("{}"));
+        store.complete(store.claim("C", FINGERPRINT), ok("{}"));
+
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(store.claim("A", FINGERPRINT).outcome()).isEqualTo(Outcome.EXECUTE);
+    }
+
+    @Test
+    void claim_neverEvictsAKeyStillInFlight() {
+        IdempotencyStore store = new IdempotencyStore("order.idempotency", 2, 60_000, 5_000);
+        store.claim("A", FINGERPRINT);
+        store.complete(store.claim("B", FINGERPRINT), ok("{}"));
+        store.complete(store.claim("C", FINGERPRINT), ok("{}"));
+
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(store.claim("A", FINGERPRINT).outcome()).isEqualTo(Outcome.WAIT);
+        assertThat(store.claim("B", FINGERPRINT).outcome()).isEqualTo(Outcome.EXECUTE);
+    }
+
+    @Test
+    void claim_keyMissingFromMemoryIsAnsweredFromDatabase() throws Exception {
+        IdempotencyRecordRepository repository = mock(IdempotencyRecordRepository.class);
+        when(repository.findById(anyString())).thenReturn(Optional.empty());
+        when(repository.findById(KEY)).thenReturn(Optional.of(IdempotencyRecord.builder()
+                .idempotencyKey(KEY)
+                .fingerprint(FINGERPRINT)
+                .status(200)
+                .contentType("application/json")
+                .body("{\"id\":3}".getBytes(StandardCharsets.UTF_8))
+                .expiresAt(LocalDateTime.now().plusMinutes(1))
+                .build()));
+        IdempotencyStore store = new IdempotencyStore("order.idempotency", repository, 10, 60_000, 5_000);
+
+        Claim claim = store.claim(KEY, FINGERPRINT);
+
+        assertThat(claim.outcome()).isEqualTo(Outcome.REPLAY);
+        assertThat(new String(claim.await().body(), StandardCharsets.UTF_8)).isEqualTo("{\"id\":3}");
+        assertThat(store.claim("other", FINGERPRINT).outcome()).isEqualTo(Outcome.EXECUTE);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_writesCompletedAnswersInOneBatch() {
+        IdempotencyRecordRepository repository = mock(IdempotencyRecordRepository.class);
+        IdempotencyStore store = new IdempotencyStore("order.idempotency", repository, 10, 60_000, 5_000);
+        store.complete(store.claim("A", FINGERPRINT), ok("{}"));
+        store.complete(store.claim("B", FINGERPRINT), ok("{}"));
+
+        store.flush();
+
+        ArgumentCaptor<List<IdempotencyRecord>> saved = ArgumentCaptor.forClass(List.class);
+        verify(repository).saveAll(saved.capture());
+        assertThat(saved.getValue()).extracting(IdempotencyRecord::getIdempotencyKey).containsExactly("A", "B");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_failedBatchIsRetriedByTheNextFlush() {
+        IdempotencyRecordRepository repository = mock(IdempotencyRecordRepository.class);
+        when(repository.saveAll(anyList())).thenThrow(new IllegalStateException("database down")).thenReturn(List.of());
+        IdempotencyStore store = new IdempotencyStore("order.idempotency", repository, 10, 60_000, 5_000);
+        store.complete(store.claim("A", FINGERPRINT), ok("{}"));
+
+        store.flush();
+        store.flush();
+
+        ArgumentCaptor<List<IdempotencyRecord>> saved = ArgumentCaptor.forClass(List.class);
+        verify(repository, times(2)).saveAll(saved.capture());
+        assertThat(saved.getAllValues().get(1)).extracting(IdempotencyRecord::getIdempotencyKey).containsExactly("A");
+    }
+
+    @Test
+    void flush_waitsForAFlushAlreadyWriting() throws Exception {
+        IdempotencyRecordRepository repository = mock(IdempotencyRecordRepository.class);
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+        IdempotencyStore store = new IdempotencyStore("order.idempotency", repository, 10, 60_000, 5_000);
+        store.complete(store.claim("A", FINGERPRINT), ok("{}"));
+        CompletableFuture<Void> scheduled = CompletableFuture.runAsync(store::flush);
+        assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<Void> explicit = CompletableFuture.runAsync(store::flush);
+        Thread.sleep(50);
+        assertThat(explicit).isNotDone();
+        release.countDown();
+
+        explicit.get(5, TimeUnit.SECONDS);
+        scheduled.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void bindTo_registersCounters() {
+        IdempotencyStore store = new IdempotencyStore("order.idempotency", 10, 60_000, 5_000);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        store.bindTo(registry);
+
+        store.complete(store.claim(KEY, FINGERPRINT), ok("{}"));
+        store.claim(KEY, FINGERPRINT);
+
+        assertThat(registry.get("order.idempotency.requests").tag("result", "executed").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("order.idempotency.requests").tag("result", "replayed").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("order.idempotency.keys").gauge().value()).isEqualTo(1);
+    }
+}
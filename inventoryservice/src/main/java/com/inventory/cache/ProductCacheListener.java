@@ -0,0 +1,34 @@
+package com.inventory.cache;
+
+import com.inventory.entity.Product;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA listener on {@link Product} that forwards inserts, updates and deletes to {@link ProductSkuCache}.
+ * Hibernate obtains it from the Spring context; the cache is resolved lazily because the listener is
+ * created while the entity manager factory, which the cache's repository depends on, is still being built.
+ */
+@Component
+public class ProductCacheListener {
+
+    private final ObjectProvider<ProductSkuCache> productSkuCache;
+
+    public ProductCacheListener(ObjectProvider<ProductSkuCache> productSkuCache) {
+        this.productSkuCache = productSkuCache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSaved(Product product) {
+        productSkuCache.ifAvailable(cache -> cache.register(product));
+    }
+
+    @PostRemove
+    public void onRemoved(Product product) {
+        productSkuCache.ifAvailable(cache -> cache.evict(product));
+    }
+}
@@ -0,0 +1,290 @@
+package com.inventory.cache;
+
+import com.inventory.entity.Product;
+import com.inventory.repository.ProductRepository;
+import com.inventory.repository.ProductRepository.SkuId;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+
+/**
+ * In-memory SKU to product-id lookup in front of {@code ProductRepository.findBySku}.
+ * <p>
+ * Known SKUs are loaded at startup, up to {@code max-size}, and kept in a size-bounded LRU map; entries do not
+ * expire. Unknown SKUs are remembered in a separate bounded map for {@code negative-ttl-ms} so repeated lookups of
+ * bad SKUs stay off the database. {@link ProductCacheListener} keeps the cache in step with inserts, updates and
+ * deletes of {@code Product}; the SKU each cached id maps to is tracked, so an update that renames a product drops
+ * its old SKU.
+ */
+@Component
+public class ProductSkuCache implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSkuCache.class);
+
+    private final ProductRepository productRepository;
+    private final boolean enabled;
+    private final long negativeTtlNanos;
+    private final int maxSize;
+    private final int preloadPageSize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, Long> productIds;
+    // the SKU each id in productIds is cached under; kept in step as productIds evicts
+    private final Map<Long, String> skusById = new HashMap<>();
+    private final LinkedHashMap<String, Long> unknownSkus;
+    // bumped on every change so a lookup that raced it does not store what it read before
+    private final AtomicLong version = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder negativeHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public ProductSkuCache(ProductRepository productRepository, boolean enabled, int maxSize, int negativeMaxSize,
+                           long negativeTtlMillis) {
+        this(productRepository, enabled, maxSize, negativeMaxSize, negativeTtlMillis, 1000);
+    }
+
+    @Autowired
+    public ProductSkuCache(ProductRepository productRepository,
+                           @Value("${inventory.product-cache.enabled:true}") boolean enabled,
+                           @Value("${inventory.product-cache.max-size:10000}") int maxSize,
+                           @Value("${inventory.product-cache.negative-max-size:10000}") int negativeMaxSize,
+                           @Value("${inventory.product-cache.negative-ttl-ms:30000}") long negativeTtlMillis,
+                           @Value("${inventory.product-cache.preload-page-size:1000}") int preloadPageSize) {
+        this.productRepository = productRepository;
+        this.enabled = enabled;
+        this.negativeTtlNanos = negativeTtlMillis * 1_000_000L;
+        this.maxSize = maxSize;
+        this.preloadPageSize = preloadPageSize;
+        this.productIds = boundedLru(maxSize, (sku, productId) -> skusById.remove(productId));
+        this.unknownSkus = boundedLru(negativeMaxSize, (sku, since) -> { });
+    }
+
+    /**
+     * Loads products in id order, a page at a time, until {@code max-size} SKUs are cached. The lock is held only
+     * while a page is stored, so lookups are served between pages; a page read while the cache changed is skipped
+     * rather than stored over the change, and its SKUs load on first lookup.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        if (!enabled) {
+            return;
+        }
+        int loaded = 0;
+        long afterId = 0L;
+        while (loaded < maxSize) {
+            long startVersion = version.get();
+            List<SkuId> page = productRepository.findIdsByIdGreaterThanOrderByIdAsc(afterId,
+                    PageRequest.ofSize(Math.min(preloadPageSize, maxSize - loaded)));
+            if (page.isEmpty()) {
+                break;
+            }
+            lock.lock();
+            try {
+                if (version.get() == startVersion) {
+                    page.forEach(product -> store(product.getSku(), product.getId()));
+                }
+            } finally {
+                lock.unlock();
+            }
+            loaded += page.size();
+            afterId = page.get(page.size() - 1).getId();
+        }
+        log.info("Product SKU cache loaded with {} products", size());
+    }
+
+    /**
+     * Product id for {@code sku}, or empty when no such product exists.
+     */
+    public Optional<Long> findProductId(String sku) {
+        if (!enabled) {
+            return productRepository.findBySku(sku).map(Product::getId);
+        }
+        long startVersion;
+        lock.lock();
+        try {
+            Long productId = productIds.get(sku);
+            if (productId != null) {
+                hits.increment();
+                return Optional.of(productId);
+            }
+            Long unknownSince = unknownSkus.get(sku);
+            if (unknownSince != null) {
+                if (System.nanoTime() - unknownSince <= negativeTtlNanos) {
+                    negativeHits.increment();
+                    return Optional.empty();
+                }
+                unknownSkus.remove(sku);
+            }
+            startVersion = version.get();
+        } finally {
+            lock.unlock();
+        }
+
+        misses.increment();
+        Optional<Long> productId = productRepository.findBySku(sku).map(Product::getId);
+        lock.lock();
+        try {
+            if (version.get() == startVersion) {
+                if (productId.isPresent()) {
+                    store(sku, productId.get());
+                } else {
+                    unknownSkus.put(sku, System.nanoTime());
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return productId;
+    }
+
+    /**
+     * Makes a saved product visible; deferred to after commit so a rollback never leaves a phantom id.
+     */
+    public void register(Product product) {
+        if (!enabled || product.getId() == null || product.getSku() == null) {
+            return;
+        }
+        afterCommit(() -> put(product.getSku(), product.getId()));
+    }
+
+    /**
+     * Forgets a deleted product once the delete has committed.
+     */
+    public void evict(Product product) {
+        if (!enabled || (product.getId() == null && product.getSku() == null)) {
+            return;
+        }
+        afterCommit(() -> remove(product.getId(), product.getSku()));
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return productIds.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getNegativeHits() {
+        return negativeHits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public double getHitRatio() {
+        long served = getHits() + getNegativeHits();
+        long total = served + getMisses();
+        return total == 0 ? 0.0 : (double) served / total;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("inventory.product.cache.requests", this, ProductSkuCache::getHits)
+                .tag("result", "hit").register(registry);
+        FunctionCounter.builder("inventory.product.cache.requests", this, ProductSkuCache::getNegativeHits)
+                .tag("result", "negative-hit").register(registry);
+        FunctionCounter.builder("inventory.product.cache.requests", this, ProductSkuCache::getMisses)
+                .tag("result", "miss").register(registry);
+        Gauge.builder("inventory.product.cache.hit.ratio", this, ProductSkuCache::getHitRatio)
+                .register(registry);
+    }
+
+    private void put(String sku, Long productId) {
+        lock.lock();
+        try {
+            version.incrementAndGet();
+            unknownSkus.remove(sku);
+            store(sku, productId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void remove(Long productId, String sku) {
+        lock.lock();
+        try {
+            version.incrementAndGet();
+            if (productId != null) {
+                String cachedSku = skusById.remove(productId);
+                if (cachedSku != null) {
+                    productIds.remove(cachedSku);
+                }
+            }
+            if (sku != null) {
+                Long cachedId = productIds.remove(sku);
+                if (cachedId != null) {
+                    skusById.remove(cachedId);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // caller holds the lock; drops the SKU the product was cached under before, if it changed
+    private void store(String sku, Long productId) {
+        String previousSku = skusById.put(productId, sku);
+        if (previousSku != null && !previousSku.equals(sku)) {
+            productIds.remove(previousSku);
+        }
+        Long previousId = productIds.put(sku, productId);
+        if (previousId != null && !previousId.equals(productId)) {
+            skusById.remove(previousId);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static <V> LinkedHashMap<String, V> boundedLru(int maxSize, BiConsumer<String, V> onEvict) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+                if (size() > maxSize) {
+                    onEvict.accept(eldest.getKey(), eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+}
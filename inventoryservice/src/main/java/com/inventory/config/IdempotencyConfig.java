@@ -0,0 +1,73 @@
+package com.inventory.config;
+
+import com.common.idempotency.IdempotencyFilter;
+import com.common.idempotency.IdempotencyRecord;
+import com.common.idempotency.IdempotencyRecordRepository;
+import com.common.idempotency.IdempotencyStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Idempotency keys for deductions sent to {@code inventory.idempotency.paths}, using the shared store and filter.
+ * The auto-configuration package entry lets JPA find {@link IdempotencyRecord} and its repository outside
+ * {@code com.inventory}.
+ */
+@Configuration
+@AutoConfigurationPackage(basePackageClasses = IdempotencyRecord.class)
+public class IdempotencyConfig {
+
+    @Bean
+    public IdempotencyStore idempotencyStore(IdempotencyRecordRepository repository,
+                                             @Value("${inventory.idempotency.persist:true}") boolean persist,
+                                             @Value("${inventory.idempotency.max-size:20000}") int maxSize,
+                                             @Value("${inventory.idempotency.ttl-ms:86400000}") long ttlMillis,
+                                             @Value("${inventory.idempotency.in-flight-timeout-ms:15000}") long inFlightTimeoutMillis) {
+        return new IdempotencyStore("inventory.idempotency", persist ? repository : null, maxSize, ttlMillis, inFlightTimeoutMillis);
+    }
+
+    @Bean
+    public IdempotencyFilter idempotencyFilter(IdempotencyStore idempotencyStore,
+                                               ObjectMapper objectMapper,
+                                               @Value("${inventory.idempotency.enabled:true}") boolean enabled,
+                                               @Value("${inventory.idempotency.paths:/inventory/update,/inventory/update/bulk,/inventory/allocate,/inventory/reservations}") Set<String> paths) {
+        // same shape as GlobalExceptionHandler
+        return new IdempotencyFilter(idempotencyStore, objectMapper, enabled, paths, (status, message, path) -> {
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("timestamp", Instant.now().toString());
+            body.put("status", status.value());
+            body.put("error", status.getReasonPhrase());
+            body.put("message", message);
+            body.put("path", path);
+            return body;
+        });
+    }
+
+    @Configuration
+    static class Schedule {
+
+        private final IdempotencyStore idempotencyStore;
+
+        Schedule(IdempotencyStore idempotencyStore) {
+            this.idempotencyStore = idempotencyStore;
+        }
+
+        @Scheduled(fixedDelayString = "${inventory.idempotency.flush-interval-ms:200}")
+        public void flush() {
+            idempotencyStore.flush();
+        }
+
+        @Scheduled(fixedDelayString = "${inventory.idempotency.purge-interval-ms:60000}")
+        public void purgeExpired() {
+            idempotencyStore.purgeExpired();
+        }
+    }
+}
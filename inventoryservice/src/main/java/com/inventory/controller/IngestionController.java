@@ -0,0 +1,67 @@
+package com.inventory.controller;
+
+import com.inventory.dto.IngestionResult;
+import com.inventory.dto.SnapshotImportResult;
+import com.inventory.ingest.BulkIngestionService;
+import com.inventory.ingest.SnapshotImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.InputStream;
+
+/**
+ * Bulk loads read straight from the request stream, as a JSON array or CSV with a header line, and snapshot imports
+ * as CSV or NDJSON. The answer counts written and rejected rows; it is a 400 only when the body could not be read
+ * to the end.
+ */
+@RestController
+@RequestMapping("/inventory")
+@Tag(name = "Ingestion", description = "Bulk product and batch loads")
+public class IngestionController {
+
+    private static final String TEXT_CSV_VALUE = "text/csv";
+    private static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType(TEXT_CSV_VALUE);
+
+    private final BulkIngestionService bulkIngestionService;
+    private final SnapshotImportService snapshotImportService;
+
+    public IngestionController(BulkIngestionService bulkIngestionService, SnapshotImportService snapshotImportService) {
+        this.bulkIngestionService = bulkIngestionService;
+        this.snapshotImportService = snapshotImportService;
+    }
+
+    @PostMapping(value = "/products/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, TEXT_CSV_VALUE})
+    @Operation(summary = "Create many products from a JSON array or CSV (sku,name)")
+    public ResponseEntity<IngestionResult> ingestProducts(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                          InputStream body) {
+        return respond(bulkIngestionService.ingestProducts(body, TEXT_CSV.isCompatibleWith(contentType)));
+    }
+
+    @PostMapping(value = "/batches/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, TEXT_CSV_VALUE})
+    @Operation(summary = "Create many batches by SKU from a JSON array or CSV (sku,batchNumber,quantity,expiryDate)")
+    public ResponseEntity<IngestionResult> ingestBatches(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                         InputStream body) {
+        return respond(bulkIngestionService.ingestBatches(body, TEXT_CSV.isCompatibleWith(contentType)));
+    }
+
+    @PostMapping(value = "/imports/snapshot", consumes = {TEXT_CSV_VALUE, APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Upsert products and batches from a full inventory snapshot (CSV or NDJSON)")
+    public ResponseEntity<SnapshotImportResult> importSnapshot(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                               InputStream body) {
+        SnapshotImportResult result = snapshotImportService.importSnapshot(body,
+                TEXT_CSV.isCompatibleWith(contentType) ? SnapshotImportService.Format.CSV : SnapshotImportService.Format.NDJSON);
+        return result.getError() == null ? ResponseEntity.ok(result) : ResponseEntity.badRequest().body(result);
+    }
+
+    private static ResponseEntity<IngestionResult> respond(IngestionResult result) {
+        return result.getError() == null ? ResponseEntity.ok(result) : ResponseEntity.badRequest().body(result);
+    }
+}
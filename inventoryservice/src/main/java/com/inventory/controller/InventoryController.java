@@ -1,7 +1,14 @@
 package com.inventory.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.inventory.dto.AllocateInventoryRequest;
+import com.inventory.dto.AllocationResponse;
+import com.inventory.dto.BatchQueryFilter;
 import com.inventory.dto.InventoryBatchDto;
+import com.inventory.dto.InventoryBatchPage;
 import com.inventory.dto.UpdateInventoryRequest;
+import com.inventory.dto.UpdateInventoryResult;
 import com.inventory.entity.InventoryBatch;
 import com.inventory.entity.Product;
 import com.inventory.mapper.InventoryBatchMapper;
@@ -10,11 +17,20 @@ import com.inventory.validation.BatchQueryValidator;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/inventory")
@@ -24,11 +40,21 @@ public class InventoryController {
     private final InventoryService inventoryService;
     private final BatchQueryValidator batchQueryValidator;
     private final InventoryBatchMapper inventoryBatchMapper;
+    private final ObjectWriter batchWriter;
+
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
 
     public InventoryController(InventoryService inventoryService, BatchQueryValidator batchQueryValidator, InventoryBatchMapper inventoryBatchMapper) {
+        this(inventoryService, batchQueryValidator, inventoryBatchMapper, new ObjectMapper().findAndRegisterModules());
+    }
+
+    @Autowired
+    public InventoryController(InventoryService inventoryService, BatchQueryValidator batchQueryValidator,
+                               InventoryBatchMapper inventoryBatchMapper, ObjectMapper objectMapper) {
         this.inventoryService = inventoryService;
         this.batchQueryValidator = batchQueryValidator;
         this.inventoryBatchMapper = inventoryBatchMapper;
+        this.batchWriter = objectMapper.writerFor(InventoryBatchDto.class);
     }
 
     @GetMapping("/{productId}")
@@ -49,13 +75,67 @@ public class InventoryController {
         return ResponseEntity.ok().build();
     }
 
+    @PostMapping("/update/bulk")
+    @Operation(summary = "Update inventory for many products in one call")
+    public ResponseEntity<List<UpdateInventoryResult>> updateInventoryBulk(
+            @RequestBody List<UpdateInventoryRequest> requests,
+            @Parameter(description = "Handler type") @RequestParam(name = "handlerType", defaultValue = "default") String handlerType,
+            @Parameter(description = "Roll back every line when one fails") @RequestParam(name = "atomic", defaultValue = "false") boolean atomic) {
+
+        if (atomic) {
+            inventoryService.updateInventoryAll(requests, handlerType);
+            List<UpdateInventoryResult> results = requests.stream()
+                    .map(r -> new UpdateInventoryResult(r.getSku(), true, null))
+                    .collect(Collectors.toList());
+            return ResponseEntity.ok(results);
+        }
+        return ResponseEntity.ok(inventoryService.updateInventoryBulk(requests, handlerType));
+    }
+
+    @PostMapping("/allocate")
+    @Operation(summary = "Allocate stock in expiry order and deduct it atomically")
+    public ResponseEntity<AllocationResponse> allocate(@RequestBody AllocateInventoryRequest request) {
+        AllocationResponse response = inventoryService.allocate(request);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/batches")
     @Operation(summary = "Get all inventory batches")
-    public ResponseEntity<List<InventoryBatchDto>> getAllBatches(@RequestParam(name = "sku", required = false) String sku) {
-        List<InventoryBatchDto> batches = batchQueryValidator.getBatchesForSkuOrAll(sku);
+    public ResponseEntity<List<InventoryBatchDto>> getAllBatches(
+            @RequestParam(name = "sku", required = false) String sku,
+            @Parameter(description = "With a SKU, return only non-empty, unexpired batches in FEFO order") @RequestParam(name = "available", defaultValue = "false") boolean available) {
+        List<InventoryBatchDto> batches = batchQueryValidator.getBatchesForSkuOrAll(sku, available);
         return ResponseEntity.ok(batches);
     }
 
+    @GetMapping("/batches/page")
+    @Operation(summary = "Get one keyset page of inventory batches ordered by id")
+    public ResponseEntity<InventoryBatchPage> getBatchPage(
+            @Parameter(description = "Return batches with an id greater than this") @RequestParam(name = "afterId", defaultValue = "0") Long afterId,
+            @Parameter(description = "Page size") @RequestParam(name = "size", defaultValue = "500") int size,
+            BatchQueryFilter filter) {
+        return ResponseEntity.ok(batchQueryValidator.getBatchPage(afterId, size, filter));
+    }
+
+    @GetMapping(value = "/batches/stream", produces = "application/x-ndjson")
+    @Operation(summary = "Stream every matching inventory batch as newline-delimited JSON")
+    public ResponseEntity<StreamingResponseBody> streamBatches(BatchQueryFilter filter) {
+        StreamingResponseBody body = outputStream -> {
+            OutputStream out = new BufferedOutputStream(outputStream);
+            inventoryService.streamBatches(filter, batch -> writeLine(out, batch));
+            out.flush();
+        };
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping("/batches/by-skus")
+    @Operation(summary = "Get inventory batches for several SKUs, keyed by SKU")
+    public ResponseEntity<Map<String, List<InventoryBatchDto>>> getBatchesBySkus(
+            @RequestParam(name = "skus") List<String> skus,
+            @Parameter(description = "Return only non-empty, unexpired batches in FEFO order") @RequestParam(name = "available", defaultValue = "false") boolean available) {
+        return ResponseEntity.ok(inventoryService.getBatchesBySkus(skus, available));
+    }
+
     @PostMapping("/product")
     @Operation(summary = "Create a new product")
     public ResponseEntity<Product> createProduct(@RequestBody Product product) {
@@ -72,4 +152,13 @@ public class InventoryController {
 
         return ResponseEntity.status(HttpStatus.CREATED).body(inventoryBatchDto);
     }
+
+    private void writeLine(OutputStream out, InventoryBatchDto batch) {
+        try {
+            out.write(batchWriter.writeValueAsBytes(batch));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
@@ -0,0 +1,43 @@
+package com.inventory.controller;
+
+import com.inventory.dto.ReservationResponse;
+import com.inventory.dto.ReserveInventoryRequest;
+import com.inventory.service.ReservationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/inventory/reservations")
+@Tag(name = "Reservations", description = "Two-phase stock holds with expiry")
+public class ReservationController {
+
+    private final ReservationService reservationService;
+
+    public ReservationController(ReservationService reservationService) {
+        this.reservationService = reservationService;
+    }
+
+    @PostMapping
+    @Operation(summary = "Hold stock in expiry order until it is confirmed, released or expires")
+    public ResponseEntity<ReservationResponse> reserve(@RequestBody ReserveInventoryRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(reservationService.reserve(request));
+    }
+
+    @PostMapping("/{reservationId}/confirm")
+    @Operation(summary = "Make a held reservation permanent")
+    public ResponseEntity<ReservationResponse> confirm(
+            @Parameter(description = "Reservation ID") @PathVariable String reservationId) {
+        return ResponseEntity.ok(reservationService.confirm(reservationId));
+    }
+
+    @PostMapping("/{reservationId}/release")
+    @Operation(summary = "Return a held reservation to stock")
+    public ResponseEntity<ReservationResponse> release(
+            @Parameter(description = "Reservation ID") @PathVariable String reservationId) {
+        return ResponseEntity.ok(reservationService.release(reservationId));
+    }
+}
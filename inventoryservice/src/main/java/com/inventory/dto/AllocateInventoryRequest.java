@@ -0,0 +1,17 @@
+package com.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AllocateInventoryRequest {
+    private String sku;
+    private Integer quantity;
+    // optional; batches expiring within this many days are skipped
+    private Integer minShelfLifeDays;
+}
@@ -0,0 +1,18 @@
+package com.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AllocationResponse {
+    private String sku;
+    // batches picked in expiry order; quantity is the amount deducted from each
+    private List<InventoryBatchDto> allocations;
+}
@@ -0,0 +1,23 @@
+package com.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * One batch of {@code POST /inventory/batches/bulk}, addressed by product SKU: a JSON array element, or a CSV line
+ * with columns {@code sku,batchNumber,quantity,expiryDate} (ISO date, may be empty).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchIngestRow {
+    private String sku;
+    private String batchNumber;
+    private Integer quantity;
+    private LocalDate expiryDate;
+}
@@ -0,0 +1,28 @@
+package com.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk ingestion. Rows are committed a chunk at a time, so {@code inserted} rows stay in even when
+ * {@code error} reports that the input could not be read to the end.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IngestionResult {
+    private long received;
+    private long inserted;
+    private long rejected;
+    // first rejections, as "row N: reason"
+    private List<String> rejections;
+    // why reading stopped early; null when the whole body was read
+    private String error;
+    private long elapsedMs;
+    private double rowsPerSecond;
+}
@@ -0,0 +1,21 @@
+package com.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One keyset page of batches ordered by id. Pass {@code nextAfterId} as {@code afterId} to fetch the next page;
+ * it is null on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryBatchPage {
+    private List<InventoryBatchDto> items;
+    private Long nextAfterId;
+}
@@ -0,0 +1,19 @@
+package com.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One product of {@code POST /inventory/products/bulk}: a JSON array element, or a CSV line with columns
+ * {@code sku,name}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductIngestRow {
+    private String sku;
+    private String name;
+}
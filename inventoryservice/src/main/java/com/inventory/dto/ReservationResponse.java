@@ -0,0 +1,23 @@
+package com.inventory.dto;
+
+import com.inventory.entity.ReservationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReservationResponse {
+    private String reservationId;
+    private String sku;
+    private ReservationStatus status;
+    private Instant expiresAt;
+    // batches held in expiry order; quantity is the amount held on each
+    private List<InventoryBatchDto> allocations;
+}
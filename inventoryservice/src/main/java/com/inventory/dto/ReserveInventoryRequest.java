@@ -0,0 +1,19 @@
+package com.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReserveInventoryRequest {
+    private String sku;
+    private Integer quantity;
+    // optional; batches expiring within this many days are skipped
+    private Integer minShelfLifeDays;
+    // optional; defaults to inventory.reservations.default-ttl-ms and is capped at max-ttl-ms
+    private Long ttlMillis;
+}
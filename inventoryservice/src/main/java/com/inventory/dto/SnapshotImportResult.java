@@ -0,0 +1,32 @@
+package com.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a snapshot import. Blocks are committed as they are applied, so the counts stand even when
+ * {@code error} reports that the file could not be read to the end.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SnapshotImportResult {
+    private long received;
+    // rows written; a later row for the same batch overwrites an earlier one
+    private long applied;
+    private long rejected;
+    private long productsCreated;
+    private long batchesInserted;
+    private long batchesUpdated;
+    // first rejections, as "row N: reason"
+    private List<String> rejections;
+    // why reading stopped early; null when the whole file was read
+    private String error;
+    private long elapsedMs;
+    private double rowsPerSecond;
+}
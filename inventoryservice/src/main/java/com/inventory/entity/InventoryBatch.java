@@ -7,11 +7,17 @@ import lombok.Data;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "inventory_batches")
+@Table(name = "inventory_batches", indexes = {
+        // one batch number per product; serves lookups and deductions by (product, batch number)
+        @Index(name = "ux_inventory_batches_product_batch_number", columnList = "product_id, batchNumber", unique = true),
+        // a product's batches in FEFO order without a sort
+        @Index(name = "ix_inventory_batches_product_expiry", columnList = "product_id, expiryDate, id")
+})
 @Data
 public class InventoryBatch {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventory_batches_seq")
+    @SequenceGenerator(name = "inventory_batches_seq", sequenceName = "inventory_batches_seq", allocationSize = 50)
     private Long id;
 
     private String batchNumber;
@@ -1,17 +1,21 @@
 package com.inventory.entity;
 
 import com.fasterxml.jackson.annotation.JsonManagedReference;
+import com.inventory.cache.ProductCacheListener;
 import jakarta.persistence.*;
 import lombok.Data;
 
 import java.util.List;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = @Index(name = "ux_products_sku", columnList = "sku", unique = true))
+@EntityListeners(ProductCacheListener.class)
 @Data
 public class Product {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // pooled sequence ids keep JDBC insert batching available (IDENTITY disables it)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", sequenceName = "products_seq", allocationSize = 50)
     private Long id;
 
     private String sku;
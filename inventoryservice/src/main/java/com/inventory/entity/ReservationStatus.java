@@ -0,0 +1,10 @@
+package com.inventory.entity;
+
+public enum ReservationStatus {
+    // stock is taken from the batches and waits for confirm or release
+    HELD,
+    CONFIRMED,
+    RELEASED,
+    // released by the sweeper once expiresAt passed
+    EXPIRED
+}
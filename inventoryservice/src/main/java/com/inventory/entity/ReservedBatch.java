@@ -0,0 +1,19 @@
+package com.inventory.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservedBatch {
+    @Column(name = "batch_id", nullable = false)
+    private Long batchId;
+
+    private String batchNumber;
+    private Integer quantity;
+}
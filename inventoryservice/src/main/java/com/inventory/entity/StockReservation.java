@@ -0,0 +1,44 @@
+package com.inventory.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.BatchSize;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+@Entity
+@Table(name = "stock_reservations", indexes = {
+        @Index(name = "ux_stock_reservations_reservation_id", columnList = "reservationId", unique = true),
+        // the sweeper reads held reservations in expiry order, so it never scans confirmed or released rows
+        @Index(name = "ix_stock_reservations_status_expires_at", columnList = "status, expiresAt")
+})
+@Data
+public class StockReservation {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_reservations_seq")
+    @SequenceGenerator(name = "stock_reservations_seq", sequenceName = "stock_reservations_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, length = 36)
+    private String reservationId;
+
+    private String sku;
+    private Integer quantity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ReservationStatus status;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    private Instant createdAt;
+
+    @ElementCollection(fetch = FetchType.LAZY)
+    // the sweeper loads the batches of a whole page of reservations in one select
+    @BatchSize(size = 100)
+    @CollectionTable(name = "stock_reservation_batches", joinColumns = @JoinColumn(name = "reservation_id"))
+    private List<ReservedBatch> batches = new ArrayList<>();
+}
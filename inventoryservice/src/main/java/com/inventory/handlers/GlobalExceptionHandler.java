@@ -1,6 +1,7 @@
 package com.inventory.handlers;
 
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -15,6 +16,8 @@ import java.util.Map;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    private static final String DATA_CONFLICT_MSG = "Request conflicts with existing data (duplicate SKU or batch number)";
+
     private Map<String, Object> buildBody(HttpStatus status, String message, String path) {
         Map<String, Object> body = new LinkedHashMap<>();
         body.put("timestamp", Instant.now().toString());
@@ -25,13 +28,28 @@ public class GlobalExceptionHandler {
         return body;
     }
 
-    @ExceptionHandler(ProductNotFoundException.class)
-    public ResponseEntity<Map<String, Object>> handleNotFound(ProductNotFoundException ex, HttpServletRequest request) {
+    @ExceptionHandler({ProductNotFoundException.class, ReservationNotFoundException.class})
+    public ResponseEntity<Map<String, Object>> handleNotFound(RuntimeException ex, HttpServletRequest request) {
         HttpStatus status = HttpStatus.NOT_FOUND;
         Map<String, Object> body = buildBody(status, ex.getMessage(), request.getRequestURI());
         return ResponseEntity.status(status).body(body);
     }
 
+    @ExceptionHandler({InsufficientInventoryException.class, ReservationStateException.class, ImportInProgressException.class})
+    public ResponseEntity<Map<String, Object>> handleConflict(RuntimeException ex, HttpServletRequest request) {
+        HttpStatus status = HttpStatus.CONFLICT;
+        Map<String, Object> body = buildBody(status, ex.getMessage(), request.getRequestURI());
+        return ResponseEntity.status(status).body(body);
+    }
+
+    // unique SKU or (product, batch number) constraint; the driver's message would expose the SQL
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<Map<String, Object>> handleDataIntegrityViolation(DataIntegrityViolationException ex, HttpServletRequest request) {
+        HttpStatus status = HttpStatus.CONFLICT;
+        Map<String, Object> body = buildBody(status, DATA_CONFLICT_MSG, request.getRequestURI());
+        return ResponseEntity.status(status).body(body);
+    }
+
     @ExceptionHandler({InvalidInventoryOperationException.class, MethodArgumentNotValidException.class, HttpMessageNotReadableException.class})
     public ResponseEntity<Map<String, Object>> handleBadRequest(Exception ex, HttpServletRequest request) {
         HttpStatus status = HttpStatus.BAD_REQUEST;
@@ -0,0 +1,8 @@
+package com.inventory.handlers;
+
+// Another snapshot import is still running; imports are applied one at a time
+public class ImportInProgressException extends RuntimeException {
+    public ImportInProgressException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.inventory.handlers;
+
+public class InsufficientInventoryException extends RuntimeException {
+    public InsufficientInventoryException(String message) {
+        super(message);
+    }
+}
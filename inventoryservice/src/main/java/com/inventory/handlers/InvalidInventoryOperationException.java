@@ -1,8 +1,30 @@
 package com.inventory.handlers;
 
 public class InvalidInventoryOperationException extends RuntimeException {
+
+    /**
+     * Why a deduction was refused; all reasons map to 400, the distinction is for metrics.
+     */
+    public enum Reason {
+        INVALID_REQUEST,
+        BATCH_NOT_FOUND,
+        INSUFFICIENT_QUANTITY,
+        // a guarded update matched no row although the batch looked sufficient when read
+        CONCURRENT_UPDATE
+    }
+
+    private final Reason reason;
+
     public InvalidInventoryOperationException(String message) {
+        this(message, Reason.INVALID_REQUEST);
+    }
+
+    public InvalidInventoryOperationException(String message, Reason reason) {
         super(message);
+        this.reason = reason;
     }
-}
 
+    public Reason getReason() {
+        return reason;
+    }
+}
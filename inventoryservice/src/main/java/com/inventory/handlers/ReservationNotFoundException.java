@@ -0,0 +1,7 @@
+package com.inventory.handlers;
+
+public class ReservationNotFoundException extends RuntimeException {
+    public ReservationNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.inventory.handlers;
+
+// The reservation already moved to a state the requested transition cannot start from
+public class ReservationStateException extends RuntimeException {
+    public ReservationStateException(String message) {
+        super(message);
+    }
+}
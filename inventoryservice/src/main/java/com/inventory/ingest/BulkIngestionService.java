@@ -0,0 +1,285 @@
+package com.inventory.ingest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.dto.BatchIngestRow;
+import com.inventory.dto.IngestionResult;
+import com.inventory.dto.ProductIngestRow;
+import com.inventory.entity.InventoryBatch;
+import com.inventory.entity.Product;
+import com.inventory.ingest.RowReader.Row;
+import com.inventory.ledger.StockLedger;
+import com.inventory.repository.InventoryBatchRepository;
+import com.inventory.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * Loads products and batches from feeds of any size. Rows are read one at a time and written a chunk at a time,
+ * one transaction per chunk: the SKUs and batch numbers of a chunk are checked with one query each, the inserts go
+ * out as JDBC batches with ids drawn from the pooled sequences, and the persistence context is flushed and cleared
+ * before the next chunk so it never holds more than {@code inventory.ingest.chunk-size} entities.
+ * <p>
+ * A row that is invalid, a duplicate, or already in the database is rejected on its own; the rest of its chunk
+ * still goes in. Committed chunks stay committed when a later chunk fails or the body turns out to be malformed.
+ */
+@Service
+public class BulkIngestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkIngestionService.class);
+
+    private static final String ERROR_DUPLICATE_SKU = "SKU '%s' appears more than once in this chunk";
+    private static final String ERROR_SKU_EXISTS = "SKU '%s' already exists";
+    private static final String ERROR_UNKNOWN_SKU = "Product with SKU '%s' not found";
+    private static final String ERROR_DUPLICATE_BATCH = "Batch '%s' of SKU '%s' appears more than once in this chunk";
+    private static final String ERROR_BATCH_EXISTS = "Batch '%s' already exists for SKU '%s'";
+    private static final String ERROR_CHUNK_FAILED = "chunk rolled back: %s";
+
+    private final ProductRepository productRepository;
+    private final InventoryBatchRepository inventoryBatchRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final StockLedger stockLedger;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final int maxReportedRejections;
+
+    public BulkIngestionService(ProductRepository productRepository,
+                                InventoryBatchRepository inventoryBatchRepository,
+                                EntityManager entityManager,
+                                TransactionTemplate transactionTemplate,
+                                StockLedger stockLedger,
+                                ObjectMapper objectMapper,
+                                @Value("${inventory.ingest.chunk-size:1000}") int chunkSize,
+                                @Value("${inventory.ingest.max-reported-rejections:100}") int maxReportedRejections) {
+        this.productRepository = productRepository;
+        this.inventoryBatchRepository = inventoryBatchRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.stockLedger = stockLedger;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+        this.maxReportedRejections = maxReportedRejections;
+    }
+
+    /**
+     * Products from a JSON array of {@link ProductIngestRow}, or CSV with columns {@code sku,name}.
+     */
+    public IngestionResult ingestProducts(InputStream body, boolean csv) {
+        return ingest("products", () -> csv
+                        ? RowReader.csv(body, values -> new ProductIngestRow(values.get("sku"), values.get("name")))
+                        : RowReader.json(objectMapper, body, ProductIngestRow.class),
+                this::writeProducts);
+    }
+
+    /**
+     * Batches from a JSON array of {@link BatchIngestRow}, or CSV with columns {@code sku,batchNumber,quantity,expiryDate}.
+     */
+    public IngestionResult ingestBatches(InputStream body, boolean csv) {
+        return ingest("batches", () -> csv
+                        ? RowReader.csv(body, BulkIngestionService::toBatchRow)
+                        : RowReader.json(objectMapper, body, BatchIngestRow.class),
+                this::writeBatches);
+    }
+
+    private <T> IngestionResult ingest(String kind, ReaderSource<T> source, ChunkWriter<T> writer) {
+        long start = System.nanoTime();
+        Tally tally = new Tally(maxReportedRejections);
+        String error = null;
+        try (RowReader<T> reader = source.open()) {
+            List<Row<T>> chunk = new ArrayList<>(chunkSize);
+            Row<T> row;
+            while ((row = reader.next()) != null) {
+                tally.received++;
+                if (row.error() != null) {
+                    tally.reject(row, row.error());
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    writer.write(chunk, tally);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                writer.write(chunk, tally);
+            }
+        } catch (IOException e) {
+            error = "Stopped after row " + tally.received + ": " + e.getMessage();
+        }
+
+        long elapsedNanos = Math.max(System.nanoTime() - start, 1);
+        double rowsPerSecond = tally.inserted * 1e9 / elapsedNanos;
+        log.info("Ingested {} {} of {} received ({} rejected) in {} ms, {} rows/s",
+                tally.inserted, kind, tally.received, tally.rejected, elapsedNanos / 1_000_000, Math.round(rowsPerSecond));
+        return IngestionResult.builder()
+                .received(tally.received)
+                .inserted(tally.inserted)
+                .rejected(tally.rejected)
+                .rejections(tally.rejections)
+                .error(error)
+                .elapsedMs(elapsedNanos / 1_000_000)
+                .rowsPerSecond(rowsPerSecond)
+                .build();
+    }
+
+    private void writeProducts(List<Row<ProductIngestRow>> chunk, Tally tally) {
+        Map<String, Row<ProductIngestRow>> candidates = new LinkedHashMap<>();
+        for (Row<ProductIngestRow> row : chunk) {
+            String sku = IngestRowValidator.trimToNull(row.value().getSku());
+            if (sku == null) {
+                tally.reject(row, IngestRowValidator.ERROR_SKU_REQUIRED);
+            } else if (candidates.putIfAbsent(sku, row) != null) {
+                tally.reject(row, String.format(ERROR_DUPLICATE_SKU, sku));
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (ProductRepository.SkuId existing : productRepository.findIdsBySkuIn(candidates.keySet())) {
+                    tally.reject(candidates.remove(existing.getSku()), String.format(ERROR_SKU_EXISTS, existing.getSku()));
+                }
+                candidates.forEach((sku, row) -> {
+                    Product product = new Product();
+                    product.setSku(sku);
+                    product.setName(row.value().getName());
+                    // ProductCacheListener adds the SKU to the product cache once the chunk commits
+                    entityManager.persist(product);
+                });
+                entityManager.flush();
+                entityManager.clear();
+            });
+            tally.inserted += candidates.size();
+        } catch (RuntimeException e) {
+            rejectChunk(candidates.values(), tally, e);
+        }
+    }
+
+    private void writeBatches(List<Row<BatchIngestRow>> chunk, Tally tally) {
+        List<Row<BatchIngestRow>> valid = new ArrayList<>(chunk.size());
+        for (Row<BatchIngestRow> row : chunk) {
+            String reason = IngestRowValidator.validateBatch(row.value());
+            if (reason != null) {
+                tally.reject(row, reason);
+            } else {
+                valid.add(row);
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+        Map<BatchKey, Row<BatchIngestRow>> candidates = new LinkedHashMap<>();
+        List<InventoryBatch> inserted = new ArrayList<>();
+        // rows rejected inside the transaction; if it fails, every other valid row is rejected with the chunk
+        Set<Row<BatchIngestRow>> settled = new HashSet<>();
+        BiConsumer<Row<BatchIngestRow>, String> refuse = (row, reason) -> {
+            tally.reject(row, reason);
+            settled.add(row);
+        };
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Set<String> skus = valid.stream().map(row -> row.value().getSku()).collect(Collectors.toSet());
+                Map<String, Long> productIds = productRepository.findIdsBySkuIn(skus).stream()
+                        .collect(Collectors.toMap(ProductRepository.SkuId::getSku, ProductRepository.SkuId::getId));
+                for (Row<BatchIngestRow> row : valid) {
+                    BatchIngestRow value = row.value();
+                    Long productId = productIds.get(value.getSku());
+                    if (productId == null) {
+                        refuse.accept(row, String.format(ERROR_UNKNOWN_SKU, value.getSku()));
+                    } else if (candidates.putIfAbsent(new BatchKey(productId, value.getBatchNumber()), row) != null) {
+                        refuse.accept(row, String.format(ERROR_DUPLICATE_BATCH, value.getBatchNumber(), value.getSku()));
+                    }
+                }
+                if (candidates.isEmpty()) {
+                    return;
+                }
+
+                // one query for the chunk; it matches products and numbers separately, so pairs are checked here
+                Set<Long> chunkProductIds = new HashSet<>();
+                Set<String> chunkBatchNumbers = new HashSet<>();
+                candidates.keySet().forEach(key -> {
+                    chunkProductIds.add(key.productId());
+                    chunkBatchNumbers.add(key.batchNumber());
+                });
+                for (InventoryBatchRepository.BatchNumberKey existing
+                        : inventoryBatchRepository.findBatchNumberKeys(chunkProductIds, chunkBatchNumbers)) {
+                    Row<BatchIngestRow> row = candidates.remove(new BatchKey(existing.getProductId(), existing.getBatchNumber()));
+                    if (row != null) {
+                        refuse.accept(row, String.format(ERROR_BATCH_EXISTS, existing.getBatchNumber(), row.value().getSku()));
+                    }
+                }
+
+                candidates.forEach((key, row) -> {
+                    InventoryBatch batch = new InventoryBatch();
+                    batch.setProduct(entityManager.getReference(Product.class, key.productId()));
+                    batch.setBatchNumber(key.batchNumber());
+                    batch.setQuantity(row.value().getQuantity());
+                    batch.setExpiryDate(row.value().getExpiryDate());
+                    entityManager.persist(batch);
+                    inserted.add(batch);
+                });
+                entityManager.flush();
+                entityManager.clear();
+            });
+        } catch (RuntimeException e) {
+            rejectChunk(valid.stream().filter(row -> !settled.contains(row)).toList(), tally, e);
+            return;
+        }
+        tally.inserted += inserted.size();
+        // the product reference only has to answer getId(), which it does detached
+        inserted.forEach(stockLedger::register);
+    }
+
+    static BatchIngestRow toBatchRow(Map<String, String> values) {
+        String quantity = values.get("quantity");
+        String expiryDate = values.get("expirydate");
+        return new BatchIngestRow(values.get("sku"), values.get("batchnumber"),
+                quantity == null ? null : Integer.valueOf(quantity),
+                expiryDate == null ? null : LocalDate.parse(expiryDate));
+    }
+
+    private static <T> void rejectChunk(Iterable<Row<T>> rows, Tally tally, RuntimeException e) {
+        String reason = String.format(ERROR_CHUNK_FAILED, NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+        log.warn("Bulk ingestion chunk failed: {}", reason);
+        rows.forEach(row -> tally.reject(row, reason));
+    }
+
+    @FunctionalInterface
+    private interface ReaderSource<T> {
+        RowReader<T> open() throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface ChunkWriter<T> {
+        void write(List<Row<T>> chunk, Tally tally);
+    }
+
+    private record BatchKey(Long productId, String batchNumber) {
+    }
+
+    private static final class Tally extends RowTally {
+        private long inserted;
+
+        private Tally(int maxReported) {
+            super(maxReported);
+        }
+    }
+}
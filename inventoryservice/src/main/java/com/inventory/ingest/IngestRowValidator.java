@@ -0,0 +1,38 @@
+package com.inventory.ingest;
+
+import com.inventory.dto.BatchIngestRow;
+
+/**
+ * Field checks shared by bulk ingestion and snapshot import. Blank SKUs and batch numbers count as missing.
+ */
+final class IngestRowValidator {
+
+    static final String ERROR_SKU_REQUIRED = "sku is required";
+    static final String ERROR_BATCH_NUMBER_REQUIRED = "batchNumber is required";
+    static final String ERROR_QUANTITY_REQUIRED = "quantity must be 0 or more";
+
+    private IngestRowValidator() {
+    }
+
+    /**
+     * Trims the SKU and batch number in place and returns why the row cannot be written, or null when it can.
+     */
+    static String validateBatch(BatchIngestRow row) {
+        row.setSku(trimToNull(row.getSku()));
+        row.setBatchNumber(trimToNull(row.getBatchNumber()));
+        if (row.getSku() == null) {
+            return ERROR_SKU_REQUIRED;
+        }
+        if (row.getBatchNumber() == null) {
+            return ERROR_BATCH_NUMBER_REQUIRED;
+        }
+        if (row.getQuantity() == null || row.getQuantity() < 0) {
+            return ERROR_QUANTITY_REQUIRED;
+        }
+        return null;
+    }
+
+    static String trimToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
@@ -0,0 +1,181 @@
+package com.inventory.ingest;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Reads ingestion rows one at a time from a request body, so a feed of any size never has to fit in memory.
+ * A row that cannot be converted (a bad number or date) comes back with an error and reading goes on; input that
+ * cannot be parsed any further (broken JSON, a missing CSV header) fails with an {@link IOException}.
+ */
+abstract class RowReader<T> implements Closeable {
+
+    record Row<T>(long number, T value, String error) {
+    }
+
+    /**
+     * The next row, numbered from 1, or null once the input is exhausted.
+     */
+    abstract Row<T> next() throws IOException;
+
+    /**
+     * Elements of a top-level JSON array.
+     */
+    static <T> RowReader<T> json(ObjectMapper objectMapper, InputStream in, Class<T> type) throws IOException {
+        return new JsonRowReader<>(objectMapper, in, type);
+    }
+
+    /**
+     * Lines of a CSV body whose first line names the columns (matched case-insensitively). Fields may be quoted
+     * with {@code "}, but a quoted field cannot span lines.
+     */
+    static <T> RowReader<T> csv(InputStream in, Function<Map<String, String>, T> mapper) throws IOException {
+        return new CsvRowReader<>(in, mapper);
+    }
+
+    private static final class JsonRowReader<T> extends RowReader<T> {
+        private final ObjectMapper objectMapper;
+        private final JsonParser parser;
+        private final Class<T> type;
+        private long number;
+
+        private JsonRowReader(ObjectMapper objectMapper, InputStream in, Class<T> type) throws IOException {
+            this.objectMapper = objectMapper;
+            this.parser = objectMapper.getFactory().createParser(in);
+            this.type = type;
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "Expected a JSON array of rows");
+            }
+        }
+
+        @Override
+        Row<T> next() throws IOException {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.END_ARRAY || token == null) {
+                return null;
+            }
+            if (token != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected a JSON object for row " + (number + 1));
+            }
+            // read the whole element first, so a field of the wrong type costs this row and not the rest
+            JsonNode node = objectMapper.readTree(parser);
+            number++;
+            try {
+                return new Row<>(number, objectMapper.treeToValue(node, type), null);
+            } catch (JsonProcessingException e) {
+                return new Row<>(number, null, e.getOriginalMessage());
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            parser.close();
+        }
+    }
+
+    private static final class CsvRowReader<T> extends RowReader<T> {
+        private final BufferedReader reader;
+        private final Function<Map<String, String>, T> mapper;
+        private final List<String> columns;
+        private long number;
+
+        private CsvRowReader(InputStream in, Function<Map<String, String>, T> mapper) throws IOException {
+            this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            this.mapper = mapper;
+            String header = reader.readLine();
+            if (header == null || header.isBlank()) {
+                throw new IOException("CSV body must start with a header line");
+            }
+            this.columns = csvColumns(header);
+        }
+
+        @Override
+        Row<T> next() throws IOException {
+            String line;
+            do {
+                line = reader.readLine();
+                if (line == null) {
+                    return null;
+                }
+            } while (line.isBlank());
+            number++;
+            try {
+                return new Row<>(number, mapper.apply(csvValues(columns, line)), null);
+            } catch (RuntimeException e) {
+                return new Row<>(number, null, e.getMessage());
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    /**
+     * Lower-cased column names from a CSV header line.
+     */
+    static List<String> csvColumns(String header) {
+        // a byte-order mark from spreadsheet exports would otherwise stick to the first column name
+        return split(header.replace("\uFEFF", "")).stream()
+                .map(column -> column.toLowerCase(Locale.ROOT))
+                .toList();
+    }
+
+    /**
+     * The fields of one CSV line by column name; empty fields map to null.
+     */
+    static Map<String, String> csvValues(List<String> columns, String line) {
+        List<String> fields = split(line);
+        Map<String, String> values = new HashMap<>();
+        for (int i = 0; i < columns.size() && i < fields.size(); i++) {
+            values.put(columns.get(i), fields.get(i).isEmpty() ? null : fields.get(i));
+        }
+        return values;
+    }
+
+    static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString().trim());
+        return fields;
+    }
+}
@@ -0,0 +1,28 @@
+package com.inventory.ingest;
+
+import com.inventory.ingest.RowReader.Row;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rows received and rejected by one ingestion or import; the first {@code maxReported} rejections keep their row
+ * number and reason for the response.
+ */
+class RowTally {
+    final List<String> rejections = new ArrayList<>();
+    long received;
+    long rejected;
+    private final int maxReported;
+
+    RowTally(int maxReported) {
+        this.maxReported = maxReported;
+    }
+
+    void reject(Row<?> row, String reason) {
+        rejected++;
+        if (rejections.size() < maxReported) {
+            rejections.add("row " + row.number() + ": " + reason);
+        }
+    }
+}
@@ -0,0 +1,352 @@
+package com.inventory.ingest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.dto.BatchIngestRow;
+import com.inventory.dto.SnapshotImportResult;
+import com.inventory.entity.InventoryBatch;
+import com.inventory.entity.Product;
+import com.inventory.handlers.ImportInProgressException;
+import com.inventory.ingest.RowReader.Row;
+import com.inventory.ledger.StockLedger;
+import com.inventory.mapper.InventoryBatchMapper;
+import com.inventory.repository.InventoryBatchRepository;
+import com.inventory.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Applies inventory snapshot files (SKU, batch number, quantity, expiry) as upserts: unknown SKUs become products,
+ * unknown batch numbers become batches, and existing batches take the quantity and expiry from the file.
+ * <p>
+ * The file is read line by line into blocks of {@code inventory.import.block-size} lines. Blocks are parsed on
+ * {@code inventory.import.parser-threads} workers while earlier blocks are written, and applied in file order, so a
+ * later row for the same batch wins. At most two blocks per parser are read ahead of the writer; when the database
+ * falls behind, reading stops until a block is applied. Memory use therefore depends on the block size, not on the
+ * file. Each block is one transaction: its SKUs and batches are looked up with one query each, rows are grouped by
+ * product, and inserts and updates go out as JDBC batches.
+ * <p>
+ * Batches missing from the file are left alone. With the stock ledger enabled, deductions it has accepted but not yet
+ * flushed for a batch are applied on top of the snapshot quantity. Progress is logged every {@code progress-interval-rows} rows and
+ * counted in {@code inventory.import.rows} (tagged by outcome); {@code inventory.import.active} is 1 while an import runs.
+ */
+@Service
+public class SnapshotImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotImportService.class);
+
+    private static final String ERROR_IMPORT_IN_PROGRESS = "Another snapshot import is in progress";
+    private static final String ERROR_BLOCK_FAILED = "block rolled back";
+
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    private final ProductRepository productRepository;
+    private final InventoryBatchRepository inventoryBatchRepository;
+    private final InventoryBatchMapper inventoryBatchMapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final StockLedger stockLedger;
+    private final ObjectMapper objectMapper;
+    private final int blockSize;
+    private final int readAhead;
+    private final long progressIntervalRows;
+    private final int maxReportedRejections;
+    private final ExecutorService parsers;
+    private final ReentrantLock importLock = new ReentrantLock();
+    private final AtomicInteger active = new AtomicInteger();
+    private final Counter appliedRows;
+    private final Counter rejectedRows;
+
+    public SnapshotImportService(ProductRepository productRepository,
+                                 InventoryBatchRepository inventoryBatchRepository,
+                                 InventoryBatchMapper inventoryBatchMapper,
+                                 EntityManager entityManager,
+                                 TransactionTemplate transactionTemplate,
+                                 StockLedger stockLedger,
+                                 ObjectMapper objectMapper,
+                                 MeterRegistry registry,
+                                 @Value("${inventory.import.block-size:1000}") int blockSize,
+                                 @Value("${inventory.import.parser-threads:2}") int parserThreads,
+                                 @Value("${inventory.import.progress-interval-rows:100000}") long progressIntervalRows,
+                                 @Value("${inventory.ingest.max-reported-rejections:100}") int maxReportedRejections) {
+        this.productRepository = productRepository;
+        this.inventoryBatchRepository = inventoryBatchRepository;
+        this.inventoryBatchMapper = inventoryBatchMapper;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.stockLedger = stockLedger;
+        this.objectMapper = objectMapper;
+        this.blockSize = blockSize;
+        this.readAhead = parserThreads * 2;
+        this.progressIntervalRows = progressIntervalRows;
+        this.maxReportedRejections = maxReportedRejections;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.parsers = Executors.newFixedThreadPool(parserThreads, runnable -> {
+            Thread thread = new Thread(runnable, "snapshot-parser-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.appliedRows = Counter.builder("inventory.import.rows").tag("outcome", "applied")
+                .description("Snapshot rows written").register(registry);
+        this.rejectedRows = Counter.builder("inventory.import.rows").tag("outcome", "rejected")
+                .description("Snapshot rows rejected").register(registry);
+        Gauge.builder("inventory.import.active", active, AtomicInteger::get)
+                .description("Snapshot imports running").register(registry);
+    }
+
+    /**
+     * Imports one snapshot, CSV with a header line naming {@code sku,batchNumber,quantity,expiryDate} or one JSON
+     * object per line. Only one import runs at a time; a second one fails with {@link ImportInProgressException}.
+     */
+    public SnapshotImportResult importSnapshot(InputStream body, Format format) {
+        if (!importLock.tryLock()) {
+            throw new ImportInProgressException(ERROR_IMPORT_IN_PROGRESS);
+        }
+        active.incrementAndGet();
+        try {
+            return run(body, format);
+        } finally {
+            active.decrementAndGet();
+            importLock.unlock();
+        }
+    }
+
+    private SnapshotImportResult run(InputStream body, Format format) {
+        long start = System.nanoTime();
+        Progress progress = new Progress(maxReportedRejections);
+        Deque<Future<List<Row<BatchIngestRow>>>> inFlight = new ArrayDeque<>();
+        String error = null;
+        long nextRow = 1;
+        try {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8), 1 << 16)) {
+                List<String> columns = format == Format.CSV ? readColumns(reader) : null;
+                List<String> lines = new ArrayList<>(blockSize);
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    lines.add(line);
+                    if (lines.size() == blockSize) {
+                        inFlight.add(submit(lines, nextRow, columns));
+                        nextRow += lines.size();
+                        lines = new ArrayList<>(blockSize);
+                        // back-pressure: stop reading until the writer catches up
+                        while (inFlight.size() >= readAhead) {
+                            apply(inFlight.poll(), progress, start);
+                        }
+                    }
+                }
+                if (!lines.isEmpty()) {
+                    inFlight.add(submit(lines, nextRow, columns));
+                }
+            } catch (IOException e) {
+                error = "Stopped after row " + (nextRow - 1) + ": " + e.getMessage();
+            }
+            // blocks read before an error are complete rows, so they are applied too
+            while (!inFlight.isEmpty()) {
+                apply(inFlight.poll(), progress, start);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            inFlight.forEach(future -> future.cancel(true));
+            error = "Interrupted after row " + progress.received;
+        }
+
+        long elapsedNanos = Math.max(System.nanoTime() - start, 1);
+        double rowsPerSecond = progress.received * 1e9 / elapsedNanos;
+        log.info("Snapshot import applied {} of {} rows ({} rejected; {} products created, {} batches inserted, {} updated) in {} ms, {} rows/s",
+                progress.applied, progress.received, progress.rejected, progress.productsCreated,
+                progress.batchesInserted, progress.batchesUpdated, elapsedNanos / 1_000_000, Math.round(rowsPerSecond));
+        return SnapshotImportResult.builder()
+                .received(progress.received)
+                .applied(progress.applied)
+                .rejected(progress.rejected)
+                .productsCreated(progress.productsCreated)
+                .batchesInserted(progress.batchesInserted)
+                .batchesUpdated(progress.batchesUpdated)
+                .rejections(progress.rejections)
+                .error(error)
+                .elapsedMs(elapsedNanos / 1_000_000)
+                .rowsPerSecond(rowsPerSecond)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        parsers.shutdownNow();
+    }
+
+    private static List<String> readColumns(BufferedReader reader) throws IOException {
+        String header = reader.readLine();
+        if (header == null || header.isBlank()) {
+            throw new IOException("CSV snapshot must start with a header line");
+        }
+        return RowReader.csvColumns(header);
+    }
+
+    private Future<List<Row<BatchIngestRow>>> submit(List<String> lines, long firstRow, List<String> columns) {
+        return parsers.submit(() -> {
+            List<Row<BatchIngestRow>> rows = new ArrayList<>(lines.size());
+            long number = firstRow;
+            for (String line : lines) {
+                rows.add(parse(number++, line, columns));
+            }
+            return rows;
+        });
+    }
+
+    private Row<BatchIngestRow> parse(long number, String line, List<String> columns) {
+        try {
+            BatchIngestRow row = columns != null
+                    ? BulkIngestionService.toBatchRow(RowReader.csvValues(columns, line))
+                    : objectMapper.readValue(line, BatchIngestRow.class);
+            return new Row<>(number, row, null);
+        } catch (JsonProcessingException e) {
+            return new Row<>(number, null, e.getOriginalMessage());
+        } catch (RuntimeException e) {
+            return new Row<>(number, null, e.getMessage());
+        }
+    }
+
+    private void apply(Future<List<Row<BatchIngestRow>>> block, Progress progress, long start) throws InterruptedException {
+        List<Row<BatchIngestRow>> rows;
+        try {
+            rows = block.get();
+        } catch (ExecutionException e) {
+            // parse() turns every row failure into a rejection, so this is a bug rather than bad input
+            throw new IllegalStateException("Snapshot block could not be parsed", e.getCause());
+        }
+        long receivedBefore = progress.received;
+        long rejectedBefore = progress.rejected;
+        progress.received += rows.size();
+
+        // grouped by SKU, then batch number; a later row for the same batch replaces an earlier one
+        Map<String, Map<String, Row<BatchIngestRow>>> bySku = new LinkedHashMap<>();
+        int valid = 0;
+        for (Row<BatchIngestRow> row : rows) {
+            String reason = row.error() != null ? row.error() : IngestRowValidator.validateBatch(row.value());
+            if (reason != null) {
+                progress.reject(row, reason);
+                continue;
+            }
+            bySku.computeIfAbsent(row.value().getSku(), sku -> new LinkedHashMap<>()).put(row.value().getBatchNumber(), row);
+            valid++;
+        }
+        if (!bySku.isEmpty()) {
+            upsert(bySku, valid, progress);
+        }
+        appliedRows.increment(progress.received - receivedBefore - (progress.rejected - rejectedBefore));
+        rejectedRows.increment(progress.rejected - rejectedBefore);
+
+        if (progress.received / progressIntervalRows > receivedBefore / progressIntervalRows) {
+            long elapsedMs = Math.max((System.nanoTime() - start) / 1_000_000, 1);
+            log.info("Snapshot import: {} rows read, {} applied, {} rejected, {} rows/s",
+                    progress.received, progress.applied, progress.rejected, progress.received * 1000 / elapsedMs);
+        }
+    }
+
+    private void upsert(Map<String, Map<String, Row<BatchIngestRow>>> bySku, int valid, Progress progress) {
+        List<InventoryBatch> written = new ArrayList<>();
+        int[] productsCreated = new int[1];
+        int[] batchesInserted = new int[1];
+        try {
+            // the snapshot replaces these rows; deductions the ledger has not flushed yet are applied on top of it
+            stockLedger.replaceBatches(() -> transactionTemplate.execute(status -> {
+                Map<String, Long> productIds = productRepository.findIdsBySkuIn(bySku.keySet()).stream()
+                        .collect(Collectors.toMap(ProductRepository.SkuId::getSku, ProductRepository.SkuId::getId));
+                for (String sku : bySku.keySet()) {
+                    if (!productIds.containsKey(sku)) {
+                        Product product = new Product();
+                        product.setSku(sku);
+                        product.setName(sku);
+                        // the sequence assigns the id here; the insert itself waits for the flush
+                        entityManager.persist(product);
+                        productIds.put(sku, product.getId());
+                        productsCreated[0]++;
+                    }
+                }
+
+                Set<String> batchNumbers = new HashSet<>();
+                bySku.values().forEach(batches -> batchNumbers.addAll(batches.keySet()));
+                Map<Long, Map<String, InventoryBatch>> existing = new LinkedHashMap<>();
+                for (InventoryBatch batch : inventoryBatchRepository.findByProductIdInAndBatchNumberIn(productIds.values(), batchNumbers)) {
+                    existing.computeIfAbsent(batch.getProduct().getId(), id -> new LinkedHashMap<>()).put(batch.getBatchNumber(), batch);
+                }
+
+                bySku.forEach((sku, batches) -> {
+                    Long productId = productIds.get(sku);
+                    Map<String, InventoryBatch> current = existing.getOrDefault(productId, Map.of());
+                    batches.forEach((batchNumber, row) -> {
+                        InventoryBatch batch = current.get(batchNumber);
+                        if (batch == null) {
+                            batch = new InventoryBatch();
+                            batch.setProduct(entityManager.getReference(Product.class, productId));
+                            inventoryBatchMapper.applyRow(row.value(), batch);
+                            entityManager.persist(batch);
+                            batchesInserted[0]++;
+                        } else {
+                            inventoryBatchMapper.applyRow(row.value(), batch);
+                        }
+                        written.add(batch);
+                    });
+                });
+                entityManager.flush();
+                entityManager.clear();
+                return written;
+            }));
+        } catch (RuntimeException e) {
+            log.warn("Snapshot import block rolled back", e);
+            bySku.values().forEach(batches -> batches.values().forEach(row -> progress.reject(row, ERROR_BLOCK_FAILED)));
+            // rows replaced by a later row of the same block went down with it
+            progress.rejected += valid - bySku.values().stream().mapToInt(Map::size).sum();
+            return;
+        }
+        progress.applied += valid;
+        progress.productsCreated += productsCreated[0];
+        progress.batchesInserted += batchesInserted[0];
+        progress.batchesUpdated += written.size() - batchesInserted[0];
+    }
+
+    private static final class Progress extends RowTally {
+        private long applied;
+        private long productsCreated;
+        private long batchesInserted;
+        private long batchesUpdated;
+
+        private Progress(int maxReported) {
+            super(maxReported);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.inventory.ledger;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ledger entry for one inventory batch.
+ * <p>
+ * {@code available} is what reservations draw from; {@code pending} accumulates deductions that have
+ * been accepted in memory but not yet written back to the database. {@code refusedFlushes} counts flushes in a row
+ * whose guarded update the table refused; it is only touched under the ledger's write-behind lock.
+ */
+class BatchStock {
+    private final Long batchId;
+    private final String batchNumber;
+    private final LocalDate expiryDate;
+    private final AtomicLong available;
+    private final AtomicLong pending = new AtomicLong();
+    private int refusedFlushes;
+
+    BatchStock(Long batchId, String batchNumber, LocalDate expiryDate, long available) {
+        this.batchId = batchId;
+        this.batchNumber = batchNumber;
+        this.expiryDate = expiryDate;
+        this.available = new AtomicLong(available);
+    }
+
+    Long getBatchId() {
+        return batchId;
+    }
+
+    String getBatchNumber() {
+        return batchNumber;
+    }
+
+    LocalDate getExpiryDate() {
+        return expiryDate;
+    }
+
+    long getAvailable() {
+        return available.get();
+    }
+
+    long getPending() {
+        return pending.get();
+    }
+
+    /**
+     * Lock-free check-and-decrement. Returns false without changing anything when stock is short.
+     */
+    boolean tryTake(int qty) {
+        while (true) {
+            long current = available.get();
+            if (current < qty) {
+                return false;
+            }
+            if (available.compareAndSet(current, current - qty)) {
+                pending.addAndGet(qty);
+                return true;
+            }
+        }
+    }
+
+    void giveBack(int qty) {
+        available.addAndGet(qty);
+        pending.addAndGet(-qty);
+    }
+
+    long drainPending() {
+        return pending.getAndSet(0);
+    }
+
+    void restorePending(long delta) {
+        pending.addAndGet(delta);
+    }
+
+    int recordRefusal() {
+        return ++refusedFlushes;
+    }
+
+    void clearRefusals() {
+        refusedFlushes = 0;
+    }
+
+    void resetAvailable(long persistedQuantity) {
+        available.set(persistedQuantity - pending.get());
+    }
+}
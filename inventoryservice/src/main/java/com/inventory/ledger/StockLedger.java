@@ -0,0 +1,464 @@
+package com.inventory.ledger;
+
+import com.inventory.dto.InventoryBatchDto;
+import com.inventory.entity.InventoryBatch;
+import com.inventory.handlers.InvalidInventoryOperationException;
+import com.inventory.handlers.InvalidInventoryOperationException.Reason;
+import com.inventory.repository.InventoryBatchRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Optional in-process stock ledger for hot SKUs.
+ * <p>
+ * Quantities live in per-batch atomic counters keyed by product id and batch number, so reads and
+ * reservations never touch the database. Accepted deductions are written back to
+ * {@link InventoryBatchRepository} in batches by {@link #flush()}, and {@link #reconcile()} periodically
+ * re-reads the table, a page at a time, to absorb changes made outside the ledger. The ledger is built before the
+ * server takes traffic.
+ * <p>
+ * Reservations take the read side of a per-product stripe lock (so they run in parallel); reconciliation
+ * takes the write side only for the stripe it is correcting.
+ * <p>
+ * Each product also keeps an allocation view: its unexpired batches in FEFO order, rebuilt when batches are
+ * registered or reconciled and by a daily expiry tick. Reads skip batches that deductions have emptied, so the
+ * view never ships empty or expired rows.
+ * <p>
+ * A deduction the ledger accepted is owed to the table until it is written: a guarded update that the table refuses
+ * is retried by later flushes, and after {@code inventory.ledger.max-refused-flushes} refusals it is dropped and
+ * counted in {@code inventory.ledger.oversold} (units), which should alert.
+ * <p>
+ * Enabled per deployment with {@code inventory.ledger.enabled=true}; when disabled every method is a no-op
+ * and callers fall back to the database paths.
+ */
+@Component
+public class StockLedger implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(StockLedger.class);
+
+    private static final String ERROR_PRODUCT_NOT_TRACKED = "No batches tracked for product id %d";
+    private static final String ERROR_BATCH_NOT_FOUND = "Batch '%s' not found for product id %d";
+    private static final String ERROR_INSUFFICIENT_QTY = "Insufficient qty in batch: %s";
+    private static final Comparator<BatchStock> FEFO = Comparator
+            .comparing(BatchStock::getExpiryDate, Comparator.nullsLast(Comparator.<LocalDate>naturalOrder()))
+            .thenComparing(BatchStock::getBatchId, Comparator.nullsLast(Comparator.<Long>naturalOrder()));
+
+    private final InventoryBatchRepository batchRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int pageSize;
+    private final int maxRefusedFlushes;
+    private final Counter oversold;
+    private final ReentrantReadWriteLock[] stripes;
+    private final Map<Long, Map<String, BatchStock>> products = new ConcurrentHashMap<>();
+    // per product, the batches not yet expired at the last rebuild, sorted FEFO; replaced whole under the stripe write lock
+    private final Map<Long, BatchStock[]> allocationViews = new ConcurrentHashMap<>();
+    // a j.u.c lock rather than synchronized so JDBC work inside it never pins a virtual thread
+    private final ReentrantLock writeBehindLock = new ReentrantLock();
+
+    public StockLedger(InventoryBatchRepository batchRepository,
+                       TransactionTemplate transactionTemplate,
+                       MeterRegistry registry,
+                       @Value("${inventory.ledger.enabled:false}") boolean enabled,
+                       @Value("${inventory.ledger.stripes:64}") int stripeCount,
+                       @Value("${inventory.ledger.page-size:1000}") int pageSize,
+                       @Value("${inventory.ledger.max-refused-flushes:50}") int maxRefusedFlushes) {
+        this.batchRepository = batchRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.pageSize = pageSize;
+        this.maxRefusedFlushes = maxRefusedFlushes;
+        this.oversold = Counter.builder("inventory.ledger.oversold")
+                .description("Units the ledger sold that the table could not cover and were dropped")
+                .baseUnit("units")
+                .register(registry);
+        this.stripes = new ReentrantReadWriteLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantReadWriteLock();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // runs once every singleton exists, before the web server starts, so no request sees a half-built ledger
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        writeBehindLock.lock();
+        try {
+            products.clear();
+            allocationViews.clear();
+            forEachPersistedPage(page -> page.forEach(batch -> withWriteLock(batch.getProductId(), () ->
+                    products.computeIfAbsent(batch.getProductId(), id -> new ConcurrentHashMap<>())
+                            .putIfAbsent(batch.getBatchNumber(), stockOf(batch)))));
+            LocalDate today = LocalDate.now();
+            for (Long productId : products.keySet()) {
+                withWriteLock(productId, () -> rebuildView(productId, today));
+            }
+            log.info("Stock ledger rebuilt with {} products", products.size());
+        } finally {
+            writeBehindLock.unlock();
+        }
+    }
+
+    /**
+     * Adds a batch, e.g. right after it was created, or replaces it with the quantity just written to the table.
+     * Deductions a replaced batch has not flushed yet carry over: they come off the new quantity and are flushed
+     * against the new row.
+     */
+    public void register(InventoryBatch batch) {
+        if (!enabled) {
+            return;
+        }
+        Long productId = batch.getProduct().getId();
+        // no flush holds deltas drained from the entry being replaced
+        writeBehindLock.lock();
+        try {
+            withWriteLock(productId, () -> {
+                Map<String, BatchStock> batches = products.computeIfAbsent(productId, id -> new ConcurrentHashMap<>());
+                BatchStock previous = batches.get(batch.getBatchNumber());
+                long pending = previous != null ? previous.getPending() : 0;
+                BatchStock stock = new BatchStock(batch.getId(), batch.getBatchNumber(), batch.getExpiryDate(),
+                        batch.getQuantity() - pending);
+                stock.restorePending(pending);
+                batches.put(batch.getBatchNumber(), stock);
+                rebuildView(productId, LocalDate.now());
+            });
+        } finally {
+            writeBehindLock.unlock();
+        }
+    }
+
+    /**
+     * Runs {@code write}, which changes batch rows in the table, with write-behind paused, then {@link #register
+     * registers} the batches it returns. No flush can land between the write and the register, so deductions still
+     * pending for those batches are applied to the new rows exactly once.
+     */
+    public void replaceBatches(Supplier<List<InventoryBatch>> write) {
+        writeBehindLock.lock();
+        try {
+            write.get().forEach(this::register);
+        } finally {
+            writeBehindLock.unlock();
+        }
+    }
+
+    /**
+     * Deducts every entry or none: when one batch is short, the batches already taken are given back.
+     */
+    public void reserve(Long productId, Map<String, Integer> batchQuantityToDeduct) {
+        Lock lock = stripeFor(productId).readLock();
+        lock.lock();
+        try {
+            Map<String, BatchStock> batches = products.get(productId);
+            if (batches == null) {
+                throw new InvalidInventoryOperationException(String.format(ERROR_PRODUCT_NOT_TRACKED, productId));
+            }
+            Map<BatchStock, Integer> taken = new LinkedHashMap<>();
+            for (Map.Entry<String, Integer> entry : batchQuantityToDeduct.entrySet()) {
+                BatchStock stock = batches.get(entry.getKey());
+                if (stock == null || !stock.tryTake(entry.getValue())) {
+                    taken.forEach(BatchStock::giveBack);
+                    throw stock == null
+                            ? new InvalidInventoryOperationException(String.format(ERROR_BATCH_NOT_FOUND, entry.getKey(), productId),
+                                    Reason.BATCH_NOT_FOUND)
+                            : new InvalidInventoryOperationException(String.format(ERROR_INSUFFICIENT_QTY, entry.getKey()),
+                                    Reason.INSUFFICIENT_QUANTITY);
+                }
+                taken.put(stock, entry.getValue());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gives back a deduction {@link #reserve} made. If it was flushed already, the negative pending delta puts the
+     * units back on the row at the next flush.
+     */
+    public void release(Long productId, Map<String, Integer> batchQuantityToDeduct) {
+        Lock lock = stripeFor(productId).readLock();
+        lock.lock();
+        try {
+            Map<String, BatchStock> batches = products.get(productId);
+            if (batches == null) {
+                return;
+            }
+            batchQuantityToDeduct.forEach((batchNumber, qty) -> {
+                BatchStock stock = batches.get(batchNumber);
+                if (stock != null) {
+                    stock.giveBack(qty);
+                }
+            });
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Current in-memory view of a product's batches ordered by expiry date.
+     */
+    public List<InventoryBatchDto> getBatches(Long productId) {
+        Map<String, BatchStock> batches = products.get(productId);
+        if (batches == null) {
+            return List.of();
+        }
+        return batches.values().stream()
+                .sorted(Comparator.comparing(BatchStock::getExpiryDate, Comparator.nullsLast(Comparator.naturalOrder())))
+                .map(stock -> InventoryBatchDto.builder()
+                        .id(stock.getBatchId())
+                        .batchNumber(stock.getBatchNumber())
+                        .quantity((int) stock.getAvailable())
+                        .expiryDate(stock.getExpiryDate())
+                        .productId(productId)
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Batches of a product that still have stock and do not expire before {@code minExpiry}, in FEFO order.
+     */
+    public List<InventoryBatchDto> getAvailableBatches(Long productId, LocalDate minExpiry) {
+        BatchStock[] view = allocationViews.get(productId);
+        if (view == null) {
+            return List.of();
+        }
+        List<InventoryBatchDto> result = new ArrayList<>();
+        for (int i = firstExpiringOnOrAfter(view, minExpiry); i < view.length; i++) {
+            long available = view[i].getAvailable();
+            if (available > 0) {
+                result.add(InventoryBatchDto.builder()
+                        .id(view[i].getBatchId())
+                        .batchNumber(view[i].getBatchNumber())
+                        .quantity((int) available)
+                        .expiryDate(view[i].getExpiryDate())
+                        .productId(productId)
+                        .build());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Daily expiry tick: drops batches that expired yesterday from every allocation view.
+     */
+    @Scheduled(cron = "${inventory.ledger.expiry-cron:0 0 0 * * *}")
+    public void expireBatches() {
+        if (!enabled) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        for (Long productId : new ArrayList<>(products.keySet())) {
+            withWriteLock(productId, () -> rebuildView(productId, today));
+        }
+        log.info("Stock ledger allocation views rebuilt for {}", today);
+    }
+
+    /**
+     * Write-behind: drains pending deltas and applies them as one JDBC batch in one transaction, so a failure rolls
+     * every row back and restoring all the deltas retries each exactly once. Each update is guarded by
+     * {@code quantity >= delta}: paths that write the table directly may have taken the stock since the last
+     * reconcile, and the row is then left as it is rather than driven negative. A refused delta goes back to pending
+     * and is retried until it applies or has been refused {@code max-refused-flushes} times in a row.
+     */
+    @Scheduled(fixedDelayString = "${inventory.ledger.flush-interval-ms:200}")
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+        writeBehindLock.lock();
+        try {
+            Map<BatchStock, Long> drained = new HashMap<>();
+            products.values().forEach(batches -> batches.values().forEach(stock -> {
+                long delta = stock.drainPending();
+                if (delta != 0) {
+                    drained.put(stock, delta);
+                }
+            }));
+            if (drained.isEmpty()) {
+                return;
+            }
+            Map<Long, Integer> batchIdToDelta = new HashMap<>();
+            Map<Long, BatchStock> byBatchId = new HashMap<>();
+            drained.forEach((stock, delta) -> {
+                batchIdToDelta.put(stock.getBatchId(), Math.toIntExact(delta));
+                byBatchId.put(stock.getBatchId(), stock);
+            });
+            Map<Long, Integer> updated;
+            try {
+                updated = transactionTemplate.execute(status -> batchRepository.deductQuantities(batchIdToDelta));
+            } catch (RuntimeException e) {
+                drained.forEach(BatchStock::restorePending);
+                log.warn("Stock ledger flush of {} batches failed, will retry", drained.size(), e);
+                return;
+            }
+            updated.forEach((batchId, count) -> {
+                BatchStock stock = byBatchId.get(batchId);
+                if (count != 0) {
+                    stock.clearRefusals();
+                    return;
+                }
+                long delta = drained.get(stock);
+                if (stock.recordRefusal() < maxRefusedFlushes) {
+                    stock.restorePending(delta);
+                    return;
+                }
+                stock.clearRefusals();
+                oversold.increment(delta);
+                log.error("Stock ledger dropped {} units deducted from batch {}: the table refused them {} times "
+                        + "and holds less stock than the ledger sold", delta, batchId, maxRefusedFlushes);
+            });
+        } finally {
+            writeBehindLock.unlock();
+        }
+    }
+
+    /**
+     * Flushes, re-reads the table page by page and corrects each product's counters to the persisted quantity minus
+     * whatever was reserved since the flush. New batches are picked up and deleted ones dropped.
+     */
+    @Scheduled(fixedDelayString = "${inventory.ledger.reconcile-interval-ms:60000}",
+            initialDelayString = "${inventory.ledger.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        if (!enabled) {
+            return;
+        }
+        writeBehindLock.lock();
+        try {
+            flush();
+            Map<Long, Set<String>> persisted = new HashMap<>();
+            forEachPersistedPage(page -> page.stream()
+                    .collect(Collectors.groupingBy(InventoryBatchDto::getProductId, LinkedHashMap::new, Collectors.toList()))
+                    .forEach((productId, batches) -> withWriteLock(productId, () -> {
+                        Map<String, BatchStock> tracked = products.computeIfAbsent(productId, id -> new ConcurrentHashMap<>());
+                        Set<String> seen = persisted.computeIfAbsent(productId, id -> new HashSet<>());
+                        for (InventoryBatchDto batch : batches) {
+                            if (!seen.add(batch.getBatchNumber())) {
+                                continue;
+                            }
+                            BatchStock stock = tracked.get(batch.getBatchNumber());
+                            if (stock == null) {
+                                tracked.put(batch.getBatchNumber(), stockOf(batch));
+                            } else {
+                                stock.resetAvailable(batch.getQuantity());
+                            }
+                        }
+                    })));
+
+            LocalDate today = LocalDate.now();
+            for (Long productId : new ArrayList<>(products.keySet())) {
+                Set<String> seen = persisted.get(productId);
+                withWriteLock(productId, () -> {
+                    if (seen == null) {
+                        products.remove(productId);
+                        allocationViews.remove(productId);
+                        return;
+                    }
+                    products.get(productId).keySet().retainAll(seen);
+                    rebuildView(productId, today);
+                });
+            }
+        } finally {
+            writeBehindLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    // keyset pages in id order, page-size rows each, so the table is never loaded in one result
+    private void forEachPersistedPage(Consumer<List<InventoryBatchDto>> action) {
+        long afterId = 0L;
+        List<InventoryBatchDto> page;
+        do {
+            page = batchRepository.findBatchPage(afterId, null, null, null, null, PageRequest.ofSize(pageSize));
+            if (!page.isEmpty()) {
+                action.accept(page);
+                afterId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == pageSize);
+    }
+
+    private static BatchStock stockOf(InventoryBatchDto batch) {
+        return new BatchStock(batch.getId(), batch.getBatchNumber(), batch.getExpiryDate(), batch.getQuantity());
+    }
+
+    // callers hold the product's stripe write lock
+    private void rebuildView(Long productId, LocalDate today) {
+        Map<String, BatchStock> batches = products.get(productId);
+        if (batches == null) {
+            allocationViews.remove(productId);
+            return;
+        }
+        allocationViews.put(productId, batches.values().stream()
+                .filter(stock -> stock.getExpiryDate() == null || !stock.getExpiryDate().isBefore(today))
+                .sorted(FEFO)
+                .toArray(BatchStock[]::new));
+    }
+
+    // binary search over the FEFO order; batches without an expiry date sort last and always qualify
+    private static int firstExpiringOnOrAfter(BatchStock[] view, LocalDate minExpiry) {
+        int low = 0;
+        int high = view.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            LocalDate expiry = view[mid].getExpiryDate();
+            if (expiry != null && expiry.isBefore(minExpiry)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void withWriteLock(Long productId, Runnable action) {
+        Lock lock = stripeFor(productId).writeLock();
+        lock.lock();
+        try {
+            action.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReentrantReadWriteLock stripeFor(Long productId) {
+        return stripes[Math.floorMod(productId.hashCode(), stripes.length)];
+    }
+}
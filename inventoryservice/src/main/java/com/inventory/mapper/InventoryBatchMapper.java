@@ -1,5 +1,6 @@
 package com.inventory.mapper;
 
+import com.inventory.dto.BatchIngestRow;
 import com.inventory.dto.InventoryBatchDto;
 import com.inventory.entity.InventoryBatch;
 import org.springframework.stereotype.Component;
@@ -28,5 +29,16 @@ public class InventoryBatchMapper {
         inventoryBatchDto.setProductId(inventoryBatch.getProduct() != null ? inventoryBatch.getProduct().getId() : null);
         return inventoryBatchDto;
     }
-}
 
+    /**
+     * Writes the stock a row reports (quantity and expiry) onto a new or existing batch of the row's product.
+     */
+    public void applyRow(BatchIngestRow row, InventoryBatch inventoryBatch) {
+        if (row == null || inventoryBatch == null) {
+            throw new IllegalArgumentException(NULL_BATCH_ERROR);
+        }
+        inventoryBatch.setBatchNumber(row.getBatchNumber());
+        inventoryBatch.setQuantity(row.getQuantity());
+        inventoryBatch.setExpiryDate(row.getExpiryDate());
+    }
+}
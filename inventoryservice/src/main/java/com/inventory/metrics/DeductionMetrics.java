@@ -0,0 +1,185 @@
+package com.inventory.metrics;
+
+import com.inventory.dto.UpdateInventoryRequest;
+import com.inventory.handlers.InvalidInventoryOperationException;
+import com.inventory.handlers.ProductNotFoundException;
+import com.inventory.metrics.DeductionScope.Deduction;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures calls to {@code BaseInventoryValidator.updateInventory}, tagged by validator type.
+ * <ul>
+ *   <li>{@code inventory.deduction{validator,outcome}}: from the call until its transaction completed, so the
+ *   flush and commit of the JPA validators are included</li>
+ *   <li>{@code inventory.deduction.statements}, {@code inventory.deduction.db{kind=read|write}} and
+ *   {@code inventory.deduction.rows{kind=read|written}}: JDBC statements, time and rows per request, as seen by
+ *   {@link ProbingDataSource}; time spent waiting for row locks shows up as write time</li>
+ *   <li>{@code inventory.deduction.conflicts{kind}}: lock timeouts, deadlocks and guarded updates that lost a race</li>
+ * </ul>
+ * Deductions slower than {@code inventory.deduction-metrics.slow-threshold-ms} are logged with their SKU and
+ * batch count. When several deductions share a transaction (the atomic bulk update), the JDBC figures of the
+ * transaction are split evenly between them.
+ */
+@Component
+public class DeductionMetrics {
+
+    private static final Logger log = LoggerFactory.getLogger(DeductionMetrics.class);
+
+    private static final String OUTCOME_SUCCESS = "success";
+    private static final String OUTCOME_ROLLED_BACK = "rolled_back";
+    private static final String OUTCOME_PRODUCT_NOT_FOUND = "product_not_found";
+    private static final String OUTCOME_CONFLICT = "conflict";
+    private static final String OUTCOME_ERROR = "error";
+
+    private final MeterRegistry registry;
+    private final boolean enabled;
+    private final long slowThresholdNanos;
+
+    public DeductionMetrics(MeterRegistry registry,
+                            @Value("${inventory.deduction-metrics.enabled:true}") boolean enabled,
+                            @Value("${inventory.deduction-metrics.slow-threshold-ms:200}") long slowThresholdMillis) {
+        this.registry = registry;
+        this.enabled = enabled;
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void record(String validatorType, UpdateInventoryRequest request, Runnable deduction) {
+        DeductionScope scope = DeductionScope.current();
+        boolean owner = scope == null;
+        if (owner) {
+            scope = DeductionScope.open();
+        }
+        Deduction current = new Deduction(validatorType,
+                request != null ? request.getSku() : null,
+                request != null && request.getBatchQuantityToDeduct() != null ? request.getBatchQuantityToDeduct().size() : 0,
+                System.nanoTime());
+        scope.deductions.add(current);
+        boolean failed = false;
+        try {
+            deduction.run();
+        } catch (RuntimeException e) {
+            failed = true;
+            current.outcome = outcome(e, scope);
+            throw e;
+        } finally {
+            if (owner) {
+                finishWith(scope, failed);
+            }
+        }
+    }
+
+    private void finishWith(DeductionScope scope, boolean failed) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // an enclosing transaction flushes and commits after we return; measure until it completes
+            DeductionScope pending = scope;
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    complete(pending, status == STATUS_COMMITTED);
+                }
+            });
+        } else {
+            complete(scope, !failed);
+        }
+    }
+
+    private void complete(DeductionScope scope, boolean committed) {
+        scope.close();
+        long end = System.nanoTime();
+        int requests = scope.deductions.size();
+        if (requests == 0) {
+            return;
+        }
+        String validatorType = scope.deductions.get(0).validatorType;
+        conflicts(validatorType, "lock_timeout", scope.lockTimeouts);
+        conflicts(validatorType, "deadlock", scope.deadlocks);
+
+        double statements = (double) scope.statements / requests;
+        long readNanos = scope.readNanos / requests;
+        long writeNanos = scope.writeNanos / requests;
+        double rowsRead = (double) scope.rowsRead / requests;
+        double rowsWritten = (double) scope.rowsWritten / requests;
+        for (Deduction deduction : scope.deductions) {
+            String outcome = deduction.outcome != null ? deduction.outcome
+                    : committed ? OUTCOME_SUCCESS
+                    : scope.sawLockConflict() ? OUTCOME_CONFLICT : OUTCOME_ROLLED_BACK;
+            if (outcome.equals("concurrent_update")) {
+                conflicts(deduction.validatorType, outcome, 1);
+            }
+            long elapsed = end - deduction.startNanos;
+            Timer.builder("inventory.deduction")
+                    .description("Deduction time until its transaction completed")
+                    .tag("validator", deduction.validatorType)
+                    .tag("outcome", outcome)
+                    .register(registry)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+            summary("inventory.deduction.statements", deduction.validatorType, null, statements);
+            summary("inventory.deduction.rows", deduction.validatorType, "read", rowsRead);
+            summary("inventory.deduction.rows", deduction.validatorType, "written", rowsWritten);
+            dbTimer(deduction.validatorType, "read").record(readNanos, TimeUnit.NANOSECONDS);
+            dbTimer(deduction.validatorType, "write").record(writeNanos, TimeUnit.NANOSECONDS);
+
+            if (elapsed >= slowThresholdNanos) {
+                log.warn("Slow deduction: validator={}, sku={}, batches={}, outcome={}, took {} ms, "
+                                + "{} statements, db read {} ms / write {} ms, rows read {} / written {}",
+                        deduction.validatorType, deduction.sku, deduction.batchCount, outcome,
+                        TimeUnit.NANOSECONDS.toMillis(elapsed), scope.statements,
+                        TimeUnit.NANOSECONDS.toMillis(scope.readNanos), TimeUnit.NANOSECONDS.toMillis(scope.writeNanos),
+                        scope.rowsRead, scope.rowsWritten);
+            }
+        }
+    }
+
+    private static String outcome(RuntimeException e, DeductionScope scope) {
+        if (e instanceof InvalidInventoryOperationException invalid) {
+            return invalid.getReason().name().toLowerCase(Locale.ROOT);
+        }
+        if (e instanceof ProductNotFoundException) {
+            return OUTCOME_PRODUCT_NOT_FOUND;
+        }
+        return scope.sawLockConflict() ? OUTCOME_CONFLICT : OUTCOME_ERROR;
+    }
+
+    private void conflicts(String validatorType, String kind, int count) {
+        if (count > 0) {
+            Counter.builder("inventory.deduction.conflicts")
+                    .description("Deductions that hit a lock timeout, a deadlock or a concurrent update")
+                    .tag("validator", validatorType)
+                    .tag("kind", kind)
+                    .register(registry)
+                    .increment(count);
+        }
+    }
+
+    private void summary(String name, String validatorType, String kind, double amount) {
+        DistributionSummary.Builder builder = DistributionSummary.builder(name).tag("validator", validatorType);
+        if (kind != null) {
+            builder.tag("kind", kind);
+        }
+        builder.register(registry).record(amount);
+    }
+
+    private Timer dbTimer(String validatorType, String kind) {
+        return Timer.builder("inventory.deduction.db")
+                .description("JDBC execution time per deduction")
+                .tag("validator", validatorType)
+                .tag("kind", kind)
+                .register(registry);
+    }
+}
@@ -0,0 +1,86 @@
+package com.inventory.metrics;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC activity of one deduction, or of several deductions sharing a transaction, collected on the calling thread.
+ * {@link ProbingDataSource} adds to the scope bound to the current thread; {@link DeductionMetrics} opens and
+ * closes it. Only the owning thread touches the counters, so they are plain fields.
+ */
+final class DeductionScope {
+
+    private static final ThreadLocal<DeductionScope> CURRENT = new ThreadLocal<>();
+
+    // SQLSTATEs for lock timeouts (H2 HYT00, PostgreSQL 55P03) and deadlocks / serialization failures
+    private static final List<String> LOCK_TIMEOUT_STATES = List.of("HYT00", "55P03");
+    private static final List<String> DEADLOCK_STATES = List.of("40001", "40P01");
+
+    final List<Deduction> deductions = new ArrayList<>();
+    long statements;
+    long readNanos;
+    long writeNanos;
+    long rowsRead;
+    long rowsWritten;
+    int lockTimeouts;
+    int deadlocks;
+
+    static DeductionScope current() {
+        return CURRENT.get();
+    }
+
+    static DeductionScope open() {
+        DeductionScope scope = new DeductionScope();
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    void close() {
+        CURRENT.remove();
+    }
+
+    void statementExecuted(boolean write, long nanos) {
+        statements++;
+        if (write) {
+            writeNanos += nanos;
+        } else {
+            readNanos += nanos;
+        }
+    }
+
+    void statementFailed(SQLException e) {
+        for (SQLException next = e; next != null; next = next.getNextException()) {
+            if (LOCK_TIMEOUT_STATES.contains(next.getSQLState())) {
+                lockTimeouts++;
+                return;
+            }
+            if (DEADLOCK_STATES.contains(next.getSQLState())) {
+                deadlocks++;
+                return;
+            }
+        }
+    }
+
+    boolean sawLockConflict() {
+        return lockTimeouts > 0 || deadlocks > 0;
+    }
+
+    /**
+     * One validator call inside the scope; {@code outcome} is set when the call itself failed.
+     */
+    static final class Deduction {
+        final String validatorType;
+        final String sku;
+        final int batchCount;
+        final long startNanos;
+        String outcome;
+
+        Deduction(String validatorType, String sku, int batchCount, long startNanos) {
+            this.validatorType = validatorType;
+            this.sku = sku;
+            this.batchCount = batchCount;
+            this.startNanos = startNanos;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.inventory.metrics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+
+/**
+ * DataSource wrapper that reports statement counts, execution time and rows read/written to the
+ * {@link DeductionScope} of the current thread. Statements prepared while no scope is open are returned
+ * unwrapped, so reads outside the deduction path only pay for one thread-local lookup per statement.
+ */
+class ProbingDataSource extends DelegatingDataSource {
+
+    ProbingDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return probe(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return probe(super.getConnection(username, password));
+    }
+
+    private static Connection probe(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(ProbingDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(connection));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static boolean isWrite(String sql) {
+        return sql == null || !sql.stripLeading().toLowerCase(Locale.ROOT).startsWith("select");
+    }
+
+    private record ConnectionHandler(Connection target) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = ProbingDataSource.invoke(target, method, args);
+            if (DeductionScope.current() == null) {
+                return result;
+            }
+            String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+            return switch (method.getName()) {
+                case "prepareStatement" -> statement(PreparedStatement.class, result, sql);
+                case "prepareCall" -> statement(CallableStatement.class, result, sql);
+                case "createStatement" -> statement(Statement.class, result, null);
+                default -> result;
+            };
+        }
+
+        private static Object statement(Class<?> type, Object statement, String sql) {
+            return Proxy.newProxyInstance(ProbingDataSource.class.getClassLoader(),
+                    new Class<?>[]{type}, new StatementHandler(statement, sql));
+        }
+    }
+
+    private record StatementHandler(Object target, String preparedSql) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            DeductionScope scope = DeductionScope.current();
+            if (scope == null || !method.getName().startsWith("execute")) {
+                return ProbingDataSource.invoke(target, method, args);
+            }
+            String sql = preparedSql != null ? preparedSql
+                    : args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = ProbingDataSource.invoke(target, method, args);
+            } catch (SQLException e) {
+                scope.statementFailed(e);
+                throw e;
+            } finally {
+                scope.statementExecuted(isWrite(sql), System.nanoTime() - start);
+            }
+            if (result instanceof Integer count && count > 0) {
+                scope.rowsWritten += count;
+            } else if (result instanceof Long count && count > 0) {
+                scope.rowsWritten += count;
+            } else if (result instanceof int[] counts) {
+                for (int count : counts) {
+                    scope.rowsWritten += Math.max(count, 0);
+                }
+            } else if (result instanceof ResultSet resultSet) {
+                return Proxy.newProxyInstance(ProbingDataSource.class.getClassLoader(),
+                        new Class<?>[]{ResultSet.class}, new ResultSetHandler(resultSet, scope));
+            }
+            return result;
+        }
+    }
+
+    private record ResultSetHandler(ResultSet target, DeductionScope scope) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = ProbingDataSource.invoke(target, method, args);
+            if (Boolean.TRUE.equals(result) && method.getName().equals("next")) {
+                scope.rowsRead++;
+            }
+            return result;
+        }
+    }
+}
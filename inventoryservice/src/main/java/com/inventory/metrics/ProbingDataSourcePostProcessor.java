@@ -0,0 +1,24 @@
+package com.inventory.metrics;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application's DataSource in a {@link ProbingDataSource} so JPA and JdbcTemplate statements on the
+ * deduction path are measured alike.
+ */
+@Component
+@ConditionalOnProperty(name = "inventory.deduction-metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class ProbingDataSourcePostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof ProbingDataSource)) {
+            return new ProbingDataSource(dataSource);
+        }
+        return bean;
+    }
+}
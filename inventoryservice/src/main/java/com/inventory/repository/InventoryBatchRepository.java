@@ -1,14 +1,121 @@
 package com.inventory.repository;
 
+import com.inventory.dto.InventoryBatchDto;
 import com.inventory.entity.InventoryBatch;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
-public interface InventoryBatchRepository extends JpaRepository<InventoryBatch, Long> {
+public interface InventoryBatchRepository extends JpaRepository<InventoryBatch, Long>, InventoryBatchRepositoryCustom {
+
+    // DTO constructor projection: product_id is read from the FK column and no managed entity or snapshot is created
+    String BATCH_DTO = "select new com.inventory.dto.InventoryBatchDto(b.id, b.batchNumber, b.quantity, b.expiryDate, b.product.id) ";
+
+    // Projection in id order with optional product-id and expiry bounds
+    String FILTERED_BATCHES = BATCH_DTO +
+            "from InventoryBatch b where b.id > :afterId " +
+            "and (:productIdFrom is null or b.product.id >= :productIdFrom) " +
+            "and (:productIdTo is null or b.product.id <= :productIdTo) " +
+            "and (:expiryFrom is null or b.expiryDate >= :expiryFrom) " +
+            "and (:expiryTo is null or b.expiryDate <= :expiryTo) " +
+            "order by b.id asc";
+
+    // What allocation may take: stock left and not expiring before :minExpiry; no expiry date means no limit
+    String ALLOCATABLE = "b.quantity > 0 and (b.expiryDate is null or b.expiryDate >= :minExpiry) ";
+    String FEFO_ORDER = "order by b.expiryDate asc nulls last, b.id asc";
+
     List<InventoryBatch> findByProductIdOrderByExpiryDateAsc(Long productId);
+    List<InventoryBatch> findByProductIdInOrderByExpiryDateAsc(Collection<Long> productIds);
+
     Optional<InventoryBatch> findByProductIdAndBatchNumber(Long id, String batchNumber);
+    List<InventoryBatch> findByProductIdAndBatchNumberIn(Long productId, Collection<String> batchNumbers);
+    List<InventoryBatch> findByProductIdInAndBatchNumberIn(Collection<Long> productIds, Collection<String> batchNumbers);
+    boolean existsByProductIdAndBatchNumber(Long productId, String batchNumber);
+
+    @Transactional(readOnly = true)
+    @Query(BATCH_DTO + "from InventoryBatch b where b.product.id = :productId order by b.expiryDate asc")
+    List<InventoryBatchDto> findDtosByProductId(@Param("productId") Long productId);
+
+    @Transactional(readOnly = true)
+    @Query(BATCH_DTO + "from InventoryBatch b where b.product.id in :productIds order by b.expiryDate asc")
+    List<InventoryBatchDto> findDtosByProductIdIn(@Param("productIds") Collection<Long> productIds);
+
+    // Allocatable batches (non-empty, expiring on or after :minExpiry or never) in FEFO order, read through the
+    // (product_id, expiry_date, id) index; batches with a long history of empty or expired rows are not shipped
+    @Transactional(readOnly = true)
+    @Query(BATCH_DTO + "from InventoryBatch b where b.product.id = :productId and " + ALLOCATABLE + FEFO_ORDER)
+    List<InventoryBatchDto> findAvailableDtosByProductId(@Param("productId") Long productId,
+                                                         @Param("minExpiry") LocalDate minExpiry);
+
+    @Transactional(readOnly = true)
+    @Query(BATCH_DTO + "from InventoryBatch b where b.product.id in :productIds and " + ALLOCATABLE + FEFO_ORDER)
+    List<InventoryBatchDto> findAvailableDtosByProductIdIn(@Param("productIds") Collection<Long> productIds,
+                                                           @Param("minExpiry") LocalDate minExpiry);
+
+    // Row-locks the product's allocatable batches in FEFO order so allocation and deduction happen atomically
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from InventoryBatch b where b.product.id = :productId and " + ALLOCATABLE + FEFO_ORDER)
+    List<InventoryBatch> findAllocatableForUpdate(@Param("productId") Long productId,
+                                                  @Param("minExpiry") LocalDate minExpiry);
+
+    // Check-and-decrement in one statement; returns 0 when the batch is missing or has too little stock
+    @Modifying
+    @Query("update InventoryBatch b set b.quantity = b.quantity - :qty " +
+            "where b.product.id = :productId and b.batchNumber = :batchNumber and b.quantity >= :qty")
+    int deductIfAvailable(@Param("productId") Long productId,
+                          @Param("batchNumber") String batchNumber,
+                          @Param("qty") int qty);
+
+    // Puts released or expired reservation stock back on its batch
+    @Modifying
+    @Query("update InventoryBatch b set b.quantity = b.quantity + :qty where b.id = :id")
+    int restock(@Param("id") Long id, @Param("qty") int qty);
+
+    // Existing (product, batch number) pairs among the given products and numbers; bulk inserts skip these
+    @Transactional(readOnly = true)
+    @Query("select b.product.id as productId, b.batchNumber as batchNumber from InventoryBatch b " +
+            "where b.product.id in :productIds and b.batchNumber in :batchNumbers")
+    List<BatchNumberKey> findBatchNumberKeys(@Param("productIds") Collection<Long> productIds,
+                                             @Param("batchNumbers") Collection<String> batchNumbers);
+
+    // Keyset page: callers pass the last id they saw and a Pageable that only carries the page size
+    @Transactional(readOnly = true)
+    @Query(FILTERED_BATCHES)
+    List<InventoryBatchDto> findBatchPage(@Param("afterId") Long afterId,
+                                          @Param("productIdFrom") Long productIdFrom,
+                                          @Param("productIdTo") Long productIdTo,
+                                          @Param("expiryFrom") LocalDate expiryFrom,
+                                          @Param("expiryTo") LocalDate expiryTo,
+                                          Pageable pageable);
+
+    // Forward-only cursor over the same rows; must be consumed and closed inside a transaction
+    @Query(FILTERED_BATCHES)
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    Stream<InventoryBatchDto> streamBatches(@Param("afterId") Long afterId,
+                                            @Param("productIdFrom") Long productIdFrom,
+                                            @Param("productIdTo") Long productIdTo,
+                                            @Param("expiryFrom") LocalDate expiryFrom,
+                                            @Param("expiryTo") LocalDate expiryTo);
+
+    interface BatchNumberKey {
+        Long getProductId();
+        String getBatchNumber();
+    }
 }
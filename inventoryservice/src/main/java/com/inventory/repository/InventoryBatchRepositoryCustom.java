@@ -0,0 +1,16 @@
+package com.inventory.repository;
+
+import java.util.Map;
+
+/**
+ * Custom set-based operations on inventory_batches that Spring Data cannot derive.
+ */
+public interface InventoryBatchRepositoryCustom {
+
+    /**
+     * Applies all deductions as one JDBC batch of conditional updates
+     * ({@code quantity = quantity - ?} guarded by {@code quantity >= ?}).
+     * Returns the affected row count per batch id; 0 means the guard rejected the deduction.
+     */
+    Map<Long, Integer> deductQuantities(Map<Long, Integer> batchIdToQuantity);
+}
@@ -0,0 +1,41 @@
+package com.inventory.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC backed implementation of {@link InventoryBatchRepositoryCustom}, picked up by Spring Data
+ * through the {@code Impl} suffix.
+ */
+public class InventoryBatchRepositoryImpl implements InventoryBatchRepositoryCustom {
+
+    private static final String DEDUCT_SQL =
+            "UPDATE inventory_batches SET quantity = quantity - ? WHERE id = ? AND quantity >= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public InventoryBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Map<Long, Integer> deductQuantities(Map<Long, Integer> batchIdToQuantity) {
+        List<Long> ids = new ArrayList<>(batchIdToQuantity.keySet());
+        List<Object[]> args = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Integer qty = batchIdToQuantity.get(id);
+            args.add(new Object[]{qty, id, qty});
+        }
+        int[] counts = jdbcTemplate.batchUpdate(DEDUCT_SQL, args);
+
+        Map<Long, Integer> result = new LinkedHashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            result.put(ids.get(i), counts[i]);
+        }
+        return result;
+    }
+}
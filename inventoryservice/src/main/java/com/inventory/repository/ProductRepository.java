@@ -1,12 +1,27 @@
 package com.inventory.repository;
 
 import com.inventory.entity.Product;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
     Optional<Product> findBySku(String sku);
+    List<Product> findBySkuIn(Collection<String> skus);
+
+    // ids for many SKUs at once, without loading the products
+    List<SkuId> findIdsBySkuIn(Collection<String> skus);
+
+    // one keyset page of ids and SKUs, for loading the SKU cache without holding every product at once
+    List<SkuId> findIdsByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    interface SkuId {
+        Long getId();
+        String getSku();
+    }
 }
@@ -0,0 +1,38 @@
+package com.inventory.repository;
+
+import com.inventory.entity.ReservationStatus;
+import com.inventory.entity.StockReservation;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+    // Row-locks the reservation so confirm, release and expiry of the same hold are serialized
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from StockReservation r where r.reservationId = :reservationId")
+    Optional<StockReservation> findForUpdate(@Param("reservationId") String reservationId);
+
+    // Oldest expired holds first; served from the (status, expiresAt) index
+    @Query("select r.id from StockReservation r where r.status = :status and r.expiresAt <= :now order by r.expiresAt asc")
+    List<Long> findIdsExpiredBefore(@Param("status") ReservationStatus status,
+                                    @Param("now") Instant now,
+                                    Pageable pageable);
+
+    // Re-checks the candidates under lock; a hold confirmed or released since it was listed is skipped
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from StockReservation r where r.id in :ids and r.status = :status and r.expiresAt <= :now order by r.id")
+    List<StockReservation> lockExpired(@Param("ids") Collection<Long> ids,
+                                       @Param("status") ReservationStatus status,
+                                       @Param("now") Instant now);
+}
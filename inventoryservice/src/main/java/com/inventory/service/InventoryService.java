@@ -1,17 +1,33 @@
 package com.inventory.service;
 
+import com.inventory.dto.AllocateInventoryRequest;
+import com.inventory.dto.AllocationResponse;
+import com.inventory.dto.BatchQueryFilter;
 import com.inventory.dto.InventoryBatchDto;
+import com.inventory.dto.InventoryBatchPage;
 import com.inventory.dto.UpdateInventoryRequest;
+import com.inventory.dto.UpdateInventoryResult;
 import com.inventory.entity.InventoryBatch;
 import com.inventory.entity.Product;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public interface InventoryService {
     List<InventoryBatchDto> getBatchesByProductId(Long productId);
+    List<InventoryBatchDto> getAvailableBatchesByProductId(Long productId);
     void updateInventory(UpdateInventoryRequest request, String handlerType);
+    List<UpdateInventoryResult> updateInventoryBulk(List<UpdateInventoryRequest> requests, String handlerType);
+    void updateInventoryAll(List<UpdateInventoryRequest> requests, String handlerType);
+    Map<String, List<InventoryBatchDto>> getBatchesBySkus(Collection<String> skus);
+    Map<String, List<InventoryBatchDto>> getBatchesBySkus(Collection<String> skus, boolean availableOnly);
     Long getProductIdBySku(String sku);
-    List<InventoryBatchDto> getAllBatches();
+    List<InventoryBatchDto> getAllBatches(int limit);
+    InventoryBatchPage getBatchPage(Long afterId, int size, BatchQueryFilter filter);
+    void streamBatches(BatchQueryFilter filter, Consumer<InventoryBatchDto> sink);
     Product createProduct(Product product);
     InventoryBatch createBatch(Long productId, InventoryBatch batch);
+    AllocationResponse allocate(AllocateInventoryRequest request);
 }
@@ -1,21 +1,37 @@
 package com.inventory.service;
 
+import com.inventory.cache.ProductSkuCache;
+import com.inventory.dto.AllocateInventoryRequest;
+import com.inventory.dto.AllocationResponse;
+import com.inventory.dto.BatchQueryFilter;
 import com.inventory.dto.InventoryBatchDto;
+import com.inventory.dto.InventoryBatchPage;
 import com.inventory.dto.UpdateInventoryRequest;
+import com.inventory.dto.UpdateInventoryResult;
 import com.inventory.entity.InventoryBatch;
 import com.inventory.entity.Product;
+import com.inventory.handlers.InsufficientInventoryException;
+import com.inventory.handlers.InvalidInventoryOperationException;
 import com.inventory.handlers.ProductNotFoundException;
+import com.inventory.ledger.StockLedger;
 import com.inventory.mapper.InventoryBatchMapper;
 import com.inventory.repository.InventoryBatchRepository;
 import com.inventory.repository.ProductRepository;
 import com.inventory.validation.BaseInventoryValidator;
 import com.inventory.validation.InventoryValidationFactory;
 import jakarta.transaction.Transactional;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class InventoryServiceImpl implements InventoryService {
@@ -24,21 +40,48 @@ public class InventoryServiceImpl implements InventoryService {
     private final InventoryValidationFactory inventoryValidationFactory;
     private final ProductRepository productRepository;
     private final InventoryBatchMapper inventoryBatchMapper;
+    private final StockLedger stockLedger;
+    private final ProductSkuCache productSkuCache;
+
+    private static final String ERROR_ALLOCATE_SKU_REQUIRED = "SKU must be provided";
+    private static final String ERROR_ALLOCATE_QUANTITY_POSITIVE = "Quantity must be greater than 0";
+    private static final String ERROR_MIN_SHELF_LIFE_NEGATIVE = "Minimum shelf life must not be negative";
+    private static final String ERROR_PRODUCT_SKU_NOT_FOUND = "Product with SKU '%s' not found";
+    private static final String ERROR_INSUFFICIENT_INVENTORY = "Insufficient inventory to fulfill requested quantity";
+    private static final String ERROR_PAGE_SIZE_POSITIVE = "Page size must be greater than 0";
 
     public InventoryServiceImpl(InventoryBatchRepository inventoryBatchRepository,
                                 InventoryValidationFactory inventoryValidationFactory,
                                 ProductRepository productRepository,
-                                InventoryBatchMapper inventoryBatchMapper) {
+                                InventoryBatchMapper inventoryBatchMapper,
+                                StockLedger stockLedger,
+                                ProductSkuCache productSkuCache) {
         this.inventoryBatchRepository = inventoryBatchRepository;
         this.inventoryValidationFactory = inventoryValidationFactory;
         this.productRepository = productRepository;
         this.inventoryBatchMapper = inventoryBatchMapper;
+        this.stockLedger = stockLedger;
+        this.productSkuCache = productSkuCache;
     }
 
     @Override
     public List<InventoryBatchDto> getBatchesByProductId(Long productId) {
-        List<InventoryBatch> batches = inventoryBatchRepository.findByProductIdOrderByExpiryDateAsc(productId);
-        return batches.stream().map(inventoryBatchMapper::toDto).collect(Collectors.toList());
+        // Serve hot-SKU reads from memory when the ledger is enabled
+        if (stockLedger.isEnabled()) {
+            return stockLedger.getBatches(productId);
+        }
+        return inventoryBatchRepository.findDtosByProductId(productId);
+    }
+
+    /**
+     * Only the batches an allocation could take today: non-empty and not expired, in FEFO order.
+     */
+    @Override
+    public List<InventoryBatchDto> getAvailableBatchesByProductId(Long productId) {
+        if (stockLedger.isEnabled()) {
+            return stockLedger.getAvailableBatches(productId, LocalDate.now());
+        }
+        return inventoryBatchRepository.findAvailableDtosByProductId(productId, LocalDate.now());
     }
 
     @Override
@@ -48,20 +91,110 @@ public class InventoryServiceImpl implements InventoryService {
         baseInventoryValidator.updateInventory(request);
     }
 
+    /**
+     * Applies each request independently: every validator call runs in its own transaction, so one failing
+     * line is reported in its result without rolling back the others.
+     */
+    @Override
+    public List<UpdateInventoryResult> updateInventoryBulk(List<UpdateInventoryRequest> requests, String validatorType) {
+        BaseInventoryValidator baseInventoryValidator = inventoryValidationFactory.getValidator(validatorType);
+        List<UpdateInventoryResult> results = new ArrayList<>(requests.size());
+        for (UpdateInventoryRequest request : requests) {
+            String sku = request != null ? request.getSku() : null;
+            try {
+                baseInventoryValidator.updateInventory(request);
+                results.add(new UpdateInventoryResult(sku, true, null));
+            } catch (RuntimeException e) {
+                results.add(new UpdateInventoryResult(sku, false, e.getMessage()));
+            }
+        }
+        return results;
+    }
+
+    // All-or-nothing variant: the first failure rolls back every deduction in the batch, and the lines already
+    // applied are undone for validators, like the ledger, that deduct outside the transaction
+    @Override
+    @Transactional
+    public void updateInventoryAll(List<UpdateInventoryRequest> requests, String validatorType) {
+        BaseInventoryValidator baseInventoryValidator = inventoryValidationFactory.getValidator(validatorType);
+        List<UpdateInventoryRequest> applied = new ArrayList<>(requests.size());
+        try {
+            for (UpdateInventoryRequest request : requests) {
+                baseInventoryValidator.updateInventory(request);
+                applied.add(request);
+            }
+        } catch (RuntimeException e) {
+            applied.forEach(baseInventoryValidator::undo);
+            throw e;
+        }
+    }
+
+    @Override
+    public Map<String, List<InventoryBatchDto>> getBatchesBySkus(Collection<String> skus) {
+        return getBatchesBySkus(skus, false);
+    }
+
+    @Override
+    public Map<String, List<InventoryBatchDto>> getBatchesBySkus(Collection<String> skus, boolean availableOnly) {
+        Map<String, List<InventoryBatchDto>> result = new LinkedHashMap<>();
+        skus.forEach(sku -> result.put(sku, new ArrayList<>()));
+
+        Map<Long, String> productIdToSku = productRepository.findBySkuIn(skus).stream()
+                .collect(Collectors.toMap(Product::getId, Product::getSku));
+        if (productIdToSku.isEmpty()) {
+            return result;
+        }
+        LocalDate today = LocalDate.now();
+        if (stockLedger.isEnabled()) {
+            productIdToSku.forEach((productId, sku) -> result.get(sku).addAll(availableOnly
+                    ? stockLedger.getAvailableBatches(productId, today)
+                    : stockLedger.getBatches(productId)));
+            return result;
+        }
+        (availableOnly
+                ? inventoryBatchRepository.findAvailableDtosByProductIdIn(productIdToSku.keySet(), today)
+                : inventoryBatchRepository.findDtosByProductIdIn(productIdToSku.keySet()))
+                .forEach(dto -> result.get(productIdToSku.get(dto.getProductId())).add(dto));
+        return result;
+    }
+
     @Override
     public Long getProductIdBySku(String sku) {
-        Optional<Product> product = productRepository.findBySku(sku);
-        return product.map(Product::getId).orElse(null);
+        return productSkuCache.findProductId(sku).orElse(null);
+    }
+
+    @Override
+    public List<InventoryBatchDto> getAllBatches(int limit) {
+        return getBatchPage(0L, limit, new BatchQueryFilter()).getItems();
+    }
+
+    @Override
+    public InventoryBatchPage getBatchPage(Long afterId, int size, BatchQueryFilter filter) {
+        if (size <= 0) {
+            throw new InvalidInventoryOperationException(ERROR_PAGE_SIZE_POSITIVE);
+        }
+        List<InventoryBatchDto> items = inventoryBatchRepository.findBatchPage(afterId != null ? afterId : 0L,
+                filter.getProductIdFrom(), filter.getProductIdTo(), filter.getExpiryFrom(), filter.getExpiryTo(),
+                PageRequest.ofSize(size));
+        Long nextAfterId = items.size() < size ? null : items.get(items.size() - 1).getId();
+        return new InventoryBatchPage(items, nextAfterId);
     }
 
+    /**
+     * Hands every matching batch to {@code sink} while the cursor is open, so memory use does not grow with the table.
+     */
     @Override
-    public List<InventoryBatchDto> getAllBatches() {
-        List<InventoryBatch> batches = inventoryBatchRepository.findAll();
-        return batches.stream().map(inventoryBatchMapper::toDto).collect(Collectors.toList());
+    @Transactional
+    public void streamBatches(BatchQueryFilter filter, Consumer<InventoryBatchDto> sink) {
+        try (Stream<InventoryBatchDto> batches = inventoryBatchRepository.streamBatches(0L,
+                filter.getProductIdFrom(), filter.getProductIdTo(), filter.getExpiryFrom(), filter.getExpiryTo())) {
+            batches.forEach(sink);
+        }
     }
 
     @Override
     public Product createProduct(Product product) {
+        // ProductCacheListener adds the new SKU to the product cache once the insert commits
         return productRepository.save(product);
     }
 
@@ -70,7 +203,49 @@ public class InventoryServiceImpl implements InventoryService {
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new ProductNotFoundException("Product with id " + productId + " not found"));
         inventoryBatch.setProduct(product);
-        return inventoryBatchRepository.save(inventoryBatch);
+        InventoryBatch saved = inventoryBatchRepository.save(inventoryBatch);
+        stockLedger.register(saved);
+        return saved;
     }
 
+    /**
+     * Picks batches in expiry order (FEFO) and deducts them in the same transaction. The candidate rows are
+     * locked while the plan is computed, so no other order can take the same stock in between. Expired batches
+     * never qualify, nor do batches expiring within the requested minimum shelf life.
+     */
+    @Override
+    @Transactional
+    public AllocationResponse allocate(AllocateInventoryRequest request) {
+        if (request == null || request.getSku() == null || request.getSku().isBlank()) {
+            throw new InvalidInventoryOperationException(ERROR_ALLOCATE_SKU_REQUIRED);
+        }
+        if (request.getQuantity() == null || request.getQuantity() <= 0) {
+            throw new InvalidInventoryOperationException(ERROR_ALLOCATE_QUANTITY_POSITIVE);
+        }
+        if (request.getMinShelfLifeDays() != null && request.getMinShelfLifeDays() < 0) {
+            throw new InvalidInventoryOperationException(ERROR_MIN_SHELF_LIFE_NEGATIVE);
+        }
+        Long productId = productSkuCache.findProductId(request.getSku())
+                .orElseThrow(() -> new ProductNotFoundException(String.format(ERROR_PRODUCT_SKU_NOT_FOUND, request.getSku())));
+
+        List<InventoryBatch> batches = inventoryBatchRepository.findAllocatableForUpdate(productId,
+                LocalDate.now().plusDays(request.getMinShelfLifeDays() != null ? request.getMinShelfLifeDays() : 0));
+        int remaining = request.getQuantity();
+        List<InventoryBatchDto> allocations = new ArrayList<>();
+        for (InventoryBatch batch : batches) {
+            if (remaining <= 0) break;
+            int deduct = Math.min(batch.getQuantity(), remaining);
+            batch.setQuantity(batch.getQuantity() - deduct);
+            remaining -= deduct;
+
+            InventoryBatchDto allocation = inventoryBatchMapper.toDto(batch);
+            allocation.setQuantity(deduct);
+            allocations.add(allocation);
+        }
+        if (remaining > 0) {
+            throw new InsufficientInventoryException(ERROR_INSUFFICIENT_INVENTORY);
+        }
+        // dirty checking flushes the new quantities on commit while the row locks are still held
+        return new AllocationResponse(request.getSku(), allocations);
+    }
 }
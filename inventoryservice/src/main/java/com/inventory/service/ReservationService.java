@@ -0,0 +1,11 @@
+package com.inventory.service;
+
+import com.inventory.dto.ReservationResponse;
+import com.inventory.dto.ReserveInventoryRequest;
+
+public interface ReservationService {
+    ReservationResponse reserve(ReserveInventoryRequest request);
+    ReservationResponse confirm(String reservationId);
+    ReservationResponse release(String reservationId);
+    int expireDue(int limit);
+}
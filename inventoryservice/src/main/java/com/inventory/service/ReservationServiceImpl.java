@@ -0,0 +1,158 @@
+package com.inventory.service;
+
+import com.inventory.dto.AllocateInventoryRequest;
+import com.inventory.dto.AllocationResponse;
+import com.inventory.dto.InventoryBatchDto;
+import com.inventory.dto.ReservationResponse;
+import com.inventory.dto.ReserveInventoryRequest;
+import com.inventory.entity.ReservationStatus;
+import com.inventory.entity.ReservedBatch;
+import com.inventory.entity.StockReservation;
+import com.inventory.handlers.InvalidInventoryOperationException;
+import com.inventory.handlers.ReservationNotFoundException;
+import com.inventory.handlers.ReservationStateException;
+import com.inventory.repository.InventoryBatchRepository;
+import com.inventory.repository.StockReservationRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Two-phase stock holds: {@link #reserve} takes stock off the batches exactly like {@code allocate} and records
+ * what it took; {@link #confirm} makes the hold permanent and {@link #release} puts it back. Holds that are neither
+ * confirmed nor released before {@code expiresAt} are returned to stock by {@link ReservationSweeper}.
+ */
+@Service
+public class ReservationServiceImpl implements ReservationService {
+
+    private final InventoryService inventoryService;
+    private final StockReservationRepository reservationRepository;
+    private final InventoryBatchRepository inventoryBatchRepository;
+    private final long defaultTtlMillis;
+    private final long maxTtlMillis;
+
+    private static final String ERROR_TTL_POSITIVE = "Reservation TTL must be greater than 0";
+    private static final String ERROR_RESERVATION_NOT_FOUND = "Reservation '%s' not found";
+    private static final String ERROR_RESERVATION_EXPIRED = "Reservation '%s' has expired";
+    private static final String ERROR_RESERVATION_STATE = "Reservation '%s' is %s";
+
+    public ReservationServiceImpl(InventoryService inventoryService,
+                                  StockReservationRepository reservationRepository,
+                                  InventoryBatchRepository inventoryBatchRepository,
+                                  @Value("${inventory.reservations.default-ttl-ms:60000}") long defaultTtlMillis,
+                                  @Value("${inventory.reservations.max-ttl-ms:900000}") long maxTtlMillis) {
+        this.inventoryService = inventoryService;
+        this.reservationRepository = reservationRepository;
+        this.inventoryBatchRepository = inventoryBatchRepository;
+        this.defaultTtlMillis = defaultTtlMillis;
+        this.maxTtlMillis = maxTtlMillis;
+    }
+
+    @Override
+    @Transactional
+    public ReservationResponse reserve(ReserveInventoryRequest request) {
+        if (request != null && request.getTtlMillis() != null && request.getTtlMillis() <= 0) {
+            throw new InvalidInventoryOperationException(ERROR_TTL_POSITIVE);
+        }
+        AllocationResponse allocation = inventoryService.allocate(request == null ? null
+                : new AllocateInventoryRequest(request.getSku(), request.getQuantity(), request.getMinShelfLifeDays()));
+
+        long ttlMillis = Math.min(request.getTtlMillis() != null ? request.getTtlMillis() : defaultTtlMillis, maxTtlMillis);
+        Instant now = Instant.now();
+        StockReservation reservation = new StockReservation();
+        reservation.setReservationId(UUID.randomUUID().toString());
+        reservation.setSku(request.getSku());
+        reservation.setQuantity(request.getQuantity());
+        reservation.setStatus(ReservationStatus.HELD);
+        reservation.setCreatedAt(now);
+        reservation.setExpiresAt(now.plusMillis(ttlMillis));
+        reservation.setBatches(allocation.getAllocations().stream()
+                .map(batch -> new ReservedBatch(batch.getId(), batch.getBatchNumber(), batch.getQuantity()))
+                .collect(Collectors.toList()));
+        reservationRepository.save(reservation);
+        return toResponse(reservation);
+    }
+
+    @Override
+    // an expired hold is returned to stock even though the confirm is refused
+    @Transactional(dontRollbackOn = ReservationStateException.class)
+    public ReservationResponse confirm(String reservationId) {
+        StockReservation reservation = lock(reservationId);
+        switch (reservation.getStatus()) {
+            case CONFIRMED:
+                return toResponse(reservation);
+            case HELD:
+                if (!reservation.getExpiresAt().isAfter(Instant.now())) {
+                    // not swept yet, but the hold is over: give the stock back and refuse
+                    restock(reservation, ReservationStatus.EXPIRED);
+                    throw new ReservationStateException(String.format(ERROR_RESERVATION_EXPIRED, reservationId));
+                }
+                reservation.setStatus(ReservationStatus.CONFIRMED);
+                return toResponse(reservation);
+            default:
+                throw new ReservationStateException(String.format(ERROR_RESERVATION_STATE, reservationId,
+                        reservation.getStatus()));
+        }
+    }
+
+    @Override
+    @Transactional
+    public ReservationResponse release(String reservationId) {
+        StockReservation reservation = lock(reservationId);
+        switch (reservation.getStatus()) {
+            case RELEASED:
+            case EXPIRED:
+                return toResponse(reservation);
+            case HELD:
+                restock(reservation, ReservationStatus.RELEASED);
+                return toResponse(reservation);
+            default:
+                throw new ReservationStateException(String.format(ERROR_RESERVATION_STATE, reservationId,
+                        reservation.getStatus()));
+        }
+    }
+
+    /**
+     * Expires up to {@code limit} holds, oldest first, in one transaction; returns how many were returned to stock.
+     */
+    @Override
+    @Transactional
+    public int expireDue(int limit) {
+        Instant now = Instant.now();
+        List<Long> ids = reservationRepository.findIdsExpiredBefore(ReservationStatus.HELD, now, PageRequest.ofSize(limit));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<StockReservation> expired = reservationRepository.lockExpired(ids, ReservationStatus.HELD, now);
+        expired.forEach(reservation -> restock(reservation, ReservationStatus.EXPIRED));
+        return expired.size();
+    }
+
+    private StockReservation lock(String reservationId) {
+        return reservationRepository.findForUpdate(reservationId)
+                .orElseThrow(() -> new ReservationNotFoundException(String.format(ERROR_RESERVATION_NOT_FOUND, reservationId)));
+    }
+
+    private void restock(StockReservation reservation, ReservationStatus status) {
+        reservation.getBatches().forEach(batch -> inventoryBatchRepository.restock(batch.getBatchId(), batch.getQuantity()));
+        reservation.setStatus(status);
+    }
+
+    private static ReservationResponse toResponse(StockReservation reservation) {
+        List<InventoryBatchDto> allocations = reservation.getBatches().stream()
+                .map(batch -> InventoryBatchDto.builder()
+                        .id(batch.getBatchId())
+                        .batchNumber(batch.getBatchNumber())
+                        .quantity(batch.getQuantity())
+                        .build())
+                .collect(Collectors.toList());
+        return new ReservationResponse(reservation.getReservationId(), reservation.getSku(), reservation.getStatus(),
+                reservation.getExpiresAt(), allocations);
+    }
+}
@@ -0,0 +1,40 @@
+package com.inventory.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Returns expired reservation holds to stock. Each pass reads held reservations in expiry order through the
+ * {@code (status, expires_at)} index and stops at the first one still live, so its cost follows the number of
+ * expired holds rather than the size of the table.
+ */
+@Component
+public class ReservationSweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(ReservationSweeper.class);
+
+    private final ReservationService reservationService;
+    private final int batchSize;
+
+    public ReservationSweeper(ReservationService reservationService,
+                              @Value("${inventory.reservations.sweep-batch-size:500}") int batchSize) {
+        this.reservationService = reservationService;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.reservations.sweep-interval-ms:1000}")
+    public void sweep() {
+        int total = 0;
+        int expired;
+        do {
+            expired = reservationService.expireDue(batchSize);
+            total += expired;
+        } while (expired == batchSize);
+        if (total > 0) {
+            log.info("Returned {} expired reservations to stock", total);
+        }
+    }
+}
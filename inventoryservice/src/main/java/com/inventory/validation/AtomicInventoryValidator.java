@@ -0,0 +1,65 @@
+package com.inventory.validation;
+
+import com.inventory.cache.ProductSkuCache;
+import com.inventory.dto.UpdateInventoryRequest;
+import com.inventory.handlers.InvalidInventoryOperationException;
+import com.inventory.handlers.InvalidInventoryOperationException.Reason;
+import com.inventory.handlers.ProductNotFoundException;
+import com.inventory.repository.InventoryBatchRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Concurrency-safe deduction mode.
+ * <p>
+ * Unlike {@link DefaultInventoryValidator} there is no read-modify-write: each batch is deducted with a
+ * single conditional UPDATE, so the stock check runs inside the database under the row lock and two
+ * concurrent orders can never both take the last units. Only the failure path issues an extra query
+ * to tell a missing batch apart from an insufficient one.
+ */
+@Component
+public class AtomicInventoryValidator implements BaseInventoryValidator {
+
+    private final InventoryBatchRepository batchRepository;
+    private final ProductSkuCache productSkuCache;
+    private final UpdateInventoryRequestValidator requestValidator;
+
+    private static final String ATOMIC_TYPE = "atomic";
+    private static final String ERROR_PRODUCT_NOT_FOUND = "Product with SKU '%s' not found";
+    private static final String ERROR_BATCH_NOT_FOUND = "Batch '%s' not found for product SKU '%s'";
+    private static final String ERROR_INSUFFICIENT_QTY = "Insufficient qty in batch: %s";
+
+    public AtomicInventoryValidator(InventoryBatchRepository batchRepository,
+                                    ProductSkuCache productSkuCache,
+                                    UpdateInventoryRequestValidator requestValidator) {
+        this.batchRepository = batchRepository;
+        this.productSkuCache = productSkuCache;
+        this.requestValidator = requestValidator;
+    }
+
+    @Override
+    public String getType() {
+        return ATOMIC_TYPE;
+    }
+
+    @Override
+    @Transactional
+    public void updateInventory(UpdateInventoryRequest request) {
+        requestValidator.validate(request);
+
+        Long productId = productSkuCache.findProductId(request.getSku())
+                .orElseThrow(() -> new ProductNotFoundException(String.format(ERROR_PRODUCT_NOT_FOUND, request.getSku())));
+
+        request.getBatchQuantityToDeduct().forEach((batchNumber, qty) -> {
+            int updated = batchRepository.deductIfAvailable(productId, batchNumber, qty);
+            if (updated == 0) {
+                if (!batchRepository.existsByProductIdAndBatchNumber(productId, batchNumber)) {
+                    throw new InvalidInventoryOperationException(String.format(ERROR_BATCH_NOT_FOUND, batchNumber, request.getSku()),
+                            Reason.BATCH_NOT_FOUND);
+                }
+                throw new InvalidInventoryOperationException(String.format(ERROR_INSUFFICIENT_QTY, batchNumber),
+                        Reason.INSUFFICIENT_QUANTITY);
+            }
+        });
+    }
+}
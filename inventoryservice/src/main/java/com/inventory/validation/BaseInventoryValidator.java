@@ -5,4 +5,11 @@ import com.inventory.dto.UpdateInventoryRequest;
 public interface BaseInventoryValidator {
     String getType();
     void updateInventory(UpdateInventoryRequest request);
+
+    /**
+     * Gives back a deduction this validator applied outside the database transaction, when a later line of an
+     * all-or-nothing batch fails. Validators that only write the database need nothing: the rollback undoes them.
+     */
+    default void undo(UpdateInventoryRequest request) {
+    }
 }
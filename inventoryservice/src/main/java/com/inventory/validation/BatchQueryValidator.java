@@ -1,7 +1,12 @@
 package com.inventory.validation;
 
+import com.inventory.dto.BatchQueryFilter;
 import com.inventory.dto.InventoryBatchDto;
+import com.inventory.dto.InventoryBatchPage;
+import com.inventory.handlers.InvalidInventoryOperationException;
 import com.inventory.service.InventoryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -12,26 +17,63 @@ import java.util.List;
 @Component
 public class BatchQueryValidator {
     private final InventoryService inventoryService;
+    private final int maxUnpagedBatches;
+
+    static final int DEFAULT_MAX_UNPAGED_BATCHES = 10000;
+    private static final String ERROR_TOO_MANY_BATCHES =
+            "More than %d batches; use /inventory/batches/page or /inventory/batches/stream";
+    private static final String ERROR_PAGE_TOO_LARGE =
+            "Page size must not exceed %d; use /inventory/batches/stream to read every batch";
 
     public BatchQueryValidator(InventoryService inventoryService) {
+        this(inventoryService, DEFAULT_MAX_UNPAGED_BATCHES);
+    }
+
+    @Autowired
+    public BatchQueryValidator(InventoryService inventoryService,
+                               @Value("${inventory.batches.max-unpaged:10000}") int maxUnpagedBatches) {
         this.inventoryService = inventoryService;
+        this.maxUnpagedBatches = maxUnpagedBatches;
     }
 
     /**
      * Return batches depending on the sku parameter:
-     * - if sku is null or blank => return all batches
+     * - if sku is null or blank => return all batches, rejected when there are more than max-unpaged
      * - if sku is provided but no product found => return empty list
      * - if sku is provided and product exists => return batches for that product
      */
     public List<InventoryBatchDto> getBatchesForSkuOrAll(String sku) {
+        return getBatchesForSkuOrAll(sku, false);
+    }
+
+    /**
+     * As above; with {@code availableOnly} a SKU lookup returns only non-empty, unexpired batches in FEFO order.
+     */
+    public List<InventoryBatchDto> getBatchesForSkuOrAll(String sku, boolean availableOnly) {
         if (sku != null && !sku.isBlank()) {
             Long productId = inventoryService.getProductIdBySku(sku);
             if (productId == null) {
                 return List.of();
             }
-            return inventoryService.getBatchesByProductId(productId);
+            return availableOnly
+                    ? inventoryService.getAvailableBatchesByProductId(productId)
+                    : inventoryService.getBatchesByProductId(productId);
         }
-        return inventoryService.getAllBatches();
+        // read one row past the cap so an oversized table is rejected without loading it
+        List<InventoryBatchDto> batches = inventoryService.getAllBatches(maxUnpagedBatches + 1);
+        if (batches.size() > maxUnpagedBatches) {
+            throw new InvalidInventoryOperationException(String.format(ERROR_TOO_MANY_BATCHES, maxUnpagedBatches));
+        }
+        return batches;
     }
-}
 
+    /**
+     * One keyset page, rejected when {@code size} exceeds max-unpaged so a page cannot stand in for the unpaged read.
+     */
+    public InventoryBatchPage getBatchPage(Long afterId, int size, BatchQueryFilter filter) {
+        if (size > maxUnpagedBatches) {
+            throw new InvalidInventoryOperationException(String.format(ERROR_PAGE_TOO_LARGE, maxUnpagedBatches));
+        }
+        return inventoryService.getBatchPage(afterId, size, filter);
+    }
+}
@@ -0,0 +1,89 @@
+package com.inventory.validation;
+
+import com.inventory.cache.ProductSkuCache;
+import com.inventory.dto.UpdateInventoryRequest;
+import com.inventory.entity.InventoryBatch;
+import com.inventory.handlers.InvalidInventoryOperationException;
+import com.inventory.handlers.InvalidInventoryOperationException.Reason;
+import com.inventory.handlers.ProductNotFoundException;
+import com.inventory.repository.InventoryBatchRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Set-based variant of {@link DefaultInventoryValidator}.
+ * <p>
+ * Loads every requested batch of the product with one query, validates in memory and applies
+ * all deductions as a single JDBC batch of conditional updates, so the statement count no longer
+ * grows with the number of batches in the request. A zero affected-row count means a concurrent
+ * deduction won the race and the whole request is rolled back.
+ */
+@Component
+public class BulkInventoryValidator implements BaseInventoryValidator {
+
+    private final InventoryBatchRepository batchRepository;
+    private final ProductSkuCache productSkuCache;
+    private final UpdateInventoryRequestValidator requestValidator;
+
+    private static final String BULK_TYPE = "bulk";
+    private static final String ERROR_PRODUCT_NOT_FOUND = "Product with SKU '%s' not found";
+    private static final String ERROR_BATCH_NOT_FOUND = "Batch '%s' not found for product SKU '%s'";
+    private static final String ERROR_INSUFFICIENT_QTY = "Insufficient qty in batch: %s";
+
+    public BulkInventoryValidator(InventoryBatchRepository batchRepository,
+                                  ProductSkuCache productSkuCache,
+                                  UpdateInventoryRequestValidator requestValidator) {
+        this.batchRepository = batchRepository;
+        this.productSkuCache = productSkuCache;
+        this.requestValidator = requestValidator;
+    }
+
+    @Override
+    public String getType() {
+        return BULK_TYPE;
+    }
+
+    @Override
+    @Transactional
+    public void updateInventory(UpdateInventoryRequest request) {
+        requestValidator.validate(request);
+
+        Long productId = productSkuCache.findProductId(request.getSku())
+                .orElseThrow(() -> new ProductNotFoundException(String.format(ERROR_PRODUCT_NOT_FOUND, request.getSku())));
+
+        Map<String, Integer> requested = request.getBatchQuantityToDeduct();
+        List<InventoryBatch> batches = batchRepository.findByProductIdAndBatchNumberIn(productId, requested.keySet());
+        Map<String, InventoryBatch> byNumber = batches.stream()
+                .collect(Collectors.toMap(InventoryBatch::getBatchNumber, Function.identity(), (a, b) -> a));
+
+        Map<Long, Integer> batchIdToQuantity = new LinkedHashMap<>();
+        Map<Long, String> batchIdToNumber = new LinkedHashMap<>();
+        requested.forEach((batchNumber, qty) -> {
+            InventoryBatch batch = byNumber.get(batchNumber);
+            if (batch == null) {
+                throw new InvalidInventoryOperationException(String.format(ERROR_BATCH_NOT_FOUND, batchNumber, request.getSku()),
+                        Reason.BATCH_NOT_FOUND);
+            }
+            if (batch.getQuantity() < qty) {
+                throw new InvalidInventoryOperationException(String.format(ERROR_INSUFFICIENT_QTY, batchNumber),
+                        Reason.INSUFFICIENT_QUANTITY);
+            }
+            batchIdToQuantity.put(batch.getId(), qty);
+            batchIdToNumber.put(batch.getId(), batchNumber);
+        });
+
+        // the guard re-checks quantity in the database, so a stale in-memory read cannot oversell
+        batchRepository.deductQuantities(batchIdToQuantity).forEach((batchId, updated) -> {
+            if (updated == 0) {
+                throw new InvalidInventoryOperationException(String.format(ERROR_INSUFFICIENT_QTY, batchIdToNumber.get(batchId)),
+                        Reason.CONCURRENT_UPDATE);
+            }
+        });
+    }
+}
@@ -1,12 +1,13 @@
 package com.inventory.validation;
 
 
+import com.inventory.cache.ProductSkuCache;
 import com.inventory.dto.UpdateInventoryRequest;
 import com.inventory.entity.InventoryBatch;
 import com.inventory.handlers.InvalidInventoryOperationException;
+import com.inventory.handlers.InvalidInventoryOperationException.Reason;
 import com.inventory.handlers.ProductNotFoundException;
 import com.inventory.repository.InventoryBatchRepository;
-import com.inventory.repository.ProductRepository;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,20 +17,19 @@ import java.util.Optional;
 public class DefaultInventoryValidator implements BaseInventoryValidator {
 
     private final InventoryBatchRepository batchRepository;
-    private final ProductRepository productRepository;
+    private final ProductSkuCache productSkuCache;
+    private final UpdateInventoryRequestValidator requestValidator;
 
-    private static final String ERROR_REQUEST_BODY_MISSING = "Request body is missing";
-    private static final String ERROR_SKU_REQUIRED = "SKU must be provided";
-    private static final String ERROR_BATCH_QUANTITY_REQUIRED = "batchQuantityToDeduct must be provided and non-empty";
-    private static final String ERROR_QUANTITY_REQUIRED = "Quantity for batch '%s' must be provided";
-    private static final String ERROR_QUANTITY_POSITIVE = "Quantity to deduct for batch '%s' must be greater than 0";
     private static final String ERROR_PRODUCT_NOT_FOUND = "Product with SKU '%s' not found";
     private static final String ERROR_BATCH_NOT_FOUND = "Batch '%s' not found for product SKU '%s'";
     private static final String ERROR_INSUFFICIENT_QTY = "Insufficient qty in batch: %s";
 
-    public DefaultInventoryValidator(InventoryBatchRepository batchRepository, ProductRepository productRepository) {
+    public DefaultInventoryValidator(InventoryBatchRepository batchRepository,
+                                     ProductSkuCache productSkuCache,
+                                     UpdateInventoryRequestValidator requestValidator) {
         this.batchRepository = batchRepository;
-        this.productRepository = productRepository;
+        this.productSkuCache = productSkuCache;
+        this.requestValidator = requestValidator;
     }
 
     @Override
@@ -40,37 +40,24 @@ public class DefaultInventoryValidator implements BaseInventoryValidator {
     @Override
     @Transactional
     public void updateInventory(UpdateInventoryRequest request) {
-        // Validate request
-        if (request == null) {
-            throw new InvalidInventoryOperationException(ERROR_REQUEST_BODY_MISSING);
-        }
-        if (request.getSku() == null || request.getSku().isBlank()) {
-            throw new InvalidInventoryOperationException(ERROR_SKU_REQUIRED);
-        }
-        if (request.getBatchQuantityToDeduct() == null || request.getBatchQuantityToDeduct().isEmpty()) {
-            throw new InvalidInventoryOperationException(ERROR_BATCH_QUANTITY_REQUIRED);
-        }
+        requestValidator.validate(request);
 
         // Check if product exists by SKU
-        var productOpt = productRepository.findBySku(request.getSku());
-        if (productOpt.isEmpty()) {
+        var productIdOpt = productSkuCache.findProductId(request.getSku());
+        if (productIdOpt.isEmpty()) {
             throw new ProductNotFoundException(String.format(ERROR_PRODUCT_NOT_FOUND, request.getSku()));
         }
-        var product = productOpt.get();
+        Long productId = productIdOpt.get();
         request.getBatchQuantityToDeduct().forEach((batchNumber, qty) -> {
-            if (qty == null) {
-                throw new InvalidInventoryOperationException(String.format(ERROR_QUANTITY_REQUIRED, batchNumber));
-            }
-            if (qty <= 0) {
-                throw new InvalidInventoryOperationException(String.format(ERROR_QUANTITY_POSITIVE, batchNumber));
-            }
-            Optional<InventoryBatch> batchOpt = batchRepository.findByProductIdAndBatchNumber(product.getId(), batchNumber);
+            Optional<InventoryBatch> batchOpt = batchRepository.findByProductIdAndBatchNumber(productId, batchNumber);
             if (batchOpt.isEmpty()) {
-                throw new InvalidInventoryOperationException(String.format(ERROR_BATCH_NOT_FOUND, batchNumber, request.getSku()));
+                throw new InvalidInventoryOperationException(String.format(ERROR_BATCH_NOT_FOUND, batchNumber, request.getSku()),
+                        Reason.BATCH_NOT_FOUND);
             }
             InventoryBatch b = batchOpt.get();
             if (b.getQuantity() < qty) {
-                throw new InvalidInventoryOperationException(String.format(ERROR_INSUFFICIENT_QTY, batchNumber));
+                throw new InvalidInventoryOperationException(String.format(ERROR_INSUFFICIENT_QTY, batchNumber),
+                        Reason.INSUFFICIENT_QUANTITY);
             }
             b.setQuantity(b.getQuantity() - qty);
             batchRepository.save(b);
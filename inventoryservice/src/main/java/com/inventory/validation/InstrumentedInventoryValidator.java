@@ -0,0 +1,33 @@
+package com.inventory.validation;
+
+import com.inventory.dto.UpdateInventoryRequest;
+import com.inventory.metrics.DeductionMetrics;
+
+/**
+ * Decorator applied by {@link InventoryValidationFactory} so every validator type is measured the same way.
+ */
+class InstrumentedInventoryValidator implements BaseInventoryValidator {
+
+    private final BaseInventoryValidator delegate;
+    private final DeductionMetrics deductionMetrics;
+
+    InstrumentedInventoryValidator(BaseInventoryValidator delegate, DeductionMetrics deductionMetrics) {
+        this.delegate = delegate;
+        this.deductionMetrics = deductionMetrics;
+    }
+
+    @Override
+    public String getType() {
+        return delegate.getType();
+    }
+
+    @Override
+    public void updateInventory(UpdateInventoryRequest request) {
+        deductionMetrics.record(delegate.getType(), request, () -> delegate.updateInventory(request));
+    }
+
+    @Override
+    public void undo(UpdateInventoryRequest request) {
+        delegate.undo(request);
+    }
+}
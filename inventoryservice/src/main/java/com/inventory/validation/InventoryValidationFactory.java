@@ -1,10 +1,13 @@
 package com.inventory.validation;
 
 
+import com.inventory.metrics.DeductionMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Component
@@ -13,9 +16,21 @@ public class InventoryValidationFactory {
 
     public static final String INVALID_TYPE = "invalid type";
 
+    @Autowired
+    public InventoryValidationFactory(List<BaseInventoryValidator> validatorList, DeductionMetrics deductionMetrics) {
+        this(validatorList, deductionMetrics.isEnabled()
+                ? validator -> new InstrumentedInventoryValidator(validator, deductionMetrics)
+                : Function.identity());
+    }
+
     public InventoryValidationFactory(List<BaseInventoryValidator> validatorList) {
+        this(validatorList, Function.identity());
+    }
+
+    private InventoryValidationFactory(List<BaseInventoryValidator> validatorList,
+                                       Function<BaseInventoryValidator, BaseInventoryValidator> decorator) {
         this.validatorMap = validatorList.stream()
-                .collect(Collectors.toMap(BaseInventoryValidator::getType, h -> h));
+                .collect(Collectors.toMap(BaseInventoryValidator::getType, decorator));
     }
 
     public BaseInventoryValidator getValidator(String type) {
@@ -0,0 +1,54 @@
+package com.inventory.validation;
+
+import com.inventory.cache.ProductSkuCache;
+import com.inventory.dto.UpdateInventoryRequest;
+import com.inventory.handlers.ProductNotFoundException;
+import com.inventory.ledger.StockLedger;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Deducts against the in-memory {@link StockLedger}; the database is updated by the ledger's write-behind.
+ * Only registered when {@code inventory.ledger.enabled=true}.
+ */
+@Component
+@ConditionalOnProperty(name = "inventory.ledger.enabled", havingValue = "true")
+public class LedgerInventoryValidator implements BaseInventoryValidator {
+
+    private final StockLedger stockLedger;
+    private final ProductSkuCache productSkuCache;
+    private final UpdateInventoryRequestValidator requestValidator;
+
+    private static final String LEDGER_TYPE = "ledger";
+    private static final String ERROR_PRODUCT_NOT_FOUND = "Product with SKU '%s' not found";
+
+    public LedgerInventoryValidator(StockLedger stockLedger,
+                                    ProductSkuCache productSkuCache,
+                                    UpdateInventoryRequestValidator requestValidator) {
+        this.stockLedger = stockLedger;
+        this.productSkuCache = productSkuCache;
+        this.requestValidator = requestValidator;
+    }
+
+    @Override
+    public String getType() {
+        return LEDGER_TYPE;
+    }
+
+    @Override
+    public void updateInventory(UpdateInventoryRequest request) {
+        requestValidator.validate(request);
+
+        Long productId = productSkuCache.findProductId(request.getSku())
+                .orElseThrow(() -> new ProductNotFoundException(String.format(ERROR_PRODUCT_NOT_FOUND, request.getSku())));
+
+        stockLedger.reserve(productId, request.getBatchQuantityToDeduct());
+    }
+
+    // the ledger changes memory, not the transaction, so a rolled-back batch has to hand its stock back here
+    @Override
+    public void undo(UpdateInventoryRequest request) {
+        productSkuCache.findProductId(request.getSku())
+                .ifPresent(productId -> stockLedger.release(productId, request.getBatchQuantityToDeduct()));
+    }
+}
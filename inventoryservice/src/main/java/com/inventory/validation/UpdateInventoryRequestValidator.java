@@ -0,0 +1,38 @@
+package com.inventory.validation;
+
+import com.inventory.dto.UpdateInventoryRequest;
+import com.inventory.handlers.InvalidInventoryOperationException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Shape checks shared by the deduction validators: body, SKU and per-batch quantities.
+ */
+@Component
+public class UpdateInventoryRequestValidator {
+
+    private static final String ERROR_REQUEST_BODY_MISSING = "Request body is missing";
+    private static final String ERROR_SKU_REQUIRED = "SKU must be provided";
+    private static final String ERROR_BATCH_QUANTITY_REQUIRED = "batchQuantityToDeduct must be provided and non-empty";
+    private static final String ERROR_QUANTITY_REQUIRED = "Quantity for batch '%s' must be provided";
+    private static final String ERROR_QUANTITY_POSITIVE = "Quantity to deduct for batch '%s' must be greater than 0";
+
+    public void validate(UpdateInventoryRequest request) {
+        if (request == null) {
+            throw new InvalidInventoryOperationException(ERROR_REQUEST_BODY_MISSING);
+        }
+        if (request.getSku() == null || request.getSku().isBlank()) {
+            throw new InvalidInventoryOperationException(ERROR_SKU_REQUIRED);
+        }
+        if (request.getBatchQuantityToDeduct() == null || request.getBatchQuantityToDeduct().isEmpty()) {
+            throw new InvalidInventoryOperationException(ERROR_BATCH_QUANTITY_REQUIRED);
+        }
+        request.getBatchQuantityToDeduct().forEach((batchNumber, qty) -> {
+            if (qty == null) {
+                throw new InvalidInventoryOperationException(String.format(ERROR_QUANTITY_REQUIRED, batchNumber));
+            }
+            if (qty <= 0) {
+                throw new InvalidInventoryOperationException(String.format(ERROR_QUANTITY_POSITIVE, batchNumber));
+            }
+        });
+    }
+}
@@ -0,0 +1,54 @@
+-- Schema as Hibernate created it with ddl-auto=update before migrations were introduced.
+-- A database that already has these tables is baselined at this version (spring.flyway.baseline-on-migrate).
+
+create table products (
+    id bigint generated by default as identity,
+    name varchar(255),
+    sku varchar(255),
+    primary key (id)
+);
+
+create table inventory_batches (
+    id bigint generated by default as identity,
+    batch_number varchar(255),
+    expiry_date date,
+    quantity integer,
+    product_id bigint not null,
+    primary key (id),
+    constraint fk_inventory_batches_product foreign key (product_id) references products (id)
+);
+
+create table stock_reservations (
+    id bigint generated by default as identity,
+    created_at timestamp(6) with time zone,
+    expires_at timestamp(6) with time zone not null,
+    quantity integer,
+    reservation_id varchar(36) not null,
+    sku varchar(255),
+    status varchar(16) not null check (status in ('HELD', 'CONFIRMED', 'RELEASED', 'EXPIRED')),
+    primary key (id),
+    constraint ux_stock_reservations_reservation_id unique (reservation_id)
+);
+
+create index ix_stock_reservations_status_expires_at on stock_reservations (status, expires_at);
+
+create table stock_reservation_batches (
+    reservation_id bigint not null,
+    batch_id bigint not null,
+    batch_number varchar(255),
+    quantity integer,
+    constraint fk_stock_reservation_batches_reservation foreign key (reservation_id) references stock_reservations (id)
+);
+
+create table idempotency_keys (
+    idempotency_key varchar(255) not null,
+    body blob,
+    content_type varchar(255),
+    created_at timestamp(6),
+    expires_at timestamp(6) not null,
+    fingerprint varchar(64) not null,
+    status integer not null,
+    primary key (idempotency_key)
+);
+
+create index ix_idempotency_keys_expires_at on idempotency_keys (expires_at);
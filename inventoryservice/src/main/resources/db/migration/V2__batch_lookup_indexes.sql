@@ -0,0 +1,19 @@
+-- Indexes for the SKU and batch lookups on the deduction and allocation paths, and sequences for batched inserts.
+-- The unique indexes fail on a database that already holds duplicate SKUs or batch numbers per product;
+-- those have to be merged by hand first.
+
+-- ProductRepository.findBySku / findBySkuIn
+create unique index ux_products_sku on products (sku);
+
+-- findByProductIdAndBatchNumber(In), existsByProductIdAndBatchNumber and the deductIfAvailable update
+create unique index ux_inventory_batches_product_batch_number on inventory_batches (product_id, batch_number);
+
+-- findByProductIdOrderByExpiryDateAsc, the DTO projections and findAllocatableForUpdate read a product's batches
+-- in expiry order, ties by id. H2 already indexes the product_id foreign key and may pick that instead, which is as
+-- selective; databases that do not index foreign keys rely on this one. quantity is left out on purpose: every
+-- deduction updates it, and keeping it here would turn each of those into an index rewrite too.
+create index ix_inventory_batches_product_expiry on inventory_batches (product_id, expiry_date, id);
+
+-- Hibernate's pooled optimizer hands out ids below the value it draws, so start one allocation past existing rows
+create sequence products_seq start with (select coalesce(max(id), 0) + 51 from products) increment by 50;
+create sequence inventory_batches_seq start with (select coalesce(max(id), 0) + 51 from inventory_batches) increment by 50;
@@ -0,0 +1,3 @@
+-- Sequence for stock_reservations ids, so reservation inserts can be batched like products and inventory_batches.
+-- Hibernate's pooled optimizer hands out ids below the value it draws, so start one allocation past existing rows
+create sequence stock_reservations_seq start with (select coalesce(max(id), 0) + 51 from stock_reservations) increment by 50;
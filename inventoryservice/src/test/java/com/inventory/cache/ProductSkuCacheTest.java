@@ -0,0 +1,184 @@
+package com.inventory.cache;
+
+import com.inventory.entity.Product;
+import com.inventory.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductSkuCacheTest {
+
+    private static final String SKU_1 = "SKU-1";
+    private static final String SKU_2 = "SKU-2";
+    private static final String UNKNOWN_SKU = "NOPE";
+
+    @Mock
+    ProductRepository productRepository;
+
+    private static Product product(Long id, String sku) {
+        Product product = new Product();
+        product.setId(id);
+        product.setSku(sku);
+        return product;
+    }
+
+    private ProductSkuCache cache(long negativeTtlMillis) {
+        return new ProductSkuCache(productRepository, true, 2, 10, negativeTtlMillis);
+    }
+
+    private static ProductRepository.SkuId skuId(Long id, String sku) {
+        return new ProductRepository.SkuId() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getSku() {
+                return sku;
+            }
+        };
+    }
+
+    @Test
+    void preload_servesKnownSkusWithoutQuerying() {
+        when(productRepository.findIdsByIdGreaterThanOrderByIdAsc(0L, PageRequest.ofSize(2)))
+                .thenReturn(List.of(skuId(1L, SKU_1)));
+        ProductSkuCache cache = cache(60_000);
+        cache.preload();
+
+        assertThat(cache.findProductId(SKU_1)).contains(1L);
+        verify(productRepository, times(0)).findBySku(SKU_1);
+        assertThat(cache.getHits()).isEqualTo(1);
+    }
+
+    @Test
+    void preload_readsPagesUntilMaxSize() {
+        when(productRepository.findIdsByIdGreaterThanOrderByIdAsc(0L, PageRequest.ofSize(1)))
+                .thenReturn(List.of(skuId(1L, SKU_1)));
+        when(productRepository.findIdsByIdGreaterThanOrderByIdAsc(1L, PageRequest.ofSize(1)))
+                .thenReturn(List.of(skuId(2L, SKU_2)));
+        ProductSkuCache cache = new ProductSkuCache(productRepository, true, 2, 10, 60_000, 1);
+
+        cache.preload();
+
+        assertThat(cache.size()).isEqualTo(2);
+        verify(productRepository, times(2)).findIdsByIdGreaterThanOrderByIdAsc(any(), any());
+    }
+
+    @Test
+    void register_dropsTheSkuAProductWasRenamedFrom() {
+        ProductSkuCache cache = cache(60_000);
+        cache.register(product(7L, SKU_1));
+        when(productRepository.findBySku(SKU_1)).thenReturn(Optional.empty());
+
+        cache.register(product(7L, SKU_2));
+
+        assertThat(cache.findProductId(SKU_2)).contains(7L);
+        assertThat(cache.findProductId(SKU_1)).isEmpty();
+        verify(productRepository).findBySku(SKU_1);
+    }
+
+    @Test
+    void findProductId_missIsLoadedOnce() {
+        when(productRepository.findBySku(SKU_1)).thenReturn(Optional.of(product(1L, SKU_1)));
+        ProductSkuCache cache = cache(60_000);
+
+        cache.findProductId(SKU_1);
+        assertThat(cache.findProductId(SKU_1)).contains(1L);
+
+        verify(productRepository, times(1)).findBySku(SKU_1);
+        assertThat(cache.getMisses()).isEqualTo(1);
+        assertThat(cache.getHitRatio()).isEqualTo(0.5);
+    }
+
+    @Test
+    void findProductId_unknownSkuIsRememberedUntilTtl() throws InterruptedException {
+        when(productRepository.findBySku(UNKNOWN_SKU)).thenReturn(Optional.empty());
+        ProductSkuCache shortLived = cache(1);
+
+        assertThat(shortLived.findProductId(UNKNOWN_SKU)).isEmpty();
+        Thread.sleep(5);
+        assertThat(shortLived.findProductId(UNKNOWN_SKU)).isEmpty();
+        verify(productRepository, times(2)).findBySku(UNKNOWN_SKU);
+
+        ProductSkuCache longLived = cache(60_000);
+        longLived.findProductId(UNKNOWN_SKU);
+        longLived.findProductId(UNKNOWN_SKU);
+        verify(productRepository, times(3)).findBySku(UNKNOWN_SKU);
+        assertThat(longLived.getNegativeHits()).isEqualTo(1);
+    }
+
+    @Test
+    void register_replacesNegativeEntry() {
+        when(productRepository.findBySku(SKU_1)).thenReturn(Optional.empty());
+        ProductSkuCache cache = cache(60_000);
+        cache.findProductId(SKU_1);
+
+        cache.register(product(7L, SKU_1));
+
+        assertThat(cache.findProductId(SKU_1)).contains(7L);
+    }
+
+    @Test
+    void evict_forgetsDeletedProduct() {
+        ProductSkuCache cache = cache(60_000);
+        cache.register(product(7L, SKU_1));
+        when(productRepository.findBySku(SKU_1)).thenReturn(Optional.empty());
+
+        cache.evict(product(7L, SKU_1));
+
+        assertThat(cache.findProductId(SKU_1)).isEmpty();
+    }
+
+    @Test
+    void findProductId_boundedToMaxSize() {
+        ProductSkuCache cache = cache(60_000);
+        cache.register(product(1L, SKU_1));
+        cache.register(product(2L, SKU_2));
+        cache.register(product(3L, "SKU-3"));
+        when(productRepository.findBySku(SKU_1)).thenReturn(Optional.of(product(1L, SKU_1)));
+
+        assertThat(cache.findProductId(SKU_1)).contains(1L);
+        verify(productRepository).findBySku(SKU_1);
+    }
+
+    @Test
+    void findProductId_disabledAlwaysQueries() {
+        ProductSkuCache cache = new ProductSkuCache(productRepository, false, 2, 10, 60_000);
+        when(productRepository.findBySku(SKU_1)).thenReturn(Optional.of(product(1L, SKU_1)));
+
+        cache.findProductId(SKU_1);
+        cache.findProductId(SKU_1);
+
+        verify(productRepository, times(2)).findBySku(SKU_1);
+    }
+
+    @Test
+    void bindTo_publishesHitRatio() {
+        ProductSkuCache cache = cache(60_000);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+        cache.register(product(1L, SKU_1));
+
+        cache.findProductId(SKU_1);
+
+        assertThat(registry.get("inventory.product.cache.requests").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("inventory.product.cache.hit.ratio").gauge().value()).isEqualTo(1.0);
+        verifyNoInteractions(productRepository);
+    }
+}
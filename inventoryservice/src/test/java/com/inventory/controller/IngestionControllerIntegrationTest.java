@@ -0,0 +1,278 @@
+package com.inventory.controller;
+
+import com.inventory.dto.IngestionResult;
+import com.inventory.dto.SnapshotImportResult;
+import com.inventory.entity.InventoryBatch;
+import com.inventory.entity.Product;
+import com.inventory.repository.InventoryBatchRepository;
+import com.inventory.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.LocalDate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Chunks and import blocks of three rows, so every feed here spans several transactions.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:ingestiondb;DB_CLOSE_DELAY=-1",
+        "inventory.ingest.chunk-size=3",
+        "inventory.import.block-size=3"
+})
+class IngestionControllerIntegrationTest {
+
+    private static final String BASE_URL = "http://localhost:";
+    private static final String PRODUCTS_BULK_URL = "/inventory/products/bulk";
+    private static final String BATCHES_BULK_URL = "/inventory/batches/bulk";
+    private static final String SNAPSHOT_URL = "/inventory/imports/snapshot";
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+    private static final String SKU = "SKU-ING-1";
+
+    private final ProductRepository productRepository;
+    private final InventoryBatchRepository inventoryBatchRepository;
+    private final WebTestClient client;
+
+    private Product product;
+
+    @Autowired
+    IngestionControllerIntegrationTest(@LocalServerPort int port, ProductRepository productRepository,
+                                       InventoryBatchRepository inventoryBatchRepository) {
+        this.productRepository = productRepository;
+        this.inventoryBatchRepository = inventoryBatchRepository;
+        this.client = WebTestClient.bindToServer().baseUrl(BASE_URL + port).build();
+    }
+
+    @BeforeEach
+    void setup() {
+        inventoryBatchRepository.deleteAll();
+        productRepository.deleteAll();
+
+        product = new Product();
+        product.setSku(SKU);
+        product.setName("Existing product");
+        product = productRepository.save(product);
+    }
+
+    @Test
+    void ingestProducts_json_insertsAcrossChunks() {
+        String body = IntStream.rangeClosed(1, 10)
+                .mapToObj(i -> String.format("{\"sku\":\"SKU-BULK-%d\",\"name\":\"Bulk %d\"}", i, i))
+                .collect(Collectors.joining(",", "[", "]"));
+
+        IngestionResult result = post(PRODUCTS_BULK_URL, MediaType.APPLICATION_JSON, body, HttpStatus.OK);
+
+        assertThat(result.getReceived()).isEqualTo(10);
+        assertThat(result.getInserted()).isEqualTo(10);
+        assertThat(result.getRejected()).isZero();
+        assertThat(result.getRowsPerSecond()).isPositive();
+        assertThat(productRepository.findBySku("SKU-BULK-10")).get().extracting(Product::getName).isEqualTo("Bulk 10");
+    }
+
+    @Test
+    void ingestProducts_csv_rejectsExistingDuplicateAndBlankSkus() {
+        String body = """
+                sku,name
+                SKU-CSV-1,"Widget, large"
+                SKU-ING-1,Already there
+                SKU-CSV-1,Same SKU again
+
+                ,No SKU
+                SKU-CSV-2,Gadget
+                """;
+
+        IngestionResult result = post(PRODUCTS_BULK_URL, TEXT_CSV, body, HttpStatus.OK);
+
+        assertThat(result.getReceived()).isEqualTo(5);
+        assertThat(result.getInserted()).isEqualTo(2);
+        assertThat(result.getRejected()).isEqualTo(3);
+        assertThat(result.getRejections()).containsExactly(
+                "row 3: SKU 'SKU-CSV-1' appears more than once in this chunk",
+                "row 2: SKU 'SKU-ING-1' already exists",
+                "row 4: sku is required");
+        assertThat(productRepository.findBySku("SKU-CSV-1")).get().extracting(Product::getName).isEqualTo("Widget, large");
+        assertThat(productRepository.findBySku("SKU-CSV-2")).isPresent();
+    }
+
+    @Test
+    void ingestBatches_json_resolvesSkusAndRejectsBadRows() {
+        InventoryBatch existing = new InventoryBatch();
+        existing.setProduct(product);
+        existing.setBatchNumber("B-OLD");
+        existing.setQuantity(1);
+        inventoryBatchRepository.save(existing);
+
+        String body = """
+                [
+                  {"sku":"SKU-ING-1","batchNumber":"B-1","quantity":10,"expiryDate":"2031-01-01"},
+                  {"sku":"SKU-ING-1","batchNumber":"B-OLD","quantity":5},
+                  {"sku":"SKU-NOPE","batchNumber":"B-1","quantity":5},
+                  {"sku":"SKU-ING-1","batchNumber":"B-2","quantity":-1},
+                  {"sku":"SKU-ING-1","batchNumber":"B-3","quantity":"lots"},
+                  {"sku":"SKU-ING-1","batchNumber":"B-4","quantity":7}
+                ]
+                """;
+
+        IngestionResult result = post(BATCHES_BULK_URL, MediaType.APPLICATION_JSON, body, HttpStatus.OK);
+
+        assertThat(result.getReceived()).isEqualTo(6);
+        assertThat(result.getInserted()).isEqualTo(2);
+        assertThat(result.getRejected()).isEqualTo(4);
+        assertThat(result.getRejections()).hasSize(4)
+                .anyMatch(r -> r.startsWith("row 2: Batch 'B-OLD' already exists"))
+                .anyMatch(r -> r.startsWith("row 3: Product with SKU 'SKU-NOPE' not found"))
+                .anyMatch(r -> r.startsWith("row 4: quantity"))
+                .anyMatch(r -> r.startsWith("row 5: "));
+        InventoryBatch b1 = inventoryBatchRepository.findByProductIdAndBatchNumber(product.getId(), "B-1").orElseThrow();
+        assertThat(b1.getQuantity()).isEqualTo(10);
+        assertThat(b1.getExpiryDate()).isEqualTo(LocalDate.of(2031, 1, 1));
+        assertThat(inventoryBatchRepository.findByProductIdAndBatchNumber(product.getId(), "B-4")).isPresent();
+    }
+
+    @Test
+    void ingestBatches_csv_parsesQuantitiesAndDates() {
+        String body = """
+                SKU,batchNumber,quantity,expiryDate
+                SKU-ING-1,B-10,3,2030-06-30
+                SKU-ING-1,B-11,4,
+                SKU-ING-1,B-12,4,30/06/2030
+                SKU-ING-1,B-10,1,2030-06-30
+                """;
+
+        IngestionResult result = post(BATCHES_BULK_URL, TEXT_CSV, body, HttpStatus.OK);
+
+        assertThat(result.getInserted()).isEqualTo(2);
+        assertThat(result.getRejected()).isEqualTo(2);
+        assertThat(result.getRejections()).anyMatch(r -> r.startsWith("row 3: "))
+                .contains("row 4: Batch 'B-10' of SKU 'SKU-ING-1' appears more than once in this chunk");
+        assertThat(inventoryBatchRepository.findByProductIdAndBatchNumber(product.getId(), "B-11").orElseThrow().getExpiryDate()).isNull();
+    }
+
+    @Test
+    void ingestProducts_malformedJson_keepsCommittedChunksAndReturns400() {
+        String body = "[{\"sku\":\"SKU-M-1\"},{\"sku\":\"SKU-M-2\"},{\"sku\":\"SKU-M-3\"},{\"sku\":\"SKU-M-4\"},{\"sku\":";
+
+        IngestionResult result = post(PRODUCTS_BULK_URL, MediaType.APPLICATION_JSON, body, HttpStatus.BAD_REQUEST);
+
+        assertThat(result.getError()).startsWith("Stopped after row 4");
+        assertThat(result.getInserted()).isEqualTo(3);
+        assertThat(productRepository.findBySku("SKU-M-3")).isPresent();
+        assertThat(productRepository.findBySku("SKU-M-4")).isEmpty();
+    }
+
+    @Test
+    void ingestProducts_notAnArray_returns400() {
+        IngestionResult result = post(PRODUCTS_BULK_URL, MediaType.APPLICATION_JSON, "{\"sku\":\"X\"}", HttpStatus.BAD_REQUEST);
+
+        assertThat(result.getReceived()).isZero();
+        assertThat(result.getError()).contains("Expected a JSON array");
+    }
+
+    @Test
+    void importSnapshot_csv_upsertsProductsAndBatches() {
+        InventoryBatch existing = new InventoryBatch();
+        existing.setProduct(product);
+        existing.setBatchNumber("B-1");
+        existing.setQuantity(1);
+        inventoryBatchRepository.save(existing);
+
+        String body = """
+                sku,batchNumber,quantity,expiryDate
+                SKU-ING-1,B-1,40,2031-03-01
+                SKU-ING-1,B-2,5,
+                SKU-NEW-1,B-1,7,2030-12-31
+                SKU-NEW-1,B-1,8,2030-12-31
+                SKU-NEW-2,B-9,-4,
+                SKU-NEW-2,B-9,nine,
+                SKU-NEW-2,B-9,9,2032-01-01
+                """;
+
+        SnapshotImportResult result = postSnapshot(TEXT_CSV, body, HttpStatus.OK);
+
+        assertThat(result.getReceived()).isEqualTo(7);
+        assertThat(result.getApplied()).isEqualTo(5);
+        assertThat(result.getRejected()).isEqualTo(2);
+        assertThat(result.getProductsCreated()).isEqualTo(2);
+        assertThat(result.getBatchesUpdated()).isEqualTo(2);
+        assertThat(result.getBatchesInserted()).isEqualTo(3);
+        assertThat(result.getRejections()).hasSize(2)
+                .anyMatch(r -> r.startsWith("row 5: quantity"))
+                .anyMatch(r -> r.startsWith("row 6: "));
+
+        InventoryBatch updated = inventoryBatchRepository.findByProductIdAndBatchNumber(product.getId(), "B-1").orElseThrow();
+        assertThat(updated.getId()).isEqualTo(existing.getId());
+        assertThat(updated.getQuantity()).isEqualTo(40);
+        assertThat(updated.getExpiryDate()).isEqualTo(LocalDate.of(2031, 3, 1));
+        Product created = productRepository.findBySku("SKU-NEW-1").orElseThrow();
+        // rows 3 and 4 land in different blocks; the later one wins
+        assertThat(inventoryBatchRepository.findByProductIdAndBatchNumber(created.getId(), "B-1").orElseThrow().getQuantity()).isEqualTo(8);
+        Product other = productRepository.findBySku("SKU-NEW-2").orElseThrow();
+        assertThat(inventoryBatchRepository.findByProductIdAndBatchNumber(other.getId(), "B-9").orElseThrow().getQuantity()).isEqualTo(9);
+    }
+
+    @Test
+    void importSnapshot_ndjson_rejectsMalformedLinesAndKeepsGoing() {
+        String body = """
+                {"sku":"SKU-ING-1","batchNumber":"N-1","quantity":3,"expiryDate":"2030-01-01"}
+                {"sku":"SKU-ING-1","batchNumber":"N-2",
+                {"sku":"SKU-ING-1","batchNumber":"N-3","quantity":4}
+
+                {"batchNumber":"N-4","quantity":4}
+                """;
+
+        SnapshotImportResult result = postSnapshot(APPLICATION_NDJSON, body, HttpStatus.OK);
+
+        assertThat(result.getReceived()).isEqualTo(4);
+        assertThat(result.getApplied()).isEqualTo(2);
+        assertThat(result.getRejections()).hasSize(2)
+                .anyMatch(r -> r.startsWith("row 2: "))
+                .contains("row 4: sku is required");
+        assertThat(inventoryBatchRepository.findByProductIdAndBatchNumber(product.getId(), "N-3")).isPresent();
+    }
+
+    @Test
+    void importSnapshot_csvWithoutHeader_returns400() {
+        SnapshotImportResult result = postSnapshot(TEXT_CSV, "", HttpStatus.BAD_REQUEST);
+
+        assertThat(result.getError()).contains("header line");
+        assertThat(result.getReceived()).isZero();
+    }
+
+    private SnapshotImportResult postSnapshot(MediaType contentType, String body, HttpStatus expectedStatus) {
+        SnapshotImportResult result = client.post()
+                .uri(SNAPSHOT_URL)
+                .contentType(contentType)
+                .bodyValue(body)
+                .exchange()
+                .expectStatus().isEqualTo(expectedStatus)
+                .expectBody(SnapshotImportResult.class)
+                .returnResult()
+                .getResponseBody();
+        assertThat(result).isNotNull();
+        return result;
+    }
+
+    private IngestionResult post(String url, MediaType contentType, String body, HttpStatus expectedStatus) {
+        IngestionResult result = client.post()
+                .uri(url)
+                .contentType(contentType)
+                .bodyValue(body)
+                .exchange()
+                .expectStatus().isEqualTo(expectedStatus)
+                .expectBody(IngestionResult.class)
+                .returnResult()
+                .getResponseBody();
+        assertThat(result).isNotNull();
+        return result;
+    }
+}
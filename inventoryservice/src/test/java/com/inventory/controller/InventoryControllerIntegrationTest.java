@@ -10,10 +10,16 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.reactive.server.WebTestClient;
 
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -40,10 +46,17 @@ class InventoryControllerIntegrationTest {
     private static final String PRODUCT_NAME = "Integration Product";
     private static final String BATCH_NUMBER = "BATCH-INT-1";
     private static final String UPDATE_URL = "/inventory/update?handlerType=default";
+    private static final String BULK_UPDATE_URL = "/inventory/update?handlerType=bulk";
+    private static final String BATCH_NUMBER_2 = "BATCH-INT-2";
+    private static final String ALLOCATE_URL = "/inventory/allocate";
+    private static final String BULK_LINES_URL = "/inventory/update/bulk?handlerType=atomic";
+    private static final String BATCHES_BY_SKUS_URL = "/inventory/batches/by-skus";
     private static final String BATCH_MISSING = "MISSING-BATCH";
     private static final String GET_BATCHES_URL = "/inventory/batches";
     private static final String QUERY_PARAM_SKU = "sku";
     private static final String RESPONSE_KEY_MESSAGE = "message";
+    private static final String BATCH_PAGE_URL = "/inventory/batches/page";
+    private static final String BATCH_STREAM_URL = "/inventory/batches/stream";
 
     @BeforeEach
     void setup() {
@@ -94,6 +107,202 @@ class InventoryControllerIntegrationTest {
         assertThat(updated.getQuantity()).isEqualTo(2);
     }
 
+    @Test
+    void bulkUpdateInventory_deductsEveryBatch() {
+        InventoryBatch b1 = new InventoryBatch();
+        b1.setBatchNumber(BATCH_NUMBER);
+        b1.setQuantity(5);
+        b1.setExpiryDate(LocalDate.now().plusDays(10));
+        b1.setProduct(product);
+        inventoryBatchRepository.save(b1);
+
+        InventoryBatch b2 = new InventoryBatch();
+        b2.setBatchNumber(BATCH_NUMBER_2);
+        b2.setQuantity(4);
+        b2.setExpiryDate(LocalDate.now().plusDays(20));
+        b2.setProduct(product);
+        inventoryBatchRepository.save(b2);
+
+        WebTestClient client = WebTestClient.bindToServer()
+                .baseUrl(BASE_URL + port)
+                .build();
+        String body = String.format("{\"sku\":\"%s\", \"batchQuantityToDeduct\": { \"%s\": 5, \"%s\": 1 } }", SKU, BATCH_NUMBER, BATCH_NUMBER_2);
+
+        client.post()
+                .uri(BULK_UPDATE_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body)
+                .exchange()
+                .expectStatus().isOk();
+
+        assertThat(inventoryBatchRepository.findByProductIdAndBatchNumber(product.getId(), BATCH_NUMBER).orElseThrow().getQuantity()).isZero();
+        assertThat(inventoryBatchRepository.findByProductIdAndBatchNumber(product.getId(), BATCH_NUMBER_2).orElseThrow().getQuantity()).isEqualTo(3);
+    }
+
+    @Test
+    void bulkUpdateInventory_insufficientQty_returns400AndLeavesStock() {
+        InventoryBatch b1 = new InventoryBatch();
+        b1.setBatchNumber(BATCH_NUMBER);
+        b1.setQuantity(2);
+        b1.setExpiryDate(LocalDate.now().plusDays(10));
+        b1.setProduct(product);
+        inventoryBatchRepository.save(b1);
+
+        WebTestClient client = WebTestClient.bindToServer()
+                .baseUrl(BASE_URL + port)
+                .build();
+        String body = String.format("{\"sku\":\"%s\", \"batchQuantityToDeduct\": { \"%s\": 3 } }", SKU, BATCH_NUMBER);
+
+        client.post()
+                .uri(BULK_UPDATE_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body)
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        assertThat(inventoryBatchRepository.findByProductIdAndBatchNumber(product.getId(), BATCH_NUMBER).orElseThrow().getQuantity()).isEqualTo(2);
+    }
+
+    @Test
+    void allocate_deductsInExpiryOrder() {
+        InventoryBatch later = new InventoryBatch();
+        later.setBatchNumber(BATCH_NUMBER_2);
+        later.setQuantity(5);
+        later.setExpiryDate(LocalDate.now().plusDays(20));
+        later.setProduct(product);
+        inventoryBatchRepository.save(later);
+
+        InventoryBatch sooner = new InventoryBatch();
+        sooner.setBatchNumber(BATCH_NUMBER);
+        sooner.setQuantity(3);
+        sooner.setExpiryDate(LocalDate.now().plusDays(5));
+        sooner.setProduct(product);
+        inventoryBatchRepository.save(sooner);
+
+        WebTestClient client = WebTestClient.bindToServer()
+                .baseUrl(BASE_URL + port)
+                .build();
+
+        client.post()
+                .uri(ALLOCATE_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("sku", SKU, "quantity", 4))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.allocations[0].batchNumber").isEqualTo(BATCH_NUMBER)
+                .jsonPath("$.allocations[0].quantity").isEqualTo(3)
+                .jsonPath("$.allocations[1].batchNumber").isEqualTo(BATCH_NUMBER_2)
+                .jsonPath("$.allocations[1].quantity").isEqualTo(1);
+
+        assertThat(inventoryBatchRepository.findByProductIdAndBatchNumber(product.getId(), BATCH_NUMBER).orElseThrow().getQuantity()).isZero();
+        assertThat(inventoryBatchRepository.findByProductIdAndBatchNumber(product.getId(), BATCH_NUMBER_2).orElseThrow().getQuantity()).isEqualTo(4);
+    }
+
+    @Test
+    void allocate_insufficient_returns409() {
+        InventoryBatch b1 = new InventoryBatch();
+        b1.setBatchNumber(BATCH_NUMBER);
+        b1.setQuantity(2);
+        b1.setExpiryDate(LocalDate.now().plusDays(5));
+        b1.setProduct(product);
+        inventoryBatchRepository.save(b1);
+
+        WebTestClient client = WebTestClient.bindToServer()
+                .baseUrl(BASE_URL + port)
+                .build();
+
+        client.post()
+                .uri(ALLOCATE_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("sku", SKU, "quantity", 3))
+                .exchange()
+                .expectStatus().isEqualTo(409);
+
+        assertThat(inventoryBatchRepository.findByProductIdAndBatchNumber(product.getId(), BATCH_NUMBER).orElseThrow().getQuantity()).isEqualTo(2);
+    }
+
+    @Test
+    void availableBatches_skipEmptyAndExpiredAndAllocationHonoursShelfLife() {
+        saveBatch("EXPIRED", 5, -1);
+        saveBatch("EMPTY", 0, 3);
+        saveBatch(BATCH_NUMBER, 2, 5);
+        saveBatch(BATCH_NUMBER_2, 6, 60);
+
+        WebTestClient client = WebTestClient.bindToServer()
+                .baseUrl(BASE_URL + port)
+                .build();
+
+        client.get()
+                .uri(uriBuilder -> uriBuilder.path(GET_BATCHES_URL).queryParam(QUERY_PARAM_SKU, SKU).queryParam("available", true).build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].batchNumber").isEqualTo(BATCH_NUMBER)
+                .jsonPath("$[1].batchNumber").isEqualTo(BATCH_NUMBER_2);
+
+        client.get()
+                .uri(uriBuilder -> uriBuilder.path(BATCHES_BY_SKUS_URL).queryParam("skus", SKU).queryParam("available", true).build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$['" + SKU + "'].length()").isEqualTo(2);
+
+        // 30 days of shelf life rules out the batch expiring in 5 days even though it comes first
+        client.post()
+                .uri(ALLOCATE_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("sku", SKU, "quantity", 3, "minShelfLifeDays", 30))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.allocations.length()").isEqualTo(1)
+                .jsonPath("$.allocations[0].batchNumber").isEqualTo(BATCH_NUMBER_2);
+
+        assertThat(inventoryBatchRepository.findByProductIdAndBatchNumber(product.getId(), BATCH_NUMBER).orElseThrow().getQuantity()).isEqualTo(2);
+        assertThat(inventoryBatchRepository.findByProductIdAndBatchNumber(product.getId(), "EXPIRED").orElseThrow().getQuantity()).isEqualTo(5);
+    }
+
+    @Test
+    void bulkLines_fetchAndDeductSeveralLinesInOneCall() {
+        InventoryBatch b1 = new InventoryBatch();
+        b1.setBatchNumber(BATCH_NUMBER);
+        b1.setQuantity(5);
+        b1.setExpiryDate(LocalDate.now().plusDays(10));
+        b1.setProduct(product);
+        inventoryBatchRepository.save(b1);
+
+        WebTestClient client = WebTestClient.bindToServer()
+                .baseUrl(BASE_URL + port)
+                .build();
+
+        client.get()
+                .uri(uriBuilder -> uriBuilder.path(BATCHES_BY_SKUS_URL).queryParam("skus", SKU, BATCH_MISSING).build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$['" + SKU + "'][0].batchNumber").isEqualTo(BATCH_NUMBER)
+                .jsonPath("$['" + BATCH_MISSING + "']").isEmpty();
+
+        String body = String.format("[{\"sku\":\"%1$s\", \"batchQuantityToDeduct\": { \"%2$s\": 2 } }," +
+                "{\"sku\":\"%1$s\", \"batchQuantityToDeduct\": { \"%2$s\": 9 } }," +
+                "{\"sku\":\"%1$s\", \"batchQuantityToDeduct\": { \"%2$s\": 3 } }]", SKU, BATCH_NUMBER);
+
+        client.post()
+                .uri(BULK_LINES_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].success").isEqualTo(true)
+                .jsonPath("$[1].success").isEqualTo(false)
+                .jsonPath("$[2].success").isEqualTo(true);
+
+        assertThat(inventoryBatchRepository.findByProductIdAndBatchNumber(product.getId(), BATCH_NUMBER).orElseThrow().getQuantity()).isZero();
+    }
+
     @Test
     void updateInventory_batchMissing_returns400() {
         WebTestClient client = WebTestClient.bindToServer()
@@ -113,4 +322,135 @@ class InventoryControllerIntegrationTest {
 
         assertThat(respBody).containsKey(RESPONSE_KEY_MESSAGE);
     }
+
+    private void saveBatch(String batchNumber, int quantity, int expiryDays) {
+        InventoryBatch batch = new InventoryBatch();
+        batch.setBatchNumber(batchNumber);
+        batch.setQuantity(quantity);
+        batch.setExpiryDate(LocalDate.now().plusDays(expiryDays));
+        batch.setProduct(product);
+        inventoryBatchRepository.save(batch);
+    }
+
+    private void saveBatches(int count) {
+        for (int i = 0; i < count; i++) {
+            InventoryBatch batch = new InventoryBatch();
+            batch.setBatchNumber("PAGED-" + i);
+            batch.setQuantity(i);
+            batch.setExpiryDate(LocalDate.now().plusDays(i));
+            batch.setProduct(product);
+            inventoryBatchRepository.save(batch);
+        }
+    }
+
+    @Test
+    void batchPage_walksKeysetPagesWithFilters() {
+        saveBatches(5);
+        WebTestClient client = WebTestClient.bindToServer()
+                .baseUrl(BASE_URL + port)
+                .build();
+
+        Map<String, Object> first = client.get()
+                .uri(uriBuilder -> uriBuilder.path(BATCH_PAGE_URL)
+                        .queryParam("size", 2)
+                        .queryParam("expiryFrom", LocalDate.now().plusDays(1))
+                        .build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(new ParameterizedTypeReference<Map<String, Object>>() {})
+                .returnResult()
+                .getResponseBody();
+
+        assertThat(first).isNotNull();
+        assertThat((java.util.List<?>) first.get("items")).hasSize(2);
+        Number nextAfterId = (Number) first.get("nextAfterId");
+        assertThat(nextAfterId).isNotNull();
+
+        client.get()
+                .uri(uriBuilder -> uriBuilder.path(BATCH_PAGE_URL)
+                        .queryParam("size", 2)
+                        .queryParam("afterId", nextAfterId)
+                        .queryParam("expiryFrom", LocalDate.now().plusDays(1))
+                        .build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.items.length()").isEqualTo(2)
+                .jsonPath("$.items[0].batchNumber").isEqualTo("PAGED-3")
+                .jsonPath("$.nextAfterId").isNotEmpty();
+    }
+
+    @Test
+    void batchStream_writesOneJsonObjectPerLine() {
+        saveBatches(3);
+        WebTestClient client = WebTestClient.bindToServer()
+                .baseUrl(BASE_URL + port)
+                .build();
+
+        String body = client.get()
+                .uri(uriBuilder -> uriBuilder.path(BATCH_STREAM_URL)
+                        .queryParam("productIdFrom", product.getId())
+                        .queryParam("productIdTo", product.getId())
+                        .build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType("application/x-ndjson")
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertThat(body).isNotNull();
+        assertThat(Arrays.stream(body.split("\n")).filter(line -> !line.isBlank()))
+                .hasSize(3)
+                .allMatch(line -> line.startsWith("{") && line.contains("\"productId\":" + product.getId()));
+    }
+
+    @Test
+    void createProduct_duplicateSku_returns409() {
+        WebTestClient client = WebTestClient.bindToServer()
+                .baseUrl(BASE_URL + port)
+                .build();
+
+        client.post().uri("/inventory/product")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("sku", SKU, "name", PRODUCT_NAME))
+                .exchange()
+                .expectStatus().isEqualTo(409)
+                .expectBody()
+                .jsonPath("$." + RESPONSE_KEY_MESSAGE).value(message -> assertThat((String) message).contains("duplicate SKU"));
+    }
+
+    @Test
+    void getBatches_gzipsOnlyWhenAccepted() throws Exception {
+        saveBatches(100);
+
+        HttpResponse<byte[]> gzipped = getBatches(HttpClient.Version.HTTP_1_1, true);
+        HttpResponse<byte[]> plain = getBatches(HttpClient.Version.HTTP_1_1, false);
+
+        assertThat(gzipped.headers().firstValue(HttpHeaders.CONTENT_ENCODING)).hasValue("gzip");
+        assertThat(gzipped.body().length).isLessThan(plain.body().length / 2);
+        assertThat(plain.headers().firstValue(HttpHeaders.CONTENT_ENCODING)).isEmpty();
+    }
+
+    @Test
+    void getBatches_servesCleartextHttp2() throws Exception {
+        saveBatches(1);
+
+        HttpResponse<byte[]> response = getBatches(HttpClient.Version.HTTP_2, false);
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.version()).isEqualTo(HttpClient.Version.HTTP_2);
+        assertThat(new String(response.body())).contains("PAGED-0");
+    }
+
+    // the JDK client leaves gzip bodies compressed, unlike WebTestClient's Reactor Netty connector
+    private HttpResponse<byte[]> getBatches(HttpClient.Version version, boolean acceptGzip) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder()
+                .uri(URI.create(BASE_URL + port + GET_BATCHES_URL + "?" + QUERY_PARAM_SKU + "=" + SKU));
+        if (acceptGzip) {
+            request.header(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        }
+        return HttpClient.newBuilder().version(version).build()
+                .send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
 }
@@ -0,0 +1,165 @@
+package com.inventory.controller;
+
+import com.inventory.dto.ReservationResponse;
+import com.inventory.dto.ReserveInventoryRequest;
+import com.inventory.entity.InventoryBatch;
+import com.inventory.entity.Product;
+import com.inventory.entity.ReservationStatus;
+import com.inventory.repository.InventoryBatchRepository;
+import com.inventory.repository.ProductRepository;
+import com.inventory.repository.StockReservationRepository;
+import com.inventory.service.ReservationSweeper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.show-sql=false",
+        // the test drives the sweeper itself
+        "inventory.reservations.sweep-interval-ms=3600000"
+})
+class ReservationControllerIntegrationTest {
+
+    private static final String SKU = "SKU-RES-1";
+    private static final String RESERVATIONS_URL = "/inventory/reservations";
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    ProductRepository productRepository;
+
+    @Autowired
+    InventoryBatchRepository inventoryBatchRepository;
+
+    @Autowired
+    StockReservationRepository reservationRepository;
+
+    @Autowired
+    ReservationSweeper reservationSweeper;
+
+    private WebTestClient client;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        reservationRepository.deleteAll();
+        inventoryBatchRepository.deleteAll();
+        productRepository.deleteAll();
+
+        product = new Product();
+        product.setSku(SKU);
+        product.setName("Reservation Product");
+        product = productRepository.save(product);
+        saveBatch("RES-B1", 3, 5);
+        saveBatch("RES-B2", 10, 20);
+
+        client = WebTestClient.bindToServer().baseUrl("http://localhost:" + port).build();
+    }
+
+    @Test
+    void reserveThenConfirm_keepsStockDeducted() {
+        ReservationResponse reservation = reserve(5, null);
+
+        assertThat(reservation.getStatus()).isEqualTo(ReservationStatus.HELD);
+        assertThat(reservation.getAllocations()).extracting("batchNumber").containsExactly("RES-B1", "RES-B2");
+        assertThat(totalStock()).isEqualTo(8);
+
+        ReservationResponse confirmed = post(reservation.getReservationId(), "confirm", 200);
+        assertThat(confirmed.getStatus()).isEqualTo(ReservationStatus.CONFIRMED);
+        // repeated confirms are answered, not applied twice
+        post(reservation.getReservationId(), "confirm", 200);
+        client.post().uri(RESERVATIONS_URL + "/" + reservation.getReservationId() + "/release")
+                .exchange().expectStatus().isEqualTo(409);
+        assertThat(totalStock()).isEqualTo(8);
+    }
+
+    @Test
+    void release_returnsStockOnce() {
+        ReservationResponse reservation = reserve(4, null);
+
+        assertThat(post(reservation.getReservationId(), "release", 200).getStatus()).isEqualTo(ReservationStatus.RELEASED);
+        post(reservation.getReservationId(), "release", 200);
+
+        assertThat(totalStock()).isEqualTo(13);
+        client.post().uri(RESERVATIONS_URL + "/" + reservation.getReservationId() + "/confirm")
+                .exchange().expectStatus().isEqualTo(409);
+    }
+
+    @Test
+    void sweep_returnsExpiredHoldsToStock() throws InterruptedException {
+        ReservationResponse expiring = reserve(2, 1L);
+        ReservationResponse live = reserve(1, 60_000L);
+        Thread.sleep(5);
+
+        reservationSweeper.sweep();
+
+        assertThat(totalStock()).isEqualTo(12);
+        assertThat(reservationRepository.findAll())
+                .filteredOn(r -> r.getReservationId().equals(expiring.getReservationId()))
+                .extracting("status").containsExactly(ReservationStatus.EXPIRED);
+        client.post().uri(RESERVATIONS_URL + "/" + expiring.getReservationId() + "/confirm")
+                .exchange().expectStatus().isEqualTo(409);
+        assertThat(post(live.getReservationId(), "confirm", 200).getStatus()).isEqualTo(ReservationStatus.CONFIRMED);
+    }
+
+    @Test
+    void confirmAfterExpiry_isRefusedAndReturnsStockBeforeTheSweep() throws InterruptedException {
+        ReservationResponse reservation = reserve(3, 1L);
+        Thread.sleep(5);
+
+        client.post().uri(RESERVATIONS_URL + "/" + reservation.getReservationId() + "/confirm")
+                .exchange().expectStatus().isEqualTo(409);
+
+        assertThat(totalStock()).isEqualTo(13);
+    }
+
+    @Test
+    void reserve_rejectsShortfallAndUnknownReservations() {
+        client.post().uri(RESERVATIONS_URL)
+                .bodyValue(ReserveInventoryRequest.builder().sku(SKU).quantity(14).build())
+                .exchange().expectStatus().isEqualTo(409);
+        client.post().uri(RESERVATIONS_URL + "/does-not-exist/confirm")
+                .exchange().expectStatus().isNotFound();
+
+        assertThat(totalStock()).isEqualTo(13);
+    }
+
+    private ReservationResponse reserve(int quantity, Long ttlMillis) {
+        return client.post().uri(RESERVATIONS_URL)
+                .bodyValue(ReserveInventoryRequest.builder().sku(SKU).quantity(quantity).ttlMillis(ttlMillis).build())
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(ReservationResponse.class)
+                .returnResult().getResponseBody();
+    }
+
+    private ReservationResponse post(String reservationId, String action, int status) {
+        return client.post().uri(RESERVATIONS_URL + "/" + reservationId + "/" + action)
+                .exchange()
+                .expectStatus().isEqualTo(status)
+                .expectBody(ReservationResponse.class)
+                .returnResult().getResponseBody();
+    }
+
+    private int totalStock() {
+        return inventoryBatchRepository.findByProductIdOrderByExpiryDateAsc(product.getId()).stream()
+                .mapToInt(InventoryBatch::getQuantity).sum();
+    }
+
+    private void saveBatch(String batchNumber, int quantity, int expiresInDays) {
+        InventoryBatch batch = new InventoryBatch();
+        batch.setBatchNumber(batchNumber);
+        batch.setQuantity(quantity);
+        batch.setExpiryDate(LocalDate.now().plusDays(expiresInDays));
+        batch.setProduct(product);
+        inventoryBatchRepository.save(batch);
+    }
+}
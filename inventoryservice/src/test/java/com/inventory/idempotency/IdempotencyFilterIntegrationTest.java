@@ -0,0 +1,123 @@
+package com.inventory.idempotency;
+
+import com.common.idempotency.IdempotencyFilter;
+import com.inventory.entity.InventoryBatch;
+import com.inventory.entity.Product;
+import com.inventory.repository.InventoryBatchRepository;
+import com.inventory.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "spring.jpa.show-sql=false")
+class IdempotencyFilterIntegrationTest {
+
+    private static final String SKU = "SKU-IDEM-1";
+    private static final String BATCH_NUMBER = "BATCH-IDEM-1";
+    private static final String UPDATE_URL = "/inventory/update?handlerType=default";
+    private static final String BULK_UPDATE_URL = "/inventory/update/bulk?handlerType=default";
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    ProductRepository productRepository;
+
+    @Autowired
+    InventoryBatchRepository inventoryBatchRepository;
+
+    private WebTestClient client;
+    private InventoryBatch batch;
+    private String key;
+
+    @BeforeEach
+    void setUp() {
+        inventoryBatchRepository.deleteAll();
+        productRepository.deleteAll();
+        Product product = new Product();
+        product.setSku(SKU);
+        product.setName("Idempotency Product");
+        product = productRepository.save(product);
+        batch = new InventoryBatch();
+        batch.setBatchNumber(BATCH_NUMBER);
+        batch.setQuantity(10);
+        batch.setExpiryDate(LocalDate.now().plusDays(10));
+        batch.setProduct(product);
+        batch = inventoryBatchRepository.save(batch);
+
+        client = WebTestClient.bindToServer().baseUrl("http://localhost:" + port).build();
+        key = UUID.randomUUID().toString();
+    }
+
+    @Test
+    void update_retryWithSameKeyDeductsOnce() {
+        Map<String, Object> deduction = Map.of("sku", SKU, "batchQuantityToDeduct", Map.of(BATCH_NUMBER, 3));
+
+        post(UPDATE_URL, deduction).expectStatus().isOk()
+                .expectHeader().doesNotExist(IdempotencyFilter.REPLAYED_HEADER);
+        post(UPDATE_URL, deduction).expectStatus().isOk()
+                .expectHeader().valueEquals(IdempotencyFilter.REPLAYED_HEADER, "true");
+
+        assertThat(quantity()).isEqualTo(7);
+    }
+
+    @Test
+    void update_rejectedDeductionIsReplayedNotRetried() {
+        Map<String, Object> deduction = Map.of("sku", SKU, "batchQuantityToDeduct", Map.of(BATCH_NUMBER, 11));
+
+        post(UPDATE_URL, deduction).expectStatus().is4xxClientError();
+        inventoryBatchRepository.findById(batch.getId()).ifPresent(b -> {
+            b.setQuantity(20);
+            inventoryBatchRepository.save(b);
+        });
+        post(UPDATE_URL, deduction).expectStatus().is4xxClientError()
+                .expectHeader().valueEquals(IdempotencyFilter.REPLAYED_HEADER, "true");
+
+        assertThat(quantity()).isEqualTo(20);
+    }
+
+    @Test
+    void bulkUpdate_retryWithSameKeyReplaysResults() {
+        List<Map<String, Object>> lines = List.of(Map.of("sku", SKU, "batchQuantityToDeduct", Map.of(BATCH_NUMBER, 2)));
+
+        post(BULK_UPDATE_URL, lines).expectStatus().isOk()
+                .expectBody().jsonPath("$[0].success").isEqualTo(true);
+        post(BULK_UPDATE_URL, lines).expectStatus().isOk()
+                .expectHeader().valueEquals(IdempotencyFilter.REPLAYED_HEADER, "true")
+                .expectBody().jsonPath("$[0].success").isEqualTo(true);
+
+        assertThat(quantity()).isEqualTo(8);
+    }
+
+    @Test
+    void update_sameKeyForDifferentDeductionIsRefused() {
+        post(UPDATE_URL, Map.of("sku", SKU, "batchQuantityToDeduct", Map.of(BATCH_NUMBER, 1))).expectStatus().isOk();
+
+        post(UPDATE_URL, Map.of("sku", SKU, "batchQuantityToDeduct", Map.of(BATCH_NUMBER, 2)))
+                .expectStatus().isEqualTo(422)
+                .expectBody().jsonPath("$.error").isEqualTo("Unprocessable Entity");
+
+        assertThat(quantity()).isEqualTo(9);
+    }
+
+    private int quantity() {
+        return inventoryBatchRepository.findById(batch.getId()).orElseThrow().getQuantity();
+    }
+
+    private WebTestClient.ResponseSpec post(String uri, Object body) {
+        return client.post().uri(uri)
+                .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key)
+                .bodyValue(body)
+                .exchange();
+    }
+}
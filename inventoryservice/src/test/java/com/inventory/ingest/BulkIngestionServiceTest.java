@@ -0,0 +1,59 @@
+package com.inventory.ingest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.dto.IngestionResult;
+import com.inventory.ledger.StockLedger;
+import com.inventory.repository.InventoryBatchRepository;
+import com.inventory.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BulkIngestionServiceTest {
+
+    @Mock
+    ProductRepository productRepository;
+
+    @Mock
+    InventoryBatchRepository inventoryBatchRepository;
+
+    @Mock
+    EntityManager entityManager;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    @Mock
+    StockLedger stockLedger;
+
+    @Test
+    void ingestBatches_chunkFailingBeforeItsChecksRejectsEveryValidRow() {
+        BulkIngestionService service = new BulkIngestionService(productRepository, inventoryBatchRepository, entityManager,
+                new TransactionTemplate(transactionManager), stockLedger, new ObjectMapper(), 10, 100);
+        when(productRepository.findIdsBySkuIn(anyCollection())).thenThrow(new DataAccessResourceFailureException("db down"));
+        String csv = "sku,batchNumber,quantity,expiryDate\n"
+                + "SKU-1,B1,5,2030-01-01\n"
+                + "SKU-1,B2,-1,2030-01-01\n"
+                + "SKU-2,B1,3,2030-01-01\n";
+
+        IngestionResult result = service.ingestBatches(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), true);
+
+        assertThat(result.getReceived()).isEqualTo(3);
+        assertThat(result.getInserted()).isZero();
+        assertThat(result.getRejected()).isEqualTo(3);
+        assertThat(result.getRejections()).hasSize(3).anyMatch(reason -> reason.contains("chunk rolled back"));
+    }
+}
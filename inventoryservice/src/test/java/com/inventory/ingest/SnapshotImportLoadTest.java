@@ -0,0 +1,139 @@
+package com.inventory.ingest;
+
+import com.inventory.dto.SnapshotImportResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Imports a generated CSV snapshot (100 batches per SKU) that is never held in memory, into a file database so the
+ * table data stays off the heap, and checks that the heap left after each collection stays flat.
+ * Run with: mvn -pl inventoryservice test -Dtest=SnapshotImportLoadTest -DloadTest=true -DloadTest.snapshotRows=10000000
+ */
+@EnabledIfSystemProperty(named = "loadTest", matches = "true")
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "inventory.import.progress-interval-rows=500000"
+})
+class SnapshotImportLoadTest {
+
+    private static final long ROWS = Long.getLong("loadTest.snapshotRows", 2_000_000);
+    private static final int BATCHES_PER_SKU = 100;
+    private static final long MAX_LIVE_HEAP_BYTES = Long.getLong("loadTest.maxLiveHeapMb", 256) * 1024 * 1024;
+
+    @TempDir
+    static Path databaseDir;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:h2:file:" + databaseDir.resolve("snapshot") + ";DB_CLOSE_DELAY=-1");
+    }
+
+    @Autowired
+    private SnapshotImportService snapshotImportService;
+
+    @Test
+    void importsLargeSnapshotWithBoundedHeap() {
+        AtomicLong peakLiveHeap = new AtomicLong();
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> peakLiveHeap.accumulateAndGet(liveHeap(), Math::max), 0, 200, TimeUnit.MILLISECONDS);
+
+        SnapshotImportResult result;
+        try {
+            result = snapshotImportService.importSnapshot(new GeneratedSnapshot(ROWS), SnapshotImportService.Format.CSV);
+        } finally {
+            sampler.shutdownNow();
+        }
+
+        System.out.printf("%d rows in %d ms (%.0f rows/s), peak heap after GC %d MB%n",
+                result.getReceived(), result.getElapsedMs(), result.getRowsPerSecond(), peakLiveHeap.get() / (1024 * 1024));
+        assertThat(result.getError()).isNull();
+        assertThat(result.getApplied()).isEqualTo(ROWS);
+        assertThat(result.getBatchesInserted()).isEqualTo(ROWS);
+        assertThat(peakLiveHeap.get()).isLessThan(MAX_LIVE_HEAP_BYTES);
+    }
+
+    // heap still in use after the last collection of each pool, i.e. what the import keeps reachable
+    private static long liveHeap() {
+        long used = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            MemoryUsage afterGc = pool.getCollectionUsage();
+            if (pool.getType() == MemoryType.HEAP && afterGc != null) {
+                used += afterGc.getUsed();
+            }
+        }
+        return used;
+    }
+
+    /**
+     * CSV rows produced on demand, one line at a time.
+     */
+    private static final class GeneratedSnapshot extends InputStream {
+        private static final LocalDate FIRST_EXPIRY = LocalDate.of(2030, 1, 1);
+
+        private final long rows;
+        private long row = -1;
+        private byte[] line = "sku,batchNumber,quantity,expiryDate\n".getBytes(StandardCharsets.UTF_8);
+        private int position;
+
+        private GeneratedSnapshot(long rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public int read() {
+            if (!fill()) {
+                return -1;
+            }
+            return line[position++];
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!fill()) {
+                return -1;
+            }
+            int count = Math.min(length, line.length - position);
+            System.arraycopy(line, position, buffer, offset, count);
+            position += count;
+            return count;
+        }
+
+        private boolean fill() {
+            if (position < line.length) {
+                return true;
+            }
+            if (++row >= rows) {
+                return false;
+            }
+            long sku = row / BATCHES_PER_SKU;
+            long batch = row % BATCHES_PER_SKU;
+            line = ("SNAP-" + sku + ",B-" + batch + "," + (row % 500) + "," + FIRST_EXPIRY.plusDays(batch) + "\n")
+                    .getBytes(StandardCharsets.UTF_8);
+            position = 0;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.inventory.ledger;
+
+import com.inventory.dto.InventoryBatchDto;
+import com.inventory.dto.UpdateInventoryRequest;
+import com.inventory.entity.InventoryBatch;
+import com.inventory.entity.Product;
+import com.inventory.handlers.InvalidInventoryOperationException;
+import com.inventory.repository.InventoryBatchRepository;
+import com.inventory.repository.ProductRepository;
+import com.inventory.service.InventoryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "inventory.ledger.enabled=true",
+        "inventory.ledger.flush-interval-ms=3600000",
+        "inventory.ledger.reconcile-interval-ms=3600000"
+})
+class StockLedgerIntegrationTest {
+
+    private static final String SKU = "SKU-LEDGER-1";
+    private static final String BATCH_NUMBER = "BATCH-LEDGER-1";
+    private static final String LEDGER = "ledger";
+
+    @Autowired
+    InventoryService inventoryService;
+
+    @Autowired
+    StockLedger stockLedger;
+
+    @Autowired
+    ProductRepository productRepository;
+
+    @Autowired
+    InventoryBatchRepository inventoryBatchRepository;
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        inventoryBatchRepository.deleteAll();
+        productRepository.deleteAll();
+        stockLedger.reconcile();
+
+        product = new Product();
+        product.setSku(SKU);
+        product.setName("Ledger Product");
+        product = productRepository.save(product);
+
+        InventoryBatch batch = new InventoryBatch();
+        batch.setBatchNumber(BATCH_NUMBER);
+        batch.setQuantity(10);
+        batch.setExpiryDate(LocalDate.now().plusDays(30));
+        inventoryService.createBatch(product.getId(), batch);
+    }
+
+    @Test
+    void atomicLedgerBatch_givesBackEarlierLinesWhenALaterOneFails() {
+        UpdateInventoryRequest first = UpdateInventoryRequest.builder()
+                .sku(SKU)
+                .batchQuantityToDeduct(Map.of(BATCH_NUMBER, 4))
+                .build();
+        UpdateInventoryRequest second = UpdateInventoryRequest.builder()
+                .sku(SKU)
+                .batchQuantityToDeduct(Map.of(BATCH_NUMBER, 7))
+                .build();
+
+        assertThatThrownBy(() -> inventoryService.updateInventoryAll(List.of(first, second), LEDGER))
+                .isInstanceOf(InvalidInventoryOperationException.class);
+
+        assertThat(inventoryService.getBatchesByProductId(product.getId()))
+                .extracting(InventoryBatchDto::getQuantity).containsExactly(10);
+        stockLedger.flush();
+        assertThat(inventoryBatchRepository.findByProductIdAndBatchNumber(product.getId(), BATCH_NUMBER).orElseThrow().getQuantity()).isEqualTo(10);
+    }
+
+    @Test
+    void ledgerDeduction_servesReadsFromMemoryAndWritesBehind() {
+        UpdateInventoryRequest request = UpdateInventoryRequest.builder()
+                .sku(SKU)
+                .batchQuantityToDeduct(Map.of(BATCH_NUMBER, 4))
+                .build();
+
+        inventoryService.updateInventory(request, LEDGER);
+
+        List<InventoryBatchDto> batches = inventoryService.getBatchesByProductId(product.getId());
+        assertThat(batches).extracting(InventoryBatchDto::getQuantity).containsExactly(6);
+        assertThat(inventoryBatchRepository.findByProductIdAndBatchNumber(product.getId(), BATCH_NUMBER).orElseThrow().getQuantity()).isEqualTo(10);
+
+        stockLedger.flush();
+
+        assertThat(inventoryBatchRepository.findByProductIdAndBatchNumber(product.getId(), BATCH_NUMBER).orElseThrow().getQuantity()).isEqualTo(6);
+    }
+}
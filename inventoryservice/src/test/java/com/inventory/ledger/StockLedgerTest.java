@@ -0,0 +1,321 @@
+package com.inventory.ledger;
+
+import com.inventory.dto.InventoryBatchDto;
+import com.inventory.handlers.InvalidInventoryOperationException;
+import com.inventory.entity.InventoryBatch;
+import com.inventory.entity.Product;
+import com.inventory.repository.InventoryBatchRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockLedgerTest {
+
+    private static final long PRODUCT_ID = 7L;
+    private static final String BATCH_1 = "B1";
+    private static final String BATCH_2 = "B2";
+    private static final int MAX_REFUSED_FLUSHES = 3;
+
+    @Mock
+    InventoryBatchRepository inventoryBatchRepository;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private StockLedger stockLedger;
+
+    @BeforeEach
+    void setUp() {
+        stockLedger = new StockLedger(inventoryBatchRepository, transactionTemplate(), registry, true, 8, 100, MAX_REFUSED_FLUSHES);
+    }
+
+    private InventoryBatchDto batch(long id, String number, int qty, int expiryDays) {
+        return new InventoryBatchDto(id, number, qty, LocalDate.now().plusDays(expiryDays), PRODUCT_ID);
+    }
+
+    private InventoryBatch entity(long id, String number, int qty) {
+        Product product = new Product();
+        product.setId(PRODUCT_ID);
+        InventoryBatch batch = new InventoryBatch();
+        batch.setId(id);
+        batch.setBatchNumber(number);
+        batch.setQuantity(qty);
+        batch.setExpiryDate(LocalDate.now().plusDays(10));
+        batch.setProduct(product);
+        return batch;
+    }
+
+    private TransactionTemplate transactionTemplate() {
+        return new TransactionTemplate(transactionManager);
+    }
+
+    private void persisted(InventoryBatchDto... batches) {
+        when(inventoryBatchRepository.findBatchPage(anyLong(), any(), any(), any(), any(), any())).thenReturn(List.of(batches));
+    }
+
+    @Test
+    void rebuild_loadsBatchesOrderedByExpiry() {
+        persisted(batch(2L, BATCH_2, 4, 20), batch(1L, BATCH_1, 5, 10));
+
+        stockLedger.rebuild();
+
+        List<InventoryBatchDto> batches = stockLedger.getBatches(PRODUCT_ID);
+        assertThat(batches).extracting(InventoryBatchDto::getBatchNumber).containsExactly(BATCH_1, BATCH_2);
+        assertThat(batches).extracting(InventoryBatchDto::getQuantity).containsExactly(5, 4);
+    }
+
+    @Test
+    void getAvailableBatches_skipsExpiredEmptyAndShortLivedBatches() {
+        persisted(
+                batch(1L, "EXPIRED", 5, -1), batch(2L, BATCH_1, 3, 5), batch(3L, BATCH_2, 4, 40), batch(4L, "LATER", 6, 20));
+        stockLedger.rebuild();
+        stockLedger.reserve(PRODUCT_ID, Map.of("LATER", 6));
+
+        assertThat(stockLedger.getAvailableBatches(PRODUCT_ID, LocalDate.now()))
+                .extracting(InventoryBatchDto::getBatchNumber).containsExactly(BATCH_1, BATCH_2);
+        assertThat(stockLedger.getAvailableBatches(PRODUCT_ID, LocalDate.now().plusDays(30)))
+                .extracting(InventoryBatchDto::getBatchNumber).containsExactly(BATCH_2);
+        assertThat(stockLedger.getBatches(PRODUCT_ID)).hasSize(4);
+    }
+
+    @Test
+    void reserve_isAllOrNothing() {
+        persisted(batch(1L, BATCH_1, 5, 10), batch(2L, BATCH_2, 1, 20));
+        stockLedger.rebuild();
+
+        Map<String, Integer> deductions = new LinkedHashMap<>();
+        deductions.put(BATCH_1, 3);
+        deductions.put(BATCH_2, 2);
+        assertThatThrownBy(() -> stockLedger.reserve(PRODUCT_ID, deductions))
+                .isInstanceOf(InvalidInventoryOperationException.class);
+
+        assertThat(stockLedger.getBatches(PRODUCT_ID)).extracting(InventoryBatchDto::getQuantity).containsExactly(5, 1);
+        stockLedger.flush();
+        verify(inventoryBatchRepository, never()).deductQuantities(anyMap());
+    }
+
+    @Test
+    void flush_writesAccumulatedDeltasInOneBatch() {
+        persisted(batch(1L, BATCH_1, 5, 10), batch(2L, BATCH_2, 4, 20));
+        stockLedger.rebuild();
+
+        stockLedger.reserve(PRODUCT_ID, Map.of(BATCH_1, 2));
+        stockLedger.reserve(PRODUCT_ID, Map.of(BATCH_1, 1, BATCH_2, 4));
+        stockLedger.flush();
+
+        verify(inventoryBatchRepository, times(1)).deductQuantities(Map.of(1L, 3, 2L, 4));
+        verify(transactionManager).commit(any());
+        stockLedger.flush();
+        verifyNoMoreInteractions(ignoreStubs(inventoryBatchRepository));
+    }
+
+    @Test
+    void flush_restoresDeltasWhenWriteFails() {
+        persisted(batch(1L, BATCH_1, 5, 10));
+        stockLedger.rebuild();
+        stockLedger.reserve(PRODUCT_ID, Map.of(BATCH_1, 2));
+
+        when(inventoryBatchRepository.deductQuantities(anyMap()))
+                .thenThrow(new RuntimeException("db down"))
+                .thenReturn(Map.of(1L, 1));
+        stockLedger.flush();
+        stockLedger.flush();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<Long, Integer>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(inventoryBatchRepository, times(2)).deductQuantities(captor.capture());
+        assertThat(captor.getAllValues()).allSatisfy(deltas -> assertThat(deltas).containsEntry(1L, 2));
+        // the failed batch ran in a transaction and was rolled back whole
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void flush_retriesRefusedDeltasUntilTheRowCoversThem() {
+        persisted(batch(1L, BATCH_1, 5, 10), batch(2L, BATCH_2, 4, 20));
+        stockLedger.rebuild();
+        stockLedger.reserve(PRODUCT_ID, Map.of(BATCH_1, 2, BATCH_2, 3));
+
+        // another path took batch 2's stock in the database since the last reconcile, then it was restocked
+        when(inventoryBatchRepository.deductQuantities(anyMap()))
+                .thenReturn(Map.of(1L, 1, 2L, 0))
+                .thenReturn(Map.of(2L, 1));
+        stockLedger.flush();
+        stockLedger.flush();
+        stockLedger.flush();
+
+        verify(inventoryBatchRepository).deductQuantities(Map.of(1L, 2, 2L, 3));
+        verify(inventoryBatchRepository).deductQuantities(Map.of(2L, 3));
+        verifyNoMoreInteractions(ignoreStubs(inventoryBatchRepository));
+        assertThat(registry.get("inventory.ledger.oversold").counter().count()).isZero();
+    }
+
+    @Test
+    void flush_dropsAndCountsDeltasTheTableKeepsRefusing() {
+        persisted(batch(1L, BATCH_1, 5, 10));
+        stockLedger.rebuild();
+        stockLedger.reserve(PRODUCT_ID, Map.of(BATCH_1, 2));
+
+        when(inventoryBatchRepository.deductQuantities(anyMap())).thenReturn(Map.of(1L, 0));
+        for (int i = 0; i < MAX_REFUSED_FLUSHES + 1; i++) {
+            stockLedger.flush();
+        }
+
+        verify(inventoryBatchRepository, times(MAX_REFUSED_FLUSHES)).deductQuantities(Map.of(1L, 2));
+        assertThat(registry.get("inventory.ledger.oversold").counter().count()).isEqualTo(2);
+        persisted(batch(1L, BATCH_1, 1, 10));
+        stockLedger.reconcile();
+        assertThat(stockLedger.getBatches(PRODUCT_ID)).extracting(InventoryBatchDto::getQuantity).containsExactly(1);
+    }
+
+    @Test
+    void register_keepsDeductionsNotYetFlushed() {
+        persisted(batch(1L, BATCH_1, 5, 10));
+        stockLedger.rebuild();
+        stockLedger.reserve(PRODUCT_ID, Map.of(BATCH_1, 2));
+
+        // a snapshot wrote 20 to the row before the deduction was flushed
+        stockLedger.register(entity(1L, BATCH_1, 20));
+        when(inventoryBatchRepository.deductQuantities(anyMap())).thenReturn(Map.of(1L, 1));
+        stockLedger.flush();
+
+        verify(inventoryBatchRepository).deductQuantities(Map.of(1L, 2));
+        assertThat(stockLedger.getBatches(PRODUCT_ID)).extracting(InventoryBatchDto::getQuantity).containsExactly(18);
+    }
+
+    @Test
+    void replaceBatches_holdsFlushesUntilTheNewRowsAreRegistered() throws Exception {
+        persisted(batch(1L, BATCH_1, 5, 10));
+        stockLedger.rebuild();
+        stockLedger.reserve(PRODUCT_ID, Map.of(BATCH_1, 2));
+        when(inventoryBatchRepository.deductQuantities(anyMap())).thenReturn(Map.of(1L, 1));
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        Future<?> snapshot = pool.submit(() -> stockLedger.replaceBatches(() -> {
+            writing.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return List.of(entity(1L, BATCH_1, 20));
+        }));
+        assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<?> flush = pool.submit(stockLedger::flush);
+        Thread.sleep(50);
+        verify(inventoryBatchRepository, never()).deductQuantities(anyMap());
+        release.countDown();
+        snapshot.get(5, TimeUnit.SECONDS);
+        flush.get(5, TimeUnit.SECONDS);
+        pool.shutdown();
+
+        // the deduction reaches the row once, after the snapshot's quantity
+        verify(inventoryBatchRepository).deductQuantities(Map.of(1L, 2));
+        assertThat(stockLedger.getBatches(PRODUCT_ID)).extracting(InventoryBatchDto::getQuantity).containsExactly(18);
+    }
+
+    @Test
+    void rebuildAndReconcile_readTheTableInPages() {
+        StockLedger paged = new StockLedger(inventoryBatchRepository, transactionTemplate(), registry, true, 8, 2, MAX_REFUSED_FLUSHES);
+        when(inventoryBatchRepository.findBatchPage(eq(0L), any(), any(), any(), any(), any()))
+                .thenReturn(List.of(batch(1L, BATCH_1, 5, 10), batch(2L, BATCH_2, 4, 20)));
+        when(inventoryBatchRepository.findBatchPage(eq(2L), any(), any(), any(), any(), any()))
+                .thenReturn(List.of(batch(3L, "B3", 6, 30)));
+
+        paged.rebuild();
+        assertThat(paged.getBatches(PRODUCT_ID)).extracting(InventoryBatchDto::getBatchNumber).containsExactly(BATCH_1, BATCH_2, "B3");
+
+        // B2 was deleted: the second page is now empty
+        when(inventoryBatchRepository.findBatchPage(eq(0L), any(), any(), any(), any(), any()))
+                .thenReturn(List.of(batch(1L, BATCH_1, 5, 10), batch(3L, "B3", 6, 30)));
+        when(inventoryBatchRepository.findBatchPage(eq(3L), any(), any(), any(), any(), any())).thenReturn(List.of());
+        paged.reconcile();
+
+        assertThat(paged.getBatches(PRODUCT_ID)).extracting(InventoryBatchDto::getBatchNumber).containsExactly(BATCH_1, "B3");
+        verify(inventoryBatchRepository, never()).findAll();
+    }
+
+    @Test
+    void reconcile_absorbsExternalChangesAndNewBatches() {
+        persisted(batch(1L, BATCH_1, 5, 10));
+        stockLedger.rebuild();
+
+        // someone deducted 3 directly in the database and added a new batch
+        persisted(batch(1L, BATCH_1, 2, 10), batch(2L, BATCH_2, 9, 20));
+        stockLedger.reconcile();
+
+        assertThat(stockLedger.getBatches(PRODUCT_ID)).extracting(InventoryBatchDto::getQuantity).containsExactly(2, 9);
+    }
+
+    @Test
+    void concurrentReservations_neverOversell() throws Exception {
+        int initial = 1000;
+        int attempts = 4000;
+        persisted(batch(1L, BATCH_1, initial, 10));
+        stockLedger.rebuild();
+
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger succeeded = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < attempts; i++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                try {
+                    stockLedger.reserve(PRODUCT_ID, Map.of(BATCH_1, 1));
+                    succeeded.incrementAndGet();
+                } catch (InvalidInventoryOperationException ignored) {
+                    // sold out
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertThat(succeeded.get()).isEqualTo(initial);
+        assertThat(stockLedger.getBatches(PRODUCT_ID).get(0).getQuantity()).isZero();
+    }
+
+    @Test
+    void disabledLedger_isNoOp() {
+        StockLedger disabled = new StockLedger(inventoryBatchRepository, transactionTemplate(), registry, false, 8, 100, MAX_REFUSED_FLUSHES);
+        disabled.rebuild();
+        disabled.flush();
+        disabled.reconcile();
+        verifyNoInteractions(inventoryBatchRepository);
+        assertThat(disabled.getBatches(PRODUCT_ID)).isEmpty();
+    }
+}
@@ -0,0 +1,87 @@
+package com.inventory.metrics;
+
+import com.inventory.dto.UpdateInventoryRequest;
+import com.inventory.entity.InventoryBatch;
+import com.inventory.entity.Product;
+import com.inventory.handlers.InvalidInventoryOperationException;
+import com.inventory.repository.InventoryBatchRepository;
+import com.inventory.repository.ProductRepository;
+import com.inventory.service.InventoryService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class DeductionMetricsIntegrationTest {
+
+    private static final String SKU = "SKU-METRICS-1";
+
+    @Autowired
+    InventoryService inventoryService;
+
+    @Autowired
+    ProductRepository productRepository;
+
+    @Autowired
+    InventoryBatchRepository inventoryBatchRepository;
+
+    @Autowired
+    MeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        inventoryBatchRepository.deleteAll();
+        productRepository.deleteAll();
+        registry.clear();
+
+        Product product = new Product();
+        product.setSku(SKU);
+        product.setName("Metrics Product");
+        product = productRepository.save(product);
+        for (String batchNumber : new String[]{"B1", "B2"}) {
+            InventoryBatch batch = new InventoryBatch();
+            batch.setBatchNumber(batchNumber);
+            batch.setQuantity(10);
+            batch.setExpiryDate(LocalDate.now().plusDays(30));
+            batch.setProduct(product);
+            inventoryBatchRepository.save(batch);
+        }
+    }
+
+    @Test
+    void updateInventory_recordsStatementsRowsAndOutcome() {
+        inventoryService.updateInventory(request(Map.of("B1", 2, "B2", 3)), "default");
+
+        assertThat(registry.get("inventory.deduction").tag("validator", "default").tag("outcome", "success")
+                .timer().count()).isEqualTo(1);
+        assertThat(registry.get("inventory.deduction.statements").tag("validator", "default").summary().totalAmount())
+                .isPositive();
+        assertThat(registry.get("inventory.deduction.rows").tag("validator", "default").tag("kind", "written")
+                .summary().totalAmount()).isEqualTo(2);
+    }
+
+    @Test
+    void updateInventory_tagsRejectionsWithTheirReason() {
+        assertThatThrownBy(() -> inventoryService.updateInventory(request(Map.of("B1", 50)), "atomic"))
+                .isInstanceOf(InvalidInventoryOperationException.class);
+        assertThatThrownBy(() -> inventoryService.updateInventory(request(Map.of("MISSING", 1)), "default"))
+                .isInstanceOf(InvalidInventoryOperationException.class);
+
+        assertThat(registry.get("inventory.deduction").tag("validator", "atomic").tag("outcome", "insufficient_quantity")
+                .timer().count()).isEqualTo(1);
+        assertThat(registry.get("inventory.deduction").tag("validator", "default").tag("outcome", "batch_not_found")
+                .timer().count()).isEqualTo(1);
+    }
+
+    private static UpdateInventoryRequest request(Map<String, Integer> quantities) {
+        return UpdateInventoryRequest.builder().sku(SKU).batchQuantityToDeduct(quantities).build();
+    }
+}
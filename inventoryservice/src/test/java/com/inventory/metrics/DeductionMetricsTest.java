@@ -0,0 +1,114 @@
+package com.inventory.metrics;
+
+import com.inventory.dto.UpdateInventoryRequest;
+import com.inventory.handlers.InvalidInventoryOperationException;
+import com.inventory.handlers.ProductNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DeductionMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final DeductionMetrics metrics = new DeductionMetrics(registry, true, 200);
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        DeductionScope scope = DeductionScope.current();
+        if (scope != null) {
+            scope.close();
+        }
+    }
+
+    private static UpdateInventoryRequest request(int batches) {
+        UpdateInventoryRequest request = new UpdateInventoryRequest();
+        request.setSku("SKU1");
+        Map<String, Integer> quantities = new HashMap<>();
+        for (int i = 0; i < batches; i++) {
+            quantities.put("B" + i, 1);
+        }
+        request.setBatchQuantityToDeduct(quantities);
+        return request;
+    }
+
+    @Test
+    void record_successOutsideTransactionRecordsStatementsAndRows() {
+        metrics.record("default", request(2), () -> {
+            DeductionScope scope = DeductionScope.current();
+            scope.statementExecuted(false, 1_000);
+            scope.rowsRead += 2;
+            scope.statementExecuted(true, 2_000);
+            scope.rowsWritten += 2;
+        });
+
+        assertThat(registry.get("inventory.deduction").tag("validator", "default").tag("outcome", "success").timer().count())
+                .isEqualTo(1);
+        assertThat(registry.get("inventory.deduction.statements").tag("validator", "default").summary().totalAmount())
+                .isEqualTo(2);
+        assertThat(registry.get("inventory.deduction.rows").tag("kind", "written").summary().totalAmount()).isEqualTo(2);
+        assertThat(registry.get("inventory.deduction.db").tag("kind", "write").timer().totalTime(TimeUnit.NANOSECONDS))
+                .isEqualTo(2_000);
+        assertThat(DeductionScope.current()).isNull();
+    }
+
+    @Test
+    void record_failureIsTaggedWithReason() {
+        assertThatThrownBy(() -> metrics.record("bulk", request(1), () -> {
+            throw new InvalidInventoryOperationException("gone",
+                    InvalidInventoryOperationException.Reason.CONCURRENT_UPDATE);
+        })).isInstanceOf(InvalidInventoryOperationException.class);
+        assertThatThrownBy(() -> metrics.record("bulk", request(1), () -> {
+            throw new ProductNotFoundException("missing");
+        })).isInstanceOf(ProductNotFoundException.class);
+
+        assertThat(registry.get("inventory.deduction").tag("outcome", "concurrent_update").timer().count()).isEqualTo(1);
+        assertThat(registry.get("inventory.deduction").tag("outcome", "product_not_found").timer().count()).isEqualTo(1);
+        assertThat(registry.get("inventory.deduction.conflicts").tag("kind", "concurrent_update").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void record_insideTransactionWaitsForCompletion() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        metrics.record("atomic", request(1), () -> DeductionScope.current().statementExecuted(true, 10));
+        assertThat(registry.find("inventory.deduction").timer()).isNull();
+
+        // the flush at commit runs before afterCompletion and still belongs to the deduction
+        DeductionScope.current().statementExecuted(true, 10);
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+
+        assertThat(registry.get("inventory.deduction").tag("outcome", "rolled_back").timer().count()).isEqualTo(1);
+        assertThat(registry.get("inventory.deduction.statements").summary().totalAmount()).isEqualTo(2);
+        assertThat(DeductionScope.current()).isNull();
+    }
+
+    @Test
+    void record_deductionsSharingATransactionSplitItsTotals() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        metrics.record("atomic", request(1), () -> DeductionScope.current().statementExecuted(true, 10));
+        metrics.record("atomic", request(3), () -> DeductionScope.current().statementExecuted(true, 10));
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+
+        assertThat(registry.get("inventory.deduction").tag("outcome", "success").timer().count()).isEqualTo(2);
+        assertThat(registry.get("inventory.deduction.statements").summary().totalAmount()).isEqualTo(2);
+        assertThat(registry.get("inventory.deduction.statements").summary().count()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,100 @@
+package com.inventory.repository;
+
+import com.inventory.dto.InventoryBatchDto;
+import com.inventory.entity.InventoryBatch;
+import com.inventory.entity.Product;
+import com.inventory.mapper.InventoryBatchMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bytes allocated per batch read: managed entities plus mapper versus the DTO constructor projection.
+ * Run with: mvn -pl inventoryservice test -Dtest=BatchReadAllocationBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class BatchReadAllocationBenchmarkTest {
+
+    private static final int BATCHES_PER_PRODUCT = Integer.getInteger("benchmark.batches", 200);
+    private static final int WARMUP = 2_000;
+    private static final int ITERATIONS = 5_000;
+
+    @Autowired
+    InventoryBatchRepository inventoryBatchRepository;
+
+    @Autowired
+    ProductRepository productRepository;
+
+    @Autowired
+    InventoryBatchMapper inventoryBatchMapper;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    private Long productId;
+
+    @BeforeEach
+    void seed() {
+        inventoryBatchRepository.deleteAll();
+        productRepository.deleteAll();
+        Product product = new Product();
+        product.setSku("BENCH-1");
+        product = productRepository.save(product);
+        productId = product.getId();
+
+        List<InventoryBatch> batches = new ArrayList<>();
+        for (int i = 0; i < BATCHES_PER_PRODUCT; i++) {
+            InventoryBatch batch = new InventoryBatch();
+            batch.setBatchNumber("B-" + i);
+            batch.setQuantity(i);
+            batch.setExpiryDate(LocalDate.now().plusDays(i));
+            batch.setProduct(product);
+            batches.add(batch);
+        }
+        inventoryBatchRepository.saveAll(batches);
+    }
+
+    @Test
+    void projectionAllocatesLessThanEntityMapping() {
+        Supplier<List<InventoryBatchDto>> entities = () -> transactionTemplate.execute(status ->
+                inventoryBatchRepository.findByProductIdOrderByExpiryDateAsc(productId).stream()
+                        .map(inventoryBatchMapper::toDto)
+                        .collect(Collectors.toList()));
+        Supplier<List<InventoryBatchDto>> projection = () -> inventoryBatchRepository.findDtosByProductId(productId);
+
+        assertThat(projection.get()).isEqualTo(entities.get());
+
+        long entityBytes = bytesPerCall(entities);
+        long projectionBytes = bytesPerCall(projection);
+
+        System.out.printf("batches per read: %d, entity+mapper: %d B/op, projection: %d B/op%n",
+                BATCHES_PER_PRODUCT, entityBytes, projectionBytes);
+        assertThat(projectionBytes).isLessThan(entityBytes);
+    }
+
+    private static long bytesPerCall(Supplier<?> read) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        for (int i = 0; i < WARMUP; i++) {
+            read.get();
+        }
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ITERATIONS; i++) {
+            read.get();
+        }
+        return (threads.getThreadAllocatedBytes(threadId) - before) / ITERATIONS;
+    }
+}
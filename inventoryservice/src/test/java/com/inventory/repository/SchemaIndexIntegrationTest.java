@@ -0,0 +1,118 @@
+package com.inventory.repository;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The lookups on the deduction and allocation paths are served by the indexes from the migrations, checked with
+ * {@code EXPLAIN ANALYZE} on a database seeded with 50k batches (10 per product); the scan counts do not depend on
+ * the table size, and {@code -DschemaIndex.batches=1000000} checks them at full scale. The statements are the SQL
+ * Hibernate generates for the repository methods named in each test. Reads by product only check the rows visited:
+ * H2 indexes the product_id foreign key itself and picks either that or the (product_id, expiry_date) index.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:schemaindexdb;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false"
+})
+class SchemaIndexIntegrationTest {
+
+    private static final int BATCHES = Integer.getInteger("schemaIndex.batches", 50_000);
+    private static final int BATCHES_PER_PRODUCT = 10;
+    private static final Pattern SCAN_COUNT = Pattern.compile("scanCount: (\\d+)");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.update("insert into products (id, sku, name) "
+                + "select x, 'SKU-' || x, 'Product ' || x from system_range(1, ?)", BATCHES / BATCHES_PER_PRODUCT);
+        jdbcTemplate.update("insert into inventory_batches (id, batch_number, expiry_date, quantity, product_id) "
+                + "select x, 'B-' || mod(x, ?), dateadd('DAY', mod(x * 7, 365), date '2030-01-01'), 100, (x - 1) / ? + 1 "
+                + "from system_range(1, ?)", BATCHES_PER_PRODUCT, BATCHES_PER_PRODUCT, BATCHES);
+        jdbcTemplate.execute("analyze");
+    }
+
+    @Test
+    void migrationsAreApplied() {
+        List<String> versions = jdbcTemplate.queryForList(
+                "select \"version\" from \"flyway_schema_history\" where \"version\" is not null and \"success\" order by \"installed_rank\"", String.class);
+
+        assertThat(versions).containsExactly("1", "2", "3");
+    }
+
+    @Test
+    void findBySku_usesUniqueSkuIndex() {
+        String plan = explain("select p.id, p.name, p.sku from products p where p.sku = 'SKU-4242'");
+
+        assertThat(plan).contains("UX_PRODUCTS_SKU");
+        assertThat(scanCount(plan)).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void findByProductIdAndBatchNumber_usesProductBatchNumberIndex() {
+        String plan = explain("select b.id, b.batch_number, b.expiry_date, b.product_id, b.quantity "
+                + "from inventory_batches b where b.product_id = 4242 and b.batch_number = 'B-3'");
+
+        assertThat(plan).contains("UX_INVENTORY_BATCHES_PRODUCT_BATCH_NUMBER");
+        assertThat(scanCount(plan)).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void deductIfAvailable_updatesThroughProductBatchNumberIndex() {
+        // explain analyze runs the update; one unit off a seeded batch does not matter to the other tests
+        String plan = explain("update inventory_batches set quantity = quantity - 1 "
+                + "where product_id = 4242 and batch_number = 'B-3' and quantity >= 1");
+
+        assertThat(plan).contains("UX_INVENTORY_BATCHES_PRODUCT_BATCH_NUMBER");
+        assertThat(scanCount(plan)).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void findDtosByProductId_readsOnlyThatProductsBatches() {
+        String plan = explain("select b.id, b.batch_number, b.quantity, b.expiry_date, b.product_id "
+                + "from inventory_batches b where b.product_id = 4242 order by b.expiry_date asc");
+
+        assertThat(scanCount(plan)).isLessThanOrEqualTo(BATCHES_PER_PRODUCT + 1);
+    }
+
+    @Test
+    void findAllocatableForUpdate_readsOnlyThatProductsBatches() {
+        String plan = explain("select b.id, b.batch_number, b.expiry_date, b.product_id, b.quantity "
+                + "from inventory_batches b where b.product_id = 4242 and b.quantity > 0 "
+                + "and (b.expiry_date is null or b.expiry_date >= current_date) "
+                + "order by b.expiry_date asc nulls last, b.id asc for update");
+
+        assertThat(scanCount(plan)).isLessThanOrEqualTo(BATCHES_PER_PRODUCT + 1);
+    }
+
+    @Test
+    void findDtosByProductIdIn_readsOnlyThoseProductsBatches() {
+        String plan = explain("select b.id, b.batch_number, b.quantity, b.expiry_date, b.product_id "
+                + "from inventory_batches b where b.product_id in (4242, 4243, 4244) order by b.expiry_date asc");
+
+        assertThat(scanCount(plan)).isLessThanOrEqualTo(3 * BATCHES_PER_PRODUCT + 1);
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("explain analyze " + sql, String.class);
+    }
+
+    // rows the statement visited; a full scan would report the table size
+    private static int scanCount(String plan) {
+        Matcher matcher = SCAN_COUNT.matcher(plan);
+        assertThat(matcher.find()).as("scanCount in %s", plan).isTrue();
+        return Integer.parseInt(matcher.group(1));
+    }
+}
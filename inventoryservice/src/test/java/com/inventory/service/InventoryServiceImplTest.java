@@ -1,9 +1,14 @@
 package com.inventory.service;
 
+import com.inventory.cache.ProductSkuCache;
+import com.inventory.dto.AllocateInventoryRequest;
+import com.inventory.dto.AllocationResponse;
 import com.inventory.dto.InventoryBatchDto;
 import com.inventory.dto.UpdateInventoryRequest;
+import com.inventory.dto.UpdateInventoryResult;
 import com.inventory.entity.InventoryBatch;
 import com.inventory.entity.Product;
+import com.inventory.ledger.StockLedger;
 import com.inventory.mapper.InventoryBatchMapper;
 import com.inventory.repository.InventoryBatchRepository;
 import com.inventory.repository.ProductRepository;
@@ -18,6 +23,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -50,39 +56,46 @@ class InventoryServiceImplTest {
     @Mock
     ProductRepository productRepository;
 
+    @Mock
+    ProductSkuCache productSkuCache;
+
+    @Mock
+    StockLedger stockLedger;
+
     @InjectMocks
     InventoryServiceImpl inventoryService;
 
     @Test
     void getBatchesByProductId_success() {
-        Product product = new Product();
-        product.setId(PRODUCT_ID);
-
-        InventoryBatch inventoryBatch = new InventoryBatch();
-        inventoryBatch.setId(BATCH_ID_1);
-        inventoryBatch.setBatchNumber(BATCH_NUMBER_1);
-        inventoryBatch.setQuantity(10);
-        inventoryBatch.setExpiryDate(LocalDate.of(2025,1,1));
-        inventoryBatch.setProduct(product);
-
-        when(inventoryBatchRepository.findByProductIdOrderByExpiryDateAsc(PRODUCT_ID)).thenReturn(List.of(inventoryBatch));
         InventoryBatchDto dto = new InventoryBatchDto();
-        when(inventoryBatchMapper.toDto(inventoryBatch)).thenReturn(dto);
+        when(inventoryBatchRepository.findDtosByProductId(PRODUCT_ID)).thenReturn(List.of(dto));
 
         List<InventoryBatchDto> dtos = inventoryService.getBatchesByProductId(PRODUCT_ID);
         assertThat(dtos).hasSize(1);
         assertThat(dtos.get(0)).isSameAs(dto);
-        verify(inventoryBatchRepository).findByProductIdOrderByExpiryDateAsc(PRODUCT_ID);
-        verify(inventoryBatchMapper).toDto(inventoryBatch);
+        verify(inventoryBatchRepository).findDtosByProductId(PRODUCT_ID);
+        verifyNoInteractions(inventoryBatchMapper);
+    }
+
+    @Test
+    void getBatchesByProductId_servedFromLedgerWhenEnabled() {
+        InventoryBatchDto dto = new InventoryBatchDto();
+        when(stockLedger.isEnabled()).thenReturn(true);
+        when(stockLedger.getBatches(PRODUCT_ID)).thenReturn(List.of(dto));
+
+        List<InventoryBatchDto> dtos = inventoryService.getBatchesByProductId(PRODUCT_ID);
+
+        assertThat(dtos).containsExactly(dto);
+        verifyNoInteractions(inventoryBatchRepository);
     }
 
     @Test
     void getBatchesByProductId_exception() {
-        when(inventoryBatchRepository.findByProductIdOrderByExpiryDateAsc(PRODUCT_ID)).thenThrow(new RuntimeException(ERROR_MSG));
+        when(inventoryBatchRepository.findDtosByProductId(PRODUCT_ID)).thenThrow(new RuntimeException(ERROR_MSG));
         assertThatThrownBy(() -> inventoryService.getBatchesByProductId(PRODUCT_ID))
             .isInstanceOf(RuntimeException.class)
             .hasMessage(ERROR_MSG);
-        verify(inventoryBatchRepository).findByProductIdOrderByExpiryDateAsc(PRODUCT_ID);
+        verify(inventoryBatchRepository).findDtosByProductId(PRODUCT_ID);
     }
 
     @Test
@@ -122,4 +135,109 @@ class InventoryServiceImplTest {
             .hasMessage(ERROR_MSG);
         verify(inventoryValidationFactory).getValidator(DEFAULT);
     }
+
+    private InventoryBatch batch(long id, String number, int qty, LocalDate expiry) {
+        InventoryBatch inventoryBatch = new InventoryBatch();
+        inventoryBatch.setId(id);
+        inventoryBatch.setBatchNumber(number);
+        inventoryBatch.setQuantity(qty);
+        inventoryBatch.setExpiryDate(expiry);
+        return inventoryBatch;
+    }
+
+    @Test
+    void allocate_deductsBatchesInExpiryOrder() {
+        Product product = new Product();
+        product.setId(PRODUCT_ID);
+        InventoryBatch first = batch(BATCH_ID_1, BATCH_NUMBER_1, 5, LocalDate.of(2025, 1, 1));
+        InventoryBatch second = batch(2L, BATCH_NUMBER_2, 5, LocalDate.of(2025, 6, 1));
+        when(productSkuCache.findProductId(SKU_1)).thenReturn(Optional.of(product.getId()));
+        when(inventoryBatchRepository.findAllocatableForUpdate(PRODUCT_ID, LocalDate.now())).thenReturn(List.of(first, second));
+        when(inventoryBatchMapper.toDto(any(InventoryBatch.class))).thenAnswer(i -> {
+            InventoryBatch b = i.getArgument(0);
+            return InventoryBatchDto.builder().batchNumber(b.getBatchNumber()).quantity(b.getQuantity()).build();
+        });
+
+        AllocationResponse response = inventoryService.allocate(new AllocateInventoryRequest(SKU_1, 7, null));
+
+        assertThat(response.getAllocations()).extracting(InventoryBatchDto::getBatchNumber).containsExactly(BATCH_NUMBER_1, BATCH_NUMBER_2);
+        assertThat(response.getAllocations()).extracting(InventoryBatchDto::getQuantity).containsExactly(5, 2);
+        assertThat(first.getQuantity()).isZero();
+        assertThat(second.getQuantity()).isEqualTo(3);
+    }
+
+    @Test
+    void allocate_insufficientThrows() {
+        Product product = new Product();
+        product.setId(PRODUCT_ID);
+        when(productSkuCache.findProductId(SKU_1)).thenReturn(Optional.of(product.getId()));
+        when(inventoryBatchRepository.findAllocatableForUpdate(PRODUCT_ID, LocalDate.now()))
+                .thenReturn(List.of(batch(BATCH_ID_1, BATCH_NUMBER_1, 2, LocalDate.of(2025, 1, 1))));
+        when(inventoryBatchMapper.toDto(any(InventoryBatch.class))).thenReturn(new InventoryBatchDto());
+
+        assertThatThrownBy(() -> inventoryService.allocate(new AllocateInventoryRequest(SKU_1, 3, null)))
+                .isInstanceOf(com.inventory.handlers.InsufficientInventoryException.class);
+    }
+
+    @Test
+    void allocate_rejectsNonPositiveQuantity() {
+        assertThatThrownBy(() -> inventoryService.allocate(new AllocateInventoryRequest(SKU_1, 0, null)))
+                .isInstanceOf(com.inventory.handlers.InvalidInventoryOperationException.class);
+        verifyNoInteractions(productSkuCache, inventoryBatchRepository);
+    }
+
+    @Test
+    void allocate_onlyLocksBatchesOutlastingTheMinimumShelfLife() {
+        when(productSkuCache.findProductId(SKU_1)).thenReturn(Optional.of(PRODUCT_ID));
+        when(inventoryBatchRepository.findAllocatableForUpdate(PRODUCT_ID, LocalDate.now().plusDays(30)))
+                .thenReturn(List.of(batch(BATCH_ID_1, BATCH_NUMBER_1, 5, LocalDate.now().plusDays(40))));
+        when(inventoryBatchMapper.toDto(any(InventoryBatch.class))).thenReturn(new InventoryBatchDto());
+
+        AllocationResponse response = inventoryService.allocate(new AllocateInventoryRequest(SKU_1, 5, 30));
+
+        assertThat(response.getAllocations()).hasSize(1);
+    }
+
+    @Test
+    void allocate_rejectsNegativeMinimumShelfLife() {
+        assertThatThrownBy(() -> inventoryService.allocate(new AllocateInventoryRequest(SKU_1, 1, -1)))
+                .isInstanceOf(com.inventory.handlers.InvalidInventoryOperationException.class);
+        verifyNoInteractions(productSkuCache, inventoryBatchRepository);
+    }
+
+    @Test
+    void updateInventoryBulk_reportsEachLineIndependently() {
+        BaseInventoryValidator baseInventoryValidator = mock(BaseInventoryValidator.class);
+        when(inventoryValidationFactory.getValidator(DEFAULT)).thenReturn(baseInventoryValidator);
+        UpdateInventoryRequest ok = UpdateInventoryRequest.builder().sku(SKU_1).batchQuantityToDeduct(Map.of(BATCH_NUMBER_1, 1)).build();
+        UpdateInventoryRequest bad = UpdateInventoryRequest.builder().sku(INVALID_SKU).batchQuantityToDeduct(Map.of(BATCH_NUMBER_1, 1)).build();
+        doAnswer(i -> {
+            UpdateInventoryRequest r = i.getArgument(0);
+            if (INVALID_SKU.equals(r.getSku())) {
+                throw new com.inventory.handlers.InvalidInventoryOperationException(INVALID_MSG);
+            }
+            return null;
+        }).when(baseInventoryValidator).updateInventory(any(UpdateInventoryRequest.class));
+
+        List<UpdateInventoryResult> results = inventoryService.updateInventoryBulk(List.of(ok, bad, ok), DEFAULT);
+
+        assertThat(results).extracting(UpdateInventoryResult::isSuccess).containsExactly(true, false, true);
+        assertThat(results.get(1).getError()).isEqualTo(INVALID_MSG);
+        verify(baseInventoryValidator, times(3)).updateInventory(any(UpdateInventoryRequest.class));
+    }
+
+    @Test
+    void getBatchesBySkus_groupsBatchesAndKeepsUnknownSkusEmpty() {
+        Product product = new Product();
+        product.setId(PRODUCT_ID);
+        product.setSku(SKU_1);
+        InventoryBatchDto dto = InventoryBatchDto.builder().batchNumber(BATCH_NUMBER_1).productId(PRODUCT_ID).build();
+        when(productRepository.findBySkuIn(List.of(SKU_1, INVALID_SKU))).thenReturn(List.of(product));
+        when(inventoryBatchRepository.findDtosByProductIdIn(java.util.Set.of(PRODUCT_ID))).thenReturn(List.of(dto));
+
+        Map<String, List<InventoryBatchDto>> result = inventoryService.getBatchesBySkus(List.of(SKU_1, INVALID_SKU));
+
+        assertThat(result.get(SKU_1)).containsExactly(dto);
+        assertThat(result.get(INVALID_SKU)).isEmpty();
+    }
 }
@@ -0,0 +1,102 @@
+package com.inventory.validation;
+
+import com.inventory.dto.UpdateInventoryRequest;
+import com.inventory.entity.InventoryBatch;
+import com.inventory.entity.Product;
+import com.inventory.handlers.InvalidInventoryOperationException;
+import com.inventory.repository.InventoryBatchRepository;
+import com.inventory.repository.ProductRepository;
+import com.inventory.service.InventoryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class AtomicInventoryValidatorIntegrationTest {
+
+    private static final String SKU = "SKU-ATOMIC-1";
+    private static final String BATCH_NUMBER = "BATCH-ATOMIC-1";
+    private static final String ATOMIC = "atomic";
+    private static final int INITIAL_QUANTITY = 1500;
+    private static final int DEDUCTIONS = 3000;
+    private static final int THREADS = 16;
+
+    @Autowired
+    InventoryService inventoryService;
+
+    @Autowired
+    ProductRepository productRepository;
+
+    @Autowired
+    InventoryBatchRepository inventoryBatchRepository;
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        inventoryBatchRepository.deleteAll();
+        productRepository.deleteAll();
+
+        product = new Product();
+        product.setSku(SKU);
+        product.setName("Atomic Product");
+        product = productRepository.save(product);
+
+        InventoryBatch batch = new InventoryBatch();
+        batch.setBatchNumber(BATCH_NUMBER);
+        batch.setQuantity(INITIAL_QUANTITY);
+        batch.setExpiryDate(LocalDate.now().plusDays(30));
+        batch.setProduct(product);
+        inventoryBatchRepository.save(batch);
+    }
+
+    @Test
+    void concurrentDeductions_neverOversell() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < DEDUCTIONS; i++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                UpdateInventoryRequest request = UpdateInventoryRequest.builder()
+                        .sku(SKU)
+                        .batchQuantityToDeduct(Map.of(BATCH_NUMBER, 1))
+                        .build();
+                try {
+                    inventoryService.updateInventory(request, ATOMIC);
+                    succeeded.incrementAndGet();
+                } catch (InvalidInventoryOperationException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        InventoryBatch batch = inventoryBatchRepository.findByProductIdAndBatchNumber(product.getId(), BATCH_NUMBER).orElseThrow();
+        assertThat(succeeded.get()).isEqualTo(INITIAL_QUANTITY);
+        assertThat(rejected.get()).isEqualTo(DEDUCTIONS - INITIAL_QUANTITY);
+        assertThat(batch.getQuantity()).isZero();
+    }
+}
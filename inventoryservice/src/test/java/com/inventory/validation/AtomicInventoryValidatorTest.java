@@ -0,0 +1,79 @@
+package com.inventory.validation;
+
+import com.inventory.cache.ProductSkuCache;
+import com.inventory.dto.UpdateInventoryRequest;
+import com.inventory.entity.Product;
+import com.inventory.handlers.InvalidInventoryOperationException;
+import com.inventory.repository.InventoryBatchRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AtomicInventoryValidatorTest {
+
+    private static final String SKU_1 = "SKU-1";
+    private static final String BATCH_1 = "B1";
+    private static final long PRODUCT_ID = 10L;
+
+    @Mock
+    InventoryBatchRepository inventoryBatchRepository;
+
+    @Mock
+    ProductSkuCache productSkuCache;
+
+    AtomicInventoryValidator atomicInventoryValidator;
+
+    @BeforeEach
+    void setUp() {
+        atomicInventoryValidator = new AtomicInventoryValidator(inventoryBatchRepository, productSkuCache, new UpdateInventoryRequestValidator());
+        Product product = new Product();
+        product.setId(PRODUCT_ID);
+        product.setSku(SKU_1);
+        when(productSkuCache.findProductId(SKU_1)).thenReturn(Optional.of(product.getId()));
+    }
+
+    private UpdateInventoryRequest request(int qty) {
+        return UpdateInventoryRequest.builder().sku(SKU_1).batchQuantityToDeduct(Map.of(BATCH_1, qty)).build();
+    }
+
+    @Test
+    void updateInventory_usesConditionalDecrementWithoutReadingBatch() {
+        when(inventoryBatchRepository.deductIfAvailable(PRODUCT_ID, BATCH_1, 3)).thenReturn(1);
+
+        atomicInventoryValidator.updateInventory(request(3));
+
+        verify(inventoryBatchRepository).deductIfAvailable(PRODUCT_ID, BATCH_1, 3);
+        verify(inventoryBatchRepository, never()).findByProductIdAndBatchNumber(any(), any());
+        verify(inventoryBatchRepository, never()).save(any());
+    }
+
+    @Test
+    void updateInventory_throwsInsufficientWhenGuardRejects() {
+        when(inventoryBatchRepository.deductIfAvailable(PRODUCT_ID, BATCH_1, 3)).thenReturn(0);
+        when(inventoryBatchRepository.existsByProductIdAndBatchNumber(PRODUCT_ID, BATCH_1)).thenReturn(true);
+
+        assertThatThrownBy(() -> atomicInventoryValidator.updateInventory(request(3)))
+                .isInstanceOf(InvalidInventoryOperationException.class)
+                .hasMessageContaining("Insufficient");
+    }
+
+    @Test
+    void updateInventory_throwsNotFoundWhenBatchMissing() {
+        when(inventoryBatchRepository.deductIfAvailable(PRODUCT_ID, BATCH_1, 3)).thenReturn(0);
+        when(inventoryBatchRepository.existsByProductIdAndBatchNumber(PRODUCT_ID, BATCH_1)).thenReturn(false);
+
+        assertThatThrownBy(() -> atomicInventoryValidator.updateInventory(request(3)))
+                .isInstanceOf(InvalidInventoryOperationException.class)
+                .hasMessageContaining("not found");
+    }
+}
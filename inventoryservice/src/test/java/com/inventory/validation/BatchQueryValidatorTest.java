@@ -1,6 +1,8 @@
 package com.inventory.validation;
 
+import com.inventory.dto.BatchQueryFilter;
 import com.inventory.dto.InventoryBatchDto;
+import com.inventory.handlers.InvalidInventoryOperationException;
 import com.inventory.service.InventoryService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,7 +12,11 @@ import java.time.LocalDate;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 class BatchQueryValidatorTest {
 
@@ -39,7 +45,7 @@ class BatchQueryValidatorTest {
                 .expiryDate(LocalDate.now())
                 .productId(1L)
                 .build();
-        given(inventoryService.getAllBatches()).willReturn(List.of(dto));
+        given(inventoryService.getAllBatches(BatchQueryValidator.DEFAULT_MAX_UNPAGED_BATCHES + 1)).willReturn(List.of(dto));
 
         List<InventoryBatchDto> result = batchQueryValidator.getBatchesForSkuOrAll(null);
 
@@ -56,7 +62,7 @@ class BatchQueryValidatorTest {
                 .expiryDate(LocalDate.now())
                 .productId(2L)
                 .build();
-        given(inventoryService.getAllBatches()).willReturn(List.of(dto));
+        given(inventoryService.getAllBatches(BatchQueryValidator.DEFAULT_MAX_UNPAGED_BATCHES + 1)).willReturn(List.of(dto));
 
         List<InventoryBatchDto> result = batchQueryValidator.getBatchesForSkuOrAll(BLANK);
 
@@ -93,4 +99,22 @@ class BatchQueryValidatorTest {
         assertEquals(1, result.size());
         assertEquals(dto.getProductId(), result.get(0).getProductId());
     }
+
+    @Test
+    void whenSkuIsNullAndTableExceedsCap_rejectsUnpagedRead() {
+        BatchQueryValidator capped = new BatchQueryValidator(inventoryService, 1);
+        InventoryBatchDto dto = InventoryBatchDto.builder().id(1L).batchNumber(SKU_B1).build();
+        given(inventoryService.getAllBatches(2)).willReturn(List.of(dto, dto));
+
+        assertThrows(InvalidInventoryOperationException.class, () -> capped.getBatchesForSkuOrAll(null));
+    }
+
+    @Test
+    void whenPageSizeExceedsCap_rejectsPage() {
+        BatchQueryValidator capped = new BatchQueryValidator(inventoryService, 100);
+        BatchQueryFilter filter = new BatchQueryFilter();
+
+        assertThrows(InvalidInventoryOperationException.class, () -> capped.getBatchPage(0L, 101, filter));
+        verify(inventoryService, never()).getBatchPage(Mockito.any(), anyInt(), Mockito.any());
+    }
 }
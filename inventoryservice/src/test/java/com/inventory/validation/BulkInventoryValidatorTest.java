@@ -0,0 +1,134 @@
+package com.inventory.validation;
+
+import com.inventory.cache.ProductSkuCache;
+import com.inventory.dto.UpdateInventoryRequest;
+import com.inventory.entity.InventoryBatch;
+import com.inventory.entity.Product;
+import com.inventory.handlers.InvalidInventoryOperationException;
+import com.inventory.handlers.ProductNotFoundException;
+import com.inventory.repository.InventoryBatchRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkInventoryValidatorTest {
+
+    private static final String SKU_1 = "SKU-1";
+    private static final String BATCH_1 = "B1";
+    private static final String BATCH_2 = "B2";
+    private static final long PRODUCT_ID = 10L;
+
+    @Mock
+    InventoryBatchRepository inventoryBatchRepository;
+
+    @Mock
+    ProductSkuCache productSkuCache;
+
+    BulkInventoryValidator bulkInventoryValidator;
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        bulkInventoryValidator = new BulkInventoryValidator(inventoryBatchRepository, productSkuCache, new UpdateInventoryRequestValidator());
+        product = new Product();
+        product.setId(PRODUCT_ID);
+        product.setSku(SKU_1);
+    }
+
+    private InventoryBatch batch(long id, String number, int qty) {
+        InventoryBatch b = new InventoryBatch();
+        b.setId(id);
+        b.setBatchNumber(number);
+        b.setQuantity(qty);
+        b.setExpiryDate(LocalDate.now().plusDays(10));
+        b.setProduct(product);
+        return b;
+    }
+
+    private UpdateInventoryRequest request(Map<String, Integer> deductions) {
+        return UpdateInventoryRequest.builder().sku(SKU_1).batchQuantityToDeduct(deductions).build();
+    }
+
+    @Test
+    void updateInventory_deductsAllBatchesInOneBatchUpdate() {
+        Map<String, Integer> deductions = new LinkedHashMap<>();
+        deductions.put(BATCH_1, 3);
+        deductions.put(BATCH_2, 1);
+        when(productSkuCache.findProductId(SKU_1)).thenReturn(Optional.of(product.getId()));
+        when(inventoryBatchRepository.findByProductIdAndBatchNumberIn(eq(PRODUCT_ID), anyCollection()))
+                .thenReturn(List.of(batch(100L, BATCH_1, 5), batch(101L, BATCH_2, 1)));
+        when(inventoryBatchRepository.deductQuantities(anyMap())).thenReturn(Map.of(100L, 1, 101L, 1));
+
+        bulkInventoryValidator.updateInventory(request(deductions));
+
+        verify(inventoryBatchRepository).deductQuantities(Map.of(100L, 3, 101L, 1));
+        verify(inventoryBatchRepository, never()).findByProductIdAndBatchNumber(any(), any());
+        verify(inventoryBatchRepository, never()).save(any());
+    }
+
+    @Test
+    void updateInventory_throwsWhenBatchMissing() {
+        when(productSkuCache.findProductId(SKU_1)).thenReturn(Optional.of(product.getId()));
+        when(inventoryBatchRepository.findByProductIdAndBatchNumberIn(eq(PRODUCT_ID), anyCollection()))
+                .thenReturn(List.of());
+
+        assertThatThrownBy(() -> bulkInventoryValidator.updateInventory(request(Map.of(BATCH_1, 1))))
+                .isInstanceOf(InvalidInventoryOperationException.class);
+        verify(inventoryBatchRepository, never()).deductQuantities(anyMap());
+    }
+
+    @Test
+    void updateInventory_throwsWhenInsufficientQty() {
+        when(productSkuCache.findProductId(SKU_1)).thenReturn(Optional.of(product.getId()));
+        when(inventoryBatchRepository.findByProductIdAndBatchNumberIn(eq(PRODUCT_ID), anyCollection()))
+                .thenReturn(List.of(batch(100L, BATCH_1, 1)));
+
+        assertThatThrownBy(() -> bulkInventoryValidator.updateInventory(request(Map.of(BATCH_1, 2))))
+                .isInstanceOf(InvalidInventoryOperationException.class);
+        verify(inventoryBatchRepository, never()).deductQuantities(anyMap());
+    }
+
+    @Test
+    void updateInventory_throwsWhenGuardRejectsConcurrentDeduction() {
+        when(productSkuCache.findProductId(SKU_1)).thenReturn(Optional.of(product.getId()));
+        when(inventoryBatchRepository.findByProductIdAndBatchNumberIn(eq(PRODUCT_ID), anyCollection()))
+                .thenReturn(List.of(batch(100L, BATCH_1, 5)));
+        when(inventoryBatchRepository.deductQuantities(anyMap())).thenReturn(Map.of(100L, 0));
+
+        assertThatThrownBy(() -> bulkInventoryValidator.updateInventory(request(Map.of(BATCH_1, 2))))
+                .isInstanceOf(InvalidInventoryOperationException.class)
+                .hasMessageContaining(BATCH_1);
+    }
+
+    @Test
+    void updateInventory_throwsWhenProductMissing() {
+        when(productSkuCache.findProductId(SKU_1)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> bulkInventoryValidator.updateInventory(request(Map.of(BATCH_1, 2))))
+                .isInstanceOf(ProductNotFoundException.class);
+    }
+
+    @Test
+    void updateInventory_rejectsNonPositiveQuantity() {
+        assertThatThrownBy(() -> bulkInventoryValidator.updateInventory(request(Map.of(BATCH_1, 0))))
+                .isInstanceOf(InvalidInventoryOperationException.class);
+        verifyNoInteractions(productSkuCache, inventoryBatchRepository);
+    }
+}
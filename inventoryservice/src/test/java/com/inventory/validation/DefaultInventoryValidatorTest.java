@@ -1,16 +1,17 @@
 package com.inventory.validation;
 
+import com.inventory.cache.ProductSkuCache;
 import com.inventory.dto.UpdateInventoryRequest;
 import com.inventory.entity.InventoryBatch;
 import com.inventory.entity.Product;
 import com.inventory.handlers.InvalidInventoryOperationException;
 import com.inventory.repository.InventoryBatchRepository;
-import com.inventory.repository.ProductRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDate;
@@ -33,7 +34,10 @@ class DefaultInventoryValidatorTest {
     InventoryBatchRepository inventoryBatchRepository;
 
     @Mock
-    ProductRepository productRepository;
+    ProductSkuCache productSkuCache;
+
+    @Spy
+    UpdateInventoryRequestValidator requestValidator = new UpdateInventoryRequestValidator();
 
     @InjectMocks
     DefaultInventoryValidator defaultInventoryValidator;
@@ -51,7 +55,7 @@ class DefaultInventoryValidatorTest {
         inventoryBatch.setExpiryDate(LocalDate.now().plusDays(10));
         inventoryBatch.setProduct(product);
 
-        when(productRepository.findBySku(SKU_1)).thenReturn(Optional.of(product));
+        when(productSkuCache.findProductId(SKU_1)).thenReturn(Optional.of(product.getId()));
         when(inventoryBatchRepository.findByProductIdAndBatchNumber(10L, BATCH_1)).thenReturn(Optional.of(inventoryBatch));
 
         UpdateInventoryRequest req = UpdateInventoryRequest.builder()
@@ -80,7 +84,7 @@ class DefaultInventoryValidatorTest {
         inventoryBatch.setExpiryDate(LocalDate.now().plusDays(5));
         inventoryBatch.setProduct(product);
 
-        when(productRepository.findBySku(SKU_2)).thenReturn(Optional.of(product));
+        when(productSkuCache.findProductId(SKU_2)).thenReturn(Optional.of(product.getId()));
         when(inventoryBatchRepository.findByProductIdAndBatchNumber(11L, BATCH_2)).thenReturn(Optional.of(inventoryBatch));
 
         UpdateInventoryRequest updateInventoryRequest = UpdateInventoryRequest.builder()
@@ -0,0 +1,49 @@
+package com.loadtest;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fixed-capacity store of latency samples in nanoseconds, written concurrently by response callbacks.
+ * Samples beyond the capacity are counted but not kept.
+ */
+final class LatencyRecorder {
+
+    private final long[] samples;
+    private final AtomicInteger next = new AtomicInteger();
+
+    LatencyRecorder(int capacity) {
+        samples = new long[capacity];
+    }
+
+    void record(long nanos) {
+        int slot = next.getAndIncrement();
+        if (slot < samples.length) {
+            samples[slot] = nanos;
+        }
+    }
+
+    int count() {
+        return Math.min(next.get(), samples.length);
+    }
+
+    /**
+     * Sorted copy of the recorded samples; take it after all callbacks have finished.
+     */
+    long[] sorted() {
+        long[] copy = Arrays.copyOf(samples, count());
+        Arrays.sort(copy);
+        return copy;
+    }
+
+    /**
+     * Latency at {@code percentile} (0-100) of {@code sorted}, in milliseconds; 0 when there are no samples.
+     */
+    static double percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.min(Math.max(index, 0), sorted.length - 1)] / 1_000_000.0;
+    }
+}
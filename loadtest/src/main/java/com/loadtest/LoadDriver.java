@@ -0,0 +1,171 @@
+package com.loadtest;
+
+import com.loadtest.Seeder.SeededProduct;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop traffic: requests are sent on a fixed schedule of {@code rate} per second whether or not earlier ones
+ * have answered, so a slow server shows up as latency instead of as a lower send rate. Latency is measured from
+ * the scheduled send time, which keeps queueing delay on the client side in the numbers.
+ * <p>
+ * Each request picks a SKU from a Zipfian distribution and is either an order ({@code POST /order}) or, for
+ * {@code update-ratio} of requests, a direct deduction from one of the SKU's batches ({@code POST /inventory/update}).
+ * Units acknowledged as sold are tallied per SKU for the oversell check.
+ */
+final class LoadDriver {
+
+    private static final long SPIN_THRESHOLD_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final HttpClient http;
+    private final LoadTestOptions options;
+    private final List<SeededProduct> products;
+    private final ZipfianGenerator skuPicker;
+    private final SplittableRandom random = new SplittableRandom(42);
+    private final URI orderUri;
+    private final URI updateUri;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLongArray soldUnits;
+
+    LoadDriver(HttpClient http, LoadTestOptions options, List<SeededProduct> products,
+               String orderUrl, String inventoryUrl) {
+        this.http = http;
+        this.options = options;
+        this.products = products;
+        this.skuPicker = new ZipfianGenerator(products.size(), options.zipfExponent);
+        this.orderUri = URI.create(orderUrl + (options.reactiveOrders ? "/order?mode=reactive" : "/order"));
+        this.updateUri = URI.create(inventoryUrl + "/inventory/update");
+        this.soldUnits = new AtomicLongArray(products.size());
+    }
+
+    /**
+     * Sends {@code seconds * rate} requests on schedule and waits for the outstanding ones (up to the request
+     * timeout) before returning.
+     */
+    Phase run(int seconds) throws InterruptedException {
+        long requests = (long) seconds * options.rate;
+        long periodNanos = TimeUnit.SECONDS.toNanos(1) / options.rate;
+        Phase phase = new Phase((int) Math.min(requests, Integer.MAX_VALUE - 8));
+
+        long start = System.nanoTime();
+        for (long i = 0; i < requests; i++) {
+            long scheduled = start + i * periodNanos;
+            awaitUntil(scheduled);
+            if (inFlight.get() >= options.maxInFlight) {
+                phase.dropped.increment();
+                continue;
+            }
+            send(phase, scheduled);
+        }
+        phase.sendNanos = System.nanoTime() - start;
+
+        long drainDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(options.timeoutMillis + 1000);
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(10);
+        }
+        phase.unfinished = inFlight.get();
+        return phase;
+    }
+
+    long soldUnits(int productIndex) {
+        return soldUnits.get(productIndex);
+    }
+
+    private void send(Phase phase, long scheduled) {
+        int productIndex = skuPicker.next(random);
+        SeededProduct product = products.get(productIndex);
+        boolean direct = options.updateRatio > 0 && random.nextDouble() < options.updateRatio;
+        HttpRequest request = direct ? updateRequest(product) : orderRequest(product);
+
+        inFlight.incrementAndGet();
+        phase.sent.increment();
+        http.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, error) -> {
+                    try {
+                        phase.latencies.record(System.nanoTime() - scheduled);
+                        if (error != null) {
+                            Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                            (cause instanceof HttpTimeoutException ? phase.timeouts : phase.errors).increment();
+                        } else if (accepted(response, direct)) {
+                            phase.ok.increment();
+                            soldUnits.addAndGet(productIndex, options.quantity);
+                        } else if (response.statusCode() >= 500) {
+                            phase.errors.increment();
+                        } else {
+                            phase.rejected.increment();
+                        }
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+    }
+
+    private static boolean accepted(HttpResponse<String> response, boolean direct) {
+        if (response.statusCode() != 200) {
+            return false;
+        }
+        // the order endpoint answers 200 with "success": false when it could not place the order
+        return direct || response.body().contains("\"success\":true");
+    }
+
+    private HttpRequest orderRequest(SeededProduct product) {
+        return post(orderUri, String.format("{\"sku\":\"%s\",\"quantity\":%d}", product.sku(), options.quantity));
+    }
+
+    private HttpRequest updateRequest(SeededProduct product) {
+        String batchNumber = product.batchNumbers().get(random.nextInt(product.batchNumbers().size()));
+        return post(updateUri, String.format("{\"sku\":\"%s\",\"batchQuantityToDeduct\":{\"%s\":%d}}",
+                product.sku(), batchNumber, options.quantity));
+    }
+
+    private HttpRequest post(URI uri, String json) {
+        return HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofMillis(options.timeoutMillis))
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private static void awaitUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            if (remaining > SPIN_THRESHOLD_NANOS) {
+                LockSupport.parkNanos(remaining - SPIN_THRESHOLD_NANOS);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    /**
+     * Outcome counts and latencies of one {@link #run}.
+     */
+    static final class Phase {
+        final LongAdder sent = new LongAdder();
+        final LongAdder ok = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder timeouts = new LongAdder();
+        final LongAdder dropped = new LongAdder();
+        final LatencyRecorder latencies;
+        long sendNanos;
+        int unfinished;
+
+        Phase(int capacity) {
+            latencies = new LatencyRecorder(capacity);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.loadtest;
+
+import com.loadtest.LoadDriver.Phase;
+
+/**
+ * Summary of the measured phase plus the stock reconciliation done after all traffic has finished.
+ */
+final class LoadReport {
+
+    private final LoadTestOptions options;
+    private final Phase phase;
+    private final StockCheck stock;
+
+    LoadReport(LoadTestOptions options, Phase phase, StockCheck stock) {
+        this.options = options;
+        this.phase = phase;
+        this.stock = stock;
+    }
+
+    /**
+     * Units acknowledged to clients that the inventory does not account for; anything above zero is a bug.
+     */
+    long oversell() {
+        return stock.oversoldUnits() + stock.lostDeductions();
+    }
+
+    String render() {
+        long[] latencies = phase.latencies.sorted();
+        double seconds = phase.sendNanos / 1_000_000_000.0;
+        long sent = phase.sent.sum();
+        long completed = phase.ok.sum() + phase.rejected.sum() + phase.errors.sum() + phase.timeouts.sum();
+        long failures = phase.errors.sum() + phase.timeouts.sum();
+        return String.join(System.lineSeparator(),
+                "Load test: " + options,
+                String.format("  throughput    offered %d req/s, completed %.1f req/s, accepted %.1f req/s",
+                        options.rate, completed / seconds, phase.ok.sum() / seconds),
+                String.format("  latency       p50 %.2f ms, p99 %.2f ms, p999 %.2f ms, max %.2f ms (from scheduled send)",
+                        LatencyRecorder.percentileMillis(latencies, 50),
+                        LatencyRecorder.percentileMillis(latencies, 99),
+                        LatencyRecorder.percentileMillis(latencies, 99.9),
+                        LatencyRecorder.percentileMillis(latencies, 100)),
+                String.format("  requests      %d sent, %d accepted, %d rejected (4xx / not placed), %d dropped, %d unfinished",
+                        sent, phase.ok.sum(), phase.rejected.sum(), phase.dropped.sum(), phase.unfinished),
+                String.format("  errors        %d 5xx / transport, %d timeouts, error rate %.3f%%",
+                        phase.errors.sum(), phase.timeouts.sum(), sent == 0 ? 0 : 100.0 * failures / sent),
+                String.format("  stock         %d seeded, %d sold, %d remaining across %d SKUs",
+                        stock.initialUnits(), stock.soldUnits(), stock.remainingUnits(), options.products),
+                String.format("  oversell      %d units (%d sold beyond seeded stock, %d acknowledged but not deducted), "
+                                + "%d negative batches",
+                        oversell(), stock.oversoldUnits(), stock.lostDeductions(), stock.negativeBatches()));
+    }
+
+    /**
+     * Totals over all seeded SKUs, including warmup traffic.
+     */
+    record StockCheck(long initialUnits, long soldUnits, long remainingUnits,
+                      long oversoldUnits, long lostDeductions, int negativeBatches) {
+    }
+}
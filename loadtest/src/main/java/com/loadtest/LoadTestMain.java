@@ -0,0 +1,89 @@
+package com.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.loadtest.LoadDriver.Phase;
+import com.loadtest.LoadReport.StockCheck;
+import com.loadtest.Seeder.SeededProduct;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Offline end-to-end load test of the order to inventory flow: starts both services in this JVM, seeds stock
+ * through the inventory API, drives open-loop traffic and prints throughput, latency percentiles, error rates and
+ * an oversell reconciliation. Exits with 2 when any oversell was detected, 1 on bad options.
+ * <p>
+ * Run with: {@code java -jar loadtest/target/loadtest.jar --rate=500 --duration=60 --zipf=1.2}
+ */
+public class LoadTestMain {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options;
+        try {
+            options = LoadTestOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(LoadTestOptions.usage());
+            System.exit(1);
+            return;
+        }
+        System.exit(run(options));
+    }
+
+    static int run(LoadTestOptions options) throws Exception {
+        ExecutorService callbacks = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()));
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(callbacks)
+                .build();
+        try (Services services = Services.start(options)) {
+            Seeder seeder = new Seeder(http, new ObjectMapper(), services.inventoryUrl());
+            long seedStart = System.nanoTime();
+            List<SeededProduct> products = seeder.seed(options);
+            System.out.printf("Seeded %d products in %d ms%n", products.size(), (System.nanoTime() - seedStart) / 1_000_000);
+
+            LoadDriver driver = new LoadDriver(http, options, products, services.orderUrl(), services.inventoryUrl());
+            if (options.warmupSeconds > 0) {
+                driver.run(options.warmupSeconds);
+            }
+            Phase measured = driver.run(options.durationSeconds);
+            if (options.settleMillis > 0) {
+                // acknowledged orders may still be waiting for an asynchronous deduction
+                Thread.sleep(options.settleMillis);
+            }
+
+            LoadReport report = new LoadReport(options, measured, reconcile(seeder, driver, products));
+            System.out.println(report.render());
+            return report.oversell() > 0 ? 2 : 0;
+        } finally {
+            callbacks.shutdownNow();
+        }
+    }
+
+    private static StockCheck reconcile(Seeder seeder, LoadDriver driver, List<SeededProduct> products) throws Exception {
+        long initial = 0;
+        long sold = 0;
+        long remaining = 0;
+        long oversold = 0;
+        long lostDeductions = 0;
+        int negativeBatches = 0;
+        for (int i = 0; i < products.size(); i++) {
+            SeededProduct product = products.get(i);
+            Map<String, Integer> stock = seeder.currentStock(product.sku());
+            long left = stock.values().stream().mapToLong(Integer::longValue).sum();
+            long soldUnits = driver.soldUnits(i);
+            initial += product.initialStock();
+            sold += soldUnits;
+            remaining += left;
+            oversold += Math.max(0, soldUnits - product.initialStock());
+            lostDeductions += Math.max(0, soldUnits - (product.initialStock() - left));
+            negativeBatches += (int) stock.values().stream().filter(quantity -> quantity < 0).count();
+        }
+        return new StockCheck(initial, sold, remaining, oversold, lostDeductions, negativeBatches);
+    }
+}
@@ -0,0 +1,123 @@
+package com.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Harness settings, parsed from {@code --name=value} arguments. Every option has a default, so the harness runs
+ * without any. {@code --inventory-props} and {@code --order-props} take comma-separated {@code key=value} pairs
+ * that are handed to the respective service as command-line properties.
+ */
+final class LoadTestOptions {
+
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Options (all --name=value):",
+            "  products              products to seed (default 100)",
+            "  batches-per-product   batches seeded per product (default 3)",
+            "  batch-quantity        units per seeded batch (default 1000)",
+            "  rate                  requests per second, open loop (default 200)",
+            "  duration              measured seconds (default 30)",
+            "  warmup                unmeasured seconds before measuring (default 5)",
+            "  zipf                  Zipfian exponent of the SKU popularity, 0 = uniform (default 0.99)",
+            "  quantity              units per order / update (default 1)",
+            "  update-ratio          share of requests sent straight to /inventory/update (default 0.0)",
+            "  order-mode            blocking | reactive (default blocking)",
+            "  max-in-flight         requests beyond this many outstanding are dropped (default 10000)",
+            "  timeout-ms            per-request timeout (default 10000)",
+            "  settle-ms             wait before reconciling stock, for order.allocation.mode=outbox (default 0)",
+            "  inventory-props       k=v,k=v passed to the inventory service",
+            "  order-props           k=v,k=v passed to the order service");
+
+    private static final List<String> KNOWN = List.of("products", "batches-per-product", "batch-quantity", "rate",
+            "duration", "warmup", "zipf", "quantity", "update-ratio", "order-mode", "max-in-flight", "timeout-ms",
+            "settle-ms", "inventory-props", "order-props");
+
+    final int products;
+    final int batchesPerProduct;
+    final int batchQuantity;
+    final int rate;
+    final int durationSeconds;
+    final int warmupSeconds;
+    final double zipfExponent;
+    final int quantity;
+    final double updateRatio;
+    final boolean reactiveOrders;
+    final int maxInFlight;
+    final long timeoutMillis;
+    final long settleMillis;
+    final List<String> inventoryProperties;
+    final List<String> orderProperties;
+
+    private LoadTestOptions(Map<String, String> values) {
+        products = positive(values, "products", 100);
+        batchesPerProduct = positive(values, "batches-per-product", 3);
+        batchQuantity = positive(values, "batch-quantity", 1000);
+        rate = positive(values, "rate", 200);
+        durationSeconds = positive(values, "duration", 30);
+        warmupSeconds = Integer.parseInt(values.getOrDefault("warmup", "5"));
+        zipfExponent = Double.parseDouble(values.getOrDefault("zipf", "0.99"));
+        quantity = positive(values, "quantity", 1);
+        updateRatio = Double.parseDouble(values.getOrDefault("update-ratio", "0.0"));
+        String orderMode = values.getOrDefault("order-mode", "blocking");
+        if (!orderMode.equals("blocking") && !orderMode.equals("reactive")) {
+            throw new IllegalArgumentException("order-mode must be blocking or reactive, was " + orderMode);
+        }
+        reactiveOrders = orderMode.equals("reactive");
+        maxInFlight = positive(values, "max-in-flight", 10_000);
+        timeoutMillis = positive(values, "timeout-ms", 10_000);
+        settleMillis = Long.parseLong(values.getOrDefault("settle-ms", "0"));
+        inventoryProperties = properties(values.get("inventory-props"));
+        orderProperties = properties(values.get("order-props"));
+        if (warmupSeconds < 0 || settleMillis < 0 || zipfExponent < 0 || updateRatio < 0 || updateRatio > 1) {
+            throw new IllegalArgumentException("warmup, settle-ms and zipf must be >= 0, update-ratio within [0, 1]");
+        }
+    }
+
+    static LoadTestOptions parse(String... args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got '" + arg + "'");
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            if (!KNOWN.contains(name)) {
+                throw new IllegalArgumentException("Unknown option '" + name + "'");
+            }
+            values.put(name, arg.substring(arg.indexOf('=') + 1));
+        }
+        return new LoadTestOptions(values);
+    }
+
+    static String usage() {
+        return USAGE;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d products x %d batches x %d units, %d req/s for %ds (+%ds warmup), zipf %.2f, "
+                        + "quantity %d, update-ratio %.2f, %s orders",
+                products, batchesPerProduct, batchQuantity, rate, durationSeconds, warmupSeconds, zipfExponent,
+                quantity, updateRatio, reactiveOrders ? "reactive" : "blocking");
+    }
+
+    private static int positive(Map<String, String> values, String name, int defaultValue) {
+        int value = Integer.parseInt(values.getOrDefault(name, String.valueOf(defaultValue)));
+        if (value <= 0) {
+            throw new IllegalArgumentException(name + " must be greater than 0");
+        }
+        return value;
+    }
+
+    private static List<String> properties(String pairs) {
+        if (pairs == null || pairs.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(pairs.split(","))
+                .map(String::trim)
+                .filter(pair -> !pair.isEmpty())
+                .map(pair -> "--" + pair)
+                .toList();
+    }
+}
@@ -0,0 +1,108 @@
+package com.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Creates the products and batches under test through the public inventory API
+ * ({@code POST /inventory/product} and {@code POST /inventory/batch}), then reads stock back for verification.
+ */
+final class Seeder {
+
+    private static final int SEED_THREADS = 8;
+
+    private final HttpClient http;
+    private final ObjectMapper objectMapper;
+    private final String inventoryUrl;
+
+    Seeder(HttpClient http, ObjectMapper objectMapper, String inventoryUrl) {
+        this.http = http;
+        this.objectMapper = objectMapper;
+        this.inventoryUrl = inventoryUrl;
+    }
+
+    List<SeededProduct> seed(LoadTestOptions options) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(SEED_THREADS);
+        try {
+            List<Future<SeededProduct>> pending = new ArrayList<>(options.products);
+            for (int i = 0; i < options.products; i++) {
+                String sku = String.format("LT-%05d", i);
+                pending.add(pool.submit(() -> seedProduct(sku, options.batchesPerProduct, options.batchQuantity)));
+            }
+            List<SeededProduct> products = new ArrayList<>(options.products);
+            for (Future<SeededProduct> product : pending) {
+                products.add(product.get());
+            }
+            return products;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Seeding failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Current quantity per batch number of {@code sku}, as served by {@code GET /inventory/batches?sku=}.
+     */
+    Map<String, Integer> currentStock(String sku) throws IOException, InterruptedException {
+        HttpResponse<String> response = http.send(
+                HttpRequest.newBuilder(URI.create(inventoryUrl + "/inventory/batches?sku=" + sku)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        expectStatus(response, 200);
+        Map<String, Integer> stock = new LinkedHashMap<>();
+        for (JsonNode batch : objectMapper.readTree(response.body())) {
+            stock.put(batch.get("batchNumber").asText(), batch.get("quantity").asInt());
+        }
+        return stock;
+    }
+
+    private SeededProduct seedProduct(String sku, int batches, int batchQuantity) throws IOException, InterruptedException {
+        JsonNode product = post("/inventory/product", Map.of("sku", sku, "name", "Load test " + sku));
+        long productId = product.get("id").asLong();
+        List<String> batchNumbers = new ArrayList<>(batches);
+        for (int b = 0; b < batches; b++) {
+            String batchNumber = sku + "-B" + b;
+            post("/inventory/batch?productId=" + productId, Map.of(
+                    "batchNumber", batchNumber,
+                    "quantity", batchQuantity,
+                    "expiryDate", LocalDate.now().plusDays(30L + b).toString()));
+            batchNumbers.add(batchNumber);
+        }
+        return new SeededProduct(sku, productId, List.copyOf(batchNumbers), (long) batches * batchQuantity);
+    }
+
+    private JsonNode post(String path, Map<String, Object> body) throws IOException, InterruptedException {
+        HttpResponse<String> response = http.send(HttpRequest.newBuilder(URI.create(inventoryUrl + path))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        expectStatus(response, 201);
+        return objectMapper.readTree(response.body());
+    }
+
+    private static void expectStatus(HttpResponse<String> response, int status) {
+        if (response.statusCode() != status) {
+            throw new IllegalStateException(String.format("%s returned %d: %s",
+                    response.uri(), response.statusCode(), response.body()));
+        }
+    }
+
+    record SeededProduct(String sku, long productId, List<String> batchNumbers, long initialStock) {
+    }
+}
@@ -0,0 +1,84 @@
+package com.loadtest;
+
+import com.inventory.InventoryServiceApplication;
+import com.order.OrderServiceApplication;
+import org.springframework.boot.Banner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Both services started in this JVM on random ports, each with its own in-memory H2 database and its own
+ * application.yml. The order service is pointed at the inventory service it was started with.
+ */
+final class Services implements AutoCloseable {
+
+    // only one application.yml can sit at the classpath root, so the build copies each service's file to its own
+    // directory and each service reads that one alone: the order service keeps its resilience4j and order.* settings
+    private static final String INVENTORY_CONFIG = "--spring.config.location=classpath:/services/inventoryservice/";
+    private static final String ORDER_CONFIG = "--spring.config.location=classpath:/services/orderservice/";
+
+    // command-line arguments take precedence over each service's application.yml
+    private static final List<String> COMMON_ARGS = List.of(
+            "--server.port=0",
+            "--spring.jpa.show-sql=false",
+            "--spring.h2.console.enabled=false",
+            "--logging.level.root=WARN");
+
+    private final ConfigurableApplicationContext inventory;
+    private final ConfigurableApplicationContext order;
+
+    private Services(ConfigurableApplicationContext inventory, ConfigurableApplicationContext order) {
+        this.inventory = inventory;
+        this.order = order;
+    }
+
+    static Services start(LoadTestOptions options) {
+        List<String> inventoryArgs = new ArrayList<>(List.of(INVENTORY_CONFIG));
+        inventoryArgs.addAll(options.inventoryProperties);
+        ConfigurableApplicationContext inventory = run(InventoryServiceApplication.class, inventoryArgs);
+        try {
+            // the inventory migrations are on the shared classpath too, so the order service is told to keep its
+            // schema to itself: its own database, no Flyway, tables from its entities
+            List<String> orderArgs = new ArrayList<>(List.of(
+                    ORDER_CONFIG,
+                    "--spring.datasource.url=jdbc:h2:mem:loadtest-order;DB_CLOSE_DELAY=-1",
+                    "--spring.flyway.enabled=false",
+                    "--spring.jpa.hibernate.ddl-auto=update"));
+            orderArgs.addAll(options.orderProperties);
+            orderArgs.add("--inventory.service.url=" + baseUrl(inventory));
+            return new Services(inventory, run(OrderServiceApplication.class, orderArgs));
+        } catch (RuntimeException e) {
+            inventory.close();
+            throw e;
+        }
+    }
+
+    String inventoryUrl() {
+        return baseUrl(inventory);
+    }
+
+    String orderUrl() {
+        return baseUrl(order);
+    }
+
+    @Override
+    public void close() {
+        order.close();
+        inventory.close();
+    }
+
+    private static ConfigurableApplicationContext run(Class<?> application, List<String> extraArgs) {
+        List<String> args = new ArrayList<>(COMMON_ARGS);
+        args.addAll(extraArgs);
+        return new SpringApplicationBuilder(application)
+                .bannerMode(Banner.Mode.OFF)
+                .run(args.toArray(String[]::new));
+    }
+
+    private static String baseUrl(ConfigurableApplicationContext context) {
+        return "http://localhost:" + context.getEnvironment().getRequiredProperty("local.server.port");
+    }
+}
@@ -0,0 +1,42 @@
+package com.loadtest;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Draws ranks {@code 0..n-1} with probability proportional to {@code 1 / (rank + 1)^exponent}, so a few SKUs take
+ * most of the traffic. An exponent of 0 is uniform. The cumulative distribution is precomputed once and each draw
+ * is a binary search, which keeps sampling cheap on the sender thread.
+ */
+final class ZipfianGenerator {
+
+    private final double[] cumulative;
+
+    ZipfianGenerator(int n, double exponent) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n must be greater than 0");
+        }
+        cumulative = new double[n];
+        double sum = 0;
+        for (int rank = 0; rank < n; rank++) {
+            sum += 1.0 / Math.pow(rank + 1, exponent);
+            cumulative[rank] = sum;
+        }
+        for (int rank = 0; rank < n; rank++) {
+            cumulative[rank] /= sum;
+        }
+        cumulative[n - 1] = 1.0;
+    }
+
+    int next(RandomGenerator random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * Probability of drawing {@code rank}.
+     */
+    double probability(int rank) {
+        return rank == 0 ? cumulative[0] : cumulative[rank] - cumulative[rank - 1];
+    }
+}
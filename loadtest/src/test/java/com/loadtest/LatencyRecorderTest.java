@@ -0,0 +1,30 @@
+package com.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatencyRecorderTest {
+
+    @Test
+    void sorted_keepsSamplesUpToCapacity() {
+        LatencyRecorder recorder = new LatencyRecorder(3);
+
+        recorder.record(30);
+        recorder.record(10);
+        recorder.record(20);
+        recorder.record(40);
+
+        assertThat(recorder.count()).isEqualTo(3);
+        assertThat(recorder.sorted()).containsExactly(10, 20, 30);
+    }
+
+    @Test
+    void percentileMillis_picksNearestRank() {
+        long[] sorted = {1_000_000, 2_000_000, 3_000_000, 4_000_000};
+
+        assertThat(LatencyRecorder.percentileMillis(sorted, 50)).isEqualTo(2.0);
+        assertThat(LatencyRecorder.percentileMillis(sorted, 99.9)).isEqualTo(4.0);
+        assertThat(LatencyRecorder.percentileMillis(new long[0], 99)).isZero();
+    }
+}
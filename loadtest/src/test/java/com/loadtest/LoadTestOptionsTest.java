@@ -0,0 +1,47 @@
+package com.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoadTestOptionsTest {
+
+    @Test
+    void parse_appliesDefaults() {
+        LoadTestOptions options = LoadTestOptions.parse();
+
+        assertThat(options.products).isEqualTo(100);
+        assertThat(options.rate).isEqualTo(200);
+        assertThat(options.reactiveOrders).isFalse();
+        assertThat(options.inventoryProperties).isEmpty();
+        assertThat(options.settleMillis).isZero();
+    }
+
+    @Test
+    void parse_readsOptionsAndServiceProperties() {
+        LoadTestOptions options = LoadTestOptions.parse("--rate=50", "--zipf=1.2", "--order-mode=reactive",
+                "--order-props=inventory.cache.enabled=true, order.allocation.mode=server");
+
+        assertThat(options.rate).isEqualTo(50);
+        assertThat(options.zipfExponent).isEqualTo(1.2);
+        assertThat(options.reactiveOrders).isTrue();
+        assertThat(options.orderProperties)
+                .isEqualTo(List.of("--inventory.cache.enabled=true", "--order.allocation.mode=server"));
+    }
+
+    @Test
+    void parse_rejectsUnknownAndInvalidOptions() {
+        assertThatThrownBy(() -> LoadTestOptions.parse("--rps=10"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("rps");
+        assertThatThrownBy(() -> LoadTestOptions.parse("--rate=0"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> LoadTestOptions.parse("--update-ratio=2"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> LoadTestOptions.parse("--order-mode=async"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,51 @@
+package com.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class ZipfianGeneratorTest {
+
+    @Test
+    void next_skewsTowardsLowRanks() {
+        ZipfianGenerator generator = new ZipfianGenerator(100, 1.0);
+        SplittableRandom random = new SplittableRandom(1);
+        int[] counts = new int[100];
+
+        for (int i = 0; i < 100_000; i++) {
+            counts[generator.next(random)]++;
+        }
+
+        assertThat(counts[0]).isGreaterThan(counts[1]).isGreaterThan(counts[9] * 5);
+        assertThat(counts[0] / 100_000.0).isCloseTo(generator.probability(0), within(0.01));
+    }
+
+    @Test
+    void next_zeroExponentIsUniform() {
+        ZipfianGenerator generator = new ZipfianGenerator(4, 0.0);
+
+        for (int rank = 0; rank < 4; rank++) {
+            assertThat(generator.probability(rank)).isCloseTo(0.25, within(1e-9));
+        }
+    }
+
+    @Test
+    void next_staysWithinRange() {
+        ZipfianGenerator generator = new ZipfianGenerator(3, 2.0);
+        SplittableRandom random = new SplittableRandom(7);
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(generator.next(random)).isBetween(0, 2);
+        }
+    }
+
+    @Test
+    void constructor_rejectsEmptyRange() {
+        assertThatThrownBy(() -> new ZipfianGenerator(0, 1.0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,83 @@
+package com.order.allocation;
+
+import com.order.dto.InventoryBatchDto;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The picks of one allocation, as parallel arrays of batch list indexes and quantities in the order they were taken.
+ */
+public final class Allocation {
+
+    private final int[] batchIndexes;
+    private final int[] quantities;
+    private final int size;
+
+    Allocation(int[] batchIndexes, int[] quantities, int size) {
+        this.batchIndexes = batchIndexes;
+        this.quantities = quantities;
+        this.size = size;
+    }
+
+    /**
+     * Takes stock from {@code candidates} in {@code drawOrder} until {@code requestedQuantity} is covered. Returns
+     * null when the drawn batches fall short.
+     */
+    public static Allocation take(BatchCandidates candidates, int[] drawOrder, int requestedQuantity) {
+        // first pass counts the picks so the arrays are sized to them rather than to every candidate
+        int size = 0;
+        long covered = 0;
+        while (size < drawOrder.length && covered < requestedQuantity) {
+            covered += candidates.quantity(drawOrder[size++]);
+        }
+        if (covered < requestedQuantity) {
+            return null;
+        }
+        int[] batchIndexes = new int[size];
+        int[] quantities = new int[size];
+        int remaining = requestedQuantity;
+        for (int i = 0; i < size; i++) {
+            int take = Math.min(candidates.quantity(drawOrder[i]), remaining);
+            batchIndexes[i] = candidates.listIndex(drawOrder[i]);
+            quantities[i] = take;
+            remaining -= take;
+        }
+        return new Allocation(batchIndexes, quantities, size);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // index into the batch list the allocation was made from
+    public int batchIndex(int pick) {
+        return batchIndexes[pick];
+    }
+
+    public int quantity(int pick) {
+        return quantities[pick];
+    }
+
+    /**
+     * batchNumber -> quantity in pick order, as {@code /inventory/update} expects it.
+     */
+    public Map<String, Integer> toBatchQuantities(List<InventoryBatchDto> batches) {
+        Map<String, Integer> batchQuantityToDeduct = new LinkedHashMap<>();
+        for (int pick = 0; pick < size; pick++) {
+            batchQuantityToDeduct.merge(batches.get(batchIndexes[pick]).getBatchNumber(), quantities[pick], Integer::sum);
+        }
+        return batchQuantityToDeduct;
+    }
+
+    /**
+     * Lowers the picked batches in {@code batches} (the list this allocation was made from) by the quantities taken.
+     */
+    public void deductFrom(List<InventoryBatchDto> batches) {
+        for (int pick = 0; pick < size; pick++) {
+            InventoryBatchDto batch = batches.get(batchIndexes[pick]);
+            batch.setQuantity(batch.getQuantity() - quantities[pick]);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.order.allocation;
+
+/**
+ * Decides which batches an order draws from, and in what order.
+ * <p>
+ * Implementations only order candidate positions; {@link com.order.service.InventoryAllocator} filters the batches,
+ * checks that their total covers the request and takes stock along the returned order until the request is filled.
+ * Register a Spring bean to make a custom strategy selectable by {@link #name()}, per order or per SKU.
+ */
+public interface AllocationStrategy {
+
+    String name();
+
+    /**
+     * Candidate positions in the order stock should be taken from them. The candidates hold at least
+     * {@code requestedQuantity} in total; a strategy may return fewer positions than there are candidates as long as
+     * the returned ones cover the request.
+     */
+    int[] drawOrder(BatchCandidates candidates, int requestedQuantity);
+}
@@ -0,0 +1,177 @@
+package com.order.allocation;
+
+import com.order.dto.InventoryBatchDto;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The batches an allocation may draw from, held column-wise in primitive arrays: non-empty and not expiring before
+ * the order's minimum expiry. Positions run from 0 to {@link #size()} - 1 in the order of the fetched list.
+ */
+public final class BatchCandidates {
+
+    // sort keys for batches without an expiry date or id, so they come last
+    private static final long NO_EXPIRY = Long.MAX_VALUE;
+    private static final long NO_ID = Long.MAX_VALUE;
+
+    private final int[] listIndex;
+    private final int[] quantity;
+    private final long[] expiryDay;
+    private final List<InventoryBatchDto> batches;
+    // read from the batches on first use; only FIFO-like strategies need them
+    private long[] batchId;
+    private final int size;
+    private final long totalQuantity;
+
+    private BatchCandidates(List<InventoryBatchDto> batches, int[] listIndex, int[] quantity, long[] expiryDay,
+                            int size, long totalQuantity) {
+        this.batches = batches;
+        this.listIndex = listIndex;
+        this.quantity = quantity;
+        this.expiryDay = expiryDay;
+        this.size = size;
+        this.totalQuantity = totalQuantity;
+    }
+
+    /**
+     * One pass over {@code batches}; a null {@code minExpiry} keeps every non-empty batch.
+     */
+    public static BatchCandidates of(List<InventoryBatchDto> batches, LocalDate minExpiry) {
+        int capacity = batches.size();
+        int[] listIndex = new int[capacity];
+        int[] quantity = new int[capacity];
+        long[] expiryDay = new long[capacity];
+        long minExpiryDay = minExpiry != null ? dayKey(minExpiry) : Long.MIN_VALUE;
+        int size = 0;
+        long total = 0;
+        for (int i = 0; i < capacity; i++) {
+            InventoryBatchDto batch = batches.get(i);
+            Integer available = batch.getQuantity();
+            if (available == null || available <= 0) {
+                continue;
+            }
+            long expiry = batch.getExpiryDate() != null ? dayKey(batch.getExpiryDate()) : NO_EXPIRY;
+            if (expiry < minExpiryDay) {
+                continue;
+            }
+            listIndex[size] = i;
+            quantity[size] = available;
+            expiryDay[size] = expiry;
+            total += available;
+            size++;
+        }
+        return new BatchCandidates(batches, listIndex, quantity, expiryDay, size, total);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long totalQuantity() {
+        return totalQuantity;
+    }
+
+    public int quantity(int position) {
+        return quantity[position];
+    }
+
+    // orders like the expiry date (not an epoch day); Long.MAX_VALUE when the batch does not expire
+    public long expiryDay(int position) {
+        return expiryDay[position];
+    }
+
+    // year, month and day packed in date order; cheaper than LocalDate.toEpochDay on every batch
+    private static long dayKey(LocalDate date) {
+        return (long) date.getYear() << 9 | date.getMonthValue() << 5 | date.getDayOfMonth();
+    }
+
+    // Long.MAX_VALUE when the batch has no id
+    public long batchId(int position) {
+        if (batchId == null) {
+            long[] ids = new long[size];
+            for (int i = 0; i < size; i++) {
+                Long id = batches.get(listIndex[i]).getId();
+                ids[i] = id != null ? id : NO_ID;
+            }
+            batchId = ids;
+        }
+        return batchId[position];
+    }
+
+    int listIndex(int position) {
+        return listIndex[position];
+    }
+
+    /**
+     * Positions ordered by ascending key, ties kept in list order. Linear when the list is already in key order
+     * (as inventory returns it for FEFO). Otherwise, when the keys span less than 2^31, each key is packed with its
+     * position into one long and sorted with {@link Arrays#sort(long[])}; wider keys fall back to a stable merge sort.
+     */
+    public int[] sortedBy(PositionKey key) {
+        int[] order = new int[size];
+        boolean sorted = true;
+        long previous = Long.MIN_VALUE;
+        for (int position = 0; position < size; position++) {
+            long value = key.of(position);
+            order[position] = position;
+            sorted &= previous <= value;
+            previous = value;
+        }
+        if (sorted) {
+            return order;
+        }
+        long[] keys = new long[size];
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int position = 0; position < size; position++) {
+            keys[position] = key.of(position);
+            min = Math.min(min, keys[position]);
+            max = Math.max(max, keys[position]);
+        }
+        if (max - min >= 0 && max - min < Integer.MAX_VALUE) {
+            // offset key in the high half, position in the low half: ties sort by position, so the result is stable
+            for (int position = 0; position < size; position++) {
+                keys[position] = (keys[position] - min) << 32 | position;
+            }
+            Arrays.sort(keys);
+            for (int i = 0; i < size; i++) {
+                order[i] = (int) keys[i];
+            }
+            return order;
+        }
+        mergeSort(order, keys);
+        return order;
+    }
+
+    // bottom-up: runs of width 1, 2, 4, ... are merged through one scratch array
+    private static void mergeSort(int[] order, long[] keys) {
+        int n = order.length;
+        int[] scratch = new int[n];
+        for (int width = 1; width < n; width <<= 1) {
+            for (int low = 0; low < n - width; low += width << 1) {
+                int mid = low + width;
+                int high = Math.min(mid + width, n);
+                int i = low;
+                int j = mid;
+                int k = low;
+                while (i < mid && j < high) {
+                    scratch[k++] = keys[order[j]] < keys[order[i]] ? order[j++] : order[i++];
+                }
+                while (i < mid) {
+                    scratch[k++] = order[i++];
+                }
+                while (j < high) {
+                    scratch[k++] = order[j++];
+                }
+                System.arraycopy(scratch, low, order, low, high - low);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface PositionKey {
+        long of(int position);
+    }
+}
@@ -0,0 +1,91 @@
+package com.order.allocation;
+
+import java.util.Arrays;
+
+/**
+ * Built-in strategies. Each one sorts the candidates once, in O(n log n), or in O(n) when the list is already in the
+ * requested order. Ties keep the order of the fetched list, which inventory returns in FEFO order.
+ */
+public enum StandardAllocationStrategy implements AllocationStrategy {
+
+    /**
+     * First expired, first out: earliest expiry first, batches without an expiry date last.
+     */
+    FEFO {
+        @Override
+        public int[] drawOrder(BatchCandidates candidates, int requestedQuantity) {
+            return candidates.sortedBy(candidates::expiryDay);
+        }
+    },
+
+    /**
+     * First in, first out: oldest batch (lowest id) first.
+     */
+    FIFO {
+        @Override
+        public int[] drawOrder(BatchCandidates candidates, int requestedQuantity) {
+            return candidates.sortedBy(candidates::batchId);
+        }
+    },
+
+    /**
+     * Biggest batches first. Takes from as few batches as plain greedy order allows and leaves the small ones alone.
+     */
+    LARGEST_FIRST {
+        @Override
+        public int[] drawOrder(BatchCandidates candidates, int requestedQuantity) {
+            return candidates.sortedBy(position -> -candidates.quantity(position));
+        }
+    },
+
+    /**
+     * Fewest picks, with a best fit for the last one. Takes the biggest batches until one of the remaining batches
+     * can cover the rest. From those, it takes the smallest batch, so the large batches stay whole.
+     */
+    FEWEST_BATCHES {
+        @Override
+        public int[] drawOrder(BatchCandidates candidates, int requestedQuantity) {
+            int[] bySize = candidates.sortedBy(position -> -candidates.quantity(position));
+            int[] picks = new int[bySize.length];
+            int count = 0;
+            long remaining = requestedQuantity;
+            for (int i = 0; i < bySize.length && remaining > 0; i++) {
+                if (candidates.quantity(bySize[i]) < remaining) {
+                    picks[count++] = bySize[i];
+                    remaining -= candidates.quantity(bySize[i]);
+                    continue;
+                }
+                picks[count++] = bySize[smallestCovering(candidates, bySize, i, remaining)];
+                break;
+            }
+            return Arrays.copyOf(picks, count);
+        }
+    };
+
+    // bySize is descending and bySize[from] covers remaining: the first position holding the smallest quantity that
+    // still covers it, i.e. the earliest-expiring of the equally sized best fits
+    private static int smallestCovering(BatchCandidates candidates, int[] bySize, int from, long remaining) {
+        int low = from;
+        int high = bySize.length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (candidates.quantity(bySize[mid]) >= remaining) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        int fit = candidates.quantity(bySize[low]);
+        high = low;
+        low = from;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (candidates.quantity(bySize[mid]) > fit) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
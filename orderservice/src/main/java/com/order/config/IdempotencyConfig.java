@@ -0,0 +1,71 @@
+package com.order.config;
+
+import com.common.idempotency.IdempotencyFilter;
+import com.common.idempotency.IdempotencyRecord;
+import com.common.idempotency.IdempotencyRecordRepository;
+import com.common.idempotency.IdempotencyStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Idempotency keys for {@code order.idempotency.paths}, using the shared store and filter. The auto-configuration
+ * package entry lets JPA find {@link IdempotencyRecord} and its repository outside {@code com.order}.
+ */
+@Configuration
+@AutoConfigurationPackage(basePackageClasses = IdempotencyRecord.class)
+public class IdempotencyConfig {
+
+    @Bean
+    public IdempotencyStore idempotencyStore(IdempotencyRecordRepository repository,
+                                             @Value("${order.idempotency.persist:true}") boolean persist,
+                                             @Value("${order.idempotency.max-size:20000}") int maxSize,
+                                             @Value("${order.idempotency.ttl-ms:86400000}") long ttlMillis,
+                                             @Value("${order.idempotency.in-flight-timeout-ms:15000}") long inFlightTimeoutMillis) {
+        return new IdempotencyStore("order.idempotency", persist ? repository : null, maxSize, ttlMillis, inFlightTimeoutMillis);
+    }
+
+    @Bean
+    public IdempotencyFilter idempotencyFilter(IdempotencyStore idempotencyStore,
+                                               ObjectMapper objectMapper,
+                                               @Value("${order.idempotency.enabled:true}") boolean enabled,
+                                               @Value("${order.idempotency.paths:/order,/order/bulk}") Set<String> paths) {
+        // same shape as GlobalExceptionHandler
+        return new IdempotencyFilter(idempotencyStore, objectMapper, enabled, paths, (status, message, path) -> {
+            Map<String, Object> error = new HashMap<>();
+            error.put("timestamp", ZonedDateTime.now().toString());
+            error.put("status", status.value());
+            error.put("error", message);
+            error.put("path", path);
+            return error;
+        });
+    }
+
+    @Configuration
+    static class Schedule {
+
+        private final IdempotencyStore idempotencyStore;
+
+        Schedule(IdempotencyStore idempotencyStore) {
+            this.idempotencyStore = idempotencyStore;
+        }
+
+        @Scheduled(fixedDelayString = "${order.idempotency.flush-interval-ms:200}")
+        public void flush() {
+            idempotencyStore.flush();
+        }
+
+        @Scheduled(fixedDelayString = "${order.idempotency.purge-interval-ms:60000}")
+        public void purgeExpired() {
+            idempotencyStore.purgeExpired();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.order.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+@Configuration
+public class ReactiveConfig {
+
+    /**
+     * Bounded scheduler for the blocking JPA work of the reactive order pipeline.
+     * Sized to the connection pool so queued saves wait here instead of holding event-loop threads.
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler jdbcScheduler(@Value("${order.reactive.jdbc-threads:10}") int threads,
+                                   @Value("${order.reactive.jdbc-queue:10000}") int queueCapacity) {
+        return Schedulers.newBoundedElastic(threads, queueCapacity, "order-jdbc");
+    }
+}
@@ -0,0 +1,87 @@
+package com.order.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+@Configuration
+public class WebClientConfig {
+
+    /**
+     * Connection pool for calls to the inventory service. With metrics on, Reactor Netty publishes
+     * {@code reactor.netty.connection.provider.*} gauges (total, active, idle and pending connections)
+     * tagged {@code name=inventory}.
+     * <p>
+     * Sized to the inventory bulkhead, so a caller holding a permit normally finds a connection; the rest wait at
+     * most {@code pending-acquire-timeout-ms}. Idle connections are closed after {@code max-idle-time-ms}, which is
+     * kept below the inventory service's keep-alive timeout so the client, not the server, retires a connection
+     * and a request is never written to a socket the server is closing.
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider inventoryConnectionProvider(@Value("${inventory.service.pool.max-connections:200}") int maxConnections,
+                                                          @Value("${inventory.service.pool.pending-acquire-max-count:1000}") int pendingAcquireMaxCount,
+                                                          @Value("${inventory.service.pool.pending-acquire-timeout-ms:2000}") long pendingAcquireTimeoutMillis,
+                                                          @Value("${inventory.service.pool.max-idle-time-ms:20000}") long maxIdleTimeMillis,
+                                                          @Value("${inventory.service.pool.max-life-time-ms:600000}") long maxLifeTimeMillis,
+                                                          @Value("${inventory.service.pool.evict-interval-ms:10000}") long evictIntervalMillis) {
+        return ConnectionProvider.builder("inventory")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(Duration.ofMillis(pendingAcquireTimeoutMillis))
+                .maxIdleTime(Duration.ofMillis(maxIdleTimeMillis))
+                .maxLifeTime(Duration.ofMillis(maxLifeTimeMillis))
+                .evictInBackground(Duration.ofMillis(evictIntervalMillis))
+                .metrics(true)
+                .build();
+    }
+
+    /**
+     * Replaces Boot's default connector, so the WebClient.Builder injected into InventoryClient uses this pool.
+     * Without the timeouts a hung inventory service would hold every caller (and its bulkhead permit) forever;
+     * the response timeout runs from the end of the request write to the first byte of the response.
+     * <p>
+     * {@code protocol=h2c} multiplexes calls over a few cleartext HTTP/2 connections (prior knowledge, so the
+     * inventory service must run with {@code server.http2.enabled=true}); {@code http11} uses one connection per
+     * call in flight. With {@code compression} on, responses are requested gzipped, as Spring's default connector
+     * would; batch lists for many SKUs are the answers that gain from it.
+     * New TCP connections are counted in {@code inventory.client.connections.opened}, which should stay flat
+     * under steady load.
+     */
+    @Bean
+    public ClientHttpConnector inventoryClientHttpConnector(ConnectionProvider inventoryConnectionProvider,
+                                                            MeterRegistry registry,
+                                                            @Value("${inventory.service.connect-timeout-ms:1000}") int connectTimeoutMillis,
+                                                            @Value("${inventory.service.response-timeout-ms:5000}") long responseTimeoutMillis,
+                                                            @Value("${inventory.service.protocol:http11}") String protocol,
+                                                            @Value("${inventory.service.compression:true}") boolean compression) {
+        Counter connectionsOpened = Counter.builder("inventory.client.connections.opened")
+                .description("TCP connections opened to the inventory service")
+                .register(registry);
+        return new ReactorClientHttpConnector(HttpClient.create(inventoryConnectionProvider)
+                .protocol(httpProtocol(protocol))
+                .compress(compression)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMillis)
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .option(ChannelOption.TCP_NODELAY, true)
+                .doOnChannelInit((observer, channel, remoteAddress) -> connectionsOpened.increment())
+                .responseTimeout(Duration.ofMillis(responseTimeoutMillis)));
+    }
+
+    static HttpProtocol httpProtocol(String protocol) {
+        return switch (protocol.toLowerCase()) {
+            case "http11" -> HttpProtocol.HTTP11;
+            case "h2c" -> HttpProtocol.H2C;
+            default -> throw new IllegalArgumentException("Unknown inventory.service.protocol: " + protocol);
+        };
+    }
+}
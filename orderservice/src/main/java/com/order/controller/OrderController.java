@@ -1,15 +1,22 @@
 package com.order.controller;
 
+import com.order.dto.BulkOrderRequest;
+import com.order.dto.BulkOrderResponse;
 import com.order.dto.OrderRequest;
 import com.order.dto.OrderResponse;
+import com.order.entity.Order;
 import com.order.service.OrderService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
 
 @RestController
 @RequestMapping("/order")
@@ -25,4 +32,23 @@ public class OrderController {
         OrderResponse response = service.placeOrder(request);
         return ResponseEntity.ok(response);
     }
+
+    @PostMapping(params = "mode=reactive")
+    @Operation(summary = "Place a new order without blocking a servlet thread on inventory calls")
+    public Mono<ResponseEntity<OrderResponse>> placeOrderReactive(@RequestBody OrderRequest request) {
+        return service.placeOrderReactive(request).map(ResponseEntity::ok);
+    }
+
+    @PostMapping("/bulk")
+    @Operation(summary = "Place many order lines in one request")
+    public ResponseEntity<BulkOrderResponse> placeOrders(@RequestBody BulkOrderRequest request) {
+        BulkOrderResponse response = service.placeOrders(request);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/{orderNumber}")
+    @Operation(summary = "Get an order and its status (PENDING, PLACED or REJECTED)")
+    public ResponseEntity<Order> getOrder(@Parameter(description = "Order number") @PathVariable String orderNumber) {
+        return ResponseEntity.ok(service.getOrder(orderNumber));
+    }
 }
@@ -0,0 +1,181 @@
+package com.order.downstream;
+
+import com.order.dto.InventoryBatchDto;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Short-lived, size-bounded cache of batch snapshots per SKU, used in front of {@code GET /inventory/batches}.
+ * <p>
+ * Entries are evicted least-recently-used once {@code max-size} is reached and expire {@code ttl-ms} after
+ * they were fetched. Concurrent misses for the same SKU share one in-flight fetch; a caller that cancels leaves
+ * the fetch running for the others. Invalidating a SKU detaches its in-flight fetch, which still answers its callers
+ * but is not stored; fetches for other SKUs are not affected.
+ * When {@code inventory.cache.enabled=false} every call goes straight to the loader.
+ */
+@Component
+public class InventoryBatchCache implements MeterBinder {
+
+    private final boolean enabled;
+    private final int maxSize;
+    private final long ttlNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, Entry> entries;
+    // the fetch currently allowed to store its result, per SKU; invalidate removes it
+    private final Map<String, CompletableFuture<List<InventoryBatchDto>>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public InventoryBatchCache(@Value("${inventory.cache.enabled:false}") boolean enabled,
+                               @Value("${inventory.cache.max-size:500}") int maxSize,
+                               @Value("${inventory.cache.ttl-ms:1000}") long ttlMillis) {
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > InventoryBatchCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the cached batches for {@code sku}, or joins/starts the single fetch for it.
+     */
+    public Mono<List<InventoryBatchDto>> get(String sku, Function<String, Mono<List<InventoryBatchDto>>> loader) {
+        if (!enabled) {
+            return loader.apply(sku);
+        }
+        return Mono.defer(() -> {
+            List<InventoryBatchDto> cached = lookup(sku);
+            if (cached != null) {
+                hits.increment();
+                return Mono.just(cached);
+            }
+            misses.increment();
+            CompletableFuture<List<InventoryBatchDto>> fetch = new CompletableFuture<>();
+            CompletableFuture<List<InventoryBatchDto>> existing = inFlight.putIfAbsent(sku, fetch);
+            // suppressCancel: one caller cancelling must not cancel the future the other callers wait on
+            if (existing != null) {
+                return Mono.fromFuture(existing, true);
+            }
+            fetch.whenComplete((batches, error) -> inFlight.remove(sku, fetch));
+            loader.apply(sku).subscribe(
+                    batches -> {
+                        store(sku, batches, fetch);
+                        fetch.complete(batches);
+                    },
+                    fetch::completeExceptionally,
+                    () -> fetch.complete(List.of()));
+            return Mono.fromFuture(fetch, true);
+        });
+    }
+
+    /**
+     * Drops the snapshot for {@code sku}; called after a deduction succeeded or was rejected for stock.
+     */
+    public void invalidate(String sku) {
+        if (!enabled) {
+            return;
+        }
+        inFlight.remove(sku);
+        lock.lock();
+        try {
+            entries.remove(sku);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("inventory.batch.cache.requests", this, InventoryBatchCache::getHits)
+                .tag("result", "hit").register(registry);
+        FunctionCounter.builder("inventory.batch.cache.requests", this, InventoryBatchCache::getMisses)
+                .tag("result", "miss").register(registry);
+        FunctionCounter.builder("inventory.batch.cache.evictions", this, InventoryBatchCache::getEvictions)
+                .register(registry);
+        Gauge.builder("inventory.batch.cache.size", this, InventoryBatchCache::size)
+                .register(registry);
+    }
+
+    private List<InventoryBatchDto> lookup(String sku) {
+        lock.lock();
+        try {
+            Entry entry = entries.get(sku);
+            if (entry == null) {
+                return null;
+            }
+            if (System.nanoTime() - entry.fetchedAt > ttlNanos) {
+                entries.remove(sku);
+                evictions.increment();
+                return null;
+            }
+            return entry.batches;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void store(String sku, List<InventoryBatchDto> batches, CompletableFuture<List<InventoryBatchDto>> fetch) {
+        lock.lock();
+        try {
+            // otherwise this SKU was invalidated while the fetch ran; the result may predate the deduction
+            if (inFlight.get(sku) == fetch) {
+                entries.put(sku, new Entry(List.copyOf(batches), System.nanoTime()));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private record Entry(List<InventoryBatchDto> batches, long fetchedAt) {
+    }
+}
@@ -1,64 +1,257 @@
 package com.order.downstream;
 
 
+import com.order.dto.InventoryAllocationRequest;
+import com.order.dto.InventoryAllocationResponse;
 import com.order.dto.InventoryBatchDto;
+import com.order.dto.InventoryReservationRequest;
+import com.order.dto.InventoryReservationResponse;
 import com.order.dto.InventoryUpdateRequest;
+import com.order.dto.InventoryUpdateResult;
+import com.order.handlers.InsufficientInventoryException;
+import com.order.metrics.OrderMetrics;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
+/**
+ * HTTP client for the inventory service. Every call goes through {@link InventoryResilience}; connect and response
+ * timeouts are set on the connector in {@code WebClientConfig}.
+ */
 @Component
 public class InventoryClient {
 
     private final WebClient client;
+    private final String handlerType;
+    private final InventoryBatchCache batchCache;
+    private final OrderMetrics metrics;
+    private final long reservationTtlMillis;
+    private final InventoryResilience resilience;
 
     private static final String FETCH_BATCHES_ERROR_MSG = "Failed to fetch inventory batches from inventory service.";
     private static final String UPDATE_INVENTORY_ERROR_MSG = "Failed to update inventory in inventory service.";
+    private static final String BULK_UPDATE_INVENTORY_ERROR_MSG = "Failed to bulk update inventory in inventory service.";
+    private static final String ALLOCATE_INVENTORY_ERROR_MSG = "Failed to allocate inventory in inventory service.";
+    private static final String RESERVE_INVENTORY_ERROR_MSG = "Failed to reserve inventory in inventory service.";
+    private static final String CONFIRM_RESERVATION_ERROR_MSG = "Failed to confirm inventory reservation in inventory service.";
+    private static final String RELEASE_RESERVATION_ERROR_MSG = "Failed to release inventory reservation in inventory service.";
+    private static final String INSUFFICIENT_INVENTORY_MSG = "Insufficient inventory to fulfill requested quantity";
+    // one key per logical deduction, allocation or hold, fixed when the call is assembled, so a resubscribed retry is deduplicated
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
 
     public InventoryClient(WebClient.Builder builder,
-                           @Value("${inventory.service.url:http://localhost:8081}") String baseUrl) {
+                           @Value("${inventory.service.url:http://localhost:8081}") String baseUrl,
+                           @Value("${inventory.service.handler-type:default}") String handlerType,
+                           InventoryBatchCache batchCache,
+                           OrderMetrics metrics,
+                           @Value("${inventory.service.reservation-ttl-ms:30000}") long reservationTtlMillis,
+                           InventoryResilience resilience) {
         this.client = builder.baseUrl(baseUrl).build();
+        this.handlerType = handlerType;
+        this.batchCache = batchCache;
+        this.metrics = metrics;
+        this.reservationTtlMillis = reservationTtlMillis;
+        this.resilience = resilience;
     }
 
     // call update inventory
     public void updateInventory(InventoryUpdateRequest request) {
+        updateInventoryAsync(request).block();
+    }
+
+    // Non-blocking variant of updateInventory for the reactive order pipeline
+    public Mono<Void> updateInventoryAsync(InventoryUpdateRequest request) {
+        return resilience.call(client.post()
+                        .uri(uriBuilder -> uriBuilder.path("/inventory/update").queryParam("handlerType", handlerType).build())
+                        .header(IDEMPOTENCY_KEY_HEADER, UUID.randomUUID().toString())
+                        .bodyValue(request)
+                        .retrieve()
+                        .toBodilessEntity())
+                .then()
+                .doOnError(e -> metrics.downstreamError("update", e))
+                // the snapshot is stale after a deduction, and wrong if inventory rejected it for stock
+                .doOnSuccess(ignored -> batchCache.invalidate(request.getSku()))
+                .doOnError(WebClientResponseException.class, e -> {
+                    if (e.getStatusCode().is4xxClientError()) {
+                        batchCache.invalidate(request.getSku());
+                    }
+                })
+                .onErrorMap(WebClientResponseException.class, e -> downstreamError(UPDATE_INVENTORY_ERROR_MSG, "request", request, e));
+    }
+
+    // Fetch the batches of a SKU that can still be allocated (non-empty, not expired), in expiry order
+    public List<InventoryBatchDto> getBatchesBySku(String sku) {
+        List<InventoryBatchDto> batches = getBatchesBySkuAsync(sku).block();
+        return batches != null ? batches : List.of();
+    }
+
+    // Non-blocking variant of getBatchesBySku for the reactive order pipeline; served from the batch cache when enabled
+    public Mono<List<InventoryBatchDto>> getBatchesBySkuAsync(String sku) {
+        return batchCache.get(sku, this::fetchBatchesBySku);
+    }
+
+    private Mono<List<InventoryBatchDto>> fetchBatchesBySku(String sku) {
+        return resilience.read(client.get()
+                        .uri(uriBuilder -> uriBuilder.path("/inventory/batches")
+                                .queryParam("sku", sku)
+                                .queryParam("available", true)
+                                .build())
+                        .retrieve()
+                        .bodyToMono(InventoryBatchDto[].class))
+                .doOnError(e -> metrics.downstreamError("fetch_batches", e))
+                .map(Arrays::asList)
+                .defaultIfEmpty(List.of())
+                .onErrorMap(WebClientResponseException.class, e -> downstreamError(FETCH_BATCHES_ERROR_MSG, "sku", sku, e));
+    }
+
+    // Fetch allocatable batches for many SKUs in one call; unknown SKUs map to an empty list
+    public Map<String, List<InventoryBatchDto>> getBatchesBySkus(Collection<String> skus) {
         try {
-            client.post()
-                    .uri("/inventory/update")
-                    .bodyValue(request)
-                    .retrieve()
-                    .toBodilessEntity()
+            Map<String, List<InventoryBatchDto>> batches = resilience.read(client.get()
+                            .uri(uriBuilder -> uriBuilder.path("/inventory/batches/by-skus")
+                                    .queryParam("skus", skus.toArray())
+                                    .queryParam("available", true)
+                                    .build())
+                            .retrieve()
+                            .bodyToMono(new ParameterizedTypeReference<Map<String, List<InventoryBatchDto>>>() {}))
+                    .doOnError(e -> metrics.downstreamError("fetch_batches_bulk", e))
                     .block();
+            return batches != null ? batches : Map.of();
         } catch (WebClientResponseException e) {
-            Map<String, Object> logMap = new HashMap<>();
-            logMap.put("request", request);
-            logMap.put("errorStatus", e.getStatusCode().value());
-            logMap.put("errorBody", e.getResponseBodyAsString());
-            throw new RuntimeException(UPDATE_INVENTORY_ERROR_MSG + " " + logMap, e);
+            throw downstreamError(FETCH_BATCHES_ERROR_MSG, "skus", skus, e);
         }
     }
 
-    // Fetch inventory batches for a given SKU
-    public List<InventoryBatchDto> getBatchesBySku(String sku) {
+    // Apply many deductions in one call; results are returned in request order
+    public List<InventoryUpdateResult> updateInventoryBulk(List<InventoryUpdateRequest> requests, boolean atomic) {
+        return updateInventoryBulk(requests, atomic, UUID.randomUUID().toString());
+    }
+
+    // As above, under the caller's Idempotency-Key: resending the same requests with the same key after a lost
+    // response gets the first answer back instead of deducting twice
+    public List<InventoryUpdateResult> updateInventoryBulk(List<InventoryUpdateRequest> requests, boolean atomic,
+                                                           String idempotencyKey) {
         try {
-            InventoryBatchDto[] batches = client.get()
-                    .uri(uriBuilder -> uriBuilder.path("/inventory/batches").queryParam("sku", sku).build())
-                    .retrieve()
-                    .bodyToMono(InventoryBatchDto[].class)
+            InventoryUpdateResult[] results = resilience.call(client.post()
+                            .uri(uriBuilder -> uriBuilder.path("/inventory/update/bulk")
+                                    .queryParam("handlerType", handlerType)
+                                    .queryParam("atomic", atomic)
+                                    .build())
+                            .header(IDEMPOTENCY_KEY_HEADER, idempotencyKey)
+                            .bodyValue(requests)
+                            .retrieve()
+                            .bodyToMono(InventoryUpdateResult[].class))
+                    .doOnError(e -> metrics.downstreamError("update_bulk", e))
                     .block();
-            return batches != null ? Arrays.asList(batches) : List.of();
+            return results != null ? Arrays.asList(results) : List.of();
         } catch (WebClientResponseException e) {
-            Map<String, Object> logMap = new HashMap<>();
-            logMap.put("sku", sku);
-            logMap.put("errorStatus", e.getStatusCode().value());
-            logMap.put("errorBody", e.getResponseBodyAsString());
-            throw new RuntimeException(FETCH_BATCHES_ERROR_MSG + " " + logMap, e);
+            throw downstreamError(BULK_UPDATE_INVENTORY_ERROR_MSG, "lines", requests.size(), e);
+        } finally {
+            requests.forEach(r -> batchCache.invalidate(r.getSku()));
         }
     }
+
+    // Allocate and deduct in one call; inventory picks batches in expiry order, skipping those that expire within
+    // minShelfLifeDays (optional)
+    public InventoryAllocationResponse allocate(String sku, int quantity, Integer minShelfLifeDays) {
+        return allocateAsync(sku, quantity, minShelfLifeDays).block();
+    }
+
+    // Non-blocking variant of allocate; a 409 from inventory becomes InsufficientInventoryException
+    public Mono<InventoryAllocationResponse> allocateAsync(String sku, int quantity, Integer minShelfLifeDays) {
+        InventoryAllocationRequest request = InventoryAllocationRequest.builder()
+                .sku(sku)
+                .quantity(quantity)
+                .minShelfLifeDays(minShelfLifeDays)
+                .build();
+        return resilience.call(client.post()
+                        .uri("/inventory/allocate")
+                        .header(IDEMPOTENCY_KEY_HEADER, UUID.randomUUID().toString())
+                        .bodyValue(request)
+                        .retrieve()
+                        .bodyToMono(InventoryAllocationResponse.class))
+                .doOnError(e -> metrics.downstreamError("allocate", e))
+                .doFinally(signal -> batchCache.invalidate(sku))
+                .onErrorMap(WebClientResponseException.class, e -> e.getStatusCode().value() == HttpStatus.CONFLICT.value()
+                        ? new InsufficientInventoryException(INSUFFICIENT_INVENTORY_MSG)
+                        : downstreamError(ALLOCATE_INVENTORY_ERROR_MSG, "request", request, e));
+    }
+
+    // Hold stock in expiry order until it is confirmed or released; unconfirmed holds expire after the reservation TTL
+    public InventoryReservationResponse reserve(String sku, int quantity, Integer minShelfLifeDays) {
+        return reserveAsync(sku, quantity, minShelfLifeDays).block();
+    }
+
+    // Non-blocking variant of reserve; a 409 from inventory becomes InsufficientInventoryException
+    public Mono<InventoryReservationResponse> reserveAsync(String sku, int quantity, Integer minShelfLifeDays) {
+        InventoryReservationRequest request = InventoryReservationRequest.builder()
+                .sku(sku)
+                .quantity(quantity)
+                .minShelfLifeDays(minShelfLifeDays)
+                .ttlMillis(reservationTtlMillis)
+                .build();
+        return resilience.call(client.post()
+                        .uri("/inventory/reservations")
+                        .header(IDEMPOTENCY_KEY_HEADER, UUID.randomUUID().toString())
+                        .bodyValue(request)
+                        .retrieve()
+                        .bodyToMono(InventoryReservationResponse.class))
+                .doOnError(e -> metrics.downstreamError("reserve", e))
+                .doFinally(signal -> batchCache.invalidate(sku))
+                .onErrorMap(WebClientResponseException.class, e -> e.getStatusCode().value() == HttpStatus.CONFLICT.value()
+                        ? new InsufficientInventoryException(INSUFFICIENT_INVENTORY_MSG)
+                        : downstreamError(RESERVE_INVENTORY_ERROR_MSG, "request", request, e));
+    }
+
+    public void confirmReservation(String reservationId) {
+        confirmReservationAsync(reservationId).block();
+    }
+
+    public Mono<Void> confirmReservationAsync(String reservationId) {
+        return resilience.call(client.post()
+                        .uri("/inventory/reservations/{reservationId}/confirm", reservationId)
+                        .retrieve()
+                        .toBodilessEntity())
+                .then()
+                .doOnError(e -> metrics.downstreamError("confirm_reservation", e))
+                .onErrorMap(WebClientResponseException.class,
+                        e -> downstreamError(CONFIRM_RESERVATION_ERROR_MSG, "reservationId", reservationId, e));
+    }
+
+    // Returns false when inventory refuses because the hold was already confirmed
+    public boolean releaseReservation(String reservationId) {
+        return Boolean.TRUE.equals(releaseReservationAsync(reservationId).block());
+    }
+
+    public Mono<Boolean> releaseReservationAsync(String reservationId) {
+        return resilience.call(client.post()
+                        .uri("/inventory/reservations/{reservationId}/release", reservationId)
+                        .retrieve()
+                        .bodyToMono(InventoryReservationResponse.class))
+                .doOnError(e -> metrics.downstreamError("release_reservation", e))
+                .doOnNext(released -> batchCache.invalidate(released.getSku()))
+                .thenReturn(true)
+                .onErrorResume(WebClientResponseException.class, e -> e.getStatusCode().value() == HttpStatus.CONFLICT.value()
+                        ? Mono.just(false)
+                        : Mono.error(downstreamError(RELEASE_RESERVATION_ERROR_MSG, "reservationId", reservationId, e)));
+    }
+
+    private RuntimeException downstreamError(String message, String key, Object value, WebClientResponseException e) {
+        Map<String, Object> logMap = new HashMap<>();
+        logMap.put(key, value);
+        logMap.put("errorStatus", e.getStatusCode().value());
+        logMap.put("errorBody", e.getResponseBodyAsString());
+        return new RuntimeException(message + " " + logMap, e);
+    }
 }
@@ -0,0 +1,66 @@
+package com.order.downstream;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.retry.RetryOperator;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Guards every call to the inventory service with the {@code inventory} bulkhead and circuit breaker configured
+ * under {@code resilience4j.*}. Reads are also retried with jittered exponential backoff ({@code inventory-read});
+ * writes are not, since a deduction whose answer was lost may already have been applied.
+ * <p>
+ * A full bulkhead or an open breaker fails the call at once with {@code BulkheadFullException} or
+ * {@code CallNotPermittedException} instead of queueing it behind a slow inventory service.
+ */
+@Component
+public class InventoryResilience {
+
+    static final String INSTANCE = "inventory";
+    static final String READ_RETRY_INSTANCE = "inventory-read";
+
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final Retry readRetry;
+
+    @Autowired
+    public InventoryResilience(CircuitBreakerRegistry circuitBreakerRegistry,
+                               BulkheadRegistry bulkheadRegistry,
+                               RetryRegistry retryRegistry) {
+        this(circuitBreakerRegistry.circuitBreaker(INSTANCE),
+             bulkheadRegistry.bulkhead(INSTANCE),
+             retryRegistry.retry(READ_RETRY_INSTANCE));
+    }
+
+    public InventoryResilience(CircuitBreaker circuitBreaker, Bulkhead bulkhead, Retry readRetry) {
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+        this.readRetry = readRetry;
+    }
+
+    // each attempt takes a bulkhead permit and is recorded by the breaker
+    public <T> Mono<T> call(Mono<T> call) {
+        return call.transformDeferred(BulkheadOperator.of(bulkhead))
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker));
+    }
+
+    public <T> Mono<T> read(Mono<T> call) {
+        return call(call).transformDeferred(RetryOperator.of(readRetry));
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public Bulkhead getBulkhead() {
+        return bulkhead;
+    }
+}
@@ -0,0 +1,26 @@
+package com.order.downstream;
+
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+
+/**
+ * Failures that say the inventory service is unwell rather than that the request was wrong: 5xx answers,
+ * connect and I/O errors, and timeouts. They count against the circuit breaker and make a read worth retrying;
+ * 4xx answers (unknown SKU, insufficient stock) do neither.
+ * <p>
+ * Named in {@code resilience4j.*.record-exception-predicate} / {@code retry-exception-predicate}, so it needs a
+ * public no-argument constructor.
+ */
+public class TransientInventoryFailure implements Predicate<Throwable> {
+
+    @Override
+    public boolean test(Throwable error) {
+        if (error instanceof WebClientResponseException e) {
+            return e.getStatusCode().is5xxServerError();
+        }
+        return error instanceof WebClientRequestException || error instanceof TimeoutException;
+    }
+}
@@ -0,0 +1,18 @@
+package com.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOrderRequest {
+    private List<OrderRequest> lines;
+    // when true, any failing line aborts the whole batch
+    private boolean atomic;
+}
@@ -0,0 +1,19 @@
+package com.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOrderResponse {
+    private int succeeded;
+    private int failed;
+    // one entry per request line, in request order
+    private List<OrderResponse> results;
+}
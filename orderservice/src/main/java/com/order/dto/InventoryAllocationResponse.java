@@ -0,0 +1,18 @@
+package com.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryAllocationResponse {
+    private String sku;
+    // quantity on each batch is the amount deducted from it
+    private List<InventoryBatchDto> allocations;
+}
@@ -6,6 +6,8 @@ import java.time.LocalDate;
 
 @Data
 public class InventoryBatchDto {
+    // inventory's batch id, increasing with creation; FIFO allocation orders by it
+    private Long id;
     private String batchNumber;
     private Integer quantity;
     private LocalDate expiryDate;
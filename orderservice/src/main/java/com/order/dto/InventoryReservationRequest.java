@@ -0,0 +1,17 @@
+package com.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryReservationRequest {
+    private String sku;
+    private Integer quantity;
+    private Integer minShelfLifeDays;
+    private Long ttlMillis;
+}
@@ -0,0 +1,23 @@
+package com.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryReservationResponse {
+    private String reservationId;
+    private String sku;
+    // HELD, CONFIRMED, RELEASED or EXPIRED
+    private String status;
+    private Instant expiresAt;
+    // quantity on each batch is the amount held on it
+    private List<InventoryBatchDto> allocations;
+}
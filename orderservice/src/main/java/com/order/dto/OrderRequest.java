@@ -12,4 +12,8 @@ import lombok.NoArgsConstructor;
 public class OrderRequest {
     private String sku;
     private Integer quantity;
+    // optional; only batches that stay good for at least this many more days are allocated
+    private Integer minShelfLifeDays;
+    // optional; FEFO, FIFO, FEWEST_BATCHES, LARGEST_FIRST or a custom strategy name, else the SKU's or the default
+    private String allocationStrategy;
 }
@@ -14,18 +14,36 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "ux_orders_order_number", columnList = "orderNumber", unique = true),
+        @Index(name = "ix_orders_status", columnList = "status")
+})
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class Order {
+    public static final String STATUS_PLACED = "PLACED";
+    // accepted in outbox mode; the relay moves it to PLACED or REJECTED
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_REJECTED = "REJECTED";
+    // reserve mode: neither the confirm nor the release got an answer; ReservationReconciler settles it
+    public static final String STATUS_UNKNOWN = "UNKNOWN";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // pooled sequence ids keep JDBC insert batching available (IDENTITY disables it)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     private String orderNumber;
     private String sku;
     private Integer quantity;
+    // shelf life the order asked for; batches expiring sooner are not allocated to it
+    private Integer minShelfLifeDays;
+    // allocation strategy the order asked for; null uses the SKU's or the default
+    private String allocationStrategy;
     private LocalDateTime createdAt;
     private String status;
+    // inventory hold confirmed for this order (reserve allocation mode only)
+    private String reservationId;
 
     @Column(columnDefinition = "VARCHAR(1000)")
     private String metadata;
@@ -0,0 +1,53 @@
+package com.order.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Inventory deduction still owed for a PENDING order; written in the same transaction as the order and deleted
+ * once the relay has settled it.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "order_outbox", indexes = {
+        @Index(name = "ix_order_outbox_next_attempt_at", columnList = "nextAttemptAt, id"),
+        @Index(name = "ix_order_outbox_dispatch_key", columnList = "dispatchKey")
+})
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_outbox_seq")
+    @SequenceGenerator(name = "order_outbox_seq", sequenceName = "order_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long orderId;
+
+    private String sku;
+    private Integer quantity;
+    private Integer minShelfLifeDays;
+    private String allocationStrategy;
+    private LocalDateTime createdAt;
+
+    // Idempotency-Key of the deduction this event was sent in, kept until inventory answers for it: a retry after a
+    // lost response resends the same deduction under the same key, and inventory replays its first answer
+    @Column(length = 64)
+    private String dispatchKey;
+    // batchNumber -> quantity this event took in that deduction
+    @JdbcTypeCode(SqlTypes.JSON)
+    private Map<String, Integer> deduction;
+
+    private int attempts;
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+}
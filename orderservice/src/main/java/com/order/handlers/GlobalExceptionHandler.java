@@ -1,5 +1,7 @@
 package com.order.handlers;
 
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -25,6 +27,19 @@ public class GlobalExceptionHandler {
         return error;
     }
 
+    // request validation: a missing SKU, a bad quantity or an allocation strategy the mode cannot apply
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ResponseBody
+    public Map<String, Object> handleIllegalArgumentException(IllegalArgumentException ex) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("timestamp", ZonedDateTime.now().toString());
+        error.put("status", HttpStatus.BAD_REQUEST.value());
+        error.put("error", ex.getMessage());
+        error.put("path", "/order");
+        return error;
+    }
+
     @ExceptionHandler(InsufficientInventoryException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     @ResponseBody
@@ -36,4 +51,29 @@ public class GlobalExceptionHandler {
         error.put("path", "/order");
         return error;
     }
+
+    @ExceptionHandler(OrderNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    @ResponseBody
+    public Map<String, Object> handleOrderNotFoundException(OrderNotFoundException ex) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("timestamp", ZonedDateTime.now().toString());
+        error.put("status", HttpStatus.NOT_FOUND.value());
+        error.put("error", ex.getMessage());
+        error.put("path", "/order");
+        return error;
+    }
+
+    // the inventory circuit breaker is open or its bulkhead is full: fail fast and let the caller back off
+    @ExceptionHandler({CallNotPermittedException.class, BulkheadFullException.class})
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    @ResponseBody
+    public Map<String, Object> handleInventoryUnavailable(RuntimeException ex) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("timestamp", ZonedDateTime.now().toString());
+        error.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        error.put("error", ex.getMessage());
+        error.put("path", "/order");
+        return error;
+    }
 }
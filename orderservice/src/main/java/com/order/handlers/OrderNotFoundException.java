@@ -0,0 +1,7 @@
+package com.order.handlers;
+
+public class OrderNotFoundException extends RuntimeException {
+    public OrderNotFoundException(String message) {
+        super(message);
+    }
+}
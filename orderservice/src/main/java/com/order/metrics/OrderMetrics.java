@@ -0,0 +1,217 @@
+package com.order.metrics;
+
+import com.order.handlers.InsufficientInventoryException;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.net.ConnectException;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Timers and counters for the order placement hot path.
+ * <p>
+ * {@code order.placement} times a whole placement per path and outcome; {@code order.placement.stage} times each
+ * step of it. An {@link InsufficientInventoryException} escaping a stage is counted in
+ * {@code order.insufficient.inventory} with the cause that stage implies, and failed calls to the inventory service
+ * are counted in {@code inventory.client.errors} by operation and cause. Every timer on the hot path is registered
+ * up front, so recording is a clock read and an atomic update with no meter lookup.
+ * Histogram buckets are switched on through {@code management.metrics.distribution.percentiles-histogram}.
+ */
+@Component
+public class OrderMetrics {
+
+    public enum Path { BLOCKING, REACTIVE }
+
+    public enum Stage {
+        VALIDATE("validate", null),
+        FETCH_BATCHES("fetch_batches", "no_batches"),
+        ALLOCATE("allocate", "shortfall"),
+        DEDUCT("deduct", "rejected"),
+        // server allocation mode: one call that allocates and deducts
+        ALLOCATE_AND_DEDUCT("allocate_and_deduct", "rejected"),
+        // reserve allocation mode: hold stock, persist, then confirm the hold
+        RESERVE("reserve", "rejected"),
+        CONFIRM("confirm", null),
+        PERSIST("persist", null);
+
+        private final String tag;
+        private final String insufficientCause;
+
+        Stage(String tag, String insufficientCause) {
+            this.tag = tag;
+            this.insufficientCause = insufficientCause;
+        }
+    }
+
+    static final String PLACEMENT_TIMER = "order.placement";
+    static final String STAGE_TIMER = "order.placement.stage";
+    static final String INSUFFICIENT_COUNTER = "order.insufficient.inventory";
+    static final String DOWNSTREAM_ERROR_COUNTER = "inventory.client.errors";
+
+    private static final String OUTCOME_SUCCESS = "success";
+    private static final String OUTCOME_INSUFFICIENT = "insufficient_inventory";
+    private static final String OUTCOME_INVALID = "invalid_request";
+    private static final String OUTCOME_ERROR = "error";
+
+    private final MeterRegistry registry;
+    private final Clock clock;
+    private final Map<Path, Map<Stage, Timer>> stageTimers = new EnumMap<>(Path.class);
+    private final Map<Path, Map<String, Timer>> placementTimers = new EnumMap<>(Path.class);
+    private final Map<Stage, Counter> insufficientCounters = new EnumMap<>(Stage.class);
+
+    public OrderMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.clock = registry.config().clock();
+        for (Path path : Path.values()) {
+            String pathTag = path.name().toLowerCase();
+            Map<Stage, Timer> stages = new EnumMap<>(Stage.class);
+            for (Stage stage : Stage.values()) {
+                stages.put(stage, Timer.builder(STAGE_TIMER)
+                        .description("Time spent in one step of placing an order")
+                        .tag("path", pathTag)
+                        .tag("stage", stage.tag)
+                        .register(registry));
+            }
+            stageTimers.put(path, stages);
+            Map<String, Timer> outcomes = new HashMap<>();
+            for (String outcome : new String[]{OUTCOME_SUCCESS, OUTCOME_INSUFFICIENT, OUTCOME_INVALID, OUTCOME_ERROR}) {
+                outcomes.put(outcome, Timer.builder(PLACEMENT_TIMER)
+                        .description("Time to place an order, end to end")
+                        .tag("path", pathTag)
+                        .tag("outcome", outcome)
+                        .register(registry));
+            }
+            placementTimers.put(path, outcomes);
+        }
+        for (Stage stage : Stage.values()) {
+            // stages sharing a cause share the counter
+            if (stage.insufficientCause != null) {
+                insufficientCounters.put(stage, Counter.builder(INSUFFICIENT_COUNTER)
+                        .description("Orders refused for lack of stock")
+                        .tag("cause", stage.insufficientCause)
+                        .register(registry));
+            }
+        }
+    }
+
+    /**
+     * Instance that records into a registry nobody reads; for code paths built without Spring.
+     */
+    public static OrderMetrics noop() {
+        return new OrderMetrics(new CompositeMeterRegistry());
+    }
+
+    public <T> T placement(Path path, Supplier<T> placement) {
+        long start = clock.monotonicTime();
+        try {
+            T result = placement.get();
+            recordPlacement(path, start, null);
+            return result;
+        } catch (RuntimeException e) {
+            recordPlacement(path, start, e);
+            throw e;
+        }
+    }
+
+    public <T> Mono<T> placement(Path path, Mono<T> placement) {
+        return Mono.defer(() -> {
+            long start = clock.monotonicTime();
+            return placement
+                    .doOnSuccess(result -> recordPlacement(path, start, null))
+                    .doOnError(e -> recordPlacement(path, start, e));
+        });
+    }
+
+    public <T> T stage(Path path, Stage stage, Supplier<T> step) {
+        long start = clock.monotonicTime();
+        try {
+            return step.get();
+        } catch (InsufficientInventoryException e) {
+            insufficientInventory(stage);
+            throw e;
+        } finally {
+            stageTimers.get(path).get(stage).record(clock.monotonicTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void stage(Path path, Stage stage, Runnable step) {
+        stage(path, stage, () -> {
+            step.run();
+            return null;
+        });
+    }
+
+    public <T> Mono<T> stage(Path path, Stage stage, Mono<T> step) {
+        Timer timer = stageTimers.get(path).get(stage);
+        return Mono.defer(() -> {
+            long start = clock.monotonicTime();
+            return step
+                    .doOnError(InsufficientInventoryException.class, e -> insufficientInventory(stage))
+                    .doFinally(signal -> timer.record(clock.monotonicTime() - start, TimeUnit.NANOSECONDS));
+        });
+    }
+
+    /**
+     * Counts a failed call to the inventory service; {@code operation} names the client method.
+     */
+    public void downstreamError(String operation, Throwable error) {
+        registry.counter(DOWNSTREAM_ERROR_COUNTER, "operation", operation, "cause", cause(error)).increment();
+    }
+
+    static String cause(Throwable error) {
+        if (error instanceof CallNotPermittedException) {
+            return "circuit_open";
+        }
+        if (error instanceof BulkheadFullException) {
+            return "bulkhead_full";
+        }
+        if (error instanceof WebClientResponseException e) {
+            return e.getStatusCode().is4xxClientError() ? "client_error" : "server_error";
+        }
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof TimeoutException
+                    || t instanceof io.netty.handler.timeout.TimeoutException) {
+                return "timeout";
+            }
+            if (t instanceof ConnectException) {
+                return "connect";
+            }
+        }
+        return error instanceof WebClientRequestException ? "io" : "other";
+    }
+
+    private void insufficientInventory(Stage stage) {
+        Counter counter = insufficientCounters.get(stage);
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    private void recordPlacement(Path path, long start, Throwable error) {
+        String outcome;
+        if (error == null) {
+            outcome = OUTCOME_SUCCESS;
+        } else if (error instanceof InsufficientInventoryException) {
+            outcome = OUTCOME_INSUFFICIENT;
+        } else if (error instanceof IllegalArgumentException) {
+            outcome = OUTCOME_INVALID;
+        } else {
+            outcome = OUTCOME_ERROR;
+        }
+        placementTimers.get(path).get(outcome).record(clock.monotonicTime() - start, TimeUnit.NANOSECONDS);
+    }
+}
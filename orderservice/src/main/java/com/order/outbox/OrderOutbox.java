@@ -0,0 +1,130 @@
+package com.order.outbox;
+
+import com.order.entity.Order;
+import com.order.entity.OutboxEvent;
+import com.order.repository.OrderRepository;
+import com.order.repository.OutboxEventRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Database side of the outbox: accepting an order writes it as PENDING together with its {@link OutboxEvent},
+ * and {@link #settle} applies what {@link OutboxRelay} learned from inventory in one transaction.
+ */
+@Component
+public class OrderOutbox {
+
+    private final OrderRepository orderRepository;
+    private final OutboxEventRepository outboxEventRepository;
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+
+    private static final String GAVE_UP_MSG = "Inventory deduction failed after %d attempts";
+
+    public OrderOutbox(OrderRepository orderRepository,
+                       OutboxEventRepository outboxEventRepository,
+                       @Value("${order.outbox.max-attempts:10}") int maxAttempts,
+                       @Value("${order.outbox.retry-backoff-ms:1000}") long retryBackoffMillis) {
+        this.orderRepository = orderRepository;
+        this.outboxEventRepository = outboxEventRepository;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMillis = retryBackoffMillis;
+    }
+
+    @Transactional
+    public Order accept(Order order) {
+        order.setStatus(Order.STATUS_PENDING);
+        Order saved = orderRepository.save(order);
+        outboxEventRepository.save(OutboxEvent.builder()
+                .orderId(saved.getId())
+                .sku(saved.getSku())
+                .quantity(saved.getQuantity())
+                .minShelfLifeDays(saved.getMinShelfLifeDays())
+                .allocationStrategy(saved.getAllocationStrategy())
+                .createdAt(saved.getCreatedAt())
+                .nextAttemptAt(LocalDateTime.now())
+                .build());
+        return saved;
+    }
+
+    public List<OutboxEvent> due(int limit) {
+        return outboxEventRepository.findDue(LocalDateTime.now(), PageRequest.ofSize(limit));
+    }
+
+    /**
+     * Every event sent under {@code dispatchKey}, so a retry resends the whole deduction even when a drain picked up
+     * only part of it.
+     */
+    public List<OutboxEvent> dispatched(String dispatchKey) {
+        return outboxEventRepository.findByDispatchKeyOrderByIdAsc(dispatchKey);
+    }
+
+    /**
+     * Records the key and picks of a deduction before it is sent, so it can be resent unchanged if the answer is lost.
+     */
+    @Transactional
+    public void dispatching(List<OutboxEvent> events) {
+        outboxEventRepository.saveAll(events);
+    }
+
+    /**
+     * Marks orders PLACED or REJECTED and drops their events; events in {@code retry} are tried again after the
+     * backoff, and rejected once they have used up {@code max-attempts}. Returns how many of those were rejected.
+     * <p>
+     * An event that still holds a {@code dispatchKey} was sent and got no answer, so inventory may have deducted it.
+     * It is never rejected: it keeps being resent under its key until inventory answers, and inventory replays its
+     * first answer for that key for {@code inventory.idempotency.ttl-ms}.
+     */
+    @Transactional
+    public int settle(List<OutboxEvent> placed, Map<OutboxEvent, String> rejected, List<OutboxEvent> retry) {
+        Map<Long, String> statusByOrder = new HashMap<>();
+        Map<Long, String> reasonByOrder = new HashMap<>();
+        List<OutboxEvent> finished = new ArrayList<>(placed);
+        placed.forEach(event -> statusByOrder.put(event.getOrderId(), Order.STATUS_PLACED));
+        rejected.forEach((event, reason) -> {
+            statusByOrder.put(event.getOrderId(), Order.STATUS_REJECTED);
+            reasonByOrder.put(event.getOrderId(), reason);
+            finished.add(event);
+        });
+
+        List<OutboxEvent> rescheduled = new ArrayList<>();
+        LocalDateTime nextAttemptAt = LocalDateTime.now().plus(Duration.ofMillis(retryBackoffMillis));
+        for (OutboxEvent event : retry) {
+            event.setAttempts(event.getAttempts() + 1);
+            if (event.getAttempts() >= maxAttempts && event.getDispatchKey() == null) {
+                statusByOrder.put(event.getOrderId(), Order.STATUS_REJECTED);
+                reasonByOrder.put(event.getOrderId(), String.format(GAVE_UP_MSG, event.getAttempts()));
+                finished.add(event);
+            } else {
+                event.setNextAttemptAt(nextAttemptAt);
+                rescheduled.add(event);
+            }
+        }
+
+        Map<Long, Order> orders = orderRepository.findAllById(statusByOrder.keySet()).stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+        statusByOrder.forEach((orderId, status) -> {
+            Order order = orders.get(orderId);
+            if (order != null) {
+                order.setStatus(status);
+                if (reasonByOrder.containsKey(orderId)) {
+                    order.setMetadata(reasonByOrder.get(orderId));
+                }
+            }
+        });
+        outboxEventRepository.deleteAllInBatch(finished);
+        outboxEventRepository.saveAll(rescheduled);
+        return retry.size() - rescheduled.size();
+    }
+}
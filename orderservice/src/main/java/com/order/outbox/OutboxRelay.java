@@ -0,0 +1,217 @@
+package com.order.outbox;
+
+import com.order.allocation.Allocation;
+import com.order.downstream.InventoryClient;
+import com.order.dto.InventoryBatchDto;
+import com.order.dto.InventoryUpdateRequest;
+import com.order.dto.InventoryUpdateResult;
+import com.order.entity.OutboxEvent;
+import com.order.handlers.InsufficientInventoryException;
+import com.order.service.InventoryAllocator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Drains the outbox in batches, off the request path.
+ * <p>
+ * Each drain fetches the batches of every SKU in the batch with one call, allocates the events of a SKU in
+ * arrival order against that snapshot and sends one coalesced deduction per SKU through the bulk update. Events
+ * that do not fit the snapshot are rejected; a SKU line that inventory refuses (the snapshot went stale) or a
+ * failed call leaves its events for a later drain. Each dispatch gets a fresh Idempotency-Key, stored with its events
+ * before the call and reused on every retry of that dispatch, so a deduction whose answer was lost is not applied
+ * twice; events allocated again after a refusal go out under a new key. No connection is held while inventory is called.
+ * One relay per database: two instances draining the same outbox would both deduct.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final String DISPATCH_KEY_PREFIX = "outbox-";
+
+    private final OrderOutbox outbox;
+    private final InventoryClient inventoryClient;
+    private final InventoryAllocator inventoryAllocator;
+    private final int batchSize;
+
+    private final Timer drainTimer;
+    private final Counter placedCounter;
+    private final Counter rejectedCounter;
+    private final Counter retriedCounter;
+
+    public OutboxRelay(OrderOutbox outbox,
+                       InventoryClient inventoryClient,
+                       InventoryAllocator inventoryAllocator,
+                       MeterRegistry registry,
+                       @Value("${order.outbox.batch-size:200}") int batchSize) {
+        this.outbox = outbox;
+        this.inventoryClient = inventoryClient;
+        this.inventoryAllocator = inventoryAllocator;
+        this.batchSize = batchSize;
+        this.drainTimer = Timer.builder("order.outbox.drain")
+                .description("Time to settle one batch of outbox events")
+                .register(registry);
+        this.placedCounter = settled(registry, "placed");
+        this.rejectedCounter = settled(registry, "rejected");
+        this.retriedCounter = settled(registry, "retried");
+    }
+
+    @Scheduled(fixedDelayString = "${order.outbox.relay-interval-ms:200}")
+    public void relay() {
+        int drained;
+        do {
+            drained = drainOnce();
+        } while (drained == batchSize);
+    }
+
+    /**
+     * Settles up to {@code batch-size} due events; returns how many were taken.
+     */
+    public int drainOnce() {
+        List<OutboxEvent> events = outbox.due(batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+        drainTimer.record(() -> settle(events));
+        return events.size();
+    }
+
+    private void settle(List<OutboxEvent> events) {
+        List<OutboxEvent> placed = new ArrayList<>();
+        Map<OutboxEvent, String> rejected = new LinkedHashMap<>();
+        List<OutboxEvent> retry = new ArrayList<>();
+
+        // events already sent under a key go out again unchanged, whole, so inventory can recognize the repeat
+        Map<String, List<OutboxEvent>> dispatches = new LinkedHashMap<>();
+        List<OutboxEvent> fresh = new ArrayList<>();
+        for (OutboxEvent event : events) {
+            if (event.getDispatchKey() == null) {
+                fresh.add(event);
+            } else {
+                dispatches.computeIfAbsent(event.getDispatchKey(), outbox::dispatched);
+            }
+        }
+
+        List<OutboxEvent> fitted = allocate(fresh, rejected, retry);
+        if (!fitted.isEmpty()) {
+            String key = newDispatchKey();
+            fitted.forEach(event -> event.setDispatchKey(key));
+            outbox.dispatching(fitted);
+            dispatches.put(key, fitted);
+        }
+        dispatches.forEach((key, dispatched) -> dispatch(key, dispatched, placed, retry));
+        record(placed, rejected, retry);
+    }
+
+    // Allocates the events of each SKU in arrival order against one snapshot and records each event's picks
+    private List<OutboxEvent> allocate(List<OutboxEvent> events, Map<OutboxEvent, String> rejected, List<OutboxEvent> retry) {
+        if (events.isEmpty()) {
+            return List.of();
+        }
+        Map<String, List<OutboxEvent>> bySku = new LinkedHashMap<>();
+        events.forEach(event -> bySku.computeIfAbsent(event.getSku(), sku -> new ArrayList<>()).add(event));
+
+        Map<String, List<InventoryBatchDto>> snapshot;
+        try {
+            snapshot = inventoryClient.getBatchesBySkus(bySku.keySet());
+        } catch (RuntimeException e) {
+            retry.addAll(events);
+            return List.of();
+        }
+
+        List<OutboxEvent> fitted = new ArrayList<>();
+        bySku.forEach((sku, skuEvents) -> {
+            List<InventoryBatchDto> batches = snapshot.getOrDefault(sku, List.of());
+            for (OutboxEvent event : skuEvents) {
+                try {
+                    Allocation take = inventoryAllocator.pick(batches, event.getQuantity(),
+                            InventoryAllocator.minExpiry(event.getMinShelfLifeDays()),
+                            inventoryAllocator.strategyFor(sku, event.getAllocationStrategy()));
+                    take.deductFrom(batches);
+                    event.setDeduction(take.toBatchQuantities(batches));
+                    fitted.add(event);
+                } catch (InsufficientInventoryException | IllegalArgumentException e) {
+                    // IllegalArgumentException: the strategy the order named is no longer configured
+                    rejected.put(event, e.getMessage());
+                }
+            }
+        });
+        return fitted;
+    }
+
+    /**
+     * Sends one coalesced line per SKU. Lines and batches are sorted so the same events always make the same body,
+     * which inventory compares along with the key. A line inventory refuses drops its key, and its events are
+     * allocated afresh next time; a failed call keeps the key, so the retry is recognized if this one went through.
+     */
+    private void dispatch(String key, List<OutboxEvent> dispatched, List<OutboxEvent> placed, List<OutboxEvent> retry) {
+        if (dispatched.isEmpty()) {
+            return;
+        }
+        Map<String, List<OutboxEvent>> eventsBySku = new TreeMap<>();
+        Map<String, Map<String, Integer>> deductionBySku = new TreeMap<>();
+        for (OutboxEvent event : dispatched) {
+            eventsBySku.computeIfAbsent(event.getSku(), sku -> new ArrayList<>()).add(event);
+            Map<String, Integer> coalesced = deductionBySku.computeIfAbsent(event.getSku(), sku -> new TreeMap<>());
+            event.getDeduction().forEach((batchNumber, quantity) -> coalesced.merge(batchNumber, quantity, Integer::sum));
+        }
+        List<InventoryUpdateRequest> updates = new ArrayList<>();
+        deductionBySku.forEach((sku, coalesced) ->
+                updates.add(InventoryUpdateRequest.builder().sku(sku).batchQuantityToDeduct(coalesced).build()));
+
+        List<InventoryUpdateResult> results;
+        try {
+            results = inventoryClient.updateInventoryBulk(updates, false, key);
+        } catch (RuntimeException e) {
+            retry.addAll(dispatched);
+            return;
+        }
+        int k = 0;
+        for (List<OutboxEvent> skuEvents : eventsBySku.values()) {
+            InventoryUpdateResult result = k < results.size() ? results.get(k) : null;
+            if (result != null && result.isSuccess()) {
+                placed.addAll(skuEvents);
+            } else {
+                if (result != null) {
+                    skuEvents.forEach(OutboxRelay::forgetDispatch);
+                }
+                retry.addAll(skuEvents);
+            }
+            k++;
+        }
+    }
+
+    // Random per dispatch: a key derived from the events alone would come back after a refusal, and inventory
+    // would replay the refusal, or answer 422 for the new picks, instead of deducting them
+    private static String newDispatchKey() {
+        return DISPATCH_KEY_PREFIX + UUID.randomUUID();
+    }
+
+    private static void forgetDispatch(OutboxEvent event) {
+        event.setDispatchKey(null);
+        event.setDeduction(null);
+    }
+
+    private void record(List<OutboxEvent> placed, Map<OutboxEvent, String> rejected, List<OutboxEvent> retry) {
+        int gaveUp = outbox.settle(placed, rejected, retry);
+        placedCounter.increment(placed.size());
+        rejectedCounter.increment(rejected.size() + gaveUp);
+        retriedCounter.increment(retry.size() - gaveUp);
+    }
+
+    private static Counter settled(MeterRegistry registry, String result) {
+        return Counter.builder("order.outbox.settled")
+                .description("Outbox events settled by the relay")
+                .tag("result", result)
+                .register(registry);
+    }
+}
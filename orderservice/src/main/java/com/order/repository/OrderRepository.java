@@ -1,7 +1,14 @@
 package com.order.repository;
 
 import com.order.entity.Order;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.List;
+import java.util.Optional;
+
 public interface OrderRepository extends JpaRepository<Order, Long> {
+    Optional<Order> findByOrderNumber(String orderNumber);
+
+    List<Order> findByStatusOrderByIdAsc(String status, Pageable pageable);
 }
@@ -0,0 +1,19 @@
+package com.order.repository;
+
+import com.order.entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Due events in arrival order, so orders for the same SKU are settled first come, first served
+    @Query("select e from OutboxEvent e where e.nextAttemptAt <= :now order by e.id asc")
+    List<OutboxEvent> findDue(@Param("now") LocalDateTime now, Pageable pageable);
+
+    List<OutboxEvent> findByDispatchKeyOrderByIdAsc(String dispatchKey);
+}
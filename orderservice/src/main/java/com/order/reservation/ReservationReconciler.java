@@ -0,0 +1,75 @@
+package com.order.reservation;
+
+import com.order.downstream.InventoryClient;
+import com.order.entity.Order;
+import com.order.repository.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Settles reserve-mode orders left UNKNOWN because neither the confirm nor the compensating release got an answer.
+ * <p>
+ * Releasing again tells what happened to the hold: inventory refuses to release a confirmed hold, so the order is
+ * PLACED; otherwise the stock is back (or the hold already expired) and the order is removed, as the request path
+ * would have done. An order whose release fails again stays UNKNOWN for the next run.
+ */
+@Component
+public class ReservationReconciler {
+
+    private final OrderRepository orderRepository;
+    private final InventoryClient inventoryClient;
+    private final int batchSize;
+
+    private final Counter placedCounter;
+    private final Counter releasedCounter;
+    private final Counter unresolvedCounter;
+
+    public ReservationReconciler(OrderRepository orderRepository,
+                                 InventoryClient inventoryClient,
+                                 MeterRegistry registry,
+                                 @Value("${order.reservation.reconcile-batch-size:100}") int batchSize) {
+        this.orderRepository = orderRepository;
+        this.inventoryClient = inventoryClient;
+        this.batchSize = batchSize;
+        this.placedCounter = reconciled(registry, "placed");
+        this.releasedCounter = reconciled(registry, "released");
+        this.unresolvedCounter = reconciled(registry, "unresolved");
+    }
+
+    @Scheduled(fixedDelayString = "${order.reservation.reconcile-interval-ms:5000}")
+    public void reconcile() {
+        List<Order> unknown = orderRepository.findByStatusOrderByIdAsc(Order.STATUS_UNKNOWN, PageRequest.ofSize(batchSize));
+        unknown.forEach(this::settle);
+    }
+
+    private void settle(Order order) {
+        boolean released;
+        try {
+            released = inventoryClient.releaseReservation(order.getReservationId());
+        } catch (RuntimeException e) {
+            unresolvedCounter.increment();
+            return;
+        }
+        if (released) {
+            orderRepository.delete(order);
+            releasedCounter.increment();
+        } else {
+            order.setStatus(Order.STATUS_PLACED);
+            orderRepository.save(order);
+            placedCounter.increment();
+        }
+    }
+
+    private static Counter reconciled(MeterRegistry registry, String result) {
+        return Counter.builder("order.reservation.reconciled")
+                .description("UNKNOWN reserve-mode orders settled by the reconciler")
+                .tag("result", result)
+                .register(registry);
+    }
+}
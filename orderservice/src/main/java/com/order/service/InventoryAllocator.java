@@ -1,43 +1,136 @@
 package com.order.service;
 
+import com.order.allocation.Allocation;
+import com.order.allocation.AllocationStrategy;
+import com.order.allocation.BatchCandidates;
+import com.order.allocation.StandardAllocationStrategy;
 import com.order.dto.InventoryBatchDto;
 import com.order.handlers.InsufficientInventoryException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
+/**
+ * Picks the batches an order takes stock from. The {@link AllocationStrategy} is chosen per order, else per SKU
+ * ({@code order.allocation.strategy-by-sku}, e.g. {@code SKU-1=FEWEST_BATCHES,SKU-2=FIFO}), else
+ * {@code order.allocation.strategy}. The built-in strategies are {@link StandardAllocationStrategy}; strategy beans
+ * add to them.
+ */
 @Component
 public class InventoryAllocator {
 
+    private static final String NO_BATCHES_MSG = "Insufficient inventory: no batches available";
+    private static final String INSUFFICIENT_MSG = "Insufficient inventory to fulfill requested quantity";
+    private static final String UNKNOWN_STRATEGY_MSG = "Unknown allocation strategy '%s'";
+
+    private final Map<String, AllocationStrategy> strategies = new LinkedHashMap<>();
+    private final Map<String, AllocationStrategy> strategyBySku = new HashMap<>();
+    private final AllocationStrategy defaultStrategy;
+
+    public InventoryAllocator() {
+        this(List.of(), StandardAllocationStrategy.FEFO.name(), "");
+    }
+
+    @Autowired
+    public InventoryAllocator(ObjectProvider<AllocationStrategy> customStrategies,
+                              @Value("${order.allocation.strategy:FEFO}") String defaultStrategy,
+                              @Value("${order.allocation.strategy-by-sku:}") String strategyBySku) {
+        this(customStrategies.orderedStream().toList(), defaultStrategy, strategyBySku);
+    }
+
+    public InventoryAllocator(List<AllocationStrategy> customStrategies, String defaultStrategy, String strategyBySku) {
+        Stream.concat(Stream.of(StandardAllocationStrategy.values()), customStrategies.stream())
+                .forEach(strategy -> strategies.put(strategy.name(), strategy));
+        this.defaultStrategy = configured(defaultStrategy);
+        for (String entry : strategyBySku.split(",")) {
+            int separator = entry.indexOf('=');
+            if (separator > 0) {
+                this.strategyBySku.put(entry.substring(0, separator).trim(), configured(entry.substring(separator + 1)));
+            }
+        }
+    }
+
+    public boolean hasStrategy(String name) {
+        return strategies.containsKey(name);
+    }
+
+    /**
+     * The order's own strategy when it names one, else the SKU's, else the default.
+     */
+    public AllocationStrategy strategyFor(String sku, String requested) {
+        if (requested != null) {
+            AllocationStrategy strategy = strategies.get(requested);
+            if (strategy == null) {
+                throw new IllegalArgumentException(String.format(UNKNOWN_STRATEGY_MSG, requested));
+            }
+            return strategy;
+        }
+        return strategyBySku.getOrDefault(sku, defaultStrategy);
+    }
+
     /**
-     * Select batches to fulfill the requested quantity.
-     * Returns a LinkedHashMap of batchNumber -> quantityToDeduct preserving iteration order.
+     * Select batches to fulfill the requested quantity with the default strategy.
+     * Returns a LinkedHashMap of batchNumber -> quantityToDeduct preserving pick order.
      * Throws InsufficientInventoryException when available quantity < requested quantity.
      */
     public Map<String, Integer> allocate(List<InventoryBatchDto> batches, int requestedQuantity) {
-        if (batches == null || batches.isEmpty()) {
-            throw new InsufficientInventoryException("Insufficient inventory: no batches available");
-        }
+        return allocate(batches, requestedQuantity, null);
+    }
 
-        int remaining = requestedQuantity;
-        Map<String, Integer> batchQuantityToDeduct = new LinkedHashMap<>();
+    /**
+     * As {@link #allocate(List, int)}, but batches expiring before {@code minExpiry} are skipped; batches without
+     * an expiry date always qualify. A null {@code minExpiry} takes every batch.
+     */
+    public Map<String, Integer> allocate(List<InventoryBatchDto> batches, int requestedQuantity, LocalDate minExpiry) {
+        return allocate(batches, requestedQuantity, minExpiry, defaultStrategy);
+    }
 
-        for (InventoryBatchDto batch : batches) {
-            if (remaining <= 0) break;
-            int deduct = Math.min(batch.getQuantity(), remaining);
-            if (deduct > 0) {
-                batchQuantityToDeduct.put(batch.getBatchNumber(), deduct);
-                remaining -= deduct;
-            }
-        }
+    public Map<String, Integer> allocate(List<InventoryBatchDto> batches, int requestedQuantity, LocalDate minExpiry,
+                                         AllocationStrategy strategy) {
+        return pick(batches, requestedQuantity, minExpiry, strategy).toBatchQuantities(batches);
+    }
 
-        if (remaining > 0) {
-            throw new InsufficientInventoryException("Insufficient inventory to fulfill requested quantity");
+    /**
+     * The picks as primitive arrays, for callers that keep working on {@code batches} (see
+     * {@link Allocation#deductFrom}) rather than only sending the deduction.
+     */
+    public Allocation pick(List<InventoryBatchDto> batches, int requestedQuantity, LocalDate minExpiry,
+                           AllocationStrategy strategy) {
+        if (batches == null || batches.isEmpty()) {
+            throw new InsufficientInventoryException(NO_BATCHES_MSG);
         }
+        BatchCandidates candidates = BatchCandidates.of(batches, minExpiry);
+        if (candidates.totalQuantity() < requestedQuantity) {
+            throw new InsufficientInventoryException(INSUFFICIENT_MSG);
+        }
+        Allocation allocation = Allocation.take(candidates, strategy.drawOrder(candidates, requestedQuantity), requestedQuantity);
+        if (allocation == null) {
+            throw new InsufficientInventoryException(INSUFFICIENT_MSG);
+        }
+        return allocation;
+    }
 
-        return batchQuantityToDeduct;
+    /**
+     * First acceptable expiry date for an order that needs {@code minShelfLifeDays} more days of shelf life (0 when
+     * null), so batches that expired before today never qualify.
+     */
+    public static LocalDate minExpiry(Integer minShelfLifeDays) {
+        return LocalDate.now().plusDays(minShelfLifeDays != null ? minShelfLifeDays : 0);
     }
-}
 
+    private AllocationStrategy configured(String name) {
+        AllocationStrategy strategy = strategies.get(name.trim());
+        if (strategy == null) {
+            throw new IllegalStateException(String.format(UNKNOWN_STRATEGY_MSG, name.trim()));
+        }
+        return strategy;
+    }
+}
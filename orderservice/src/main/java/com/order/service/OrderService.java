@@ -1,9 +1,16 @@
 package com.order.service;
 
 
+import com.order.dto.BulkOrderRequest;
+import com.order.dto.BulkOrderResponse;
 import com.order.dto.OrderRequest;
 import com.order.dto.OrderResponse;
+import com.order.entity.Order;
+import reactor.core.publisher.Mono;
 
 public interface OrderService {
     OrderResponse placeOrder(OrderRequest request);
+    BulkOrderResponse placeOrders(BulkOrderRequest request);
+    Mono<OrderResponse> placeOrderReactive(OrderRequest request);
+    Order getOrder(String orderNumber);
 }
\ No newline at end of file
@@ -2,23 +2,44 @@ package com.order.service;
 
 
 import com.order.downstream.InventoryClient;
+import com.order.allocation.Allocation;
+import com.order.allocation.StandardAllocationStrategy;
+import com.order.dto.BulkOrderRequest;
+import com.order.dto.BulkOrderResponse;
+import com.order.dto.InventoryAllocationResponse;
 import com.order.dto.InventoryBatchDto;
+import com.order.dto.InventoryReservationResponse;
 import com.order.dto.InventoryUpdateRequest;
+import com.order.dto.InventoryUpdateResult;
 import com.order.dto.OrderRequest;
 import com.order.dto.OrderResponse;
 import com.order.entity.Order;
 import com.order.handlers.InsufficientInventoryException;
+import com.order.handlers.OrderNotFoundException;
+import com.order.metrics.OrderMetrics;
+import com.order.metrics.OrderMetrics.Path;
+import com.order.metrics.OrderMetrics.Stage;
+import com.order.outbox.OrderOutbox;
 import com.order.repository.OrderRepository;
 import com.order.validation.DefaultInventoryValidator;
 import com.order.validation.InventoryValidationFactory;
 import com.order.validation.OrderRequestValidator;
-import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -29,21 +50,79 @@ public class OrderServiceImpl implements OrderService {
     private final OrderRequestValidator orderRequestValidator;
     private final InventoryValidationFactory inventoryValidationFactory;
     private final InventoryAllocator inventoryAllocator;
+    private final String allocationMode;
+    private final Scheduler jdbcScheduler;
+    private final OrderMetrics metrics;
+    private final OrderOutbox orderOutbox;
 
-    private static final String ORDER_PLACED_STATUS = "PLACED";
     private static final String ORDER_METADATA_AUTO_PICKED = "auto-picked";
+    private static final String ORDER_METADATA_SERVER_PICKED = "server-picked";
+    private static final String ORDER_METADATA_RESERVED = "reserved";
+    private static final String ORDER_METADATA_OUTBOX = "outbox";
+    private static final String ORDER_NOT_FOUND_MSG = "Order '%s' not found";
+    private static final String OUTBOX_UNAVAILABLE_MSG = "Outbox allocation mode needs an OrderOutbox";
+    private static final String NO_BATCHES_MSG = "Insufficient inventory: no batches available";
+    private static final String BULK_LINES_REQUIRED_MSG = "Bulk order must contain at least one line";
+    private static final String BULK_ABORTED_MSG = "Bulk order aborted: line %d failed: %s";
+    private static final String STRATEGY_NOT_APPLIED_MSG =
+            "Allocation strategy '%s' cannot be used in %s allocation mode: inventory allocates FEFO";
+    static final String ALLOCATION_MODE_CLIENT = "client";
+    static final String ALLOCATION_MODE_SERVER = "server";
+    static final String ALLOCATION_MODE_RESERVE = "reserve";
+    static final String ALLOCATION_MODE_OUTBOX = "outbox";
 
     @Autowired
     public OrderServiceImpl(OrderRepository orderRepository,
                             InventoryClient inventoryClient,
                             OrderRequestValidator orderRequestValidator,
                             InventoryValidationFactory inventoryValidationFactory,
-                            InventoryAllocator inventoryAllocator) {
+                            InventoryAllocator inventoryAllocator,
+                            @Value("${order.allocation.mode:client}") String allocationMode,
+                            Scheduler jdbcScheduler,
+                            OrderMetrics metrics,
+                            OrderOutbox orderOutbox) {
+        if (ALLOCATION_MODE_OUTBOX.equals(allocationMode) && orderOutbox == null) {
+            throw new IllegalStateException(OUTBOX_UNAVAILABLE_MSG);
+        }
         this.orderRepository = orderRepository;
         this.inventoryClient = inventoryClient;
         this.orderRequestValidator = orderRequestValidator;
         this.inventoryValidationFactory = inventoryValidationFactory;
         this.inventoryAllocator = inventoryAllocator;
+        this.allocationMode = allocationMode;
+        this.jdbcScheduler = jdbcScheduler;
+        this.metrics = metrics;
+        this.orderOutbox = orderOutbox;
+    }
+
+    public OrderServiceImpl(OrderRepository orderRepository,
+                            InventoryClient inventoryClient,
+                            OrderRequestValidator orderRequestValidator,
+                            InventoryValidationFactory inventoryValidationFactory,
+                            InventoryAllocator inventoryAllocator,
+                            String allocationMode,
+                            Scheduler jdbcScheduler,
+                            OrderMetrics metrics) {
+        this(orderRepository, inventoryClient, orderRequestValidator, inventoryValidationFactory, inventoryAllocator,
+             allocationMode, jdbcScheduler, metrics, null);
+    }
+
+    public OrderServiceImpl(OrderRepository orderRepository,
+                            InventoryClient inventoryClient,
+                            OrderRequestValidator orderRequestValidator,
+                            InventoryValidationFactory inventoryValidationFactory,
+                            InventoryAllocator inventoryAllocator,
+                            String allocationMode) {
+        this(orderRepository, inventoryClient, orderRequestValidator, inventoryValidationFactory, inventoryAllocator,
+             allocationMode, Schedulers.boundedElastic(), OrderMetrics.noop());
+    }
+
+    public OrderServiceImpl(OrderRepository orderRepository,
+                            InventoryClient inventoryClient,
+                            OrderRequestValidator orderRequestValidator,
+                            InventoryValidationFactory inventoryValidationFactory,
+                            InventoryAllocator inventoryAllocator) {
+        this(orderRepository, inventoryClient, orderRequestValidator, inventoryValidationFactory, inventoryAllocator, ALLOCATION_MODE_CLIENT);
     }
 
     // Convenience constructor kept for unit tests and simple usage where DI is not available
@@ -55,20 +134,46 @@ public class OrderServiceImpl implements OrderService {
              new InventoryAllocator());
     }
 
+    // Not @Transactional: a transaction here would hold a pooled connection across both inventory round trips.
+    // The insert runs in the repository's own transaction once stock is deducted.
     @Override
-    @Transactional
     public OrderResponse placeOrder(OrderRequest request) {
+        return metrics.placement(Path.BLOCKING, () -> placeOrderTimed(request));
+    }
+
+    private OrderResponse placeOrderTimed(OrderRequest request) {
         // Delegate validation
-        orderRequestValidator.validate(request);
+        metrics.stage(Path.BLOCKING, Stage.VALIDATE, () -> {
+            orderRequestValidator.validate(request);
+            requireStrategyApplies(request);
+        });
 
-        // Fetch available batches for the SKU
-        List<InventoryBatchDto> batches = inventoryClient.getBatchesBySku(request.getSku());
-        if (batches == null || batches.isEmpty()) {
-            throw new InsufficientInventoryException("Insufficient inventory: no batches available");
+        if (ALLOCATION_MODE_SERVER.equals(allocationMode)) {
+            return placeOrderWithServerAllocation(request);
+        }
+        if (ALLOCATION_MODE_RESERVE.equals(allocationMode)) {
+            return placeOrderWithReservation(request);
+        }
+        if (ALLOCATION_MODE_OUTBOX.equals(allocationMode)) {
+            // accepted as PENDING; OutboxRelay deducts the stock and settles the status later
+            Order accepted = metrics.stage(Path.BLOCKING, Stage.PERSIST,
+                    () -> orderOutbox.accept(buildOrder(request, ORDER_METADATA_OUTBOX)));
+            return new OrderResponse(true, accepted, null);
         }
 
+        // Fetch available batches for the SKU
+        List<InventoryBatchDto> batches = metrics.stage(Path.BLOCKING, Stage.FETCH_BATCHES, () -> {
+            List<InventoryBatchDto> fetched = inventoryClient.getBatchesBySku(request.getSku());
+            if (fetched == null || fetched.isEmpty()) {
+                throw new InsufficientInventoryException(NO_BATCHES_MSG);
+            }
+            return fetched;
+        });
+
         // Allocate batches delegated to InventoryAllocator
-        Map<String, Integer> batchQuantityToDeduct = inventoryAllocator.allocate(batches, request.getQuantity());
+        Map<String, Integer> batchQuantityToDeduct = metrics.stage(Path.BLOCKING, Stage.ALLOCATE,
+                () -> inventoryAllocator.allocate(batches, request.getQuantity(), InventoryAllocator.minExpiry(request.getMinShelfLifeDays()),
+                        inventoryAllocator.strategyFor(request.getSku(), request.getAllocationStrategy())));
 
         // Update inventory using validator obtained from factory to default validator
         InventoryUpdateRequest inventoryUpdateRequest = InventoryUpdateRequest.builder()
@@ -76,17 +181,306 @@ public class OrderServiceImpl implements OrderService {
                 .batchQuantityToDeduct(batchQuantityToDeduct)
                 .build();
 
-        inventoryValidationFactory.getValidator("default").updateInventory(inventoryUpdateRequest);
+        metrics.stage(Path.BLOCKING, Stage.DEDUCT,
+                () -> inventoryValidationFactory.getValidator("default").updateInventory(inventoryUpdateRequest));
+
+        return saveOrder(request, ORDER_METADATA_AUTO_PICKED);
+    }
+
+    /**
+     * Non-blocking variant of {@link #placeOrder}: inventory calls are chained on the WebClient event loop
+     * and only the JPA insert runs on the bounded {@code jdbcScheduler}, so no servlet thread waits on the network.
+     */
+    @Override
+    public Mono<OrderResponse> placeOrderReactive(OrderRequest request) {
+        Mono<OrderResponse> placement = metrics.stage(Path.REACTIVE, Stage.VALIDATE,
+                        Mono.<Void>fromRunnable(() -> {
+                            orderRequestValidator.validate(request);
+                            requireStrategyApplies(request);
+                        }))
+                .then(Mono.defer(() -> {
+                    if (ALLOCATION_MODE_RESERVE.equals(allocationMode)) {
+                        return placeWithReservationAsync(request);
+                    }
+                    if (ALLOCATION_MODE_OUTBOX.equals(allocationMode)) {
+                        return metrics.stage(Path.REACTIVE, Stage.PERSIST,
+                                        Mono.fromCallable(() -> orderOutbox.accept(buildOrder(request, ORDER_METADATA_OUTBOX)))
+                                                .subscribeOn(jdbcScheduler))
+                                .map(accepted -> new OrderResponse(true, accepted, null));
+                    }
+                    Mono<String> allocation = ALLOCATION_MODE_SERVER.equals(allocationMode)
+                            ? allocateOnServerAsync(request)
+                            : allocateLocallyAsync(request);
+                    return allocation
+                            .flatMap(metadata -> saveAsync(buildOrder(request, metadata)))
+                            .map(savedOrder -> new OrderResponse(true, savedOrder, null));
+                }));
+        return metrics.placement(Path.REACTIVE, placement);
+    }
+
+    /**
+     * In {@code server} and {@code reserve} modes inventory picks the batches, always FEFO, so an order naming another
+     * strategy is refused rather than stored with a strategy that was never applied.
+     */
+    private void requireStrategyApplies(OrderRequest request) {
+        String strategy = request.getAllocationStrategy();
+        boolean inventoryAllocates = ALLOCATION_MODE_SERVER.equals(allocationMode) || ALLOCATION_MODE_RESERVE.equals(allocationMode);
+        if (inventoryAllocates && strategy != null && !StandardAllocationStrategy.FEFO.name().equals(strategy)) {
+            throw new IllegalArgumentException(String.format(STRATEGY_NOT_APPLIED_MSG, strategy, allocationMode));
+        }
+    }
+
+    private Mono<Order> saveAsync(Order order) {
+        return metrics.stage(Path.REACTIVE, Stage.PERSIST,
+                Mono.fromCallable(() -> orderRepository.save(order)).subscribeOn(jdbcScheduler));
+    }
+
+    private Mono<OrderResponse> placeWithReservationAsync(OrderRequest request) {
+        Mono<InventoryReservationResponse> reservation = inventoryClient.reserveAsync(request.getSku(), request.getQuantity(), request.getMinShelfLifeDays())
+                .filter(held -> held.getReservationId() != null)
+                .switchIfEmpty(Mono.error(() -> new InsufficientInventoryException(NO_BATCHES_MSG)));
+        // compensation blocks on the release call and the delete, so it runs on the JDBC scheduler
+        return metrics.stage(Path.REACTIVE, Stage.RESERVE, reservation)
+                .flatMap(held -> saveAsync(buildReservedOrder(request, held.getReservationId()))
+                        .onErrorResume(e -> Mono.<Order>fromRunnable(() -> releaseAfterFailure(held.getReservationId(), e))
+                                .subscribeOn(jdbcScheduler)
+                                .then(Mono.error(e)))
+                        .flatMap(order -> metrics.stage(Path.REACTIVE, Stage.CONFIRM,
+                                        inventoryClient.confirmReservationAsync(held.getReservationId()))
+                                .thenReturn(new OrderResponse(true, order, null))
+                                .onErrorResume(e -> Mono.fromCallable(
+                                                () -> compensate(order, held.getReservationId(), Exceptions.propagate(e)))
+                                        .subscribeOn(jdbcScheduler))));
+    }
+
+    private Mono<String> allocateLocallyAsync(OrderRequest request) {
+        Mono<List<InventoryBatchDto>> batches = inventoryClient.getBatchesBySkuAsync(request.getSku())
+                .map(fetched -> {
+                    if (fetched.isEmpty()) {
+                        throw new InsufficientInventoryException(NO_BATCHES_MSG);
+                    }
+                    return fetched;
+                });
+        return metrics.stage(Path.REACTIVE, Stage.FETCH_BATCHES, batches)
+                .map(fetched -> metrics.stage(Path.REACTIVE, Stage.ALLOCATE, () -> InventoryUpdateRequest.builder()
+                        .sku(request.getSku())
+                        .batchQuantityToDeduct(inventoryAllocator.allocate(fetched, request.getQuantity(),
+                                InventoryAllocator.minExpiry(request.getMinShelfLifeDays()),
+                                inventoryAllocator.strategyFor(request.getSku(), request.getAllocationStrategy())))
+                        .build()))
+                .flatMap(update -> metrics.stage(Path.REACTIVE, Stage.DEDUCT, inventoryClient.updateInventoryAsync(update))
+                        .thenReturn(ORDER_METADATA_AUTO_PICKED));
+    }
 
-        Order order = Order.builder()
+    private Mono<String> allocateOnServerAsync(OrderRequest request) {
+        Mono<InventoryAllocationResponse> allocation = inventoryClient.allocateAsync(request.getSku(), request.getQuantity(), request.getMinShelfLifeDays())
+                .filter(response -> response.getAllocations() != null && !response.getAllocations().isEmpty())
+                .switchIfEmpty(Mono.error(() -> new InsufficientInventoryException(NO_BATCHES_MSG)));
+        return metrics.stage(Path.REACTIVE, Stage.ALLOCATE_AND_DEDUCT, allocation)
+                .thenReturn(ORDER_METADATA_SERVER_PICKED);
+    }
+
+    // One round trip: inventory allocates in expiry order and deducts under row locks
+    private OrderResponse placeOrderWithServerAllocation(OrderRequest request) {
+        metrics.stage(Path.BLOCKING, Stage.ALLOCATE_AND_DEDUCT, () -> {
+            InventoryAllocationResponse allocation = inventoryClient.allocate(request.getSku(), request.getQuantity(), request.getMinShelfLifeDays());
+            if (allocation == null || allocation.getAllocations() == null || allocation.getAllocations().isEmpty()) {
+                throw new InsufficientInventoryException(NO_BATCHES_MSG);
+            }
+        });
+        return saveOrder(request, ORDER_METADATA_SERVER_PICKED);
+    }
+
+    @Override
+    public Order getOrder(String orderNumber) {
+        return orderRepository.findByOrderNumber(orderNumber)
+                .orElseThrow(() -> new OrderNotFoundException(String.format(ORDER_NOT_FOUND_MSG, orderNumber)));
+    }
+
+    /**
+     * Holds the stock, writes the order, then confirms the hold. A failed insert releases the hold; a failed
+     * confirm is settled by {@link #compensate}. If the service dies in between, the hold expires on its own,
+     * so a placement that never completed does not keep stock.
+     */
+    private OrderResponse placeOrderWithReservation(OrderRequest request) {
+        InventoryReservationResponse held = metrics.stage(Path.BLOCKING, Stage.RESERVE, () -> {
+            InventoryReservationResponse reservation = inventoryClient.reserve(request.getSku(), request.getQuantity(), request.getMinShelfLifeDays());
+            if (reservation == null || reservation.getReservationId() == null) {
+                throw new InsufficientInventoryException(NO_BATCHES_MSG);
+            }
+            return reservation;
+        });
+        String reservationId = held.getReservationId();
+        Order saved;
+        try {
+            saved = metrics.stage(Path.BLOCKING, Stage.PERSIST,
+                    () -> orderRepository.save(buildReservedOrder(request, reservationId)));
+        } catch (RuntimeException e) {
+            releaseAfterFailure(reservationId, e);
+            throw e;
+        }
+        try {
+            metrics.stage(Path.BLOCKING, Stage.CONFIRM, () -> inventoryClient.confirmReservation(reservationId));
+        } catch (RuntimeException e) {
+            return compensate(saved, reservationId, e);
+        }
+        return new OrderResponse(true, saved, null);
+    }
+
+    // Best effort: when the release itself fails the hold still expires after its TTL
+    private void releaseAfterFailure(String reservationId, Throwable failure) {
+        try {
+            inventoryClient.releaseReservation(reservationId);
+        } catch (RuntimeException releaseFailure) {
+            failure.addSuppressed(releaseFailure);
+        }
+    }
+
+    /**
+     * The confirm failed, or its answer was lost. Releasing tells which: inventory refuses to release a confirmed
+     * hold, and then the order stands; otherwise the stock is back and the order is removed. When the release gets no
+     * answer either, the confirm may still have gone through, so the order is kept as UNKNOWN for
+     * {@link com.order.reservation.ReservationReconciler} to settle.
+     */
+    private OrderResponse compensate(Order saved, String reservationId, RuntimeException failure) {
+        boolean released;
+        try {
+            released = inventoryClient.releaseReservation(reservationId);
+        } catch (RuntimeException releaseFailure) {
+            failure.addSuppressed(releaseFailure);
+            saved.setStatus(Order.STATUS_UNKNOWN);
+            orderRepository.save(saved);
+            throw failure;
+        }
+        if (!released) {
+            return new OrderResponse(true, saved, null);
+        }
+        orderRepository.delete(saved);
+        throw failure;
+    }
+
+    /**
+     * Places many lines with one batch fetch and one bulk deduction for the whole cart.
+     * <p>
+     * Lines are allocated in request order against a shared snapshot per SKU, so two lines for the same SKU
+     * cannot both claim the same units. Unless {@code atomic} is set, a line that fails validation, allocation
+     * or deduction is reported in its result and the remaining lines proceed. Orders for successful lines are
+     * written with one {@code saveAll}, which Hibernate sends as JDBC batch inserts.
+     */
+    // Not @Transactional, like placeOrder: saveAll runs in its own transaction after both inventory round trips
+    @Override
+    public BulkOrderResponse placeOrders(BulkOrderRequest request) {
+        if (request == null || request.getLines() == null || request.getLines().isEmpty()) {
+            throw new IllegalArgumentException(BULK_LINES_REQUIRED_MSG);
+        }
+        List<OrderRequest> lines = request.getLines();
+        OrderResponse[] results = new OrderResponse[lines.size()];
+
+        // Validate every line up front and collect the SKUs to fetch
+        Set<String> skus = new LinkedHashSet<>();
+        for (int i = 0; i < lines.size(); i++) {
+            try {
+                orderRequestValidator.validate(lines.get(i));
+                skus.add(lines.get(i).getSku());
+            } catch (IllegalArgumentException e) {
+                results[i] = failLine(request, i, e);
+            }
+        }
+
+        // Allocate each line against a working copy of the batches so repeated SKUs share stock
+        Map<String, List<InventoryBatchDto>> snapshot = copyBatches(skus.isEmpty() ? Map.of() : inventoryClient.getBatchesBySkus(skus));
+        List<Integer> allocatedLines = new ArrayList<>();
+        List<InventoryUpdateRequest> updates = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            if (results[i] != null) continue;
+            OrderRequest line = lines.get(i);
+            List<InventoryBatchDto> batches = snapshot.getOrDefault(line.getSku(), List.of());
+            try {
+                Allocation allocation = inventoryAllocator.pick(batches, line.getQuantity(),
+                        InventoryAllocator.minExpiry(line.getMinShelfLifeDays()),
+                        inventoryAllocator.strategyFor(line.getSku(), line.getAllocationStrategy()));
+                allocation.deductFrom(batches);
+                updates.add(InventoryUpdateRequest.builder()
+                        .sku(line.getSku())
+                        .batchQuantityToDeduct(allocation.toBatchQuantities(batches))
+                        .build());
+                allocatedLines.add(i);
+            } catch (InsufficientInventoryException e) {
+                results[i] = failLine(request, i, e);
+            }
+        }
+
+        // One deduction call for every allocated line, then one batched insert for the orders
+        List<Order> orders = new ArrayList<>();
+        List<Integer> orderLines = new ArrayList<>();
+        if (!updates.isEmpty()) {
+            List<InventoryUpdateResult> updateResults = inventoryClient.updateInventoryBulk(updates, request.isAtomic());
+            for (int k = 0; k < allocatedLines.size(); k++) {
+                int i = allocatedLines.get(k);
+                InventoryUpdateResult updateResult = k < updateResults.size() ? updateResults.get(k) : null;
+                if (updateResult != null && updateResult.isSuccess()) {
+                    orders.add(buildOrder(lines.get(i), ORDER_METADATA_AUTO_PICKED));
+                    orderLines.add(i);
+                } else {
+                    String error = updateResult != null ? updateResult.getError() : "No inventory update result";
+                    results[i] = new OrderResponse(false, null, error);
+                }
+            }
+        }
+        List<Order> saved = orderRepository.saveAll(orders);
+        for (int k = 0; k < orderLines.size(); k++) {
+            results[orderLines.get(k)] = new OrderResponse(true, saved.get(k), null);
+        }
+
+        int succeeded = orderLines.size();
+        return new BulkOrderResponse(succeeded, lines.size() - succeeded, Arrays.asList(results));
+    }
+
+    private OrderResponse failLine(BulkOrderRequest request, int index, RuntimeException e) {
+        if (request.isAtomic()) {
+            throw new IllegalStateException(String.format(BULK_ABORTED_MSG, index, e.getMessage()), e);
+        }
+        return new OrderResponse(false, null, e.getMessage());
+    }
+
+    private Map<String, List<InventoryBatchDto>> copyBatches(Map<String, List<InventoryBatchDto>> batchesBySku) {
+        Map<String, List<InventoryBatchDto>> copy = new HashMap<>();
+        batchesBySku.forEach((sku, batches) -> {
+            List<InventoryBatchDto> copies = new ArrayList<>(batches.size());
+            for (InventoryBatchDto batch : batches) {
+                InventoryBatchDto c = new InventoryBatchDto();
+                c.setId(batch.getId());
+                c.setBatchNumber(batch.getBatchNumber());
+                c.setQuantity(batch.getQuantity());
+                c.setExpiryDate(batch.getExpiryDate());
+                copies.add(c);
+            }
+            copy.put(sku, copies);
+        });
+        return copy;
+    }
+
+    private OrderResponse saveOrder(OrderRequest request, String metadata) {
+        Order savedOrder = metrics.stage(Path.BLOCKING, Stage.PERSIST, () -> orderRepository.save(buildOrder(request, metadata)));
+        return new OrderResponse(true, savedOrder, null);
+    }
+
+    private Order buildReservedOrder(OrderRequest request, String reservationId) {
+        Order order = buildOrder(request, ORDER_METADATA_RESERVED);
+        order.setReservationId(reservationId);
+        return order;
+    }
+
+    private Order buildOrder(OrderRequest request, String metadata) {
+        return Order.builder()
                 .orderNumber(UUID.randomUUID().toString())
                 .sku(request.getSku())
                 .quantity(request.getQuantity())
+                .minShelfLifeDays(request.getMinShelfLifeDays())
+                .allocationStrategy(request.getAllocationStrategy())
                 .createdAt(LocalDateTime.now())
-                .status(ORDER_PLACED_STATUS)
-                .metadata(ORDER_METADATA_AUTO_PICKED)
+                .status(Order.STATUS_PLACED)
+                .metadata(metadata)
                 .build();
-        Order savedOrder = orderRepository.save(order);
-        return new OrderResponse(true, savedOrder, null);
     }
 }
@@ -1,6 +1,8 @@
 package com.order.validation;
 
 import com.order.dto.OrderRequest;
+import com.order.service.InventoryAllocator;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -9,6 +11,19 @@ public class OrderRequestValidator {
     private static final String ORDER_REQUEST_REQUIRED_MSG = "Order request must be provided";
     private static final String SKU_REQUIRED_MSG = "SKU must be provided";
     private static final String QUANTITY_INVALID_MSG = "Quantity must be greater than 0";
+    private static final String MIN_SHELF_LIFE_INVALID_MSG = "Minimum shelf life must not be negative";
+    private static final String ALLOCATION_STRATEGY_INVALID_MSG = "Unknown allocation strategy '%s'";
+
+    private final InventoryAllocator inventoryAllocator;
+
+    public OrderRequestValidator() {
+        this(new InventoryAllocator());
+    }
+
+    @Autowired
+    public OrderRequestValidator(InventoryAllocator inventoryAllocator) {
+        this.inventoryAllocator = inventoryAllocator;
+    }
 
     public void validate(OrderRequest request) {
         if (request == null) {
@@ -20,5 +35,11 @@ public class OrderRequestValidator {
         if (request.getQuantity() == null || request.getQuantity() <= 0) {
             throw new IllegalArgumentException(QUANTITY_INVALID_MSG);
         }
+        if (request.getMinShelfLifeDays() != null && request.getMinShelfLifeDays() < 0) {
+            throw new IllegalArgumentException(MIN_SHELF_LIFE_INVALID_MSG);
+        }
+        if (request.getAllocationStrategy() != null && !inventoryAllocator.hasStrategy(request.getAllocationStrategy())) {
+            throw new IllegalArgumentException(String.format(ALLOCATION_STRATEGY_INVALID_MSG, request.getAllocationStrategy()));
+        }
     }
 }
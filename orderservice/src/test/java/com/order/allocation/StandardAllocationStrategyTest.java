@@ -0,0 +1,123 @@
+package com.order.allocation;
+
+import com.order.dto.InventoryBatchDto;
+import com.order.handlers.InsufficientInventoryException;
+import com.order.service.InventoryAllocator;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StandardAllocationStrategyTest {
+
+    private final InventoryAllocator allocator = new InventoryAllocator();
+
+    private static InventoryBatchDto batch(long id, String number, int quantity, Integer expiryDays) {
+        InventoryBatchDto batch = new InventoryBatchDto();
+        batch.setId(id);
+        batch.setBatchNumber(number);
+        batch.setQuantity(quantity);
+        batch.setExpiryDate(expiryDays != null ? LocalDate.now().plusDays(expiryDays) : null);
+        return batch;
+    }
+
+    // listed out of every order on purpose: newest id first, expiry and size mixed
+    private final List<InventoryBatchDto> batches = List.of(
+            batch(4, "B4", 3, 30),
+            batch(1, "B1", 8, null),
+            batch(3, "B3", 12, 10),
+            batch(2, "B2", 5, 20));
+
+    private Map<String, Integer> allocate(StandardAllocationStrategy strategy, int quantity) {
+        return allocator.allocate(batches, quantity, null, strategy);
+    }
+
+    @Test
+    void fefo_takesEarliestExpiryFirstAndUndatedLast() {
+        assertThat(allocate(StandardAllocationStrategy.FEFO, 18))
+                .containsExactly(Map.entry("B3", 12), Map.entry("B2", 5), Map.entry("B4", 1));
+        assertThat(allocate(StandardAllocationStrategy.FEFO, 28)).containsKeys("B1");
+    }
+
+    @Test
+    void fifo_takesLowestBatchIdFirst() {
+        assertThat(allocate(StandardAllocationStrategy.FIFO, 10))
+                .containsExactly(Map.entry("B1", 8), Map.entry("B2", 2));
+    }
+
+    @Test
+    void largestFirst_takesBiggestBatchesFirst() {
+        assertThat(allocate(StandardAllocationStrategy.LARGEST_FIRST, 15))
+                .containsExactly(Map.entry("B3", 12), Map.entry("B1", 3));
+    }
+
+    @Test
+    void fewestBatches_takesOneBestFittingBatchWhenItCovers() {
+        assertThat(allocate(StandardAllocationStrategy.FEWEST_BATCHES, 5)).containsExactly(Map.entry("B2", 5));
+        assertThat(allocate(StandardAllocationStrategy.FEWEST_BATCHES, 6)).containsExactly(Map.entry("B1", 6));
+    }
+
+    @Test
+    void fewestBatches_takesLargestThenBestFitForTheRest() {
+        // 12 leaves 4: B2 (5) is the smallest that covers it, not B1 (8)
+        assertThat(allocate(StandardAllocationStrategy.FEWEST_BATCHES, 16))
+                .containsExactly(Map.entry("B3", 12), Map.entry("B2", 4));
+    }
+
+    @Test
+    void fewestBatches_prefersEarliestExpiryAmongEqualFits() {
+        // in FEFO order, as inventory sends it
+        List<InventoryBatchDto> equal = List.of(batch(3, "BIG", 9, 1), batch(2, "EARLY", 5, 5), batch(1, "LATE", 5, 50));
+        assertThat(allocator.allocate(equal, 4, null, StandardAllocationStrategy.FEWEST_BATCHES))
+                .containsExactly(Map.entry("EARLY", 4));
+    }
+
+    @Test
+    void fewestBatches_neverNeedsMorePicksThanAnyOtherStrategy() {
+        Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            List<InventoryBatchDto> mixed = new ArrayList<>();
+            int total = 0;
+            int count = 1 + random.nextInt(40);
+            for (int i = 0; i < count; i++) {
+                int quantity = 1 + random.nextInt(50);
+                mixed.add(batch(random.nextInt(1000), "B" + i, quantity, random.nextInt(100)));
+                total += quantity;
+            }
+            int requested = 1 + random.nextInt(total);
+            int fewest = allocator.allocate(mixed, requested, null, StandardAllocationStrategy.FEWEST_BATCHES).size();
+            for (StandardAllocationStrategy other : StandardAllocationStrategy.values()) {
+                Map<String, Integer> picks = allocator.allocate(mixed, requested, null, other);
+                assertThat(picks.values().stream().mapToInt(Integer::intValue).sum()).isEqualTo(requested);
+                assertThat(fewest).isLessThanOrEqualTo(picks.size());
+            }
+        }
+    }
+
+    @Test
+    void everyStrategy_skipsShortLivedAndEmptyBatchesAndThrowsWhenShort() {
+        List<InventoryBatchDto> mixed = List.of(batch(1, "SOON", 50, 2), batch(2, "EMPTY", 0, 60), batch(3, "OK", 4, 60));
+        for (StandardAllocationStrategy strategy : StandardAllocationStrategy.values()) {
+            assertThat(allocator.allocate(mixed, 4, InventoryAllocator.minExpiry(30), strategy)).containsExactly(Map.entry("OK", 4));
+            assertThrows(InsufficientInventoryException.class,
+                    () -> allocator.allocate(mixed, 5, InventoryAllocator.minExpiry(30), strategy));
+        }
+    }
+
+    @Test
+    void pick_deductsFromTheListItWasMadeFrom() {
+        List<InventoryBatchDto> working = new ArrayList<>(List.of(batch(1, "A", 4, 5), batch(2, "B", 6, 9)));
+
+        Allocation allocation = allocator.pick(working, 7, null, StandardAllocationStrategy.FEFO);
+        allocation.deductFrom(working);
+
+        assertThat(allocation.size()).isEqualTo(2);
+        assertThat(working).extracting(InventoryBatchDto::getQuantity).containsExactly(0, 3);
+    }
+}
@@ -0,0 +1,68 @@
+package com.order.controller;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The inventory WebClient's connection pool shows up on the Prometheus endpoint once it has connected, and
+ * connections are reused.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebTestClient
+@AutoConfigureObservability
+class ConnectionPoolMetricsIntegrationTest {
+
+    private static final int ORDERS = 5;
+    private static final InventoryStub INVENTORY_STUB = new InventoryStub(0, 10);
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @DynamicPropertySource
+    static void inventoryUrl(DynamicPropertyRegistry registry) {
+        registry.add("inventory.service.url", INVENTORY_STUB::url);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        INVENTORY_STUB.close();
+    }
+
+    @Test
+    void prometheusEndpoint_exposesInventoryPoolGauges() {
+        // sequential calls (two per order) reuse kept-alive connections
+        for (int i = 0; i < ORDERS; i++) {
+            webTestClient.post().uri("/order")
+                    .bodyValue(Map.of("sku", "SKU1", "quantity", 1))
+                    .exchange()
+                    .expectStatus().isOk();
+        }
+
+        String scrape = webTestClient.get().uri("/actuator/prometheus")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .returnResult().getResponseBody();
+
+        assertThat(scrape)
+                .containsPattern("reactor_netty_connection_provider_total_connections\\{[^}]*name=\"inventory\"")
+                .containsPattern("reactor_netty_connection_provider_pending_connections\\{[^}]*name=\"inventory\"")
+                .contains("http_client_requests_seconds_count");
+        Matcher opened = Pattern.compile("(?m)^inventory_client_connections_opened_total(\\{[^}]*})? (\\S+)").matcher(scrape);
+        assertThat(opened.find()).isTrue();
+        assertThat(Double.parseDouble(opened.group(2))).isBetween(1.0, ORDERS - 1.0);
+    }
+}
@@ -0,0 +1,66 @@
+package com.order.controller;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Stand-in for the inventory service in load tests: answers batch lookups and updates after a fixed delay.
+ * It runs on an unbounded pool so it never becomes the bottleneck.
+ */
+class InventoryStub implements AutoCloseable {
+
+    private static final String BATCHES_BODY = "[{\"batchNumber\":\"B1\",\"quantity\":1000000,\"expiryDate\":\""
+            + LocalDate.now().plusDays(30) + "\"}]";
+
+    private final HttpServer server;
+    private final ExecutorService threads = Executors.newCachedThreadPool();
+    private final long delayMs;
+
+    InventoryStub(long delayMs, int maxIdleConnections) {
+        // the JDK server otherwise closes keep-alive connections beyond 200, which the client pool then reuses
+        System.setProperty("sun.net.httpserver.maxIdleConnections", String.valueOf(maxIdleConnections));
+        this.delayMs = delayMs;
+        try {
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 4096);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        server.createContext("/inventory/batches", exchange -> respond(exchange, "application/json", BATCHES_BODY));
+        server.createContext("/inventory/update", exchange -> respond(exchange, "text/plain", "Inventory updated"));
+        server.setExecutor(threads);
+        server.start();
+    }
+
+    String url() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        threads.shutdownNow();
+    }
+
+    private void respond(HttpExchange exchange, String contentType, String body) throws IOException {
+        exchange.getRequestBody().readAllBytes();
+        try {
+            Thread.sleep(delayMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", contentType);
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.order.controller;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Closed-loop load generator: keeps {@code concurrency} POSTs in flight until {@code requests} have completed.
+ */
+class LoadGenerator implements AutoCloseable {
+
+    private final ExecutorService callbacks = Executors.newFixedThreadPool(16);
+    private final HttpClient http = HttpClient.newBuilder()
+            .executor(callbacks)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final int concurrency;
+
+    LoadGenerator(int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    Result post(String url, String json, int requests) throws InterruptedException {
+        Semaphore inFlight = new Semaphore(concurrency);
+        AtomicInteger ok = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        long[] latencies = new long[requests];
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(60))
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+
+        long start = System.nanoTime();
+        CompletableFuture<?>[] calls = new CompletableFuture<?>[requests];
+        for (int i = 0; i < requests; i++) {
+            int slot = i;
+            inFlight.acquire();
+            long sent = System.nanoTime();
+            calls[i] = http.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        latencies[slot] = System.nanoTime() - sent;
+                        if (error == null && response.statusCode() == 200) {
+                            ok.incrementAndGet();
+                        } else {
+                            failed.incrementAndGet();
+                        }
+                        inFlight.release();
+                    });
+        }
+        CompletableFuture.allOf(calls).exceptionally(e -> null).join();
+        long elapsed = System.nanoTime() - start;
+        Arrays.sort(latencies);
+        return new Result(ok.get(), failed.get(), elapsed, latencies);
+    }
+
+    @Override
+    public void close() {
+        callbacks.shutdownNow();
+    }
+
+    record Result(int ok, int failed, long elapsedNanos, long[] sortedLatencies) {
+
+        double throughput() {
+            return (ok + failed) / (elapsedNanos / 1_000_000_000.0);
+        }
+
+        double percentileMillis(double percentile) {
+            int index = (int) Math.ceil(percentile / 100.0 * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(index, 0)] / 1_000_000.0;
+        }
+
+        String summary(String label) {
+            return String.format("%s: %d ok, %d failed, %.0f req/s, p50 %.1f ms, p99 %.1f ms",
+                    label, ok, failed, throughput(), percentileMillis(50), percentileMillis(99));
+        }
+    }
+}
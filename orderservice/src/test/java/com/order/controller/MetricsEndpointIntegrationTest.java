@@ -0,0 +1,65 @@
+package com.order.controller;
+
+import com.order.downstream.InventoryClient;
+import com.order.dto.InventoryBatchDto;
+import com.order.entity.Order;
+import com.order.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebTestClient
+@AutoConfigureObservability
+class MetricsEndpointIntegrationTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private InventoryClient inventoryClient;
+
+    @MockBean
+    private OrderRepository orderRepository;
+
+    @Test
+    void prometheusEndpoint_exposesOrderStageHistogramsAndInventoryResilience() {
+        InventoryBatchDto batch = new InventoryBatchDto();
+        batch.setBatchNumber("B1");
+        batch.setQuantity(5);
+        batch.setExpiryDate(LocalDate.now().plusDays(10));
+        when(inventoryClient.getBatchesBySku("SKU1")).thenReturn(List.of(batch));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        webTestClient.post().uri("/order")
+                .bodyValue(Map.of("sku", "SKU1", "quantity", 1))
+                .exchange()
+                .expectStatus().isOk();
+
+        String scrape = webTestClient.get().uri("/actuator/prometheus")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .returnResult().getResponseBody();
+
+        assertThat(scrape)
+                .contains("order_placement_stage_seconds_bucket{path=\"blocking\",stage=\"fetch_batches\"")
+                .contains("order_placement_seconds_count{outcome=\"success\",path=\"blocking\",} 1.0")
+                .contains("order_insufficient_inventory_total{cause=\"no_batches\",}")
+                .contains("resilience4j_circuitbreaker_state{name=\"inventory\",state=\"closed\",} 1.0")
+                .contains("resilience4j_bulkhead_available_concurrent_calls{name=\"inventory\",}")
+                .contains("resilience4j_retry_calls_total{kind=\"successful_without_retry\",name=\"inventory-read\",}");
+    }
+}
@@ -4,12 +4,15 @@ import com.order.downstream.InventoryClient;
 import com.order.dto.InventoryBatchDto;
 import com.order.entity.Order;
 import com.order.repository.OrderRepository;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -17,6 +20,8 @@ import java.util.List;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -27,6 +32,7 @@ public class OrderControllerIntegrationTest {
     private static final int TEST_QUANTITY = 2;
     private static final String TEST_BATCH = "BATCH-1";
     private static final String ORDER_URI = "/order";
+    private static final String REACTIVE_ORDER_URI = "/order?mode=reactive";
 
     @Autowired
     private WebTestClient webTestClient;
@@ -67,4 +73,54 @@ public class OrderControllerIntegrationTest {
                 .jsonPath("$.order.sku").isEqualTo(TEST_SKU)
                 .jsonPath("$.order.quantity").isEqualTo(TEST_QUANTITY);
     }
+
+    @Test
+    void placeOrderReactive_success() {
+        InventoryBatchDto batch = new InventoryBatchDto();
+        batch.setBatchNumber(TEST_BATCH);
+        batch.setQuantity(5);
+        batch.setExpiryDate(LocalDate.now().plusDays(10));
+        when(inventoryClient.getBatchesBySkuAsync(TEST_SKU)).thenReturn(Mono.just(List.of(batch)));
+        when(inventoryClient.updateInventoryAsync(any())).thenReturn(Mono.empty());
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        webTestClient.post()
+                .uri(REACTIVE_ORDER_URI)
+                .bodyValue(java.util.Map.of("sku", TEST_SKU, "quantity", TEST_QUANTITY))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.success").isEqualTo(true)
+                .jsonPath("$.order.sku").isEqualTo(TEST_SKU)
+                .jsonPath("$.order.quantity").isEqualTo(TEST_QUANTITY);
+
+        verify(inventoryClient, never()).getBatchesBySku(any());
+    }
+
+    @Test
+    void placeOrderReactive_insufficientInventory_returns400() {
+        when(inventoryClient.getBatchesBySkuAsync(TEST_SKU)).thenReturn(Mono.just(List.of()));
+
+        webTestClient.post()
+                .uri(REACTIVE_ORDER_URI)
+                .bodyValue(java.util.Map.of("sku", TEST_SKU, "quantity", TEST_QUANTITY))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Insufficient inventory: no batches available");
+    }
+
+    @Test
+    void placeOrder_inventoryCircuitOpen_returns503() {
+        when(inventoryClient.getBatchesBySku(TEST_SKU))
+                .thenThrow(CallNotPermittedException.createCallNotPermittedException(CircuitBreaker.ofDefaults("inventory")));
+
+        webTestClient.post()
+                .uri(ORDER_URI)
+                .bodyValue(java.util.Map.of("sku", TEST_SKU, "quantity", TEST_QUANTITY))
+                .exchange()
+                .expectStatus().isEqualTo(503)
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(503);
+    }
 }
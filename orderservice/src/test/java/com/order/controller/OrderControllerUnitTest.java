@@ -1,5 +1,7 @@
 package com.order.controller;
 
+import com.order.dto.BulkOrderRequest;
+import com.order.dto.BulkOrderResponse;
 import com.order.dto.OrderRequest;
 import com.order.dto.OrderResponse;
 import com.order.service.OrderService;
@@ -9,6 +11,9 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -73,4 +78,28 @@ class OrderControllerUnitTest {
             .hasMessage(EXCEPTION_MESSAGE);
         verify(orderService).placeOrder(request);
     }
+
+    @Test
+    void placeOrders_success() {
+        BulkOrderRequest request = new BulkOrderRequest(List.of(new OrderRequest(SKU_SUCCESS, 1, null, null)), false);
+        BulkOrderResponse expected = new BulkOrderResponse(1, 0, List.of(new OrderResponse(true, null, null)));
+        when(orderService.placeOrders(request)).thenReturn(expected);
+
+        ResponseEntity<BulkOrderResponse> response = orderController.placeOrders(request);
+        assertThat(response.getStatusCode().value()).isEqualTo(200);
+        assertThat(response.getBody()).isEqualTo(expected);
+        verify(orderService).placeOrders(request);
+    }
+
+    @Test
+    void placeOrderReactive_success() {
+        OrderRequest request = new OrderRequest(SKU_SUCCESS, 1, null, null);
+        OrderResponse expected = new OrderResponse(true, null, null);
+        when(orderService.placeOrderReactive(request)).thenReturn(Mono.just(expected));
+
+        ResponseEntity<OrderResponse> response = orderController.placeOrderReactive(request).block();
+        assertThat(response).isNotNull();
+        assertThat(response.getStatusCode().value()).isEqualTo(200);
+        assertThat(response.getBody()).isEqualTo(expected);
+    }
 }
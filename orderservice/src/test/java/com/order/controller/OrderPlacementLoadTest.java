@@ -0,0 +1,69 @@
+package com.order.controller;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares throughput of the blocking and reactive order paths with 1k concurrent clients.
+ * The inventory service is replaced by a JDK HttpServer stub that answers after a fixed delay.
+ * Run with: mvn -pl orderservice test -Dtest=OrderPlacementLoadTest -DloadTest=true
+ */
+@EnabledIfSystemProperty(named = "loadTest", matches = "true")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.show-sql=false",
+        "server.tomcat.accept-count=2000",
+        "server.tomcat.max-connections=4000"
+})
+class OrderPlacementLoadTest {
+
+    private static final int CONCURRENCY = Integer.getInteger("loadTest.concurrency", 1000);
+    private static final int REQUESTS = Integer.getInteger("loadTest.requests", 10000);
+    private static final long INVENTORY_DELAY_MS = Long.getLong("loadTest.inventoryDelayMs", 20);
+    private static final String ORDER_BODY = "{\"sku\":\"SKU1\",\"quantity\":1}";
+
+    private static final InventoryStub INVENTORY_STUB = new InventoryStub(INVENTORY_DELAY_MS, CONCURRENCY * 2);
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void inventoryUrl(DynamicPropertyRegistry registry) {
+        registry.add("inventory.service.url", INVENTORY_STUB::url);
+        // every client has a call in flight; the bulkhead would otherwise turn the excess into 503s
+        registry.add("resilience4j.bulkhead.instances.inventory.max-concurrent-calls", () -> CONCURRENCY * 2);
+        registry.add("inventory.service.pool.max-connections", () -> CONCURRENCY);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        INVENTORY_STUB.close();
+    }
+
+    @Test
+    void reactiveAndBlockingPathsUnderConcurrentLoad() throws Exception {
+        try (LoadGenerator load = new LoadGenerator(CONCURRENCY)) {
+            String blockingUrl = "http://localhost:" + port + "/order";
+            String reactiveUrl = blockingUrl + "?mode=reactive";
+
+            // warm up both paths before measuring
+            load.post(blockingUrl, ORDER_BODY, 500);
+            load.post(reactiveUrl, ORDER_BODY, 500);
+
+            LoadGenerator.Result blocking = load.post(blockingUrl, ORDER_BODY, REQUESTS);
+            LoadGenerator.Result reactive = load.post(reactiveUrl, ORDER_BODY, REQUESTS);
+
+            System.out.println(blocking.summary("blocking"));
+            System.out.println(reactive.summary("reactive"));
+
+            assertThat(blocking.failed()).isZero();
+            assertThat(reactive.failed()).isZero();
+        }
+    }
+}
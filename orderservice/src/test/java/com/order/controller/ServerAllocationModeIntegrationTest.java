@@ -0,0 +1,61 @@
+package com.order.controller;
+
+import com.order.downstream.InventoryClient;
+import com.order.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "order.allocation.mode=server")
+@AutoConfigureWebTestClient
+class ServerAllocationModeIntegrationTest {
+
+    private static final Map<String, Object> FEWEST_BATCHES_ORDER =
+            Map.of("sku", "SKU1", "quantity", 2, "allocationStrategy", "FEWEST_BATCHES");
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private InventoryClient inventoryClient;
+
+    @MockBean
+    private OrderRepository orderRepository;
+
+    @Test
+    void placeOrder_strategyInventoryDoesNotApply_returns400() {
+        webTestClient.post()
+                .uri("/order")
+                .bodyValue(FEWEST_BATCHES_ORDER)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").value(message -> assertThat((String) message).contains("FEWEST_BATCHES"));
+
+        verifyNoInteractions(inventoryClient);
+        verify(orderRepository, never()).save(any());
+    }
+
+    @Test
+    void placeOrderReactive_strategyInventoryDoesNotApply_returns400() {
+        webTestClient.post()
+                .uri("/order?mode=reactive")
+                .bodyValue(FEWEST_BATCHES_ORDER)
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        verifyNoInteractions(inventoryClient);
+        verify(orderRepository, never()).save(any());
+    }
+}
@@ -0,0 +1,61 @@
+package com.order.controller;
+
+import com.order.OrderServiceApplication;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares latency and throughput of the blocking {@code POST /order} path on Tomcat's platform-thread pool
+ * and on virtual threads, with 1k concurrent clients against a delayed inventory stub.
+ * Run on Java 21 with: mvn -pl orderservice test -Dtest=VirtualThreadLoadTest -DloadTest=true
+ */
+@EnabledIfSystemProperty(named = "loadTest", matches = "true")
+@EnabledForJreRange(min = JRE.JAVA_21)
+class VirtualThreadLoadTest {
+
+    private static final int CONCURRENCY = Integer.getInteger("loadTest.concurrency", 1000);
+    private static final int REQUESTS = Integer.getInteger("loadTest.requests", 10000);
+    private static final long INVENTORY_DELAY_MS = Long.getLong("loadTest.inventoryDelayMs", 20);
+    private static final String ORDER_BODY = "{\"sku\":\"SKU1\",\"quantity\":1}";
+
+    @Test
+    void platformAndVirtualThreadsUnderConcurrentLoad() throws Exception {
+        try (InventoryStub stub = new InventoryStub(INVENTORY_DELAY_MS, CONCURRENCY * 2);
+             LoadGenerator load = new LoadGenerator(CONCURRENCY)) {
+
+            LoadGenerator.Result platform = measure(stub, load, false);
+            LoadGenerator.Result virtual = measure(stub, load, true);
+
+            System.out.println(platform.summary("platform threads"));
+            System.out.println(virtual.summary("virtual threads"));
+
+            assertThat(platform.failed()).isZero();
+            assertThat(virtual.failed()).isZero();
+        }
+    }
+
+    private LoadGenerator.Result measure(InventoryStub stub, LoadGenerator load, boolean virtualThreads) throws InterruptedException {
+        // command-line arguments, so they win over application.yml
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(OrderServiceApplication.class)
+                .run("--server.port=0",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.datasource.url=jdbc:h2:mem:vt-" + virtualThreads + ";DB_CLOSE_DELAY=-1",
+                        "--server.tomcat.accept-count=2000",
+                        "--server.tomcat.max-connections=4000",
+                        "--inventory.service.url=" + stub.url(),
+                        // measure thread scheduling, not the bulkhead
+                        "--resilience4j.bulkhead.instances.inventory.max-concurrent-calls=" + CONCURRENCY * 2,
+                        "--inventory.service.pool.max-connections=" + CONCURRENCY,
+                        "--spring.threads.virtual.enabled=" + virtualThreads)) {
+            String url = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/order";
+            load.post(url, ORDER_BODY, 500);
+            return load.post(url, ORDER_BODY, REQUESTS);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.order.downstream;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Inventory stand-in that answers each request with the next scripted fault (a status and a delay), and with
+ * one healthy batch and {@code 200} once the script runs out.
+ */
+class FaultInjectingInventoryStub implements AutoCloseable {
+
+    private static final String BATCHES_BODY = "[{\"batchNumber\":\"B1\",\"quantity\":10,\"expiryDate\":\"2099-01-01\"}]";
+
+    private final HttpServer server;
+    private final ExecutorService threads = Executors.newCachedThreadPool();
+    private final Queue<Fault> script = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final Queue<String> idempotencyKeys = new ConcurrentLinkedQueue<>();
+
+    FaultInjectingInventoryStub() {
+        try {
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 64);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        server.createContext("/inventory", this::handle);
+        server.setExecutor(threads);
+        server.start();
+    }
+
+    String url() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    FaultInjectingInventoryStub then(int status, long delayMillis) {
+        script.add(new Fault(status, delayMillis));
+        return this;
+    }
+
+    int requests() {
+        return requests.get();
+    }
+
+    // the Idempotency-Key of each request that carried one, in arrival order
+    List<String> idempotencyKeys() {
+        return List.copyOf(idempotencyKeys);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        threads.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        String idempotencyKey = exchange.getRequestHeaders().getFirst("Idempotency-Key");
+        if (idempotencyKey != null) {
+            idempotencyKeys.add(idempotencyKey);
+        }
+        exchange.getRequestBody().readAllBytes();
+        Fault fault = script.poll();
+        if (fault == null) {
+            fault = new Fault(200, 0);
+        }
+        try {
+            Thread.sleep(fault.delayMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        byte[] body = (fault.status() == 200 ? BATCHES_BODY : "{\"message\":\"injected\"}").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(fault.status(), body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private record Fault(int status, long delayMillis) {
+    }
+}
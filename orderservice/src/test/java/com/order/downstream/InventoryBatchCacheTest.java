@@ -0,0 +1,185 @@
+package com.order.downstream;
+
+import com.order.dto.InventoryBatchDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InventoryBatchCacheTest {
+
+    private static final String SKU = "SKU1";
+
+    private final AtomicInteger fetches = new AtomicInteger();
+
+    private Mono<List<InventoryBatchDto>> loader(String sku) {
+        return Mono.fromCallable(() -> {
+            fetches.incrementAndGet();
+            return List.of(batch(sku + "-B1", 5));
+        });
+    }
+
+    private static InventoryBatchDto batch(String batchNumber, int quantity) {
+        InventoryBatchDto batch = new InventoryBatchDto();
+        batch.setBatchNumber(batchNumber);
+        batch.setQuantity(quantity);
+        return batch;
+    }
+
+    @Test
+    void get_servesRepeatedLookupsFromCache() {
+        InventoryBatchCache cache = new InventoryBatchCache(true, 10, 60_000);
+
+        cache.get(SKU, this::loader).block();
+        List<InventoryBatchDto> second = cache.get(SKU, this::loader).block();
+
+        assertThat(second).hasSize(1);
+        assertThat(fetches).hasValue(1);
+        assertThat(cache.getHits()).isEqualTo(1);
+        assertThat(cache.getMisses()).isEqualTo(1);
+    }
+
+    @Test
+    void get_disabledAlwaysCallsLoader() {
+        InventoryBatchCache cache = new InventoryBatchCache(false, 10, 60_000);
+
+        cache.get(SKU, this::loader).block();
+        cache.get(SKU, this::loader).block();
+
+        assertThat(fetches).hasValue(2);
+        assertThat(cache.getHits()).isZero();
+    }
+
+    @Test
+    void get_concurrentMissesShareOneFetch() {
+        InventoryBatchCache cache = new InventoryBatchCache(true, 10, 60_000);
+        Sinks.One<List<InventoryBatchDto>> response = Sinks.one();
+        AtomicInteger calls = new AtomicInteger();
+
+        Mono<List<InventoryBatchDto>> first = cache.get(SKU, sku -> {
+            calls.incrementAndGet();
+            return response.asMono();
+        });
+        Mono<List<InventoryBatchDto>> second = cache.get(SKU, sku -> {
+            calls.incrementAndGet();
+            return response.asMono();
+        });
+        first.subscribe();
+        second.subscribe();
+        response.tryEmitValue(List.of(batch("B1", 1)));
+
+        assertThat(calls).hasValue(1);
+        assertThat(second.block()).hasSize(1);
+    }
+
+    @Test
+    void get_expiredEntryIsRefetched() throws InterruptedException {
+        InventoryBatchCache cache = new InventoryBatchCache(true, 10, 1);
+
+        cache.get(SKU, this::loader).block();
+        Thread.sleep(5);
+        cache.get(SKU, this::loader).block();
+
+        assertThat(fetches).hasValue(2);
+        assertThat(cache.getEvictions()).isEqualTo(1);
+    }
+
+    @Test
+    void get_evictsLeastRecentlyUsedBeyondMaxSize() {
+        InventoryBatchCache cache = new InventoryBatchCache(true, 2, 60_000);
+
+        cache.get("A", this::loader).block();
+        cache.get("B", this::loader).block();
+        cache.get("A", this::loader).block();
+        cache.get("C", this::loader).block();
+        cache.get("A", this::loader).block();
+        cache.get("B", this::loader).block();
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.getEvictions()).isEqualTo(2);
+        assertThat(fetches).hasValue(4);
+    }
+
+    @Test
+    void invalidate_dropsEntryAndDiscardsFetchInProgress() {
+        InventoryBatchCache cache = new InventoryBatchCache(true, 10, 60_000);
+        cache.get(SKU, this::loader).block();
+
+        cache.invalidate(SKU);
+        Sinks.One<List<InventoryBatchDto>> response = Sinks.one();
+        Mono<List<InventoryBatchDto>> pending = cache.get(SKU, sku -> response.asMono());
+        pending.subscribe();
+        cache.invalidate(SKU);
+        response.tryEmitValue(List.of());
+
+        assertThat(cache.size()).isZero();
+        cache.get(SKU, this::loader).block();
+        assertThat(fetches).hasValue(2);
+    }
+
+    @Test
+    void invalidate_leavesFetchesForOtherSkusAlone() {
+        InventoryBatchCache cache = new InventoryBatchCache(true, 10, 60_000);
+        Sinks.One<List<InventoryBatchDto>> response = Sinks.one();
+        cache.get(SKU, sku -> response.asMono()).subscribe();
+
+        cache.invalidate("OTHER");
+        response.tryEmitValue(List.of(batch("B1", 1)));
+
+        assertThat(cache.size()).isEqualTo(1);
+        cache.get(SKU, this::loader).block();
+        assertThat(fetches).hasValue(0);
+    }
+
+    @Test
+    void get_cancelledCallerDoesNotFailTheOthers() {
+        InventoryBatchCache cache = new InventoryBatchCache(true, 10, 60_000);
+        Sinks.One<List<InventoryBatchDto>> response = Sinks.one();
+
+        Disposable owner = cache.get(SKU, sku -> response.asMono()).subscribe();
+        Mono<List<InventoryBatchDto>> joiner = cache.get(SKU, sku -> response.asMono());
+        Disposable impatient = joiner.subscribe();
+        AtomicReference<List<InventoryBatchDto>> answered = new AtomicReference<>();
+        joiner.subscribe(answered::set);
+
+        owner.dispose();
+        impatient.dispose();
+        response.tryEmitValue(List.of(batch("B1", 1)));
+
+        assertThat(answered.get()).hasSize(1);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void get_failedFetchIsNotCachedAndPropagates() {
+        InventoryBatchCache cache = new InventoryBatchCache(true, 10, 60_000);
+
+        assertThatThrownBy(() -> cache.get(SKU, sku -> Mono.error(new RuntimeException("down"))).block())
+                .hasMessageContaining("down");
+        cache.get(SKU, this::loader).block();
+
+        assertThat(fetches).hasValue(1);
+    }
+
+    @Test
+    void bindTo_registersCounters() {
+        InventoryBatchCache cache = new InventoryBatchCache(true, 10, 60_000);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+
+        cache.get(SKU, this::loader).block();
+        cache.get(SKU, this::loader).block();
+
+        assertThat(registry.get("inventory.batch.cache.requests").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("inventory.batch.cache.requests").tag("result", "miss").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("inventory.batch.cache.size").gauge().value()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,176 @@
+package com.order.downstream;
+
+import com.order.config.WebClientConfig;
+import com.order.dto.InventoryBatchDto;
+import com.order.dto.InventoryUpdateRequest;
+import com.order.handlers.InsufficientInventoryException;
+import com.order.metrics.OrderMetrics;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.core.IntervalFunction;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InventoryClientResilienceTest {
+
+    private static final String SKU = "SKU1";
+    private static final int RESPONSE_TIMEOUT_MS = 200;
+
+    private final FaultInjectingInventoryStub stub = new FaultInjectingInventoryStub();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private ConnectionProvider connectionProvider;
+    private InventoryResilience resilience;
+    private InventoryClient client;
+
+    @BeforeEach
+    void setUp() {
+        TransientInventoryFailure transientFailure = new TransientInventoryFailure();
+        resilience = new InventoryResilience(
+                CircuitBreaker.of("inventory", CircuitBreakerConfig.custom()
+                        .slidingWindowSize(4)
+                        .minimumNumberOfCalls(4)
+                        .failureRateThreshold(50)
+                        .waitDurationInOpenState(Duration.ofMinutes(1))
+                        .recordException(transientFailure)
+                        .build()),
+                Bulkhead.of("inventory", BulkheadConfig.custom()
+                        .maxConcurrentCalls(2)
+                        .maxWaitDuration(Duration.ZERO)
+                        .build()),
+                Retry.of("inventory-read", RetryConfig.custom()
+                        .maxAttempts(3)
+                        .intervalFunction(IntervalFunction.ofExponentialRandomBackoff(10, 2, 0.5))
+                        .retryOnException(transientFailure)
+                        .build()));
+        WebClientConfig config = new WebClientConfig();
+        connectionProvider = ConnectionProvider.create("inventory-test");
+        WebClient.Builder builder = WebClient.builder()
+                .clientConnector(config.inventoryClientHttpConnector(connectionProvider, registry, 500, RESPONSE_TIMEOUT_MS,
+                        "http11", true));
+        client = new InventoryClient(builder, stub.url(), "default", new InventoryBatchCache(false, 10, 1000),
+                new OrderMetrics(registry), 30_000, resilience);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.close();
+        connectionProvider.dispose();
+    }
+
+    @Test
+    void getBatchesBySku_retriesServerErrorsThenSucceeds() {
+        stub.then(503, 0).then(500, 0);
+
+        List<InventoryBatchDto> batches = client.getBatchesBySku(SKU);
+
+        assertThat(batches).hasSize(1);
+        assertThat(stub.requests()).isEqualTo(3);
+    }
+
+    @Test
+    void getBatchesBySku_slowResponsesTimeOutAndGiveUpAfterMaxAttempts() {
+        stub.then(200, 1000).then(200, 1000).then(200, 1000);
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> client.getBatchesBySku(SKU)).isNotNull();
+
+        assertThat(stub.requests()).isEqualTo(3);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1000);
+        assertThat(registry.get("inventory.client.errors").tags("operation", "fetch_batches", "cause", "timeout")
+                .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void getBatchesBySku_clientErrorIsNotRetried() {
+        stub.then(404, 0);
+
+        assertThatThrownBy(() -> client.getBatchesBySku(SKU)).hasMessageContaining("errorStatus=404");
+
+        assertThat(stub.requests()).isEqualTo(1);
+    }
+
+    @Test
+    void updateInventory_isNotRetried() {
+        stub.then(503, 0);
+
+        assertThatThrownBy(() -> client.updateInventory(update())).hasMessageContaining("errorStatus=503");
+
+        assertThat(stub.requests()).isEqualTo(1);
+    }
+
+    @Test
+    void allocateAndReserve_sendAFreshIdempotencyKey() {
+        stub.then(409, 0).then(409, 0);
+
+        assertThatThrownBy(() -> client.allocate(SKU, 1, null)).isInstanceOf(InsufficientInventoryException.class);
+        assertThatThrownBy(() -> client.reserve(SKU, 1, null)).isInstanceOf(InsufficientInventoryException.class);
+
+        assertThat(stub.idempotencyKeys()).hasSize(2).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void circuitOpensAfterFailuresAndFailsFastWithoutCallingInventory() {
+        for (int i = 0; i < 4; i++) {
+            stub.then(503, 0);
+            assertThatThrownBy(() -> client.updateInventory(update())).hasMessageContaining("errorStatus=503");
+        }
+
+        assertThatThrownBy(() -> client.updateInventory(update())).isInstanceOf(CallNotPermittedException.class);
+        assertThatThrownBy(() -> client.getBatchesBySku(SKU)).isInstanceOf(CallNotPermittedException.class);
+
+        assertThat(resilience.getCircuitBreaker().getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(stub.requests()).isEqualTo(4);
+        assertThat(registry.get("inventory.client.errors").tags("operation", "update", "cause", "circuit_open")
+                .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void clientErrorsDoNotOpenTheCircuit() {
+        for (int i = 0; i < 6; i++) {
+            stub.then(409, 0);
+            assertThatThrownBy(() -> client.updateInventory(update())).hasMessageContaining("errorStatus=409");
+        }
+
+        assertThat(resilience.getCircuitBreaker().getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void bulkheadRejectsCallsBeyondTheConcurrencyLimit() throws Exception {
+        stub.then(200, 150).then(200, 150);
+
+        CompletableFuture<Void> first = client.updateInventoryAsync(update()).toFuture();
+        CompletableFuture<Void> second = client.updateInventoryAsync(update()).toFuture();
+
+        assertThatThrownBy(() -> client.updateInventory(update())).isInstanceOf(BulkheadFullException.class);
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        assertThat(resilience.getBulkhead().getMetrics().getAvailableConcurrentCalls()).isEqualTo(2);
+        assertThat(stub.requests()).isEqualTo(2);
+    }
+
+    private static InventoryUpdateRequest update() {
+        return InventoryUpdateRequest.builder()
+                .sku(SKU)
+                .batchQuantityToDeduct(Map.of("B1", 1))
+                .build();
+    }
+}
@@ -0,0 +1,172 @@
+package com.order.idempotency;
+
+import com.common.idempotency.IdempotencyFilter;
+import com.common.idempotency.IdempotencyRecordRepository;
+import com.common.idempotency.IdempotencyStore;
+import com.order.downstream.InventoryClient;
+import com.order.dto.InventoryBatchDto;
+import com.order.dto.OrderResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "spring.jpa.show-sql=false")
+@AutoConfigureWebTestClient
+class IdempotencyFilterIntegrationTest {
+
+    private static final String SKU = "SKU-IDEM";
+    private static final Map<String, Object> ORDER = Map.of("sku", SKU, "quantity", 1);
+
+    @Autowired
+    WebTestClient webTestClient;
+
+    @Autowired
+    IdempotencyStore store;
+
+    @Autowired
+    IdempotencyRecordRepository recordRepository;
+
+    @MockBean
+    InventoryClient inventoryClient;
+
+    private String key;
+
+    @BeforeEach
+    void setUp() {
+        key = UUID.randomUUID().toString();
+        InventoryBatchDto batch = new InventoryBatchDto();
+        batch.setBatchNumber("B1");
+        batch.setQuantity(100);
+        batch.setExpiryDate(LocalDate.now().plusDays(10));
+        when(inventoryClient.getBatchesBySku(SKU)).thenReturn(List.of(batch));
+        when(inventoryClient.getBatchesBySkuAsync(SKU)).thenReturn(Mono.just(List.of(batch)));
+        when(inventoryClient.updateInventoryAsync(any())).thenReturn(Mono.empty());
+    }
+
+    @Test
+    void placeOrder_repeatWithSameKeyReplaysFirstOrder() {
+        OrderResponse first = post("/order", ORDER).expectStatus().isOk()
+                .expectHeader().doesNotExist(IdempotencyFilter.REPLAYED_HEADER)
+                .expectBody(OrderResponse.class).returnResult().getResponseBody();
+        OrderResponse repeat = post("/order", ORDER).expectStatus().isOk()
+                .expectHeader().valueEquals(IdempotencyFilter.REPLAYED_HEADER, "true")
+                .expectBody(OrderResponse.class).returnResult().getResponseBody();
+
+        assertThat(repeat.getOrder().getOrderNumber()).isEqualTo(first.getOrder().getOrderNumber());
+        verify(inventoryClient, times(1)).updateInventory(any());
+    }
+
+    @Test
+    void placeOrderReactive_repeatWithSameKeyReplaysFirstOrder() {
+        OrderResponse first = post("/order?mode=reactive", ORDER).expectStatus().isOk()
+                .expectBody(OrderResponse.class).returnResult().getResponseBody();
+        OrderResponse repeat = post("/order?mode=reactive", ORDER).expectStatus().isOk()
+                .expectHeader().valueEquals(IdempotencyFilter.REPLAYED_HEADER, "true")
+                .expectBody(OrderResponse.class).returnResult().getResponseBody();
+
+        assertThat(repeat.getOrder().getOrderNumber()).isEqualTo(first.getOrder().getOrderNumber());
+        verify(inventoryClient, times(1)).updateInventoryAsync(any());
+    }
+
+    @Test
+    void placeOrder_sameKeyWithDifferentBodyIsRefused() {
+        post("/order", ORDER).expectStatus().isOk();
+
+        post("/order", Map.of("sku", SKU, "quantity", 2)).expectStatus().isEqualTo(422);
+        verify(inventoryClient, times(1)).updateInventory(any());
+    }
+
+    @Test
+    void placeOrder_concurrentDuplicateWaitsForFirstInsteadOfRunning() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(inventoryClient.getBatchesBySku(SKU)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            InventoryBatchDto batch = new InventoryBatchDto();
+            batch.setBatchNumber("B1");
+            batch.setQuantity(100);
+            return List.of(batch);
+        });
+        long joinedBefore = store.getJoined();
+
+        CompletableFuture<OrderResponse> first = CompletableFuture.supplyAsync(this::placeOrder);
+        CompletableFuture<OrderResponse> duplicate = CompletableFuture.supplyAsync(this::placeOrder);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (store.getJoined() == joinedBefore && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        assertThat(store.getJoined()).isEqualTo(joinedBefore + 1);
+        assertThat(duplicate.get(5, TimeUnit.SECONDS).getOrder().getOrderNumber())
+                .isEqualTo(first.get(5, TimeUnit.SECONDS).getOrder().getOrderNumber());
+        verify(inventoryClient, times(1)).updateInventory(any());
+    }
+
+    @Test
+    void placeOrder_serverErrorIsNotRecordedSoRetryRuns() {
+        doThrow(new RuntimeException("inventory down")).doNothing().when(inventoryClient).updateInventory(any());
+
+        post("/order", ORDER).expectStatus().is5xxServerError();
+        post("/order", ORDER).expectStatus().isOk()
+                .expectHeader().doesNotExist(IdempotencyFilter.REPLAYED_HEADER);
+
+        verify(inventoryClient, times(2)).updateInventory(any());
+    }
+
+    @Test
+    void placeOrder_withoutKeyIsNotDeduplicated() {
+        doNothing().when(inventoryClient).updateInventory(any());
+
+        webTestClient.post().uri("/order").bodyValue(ORDER).exchange().expectStatus().isOk();
+        webTestClient.post().uri("/order").bodyValue(ORDER).exchange().expectStatus().isOk();
+
+        verify(inventoryClient, times(2)).updateInventory(any());
+    }
+
+    @Test
+    void flush_persistsAnsweredKeys() {
+        post("/order", ORDER).expectStatus().isOk();
+
+        store.flush();
+
+        assertThat(recordRepository.findById(key)).hasValueSatisfying(record -> {
+            assertThat(record.getStatus()).isEqualTo(200);
+            assertThat(record.getBody()).isNotEmpty();
+        });
+    }
+
+    private OrderResponse placeOrder() {
+        return post("/order", ORDER).expectStatus().isOk()
+                .expectBody(OrderResponse.class).returnResult().getResponseBody();
+    }
+
+    private WebTestClient.ResponseSpec post(String uri, Map<String, Object> body) {
+        return webTestClient.mutate().responseTimeout(Duration.ofSeconds(10)).build()
+                .post().uri(uri)
+                .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key)
+                .bodyValue(body)
+                .exchange();
+    }
+}
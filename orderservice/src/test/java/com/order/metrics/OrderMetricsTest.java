@@ -0,0 +1,91 @@
+package com.order.metrics;
+
+import com.order.handlers.InsufficientInventoryException;
+import com.order.metrics.OrderMetrics.Path;
+import com.order.metrics.OrderMetrics.Stage;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.handler.timeout.ReadTimeoutException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.net.ConnectException;
+import java.net.URI;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final OrderMetrics metrics = new OrderMetrics(registry);
+
+    @Test
+    void stage_recordsTimeEvenWhenTheStepFails() {
+        assertThatThrownBy(() -> metrics.stage(Path.BLOCKING, Stage.DEDUCT, () -> {
+            throw new IllegalStateException("down");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(registry.get("order.placement.stage").tags("path", "blocking", "stage", "deduct").timer().count())
+                .isEqualTo(1);
+        assertThat(registry.get("order.insufficient.inventory").tag("cause", "rejected").counter().count()).isZero();
+    }
+
+    @Test
+    void stage_reactiveTimesFromSubscriptionAndCountsInsufficientInventory() {
+        Mono<Object> step = metrics.stage(Path.REACTIVE, Stage.ALLOCATE_AND_DEDUCT,
+                Mono.error(new InsufficientInventoryException("none")));
+
+        assertThat(registry.get("order.placement.stage").tags("stage", "allocate_and_deduct").timer().count()).isZero();
+        assertThatThrownBy(step::block).isInstanceOf(InsufficientInventoryException.class);
+
+        assertThat(registry.get("order.placement.stage").tags("path", "reactive", "stage", "allocate_and_deduct")
+                .timer().count()).isEqualTo(1);
+        assertThat(registry.get("order.insufficient.inventory").tag("cause", "rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void placement_tagsOutcomeByException() {
+        metrics.placement(Path.BLOCKING, () -> "ok");
+        assertThatThrownBy(() -> metrics.placement(Path.BLOCKING, () -> {
+            throw new IllegalArgumentException("bad");
+        })).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> metrics.placement(Path.REACTIVE, Mono.error(new RuntimeException("boom"))).block())
+                .isInstanceOf(RuntimeException.class);
+
+        assertThat(registry.get("order.placement").tags("path", "blocking", "outcome", "success").timer().count()).isEqualTo(1);
+        assertThat(registry.get("order.placement").tags("path", "blocking", "outcome", "invalid_request").timer().count()).isEqualTo(1);
+        assertThat(registry.get("order.placement").tags("path", "reactive", "outcome", "error").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void downstreamError_classifiesCause() {
+        WebClientResponseException badRequest = WebClientResponseException.create(400, "Bad Request", HttpHeaders.EMPTY, new byte[0], null);
+        WebClientResponseException unavailable = WebClientResponseException.create(503, "Unavailable", HttpHeaders.EMPTY, new byte[0], null);
+
+        assertThat(OrderMetrics.cause(badRequest)).isEqualTo("client_error");
+        assertThat(OrderMetrics.cause(unavailable)).isEqualTo("server_error");
+        assertThat(OrderMetrics.cause(request(new ConnectException("refused")))).isEqualTo("connect");
+        assertThat(OrderMetrics.cause(request(ReadTimeoutException.INSTANCE))).isEqualTo("timeout");
+        assertThat(OrderMetrics.cause(new IllegalStateException())).isEqualTo("other");
+        assertThat(OrderMetrics.cause(CallNotPermittedException.createCallNotPermittedException(
+                CircuitBreaker.ofDefaults("inventory")))).isEqualTo("circuit_open");
+        assertThat(OrderMetrics.cause(BulkheadFullException.createBulkheadFullException(
+                Bulkhead.ofDefaults("inventory")))).isEqualTo("bulkhead_full");
+
+        metrics.downstreamError("update", badRequest);
+        assertThat(registry.get("inventory.client.errors").tags("operation", "update", "cause", "client_error")
+                .counter().count()).isEqualTo(1);
+    }
+
+    private static WebClientRequestException request(Throwable cause) {
+        return new WebClientRequestException(cause, HttpMethod.POST, URI.create("http://localhost/inventory/update"), HttpHeaders.EMPTY);
+    }
+}
@@ -0,0 +1,168 @@
+package com.order.outbox;
+
+import com.order.downstream.InventoryClient;
+import com.order.dto.InventoryBatchDto;
+import com.order.dto.InventoryUpdateResult;
+import com.order.dto.OrderResponse;
+import com.order.entity.Order;
+import com.order.entity.OutboxEvent;
+import com.order.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.show-sql=false",
+        // own database: relays of other cached test contexts poll the shared orderdb
+        "spring.datasource.url=jdbc:h2:mem:outboxtest;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "order.allocation.mode=outbox",
+        // the test drains the outbox itself
+        "order.outbox.relay-interval-ms=3600000",
+        "order.outbox.max-attempts=2",
+        "order.outbox.retry-backoff-ms=0"
+})
+@AutoConfigureWebTestClient
+class OrderOutboxIntegrationTest {
+
+    private static final String SKU = "SKU-OUTBOX";
+
+    @Autowired
+    WebTestClient webTestClient;
+
+    @Autowired
+    OutboxRelay relay;
+
+    @Autowired
+    OutboxEventRepository outboxEventRepository;
+
+    @MockBean
+    InventoryClient inventoryClient;
+
+    @BeforeEach
+    void clearOutbox() {
+        outboxEventRepository.deleteAll();
+    }
+
+    @Test
+    void placeOrder_acceptsAsPendingAndRelayPlacesIt() {
+        Order accepted = place();
+
+        assertThat(accepted.getStatus()).isEqualTo(Order.STATUS_PENDING);
+        verifyNoInteractions(inventoryClient);
+        assertThat(status(accepted.getOrderNumber())).isEqualTo(Order.STATUS_PENDING);
+
+        InventoryBatchDto batch = new InventoryBatchDto();
+        batch.setBatchNumber("B1");
+        batch.setQuantity(10);
+        when(inventoryClient.getBatchesBySkus(any())).thenReturn(Map.of(SKU, new ArrayList<>(List.of(batch))));
+        when(inventoryClient.updateInventoryBulk(anyList(), anyBoolean(), anyString()))
+                .thenReturn(List.of(new InventoryUpdateResult(SKU, true, null)));
+        relay.drainOnce();
+
+        assertThat(status(accepted.getOrderNumber())).isEqualTo(Order.STATUS_PLACED);
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    @Test
+    void relay_retriesALostDeductionWithTheStoredKeyAndPicks() {
+        Order accepted = place();
+        InventoryBatchDto batch = new InventoryBatchDto();
+        batch.setBatchNumber("B1");
+        batch.setQuantity(10);
+        when(inventoryClient.getBatchesBySkus(any())).thenReturn(Map.of(SKU, new ArrayList<>(List.of(batch))));
+        when(inventoryClient.updateInventoryBulk(anyList(), anyBoolean(), anyString()))
+                .thenThrow(new RuntimeException("read timeout"));
+
+        relay.drainOnce();
+
+        OutboxEvent pending = outboxEventRepository.findAll().get(0);
+        assertThat(pending.getDispatchKey()).startsWith("outbox-");
+        assertThat(pending.getDeduction()).isEqualTo(Map.of("B1", 2));
+
+        reset(inventoryClient);
+        when(inventoryClient.updateInventoryBulk(anyList(), anyBoolean(), anyString()))
+                .thenReturn(List.of(new InventoryUpdateResult(SKU, true, null)));
+        relay.drainOnce();
+
+        verify(inventoryClient).updateInventoryBulk(anyList(), eq(false), eq(pending.getDispatchKey()));
+        verify(inventoryClient, never()).getBatchesBySkus(any());
+        assertThat(status(accepted.getOrderNumber())).isEqualTo(Order.STATUS_PLACED);
+    }
+
+    @Test
+    void relay_rejectsOrderOnceRetriesAreUsedUp() {
+        Order accepted = place();
+        when(inventoryClient.getBatchesBySkus(any())).thenThrow(new RuntimeException("inventory down"));
+
+        relay.drainOnce();
+        assertThat(status(accepted.getOrderNumber())).isEqualTo(Order.STATUS_PENDING);
+        relay.drainOnce();
+
+        assertThat(status(accepted.getOrderNumber())).isEqualTo(Order.STATUS_REJECTED);
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    @Test
+    void relay_keepsResendingAnUnansweredDeductionPastMaxAttempts() {
+        Order accepted = place();
+        InventoryBatchDto batch = new InventoryBatchDto();
+        batch.setBatchNumber("B1");
+        batch.setQuantity(10);
+        when(inventoryClient.getBatchesBySkus(any())).thenReturn(Map.of(SKU, new ArrayList<>(List.of(batch))));
+        when(inventoryClient.updateInventoryBulk(anyList(), anyBoolean(), anyString()))
+                .thenThrow(new RuntimeException("read timeout"));
+
+        relay.drainOnce();
+        relay.drainOnce();
+        relay.drainOnce();
+
+        // the deduction may have gone through, so the order is not rejected while its key is unanswered
+        assertThat(status(accepted.getOrderNumber())).isEqualTo(Order.STATUS_PENDING);
+        assertThat(outboxEventRepository.findAll()).singleElement()
+                .satisfies(event -> assertThat(event.getAttempts()).isEqualTo(3));
+    }
+
+    @Test
+    void getOrder_unknownOrderNumberIsNotFound() {
+        webTestClient.get().uri("/order/{orderNumber}", "no-such-order")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    private Order place() {
+        return webTestClient.post().uri("/order")
+                .bodyValue(Map.of("sku", SKU, "quantity", 2))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(OrderResponse.class)
+                .returnResult().getResponseBody().getOrder();
+    }
+
+    private String status(String orderNumber) {
+        return webTestClient.get().uri("/order/{orderNumber}", orderNumber)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Order.class)
+                .returnResult().getResponseBody().getStatus();
+    }
+}
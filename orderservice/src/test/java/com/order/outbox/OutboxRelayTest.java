@@ -0,0 +1,193 @@
+package com.order.outbox;
+
+import com.order.downstream.InventoryClient;
+import com.order.dto.InventoryBatchDto;
+import com.order.dto.InventoryUpdateRequest;
+import com.order.dto.InventoryUpdateResult;
+import com.order.entity.OutboxEvent;
+import com.order.service.InventoryAllocator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    OrderOutbox outbox;
+
+    @Mock
+    InventoryClient inventoryClient;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void init() {
+        relay = new OutboxRelay(outbox, inventoryClient, new InventoryAllocator(), registry, 10);
+    }
+
+    private static OutboxEvent event(long orderId, String sku, int quantity) {
+        return OutboxEvent.builder().id(orderId).orderId(orderId).sku(sku).quantity(quantity).build();
+    }
+
+    private static InventoryBatchDto batch(String batchNumber, int quantity) {
+        InventoryBatchDto batch = new InventoryBatchDto();
+        batch.setBatchNumber(batchNumber);
+        batch.setQuantity(quantity);
+        return batch;
+    }
+
+    @Test
+    void drainOnce_coalescesEventsPerSkuIntoOneBulkUpdate() {
+        OutboxEvent a1 = event(1, "A", 2);
+        OutboxEvent b1 = event(2, "B", 1);
+        OutboxEvent a2 = event(3, "A", 3);
+        when(outbox.due(10)).thenReturn(List.of(a1, b1, a2));
+        when(inventoryClient.getBatchesBySkus(any())).thenReturn(Map.of(
+                "A", new ArrayList<>(List.of(batch("A1", 4), batch("A2", 10))),
+                "B", new ArrayList<>(List.of(batch("B1", 5)))));
+        when(inventoryClient.updateInventoryBulk(anyList(), anyBoolean(), anyString())).thenReturn(List.of(
+                new InventoryUpdateResult("A", true, null), new InventoryUpdateResult("B", true, null)));
+
+        assertThat(relay.drainOnce()).isEqualTo(3);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<InventoryUpdateRequest>> updates = ArgumentCaptor.forClass(List.class);
+        verify(inventoryClient).updateInventoryBulk(updates.capture(), anyBoolean(), anyString());
+        assertThat(updates.getValue()).hasSize(2);
+        assertThat(updates.getValue().get(0).getBatchQuantityToDeduct()).isEqualTo(Map.of("A1", 4, "A2", 1));
+        verify(outbox).settle(List.of(a1, a2, b1), Map.of(), List.of());
+        assertThat(registry.get("order.outbox.settled").tag("result", "placed").counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    void drainOnce_rejectsEventsThatDoNotFitAndRetriesRefusedLines() {
+        OutboxEvent fits = event(1, "A", 3);
+        OutboxEvent tooBig = event(2, "A", 3);
+        OutboxEvent stale = event(3, "B", 1);
+        when(outbox.due(10)).thenReturn(List.of(fits, tooBig, stale));
+        when(inventoryClient.getBatchesBySkus(any())).thenReturn(Map.of(
+                "A", new ArrayList<>(List.of(batch("A1", 4))),
+                "B", new ArrayList<>(List.of(batch("B1", 1)))));
+        when(inventoryClient.updateInventoryBulk(anyList(), anyBoolean(), anyString())).thenReturn(List.of(
+                new InventoryUpdateResult("A", true, null), new InventoryUpdateResult("B", false, "Insufficient qty")));
+
+        relay.drainOnce();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<OutboxEvent, String>> rejected = ArgumentCaptor.forClass(Map.class);
+        verify(outbox).settle(eq(List.of(fits)), rejected.capture(),
+                eq(List.of(stale)));
+        assertThat(rejected.getValue()).containsOnlyKeys(tooBig);
+    }
+
+    @Test
+    void drainOnce_leavesEveryEventForLaterWhenInventoryIsDown() {
+        OutboxEvent event = event(1, "A", 1);
+        when(outbox.due(10)).thenReturn(List.of(event));
+        when(inventoryClient.getBatchesBySkus(any())).thenThrow(new RuntimeException("connection refused"));
+        when(outbox.settle(anyList(), anyMap(), anyList())).thenReturn(0);
+
+        relay.drainOnce();
+
+        verify(outbox).settle(List.of(), Map.of(), List.of(event));
+        verify(inventoryClient, never()).updateInventoryBulk(anyList(), anyBoolean(), anyString());
+        assertThat(registry.get("order.outbox.settled").tag("result", "retried").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void drainOnce_resendsALostDeductionUnderTheSameKey() {
+        OutboxEvent a1 = event(1, "A", 2);
+        OutboxEvent a2 = event(2, "A", 3);
+        when(outbox.due(10)).thenReturn(List.of(a1, a2));
+        when(inventoryClient.getBatchesBySkus(any())).thenReturn(Map.of(
+                "A", new ArrayList<>(List.of(batch("A1", 4), batch("A2", 10)))));
+        when(inventoryClient.updateInventoryBulk(anyList(), anyBoolean(), anyString()))
+                .thenThrow(new RuntimeException("read timeout"));
+
+        relay.drainOnce();
+
+        verify(outbox).dispatching(List.of(a1, a2));
+        verify(outbox).settle(List.of(), Map.of(), List.of(a1, a2));
+        String key = a1.getDispatchKey();
+        assertThat(key).startsWith("outbox-").isEqualTo(a2.getDispatchKey());
+        assertThat(a1.getDeduction()).isEqualTo(Map.of("A1", 2));
+        assertThat(a2.getDeduction()).isEqualTo(Map.of("A1", 2, "A2", 1));
+
+        // the next drain sees only part of the dispatch; the whole of it goes out again, unchanged, without a new fetch
+        when(outbox.due(10)).thenReturn(List.of(a2));
+        when(outbox.dispatched(key)).thenReturn(List.of(a1, a2));
+        doReturn(List.of(new InventoryUpdateResult("A", true, null)))
+                .when(inventoryClient).updateInventoryBulk(anyList(), anyBoolean(), anyString());
+
+        relay.drainOnce();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<InventoryUpdateRequest>> updates = ArgumentCaptor.forClass(List.class);
+        verify(inventoryClient, times(2)).updateInventoryBulk(updates.capture(), eq(false), eq(key));
+        assertThat(updates.getAllValues().get(1)).isEqualTo(updates.getAllValues().get(0));
+        assertThat(updates.getAllValues().get(1).get(0).getBatchQuantityToDeduct()).isEqualTo(Map.of("A1", 4, "A2", 1));
+        verify(inventoryClient, times(1)).getBatchesBySkus(any());
+        verify(outbox).settle(List.of(a1, a2), Map.of(), List.of());
+    }
+
+    @Test
+    void drainOnce_refusedLineIsAllocatedAfreshUnderANewKey() {
+        OutboxEvent a1 = event(1, "A", 2);
+        when(outbox.due(10)).thenReturn(List.of(a1));
+        when(inventoryClient.getBatchesBySkus(any())).thenReturn(Map.of(
+                "A", new ArrayList<>(List.of(batch("A1", 4)))));
+        when(inventoryClient.updateInventoryBulk(anyList(), anyBoolean(), anyString()))
+                .thenReturn(List.of(new InventoryUpdateResult("A", false, "Insufficient qty")));
+
+        relay.drainOnce();
+
+        verify(outbox).settle(List.of(), Map.of(), List.of(a1));
+        assertThat(a1.getDispatchKey()).isNull();
+        assertThat(a1.getDeduction()).isNull();
+
+        // stock came back: the retry is a new dispatch, not a replay of the refused one
+        doReturn(List.of(new InventoryUpdateResult("A", true, null)))
+                .when(inventoryClient).updateInventoryBulk(anyList(), anyBoolean(), anyString());
+
+        relay.drainOnce();
+
+        ArgumentCaptor<String> keys = ArgumentCaptor.forClass(String.class);
+        verify(inventoryClient, times(2)).updateInventoryBulk(anyList(), anyBoolean(), keys.capture());
+        assertThat(keys.getAllValues().get(1)).startsWith("outbox-").isNotEqualTo(keys.getAllValues().get(0));
+        verify(outbox, times(2)).dispatching(List.of(a1));
+        verify(outbox).settle(List.of(a1), Map.of(), List.of());
+    }
+
+    @Test
+    void drainOnce_emptyOutboxCallsNothing() {
+        when(outbox.due(anyInt())).thenReturn(List.of());
+
+        assertThat(relay.drainOnce()).isZero();
+
+        verify(inventoryClient, never()).getBatchesBySkus(any());
+    }
+}
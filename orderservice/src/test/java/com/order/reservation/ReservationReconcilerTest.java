@@ -0,0 +1,83 @@
+package com.order.reservation;
+
+import com.order.downstream.InventoryClient;
+import com.order.entity.Order;
+import com.order.repository.OrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationReconcilerTest {
+
+    @Mock
+    OrderRepository orderRepository;
+
+    @Mock
+    InventoryClient inventoryClient;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private ReservationReconciler reconciler;
+
+    @BeforeEach
+    void init() {
+        reconciler = new ReservationReconciler(orderRepository, inventoryClient, registry, 10);
+    }
+
+    private static Order unknown(String reservationId) {
+        return Order.builder().orderNumber("O-" + reservationId).reservationId(reservationId)
+                .status(Order.STATUS_UNKNOWN).build();
+    }
+
+    @Test
+    void reconcile_confirmedHoldPlacesTheOrder() {
+        Order order = unknown("R1");
+        when(orderRepository.findByStatusOrderByIdAsc(eq(Order.STATUS_UNKNOWN), any())).thenReturn(List.of(order));
+        // inventory refuses to release a confirmed hold
+        when(inventoryClient.releaseReservation("R1")).thenReturn(false);
+
+        reconciler.reconcile();
+
+        assertThat(order.getStatus()).isEqualTo(Order.STATUS_PLACED);
+        verify(orderRepository).save(order);
+        verify(orderRepository, never()).delete(any());
+    }
+
+    @Test
+    void reconcile_releasedHoldRemovesTheOrder() {
+        Order order = unknown("R1");
+        when(orderRepository.findByStatusOrderByIdAsc(eq(Order.STATUS_UNKNOWN), any())).thenReturn(List.of(order));
+        when(inventoryClient.releaseReservation("R1")).thenReturn(true);
+
+        reconciler.reconcile();
+
+        verify(orderRepository).delete(order);
+        assertThat(registry.get("order.reservation.reconciled").tag("result", "released").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void reconcile_failedReleaseLeavesTheOrderUnknown() {
+        Order order = unknown("R1");
+        when(orderRepository.findByStatusOrderByIdAsc(eq(Order.STATUS_UNKNOWN), any())).thenReturn(List.of(order));
+        when(inventoryClient.releaseReservation("R1")).thenThrow(new RuntimeException("read timeout"));
+
+        reconciler.reconcile();
+
+        assertThat(order.getStatus()).isEqualTo(Order.STATUS_UNKNOWN);
+        verify(orderRepository, never()).save(any());
+        verify(orderRepository, never()).delete(any());
+        assertThat(registry.get("order.reservation.reconciled").tag("result", "unresolved").counter().count()).isEqualTo(1);
+    }
+}
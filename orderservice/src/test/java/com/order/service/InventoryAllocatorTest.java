@@ -1,5 +1,8 @@
 package com.order.service;
 
+import com.order.allocation.AllocationStrategy;
+import com.order.allocation.BatchCandidates;
+import com.order.allocation.StandardAllocationStrategy;
 import com.order.dto.InventoryBatchDto;
 import com.order.handlers.InsufficientInventoryException;
 import org.junit.jupiter.api.Test;
@@ -9,6 +12,7 @@ import java.util.List;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class InventoryAllocatorTest {
@@ -49,4 +53,81 @@ class InventoryAllocatorTest {
 
         assertThrows(InsufficientInventoryException.class, () -> allocator.allocate(List.of(b1), ALLOCATE_QTY_INSUFFICIENT));
     }
+
+    @Test
+    void allocate_skipsBatchesShortOfTheMinimumShelfLife() {
+        InventoryBatchDto soon = new InventoryBatchDto();
+        soon.setBatchNumber(BATCH_1);
+        soon.setQuantity(BATCH_1_QTY);
+        soon.setExpiryDate(LocalDate.now().plusDays(5));
+
+        InventoryBatchDto later = new InventoryBatchDto();
+        later.setBatchNumber(BATCH_2);
+        later.setQuantity(BATCH_2_QTY);
+        later.setExpiryDate(LocalDate.now().plusDays(40));
+
+        Map<String, Integer> map = allocator.allocate(List.of(soon, later), 3, InventoryAllocator.minExpiry(30));
+        assertThat(map).containsOnlyKeys(BATCH_2).containsEntry(BATCH_2, 3);
+
+        assertThrows(InsufficientInventoryException.class,
+                () -> allocator.allocate(List.of(soon, later), ALLOCATE_QTY_SUCCESS, InventoryAllocator.minExpiry(30)));
+    }
+
+    @Test
+    void allocate_neverTakesExpiredBatches() {
+        InventoryBatchDto expired = new InventoryBatchDto();
+        expired.setBatchNumber(BATCH_1);
+        expired.setQuantity(BATCH_1_QTY);
+        expired.setExpiryDate(LocalDate.now().minusDays(1));
+
+        assertThrows(InsufficientInventoryException.class,
+                () -> allocator.allocate(List.of(expired), 1, InventoryAllocator.minExpiry(null)));
+    }
+
+    @Test
+    void strategyFor_prefersTheOrderThenTheSkuThenTheDefault() {
+        InventoryAllocator configured = new InventoryAllocator(List.of(), "LARGEST_FIRST", "SKU-A=FIFO, SKU-B = FEWEST_BATCHES");
+
+        assertThat(configured.strategyFor("SKU-A", "FEFO")).isEqualTo(StandardAllocationStrategy.FEFO);
+        assertThat(configured.strategyFor("SKU-A", null)).isEqualTo(StandardAllocationStrategy.FIFO);
+        assertThat(configured.strategyFor("SKU-B", null)).isEqualTo(StandardAllocationStrategy.FEWEST_BATCHES);
+        assertThat(configured.strategyFor("SKU-C", null)).isEqualTo(StandardAllocationStrategy.LARGEST_FIRST);
+        assertThatThrownBy(() -> configured.strategyFor("SKU-A", "CHEAPEST")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void customStrategiesAreSelectableByName() {
+        AllocationStrategy lastListed = new AllocationStrategy() {
+            @Override
+            public String name() {
+                return "LAST_LISTED";
+            }
+
+            @Override
+            public int[] drawOrder(BatchCandidates candidates, int requestedQuantity) {
+                int[] order = new int[candidates.size()];
+                for (int i = 0; i < order.length; i++) {
+                    order[i] = order.length - 1 - i;
+                }
+                return order;
+            }
+        };
+        InventoryAllocator withCustom = new InventoryAllocator(List.of(lastListed), "FEFO", "");
+        InventoryBatchDto b1 = new InventoryBatchDto();
+        b1.setBatchNumber(BATCH_1);
+        b1.setQuantity(BATCH_1_QTY);
+        InventoryBatchDto b2 = new InventoryBatchDto();
+        b2.setBatchNumber(BATCH_2);
+        b2.setQuantity(BATCH_2_QTY);
+
+        assertThat(withCustom.hasStrategy("LAST_LISTED")).isTrue();
+        assertThat(withCustom.allocate(List.of(b1, b2), 2, null, withCustom.strategyFor("SKU", "LAST_LISTED")))
+                .containsOnlyKeys(BATCH_2);
+    }
+
+    @Test
+    void unknownConfiguredStrategyFailsFast() {
+        assertThatThrownBy(() -> new InventoryAllocator(List.of(), "CHEAPEST", ""))
+                .isInstanceOf(IllegalStateException.class);
+    }
 }
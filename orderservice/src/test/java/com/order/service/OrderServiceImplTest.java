@@ -1,15 +1,22 @@
 package com.order.service;
 
 import com.order.downstream.InventoryClient;
+import com.order.dto.BulkOrderRequest;
+import com.order.dto.BulkOrderResponse;
+import com.order.dto.InventoryAllocationResponse;
 import com.order.dto.InventoryBatchDto;
+import com.order.dto.InventoryReservationResponse;
 import com.order.dto.InventoryUpdateRequest;
+import com.order.dto.InventoryUpdateResult;
 import com.order.dto.OrderRequest;
 import com.order.entity.Order;
 import com.order.handlers.InsufficientInventoryException;
+import com.order.metrics.OrderMetrics;
 import com.order.repository.OrderRepository;
 import com.order.validation.BaseInventoryValidator;
 import com.order.validation.InventoryValidationFactory;
 import com.order.validation.OrderRequestValidator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -18,8 +25,13 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
 import java.util.List;
+import java.util.Map;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
 
@@ -39,6 +51,7 @@ class OrderServiceImplTest {
     @Mock
     BaseInventoryValidator baseInventoryValidator;
     private OrderServiceImpl orderService;
+    private SimpleMeterRegistry meterRegistry;
 
     private static final String SKU_SUCCESS = "SKU-2";
     private static final String SKU_FAILURE = "SKU-1";
@@ -49,12 +62,16 @@ class OrderServiceImplTest {
     void init() {
         when(inventoryValidationFactory.getValidator(anyString())).thenReturn(baseInventoryValidator);
         doNothing().when(baseInventoryValidator).updateInventory(any(InventoryUpdateRequest.class));
+        meterRegistry = new SimpleMeterRegistry();
         orderService = new OrderServiceImpl(
                 orderRepository,
                 inventoryClient,
                 new OrderRequestValidator(),
                 inventoryValidationFactory,
-                new InventoryAllocator()
+                new InventoryAllocator(),
+                OrderServiceImpl.ALLOCATION_MODE_CLIENT,
+                Schedulers.immediate(),
+                new OrderMetrics(meterRegistry)
         );
     }
 
@@ -80,6 +97,25 @@ class OrderServiceImplTest {
         verify(orderRepository).save(any(Order.class));
     }
 
+    @Test
+    void placeOrder_usesTheStrategyTheOrderNames() {
+        InventoryBatchDto small = new InventoryBatchDto();
+        small.setBatchNumber("B1");
+        small.setQuantity(2);
+        small.setExpiryDate(java.time.LocalDate.now().plusDays(1));
+        InventoryBatchDto large = new InventoryBatchDto();
+        large.setBatchNumber("B2");
+        large.setQuantity(9);
+        large.setExpiryDate(java.time.LocalDate.now().plusDays(9));
+        when(inventoryClient.getBatchesBySku(SKU_SUCCESS)).thenReturn(List.of(small, large));
+        when(orderRepository.save(any(Order.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        orderService.placeOrder(OrderRequest.builder().sku(SKU_SUCCESS).quantity(3).allocationStrategy("FEWEST_BATCHES").build());
+
+        // FEFO would split the order over B1 and B2
+        verify(baseInventoryValidator).updateInventory(argThat(update -> update.getBatchQuantityToDeduct().equals(Map.of("B2", 3))));
+    }
+
     @Test
     void placeOrder_failsWhenInsufficientInventory() {
         // Arrange
@@ -111,4 +147,325 @@ class OrderServiceImplTest {
         verify(inventoryClient).getBatchesBySku(SKU_EXCEPTION);
         verifyNoInteractions(orderRepository);
     }
+
+    @Test
+    void placeOrder_serverAllocationMode_usesSingleAllocateCall() {
+        OrderServiceImpl serverModeService = new OrderServiceImpl(
+                orderRepository,
+                inventoryClient,
+                new OrderRequestValidator(),
+                inventoryValidationFactory,
+                new InventoryAllocator(),
+                OrderServiceImpl.ALLOCATION_MODE_SERVER
+        );
+        InventoryBatchDto allocated = new InventoryBatchDto();
+        allocated.setBatchNumber("B1");
+        allocated.setQuantity(3);
+        when(inventoryClient.allocate(SKU_SUCCESS, 3, null)).thenReturn(new InventoryAllocationResponse(SKU_SUCCESS, List.of(allocated)));
+        when(orderRepository.save(any(Order.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        OrderRequest orderRequest = new OrderRequest();
+        orderRequest.setSku(SKU_SUCCESS);
+        orderRequest.setQuantity(3);
+        serverModeService.placeOrder(orderRequest);
+
+        verify(inventoryClient).allocate(SKU_SUCCESS, 3, null);
+        verify(inventoryClient, never()).getBatchesBySku(anyString());
+        verifyNoInteractions(baseInventoryValidator);
+        verify(orderRepository).save(any(Order.class));
+    }
+
+    @Test
+    void placeOrder_serverAllocationMode_propagatesInsufficientInventory() {
+        OrderServiceImpl serverModeService = new OrderServiceImpl(
+                orderRepository,
+                inventoryClient,
+                new OrderRequestValidator(),
+                inventoryValidationFactory,
+                new InventoryAllocator(),
+                OrderServiceImpl.ALLOCATION_MODE_SERVER
+        );
+        when(inventoryClient.allocate(SKU_FAILURE, 5, null)).thenThrow(new InsufficientInventoryException("Insufficient inventory"));
+
+        OrderRequest orderRequest = new OrderRequest();
+        orderRequest.setSku(SKU_FAILURE);
+        orderRequest.setQuantity(5);
+
+        assertThatThrownBy(() -> serverModeService.placeOrder(orderRequest))
+                .isInstanceOf(InsufficientInventoryException.class);
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    void placeOrder_serverAllocationMode_refusesAStrategyInventoryDoesNotApply() {
+        OrderServiceImpl serverModeService = new OrderServiceImpl(
+                orderRepository,
+                inventoryClient,
+                new OrderRequestValidator(),
+                inventoryValidationFactory,
+                new InventoryAllocator(),
+                OrderServiceImpl.ALLOCATION_MODE_SERVER
+        );
+
+        assertThatThrownBy(() -> serverModeService.placeOrder(
+                OrderRequest.builder().sku(SKU_SUCCESS).quantity(3).allocationStrategy("FEWEST_BATCHES").build()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("FEWEST_BATCHES");
+        verifyNoInteractions(inventoryClient, orderRepository);
+    }
+
+    private InventoryBatchDto batch(String number, int quantity) {
+        InventoryBatchDto dto = new InventoryBatchDto();
+        dto.setBatchNumber(number);
+        dto.setQuantity(quantity);
+        dto.setExpiryDate(java.time.LocalDate.now().plusDays(5));
+        return dto;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void placeOrders_reportsPerLineResultsAndSharesStockAcrossLines() {
+        when(inventoryClient.getBatchesBySkus(anyCollection())).thenReturn(Map.of(
+                SKU_SUCCESS, List.of(batch("B1", 5)),
+                SKU_FAILURE, List.of()));
+        when(inventoryClient.updateInventoryBulk(anyList(), eq(false))).thenAnswer(i -> {
+            List<InventoryUpdateRequest> updates = i.getArgument(0);
+            return updates.stream().map(u -> new InventoryUpdateResult(u.getSku(), true, null)).toList();
+        });
+        when(orderRepository.saveAll(anyList())).thenAnswer(i -> i.getArgument(0));
+
+        BulkOrderRequest request = new BulkOrderRequest(List.of(
+                new OrderRequest(SKU_SUCCESS, 3, null, null),
+                new OrderRequest(SKU_FAILURE, 1, null, null),
+                new OrderRequest(SKU_SUCCESS, 3, null, null),
+                new OrderRequest(SKU_SUCCESS, 2, null, null)), false);
+
+        BulkOrderResponse response = orderService.placeOrders(request);
+
+        assertThat(response.getSucceeded()).isEqualTo(2);
+        assertThat(response.getFailed()).isEqualTo(2);
+        assertThat(response.getResults()).extracting("success").containsExactly(true, false, false, true);
+        verify(inventoryClient, times(1)).getBatchesBySkus(anyCollection());
+        verify(inventoryClient, times(1)).updateInventoryBulk(argThat(updates -> updates.size() == 2), eq(false));
+        verify(orderRepository, times(1)).saveAll(argThat(orders -> ((List<Order>) orders).size() == 2));
+    }
+
+    @Test
+    void placeOrders_marksLinesRejectedByInventory() {
+        when(inventoryClient.getBatchesBySkus(anyCollection())).thenReturn(Map.of(SKU_SUCCESS, List.of(batch("B1", 5))));
+        when(inventoryClient.updateInventoryBulk(anyList(), eq(false)))
+                .thenReturn(List.of(new InventoryUpdateResult(SKU_SUCCESS, false, "Insufficient qty in batch: B1")));
+        when(orderRepository.saveAll(anyList())).thenAnswer(i -> i.getArgument(0));
+
+        BulkOrderResponse response = orderService.placeOrders(new BulkOrderRequest(List.of(new OrderRequest(SKU_SUCCESS, 2, null, null)), false));
+
+        assertThat(response.getSucceeded()).isZero();
+        assertThat(response.getResults().get(0).getError()).contains("Insufficient");
+    }
+
+    @Test
+    void placeOrders_atomicAbortsOnFirstFailedLine() {
+        when(inventoryClient.getBatchesBySkus(anyCollection())).thenReturn(Map.of(SKU_SUCCESS, List.of(batch("B1", 1))));
+
+        BulkOrderRequest request = new BulkOrderRequest(List.of(new OrderRequest(SKU_SUCCESS, 2, null, null)), true);
+
+        assertThatThrownBy(() -> orderService.placeOrders(request))
+                .isInstanceOf(IllegalStateException.class);
+        verify(inventoryClient, never()).updateInventoryBulk(anyList(), anyBoolean());
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    void placeOrders_emptyRequestThrows() {
+        assertThatThrownBy(() -> orderService.placeOrders(new BulkOrderRequest(List.of(), false)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void placeOrderReactive_chainsInventoryCallsAndSavesOrder() {
+        when(inventoryClient.getBatchesBySkuAsync(SKU_SUCCESS)).thenReturn(Mono.just(List.of(batch("B1", 5))));
+        when(inventoryClient.updateInventoryAsync(any(InventoryUpdateRequest.class))).thenReturn(Mono.empty());
+        when(orderRepository.save(any(Order.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        var response = orderService.placeOrderReactive(new OrderRequest(SKU_SUCCESS, 3, null, null)).block();
+
+        assertThat(response).isNotNull();
+        assertThat(response.isSuccess()).isTrue();
+        assertThat(response.getOrder().getQuantity()).isEqualTo(3);
+        verify(inventoryClient).updateInventoryAsync(argThat(u -> u.getBatchQuantityToDeduct().equals(Map.of("B1", 3))));
+        verify(inventoryClient, never()).getBatchesBySku(anyString());
+    }
+
+    @Test
+    void placeOrderReactive_failsWithoutSavingWhenInsufficient() {
+        when(inventoryClient.getBatchesBySkuAsync(SKU_FAILURE)).thenReturn(Mono.just(List.of()));
+
+        Mono<?> result = orderService.placeOrderReactive(new OrderRequest(SKU_FAILURE, 5, null, null));
+
+        assertThatThrownBy(result::block).isInstanceOf(InsufficientInventoryException.class);
+        verify(inventoryClient, never()).updateInventoryAsync(any());
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    void placeOrderReactive_invalidRequestNeverCallsInventory() {
+        Mono<?> result = orderService.placeOrderReactive(new OrderRequest(SKU_SUCCESS, 0, null, null));
+
+        assertThatThrownBy(result::block).isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(inventoryClient, orderRepository);
+    }
+
+    @Test
+    void placeOrder_recordsEveryStageAndTheOutcome() {
+        when(inventoryClient.getBatchesBySku(SKU_SUCCESS)).thenReturn(List.of(batch("B1", 5)));
+        when(orderRepository.save(any(Order.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        orderService.placeOrder(new OrderRequest(SKU_SUCCESS, 3, null, null));
+
+        for (String stage : List.of("validate", "fetch_batches", "allocate", "deduct", "persist")) {
+            assertThat(meterRegistry.get("order.placement.stage").tags("path", "blocking", "stage", stage).timer().count())
+                    .as(stage).isEqualTo(1);
+        }
+        assertThat(meterRegistry.get("order.placement").tags("path", "blocking", "outcome", "success").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void placeOrder_countsInsufficientInventoryByCause() {
+        when(inventoryClient.getBatchesBySku(SKU_FAILURE)).thenReturn(List.of());
+        when(inventoryClient.getBatchesBySku(SKU_SUCCESS)).thenReturn(List.of(batch("B1", 1)));
+
+        assertThatThrownBy(() -> orderService.placeOrder(new OrderRequest(SKU_FAILURE, 5, null, null)))
+                .isInstanceOf(InsufficientInventoryException.class);
+        assertThatThrownBy(() -> orderService.placeOrder(new OrderRequest(SKU_SUCCESS, 5, null, null)))
+                .isInstanceOf(InsufficientInventoryException.class);
+
+        assertThat(meterRegistry.get("order.insufficient.inventory").tag("cause", "no_batches").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("order.insufficient.inventory").tag("cause", "shortfall").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("order.placement").tags("path", "blocking", "outcome", "insufficient_inventory")
+                .timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void placeOrderReactive_recordsStagesOnTheReactivePath() {
+        when(inventoryClient.getBatchesBySkuAsync(SKU_SUCCESS)).thenReturn(Mono.just(List.of(batch("B1", 5))));
+        when(inventoryClient.updateInventoryAsync(any(InventoryUpdateRequest.class))).thenReturn(Mono.empty());
+        when(orderRepository.save(any(Order.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        orderService.placeOrderReactive(new OrderRequest(SKU_SUCCESS, 3, null, null)).block();
+
+        assertThat(meterRegistry.get("order.placement.stage").tags("path", "reactive", "stage", "deduct").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("order.placement").tags("path", "reactive", "outcome", "success").timer().count())
+                .isEqualTo(1);
+    }
+
+    private OrderServiceImpl reserveModeService() {
+        return new OrderServiceImpl(
+                orderRepository,
+                inventoryClient,
+                new OrderRequestValidator(),
+                inventoryValidationFactory,
+                new InventoryAllocator(),
+                OrderServiceImpl.ALLOCATION_MODE_RESERVE,
+                Schedulers.immediate(),
+                new OrderMetrics(meterRegistry)
+        );
+    }
+
+    private static InventoryReservationResponse held(String reservationId) {
+        return InventoryReservationResponse.builder().reservationId(reservationId).sku(SKU_SUCCESS).status("HELD").build();
+    }
+
+    @Test
+    void placeOrder_reserveMode_savesOrderThenConfirmsHold() {
+        when(inventoryClient.reserve(SKU_SUCCESS, 3, null)).thenReturn(held("R1"));
+        when(orderRepository.save(any(Order.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        var response = reserveModeService().placeOrder(new OrderRequest(SKU_SUCCESS, 3, null, null));
+
+        assertThat(response.getOrder().getReservationId()).isEqualTo("R1");
+        var inOrder = inOrder(inventoryClient, orderRepository);
+        inOrder.verify(inventoryClient).reserve(SKU_SUCCESS, 3, null);
+        inOrder.verify(orderRepository).save(any(Order.class));
+        inOrder.verify(inventoryClient).confirmReservation("R1");
+        verify(inventoryClient, never()).releaseReservation(anyString());
+        verifyNoInteractions(baseInventoryValidator);
+    }
+
+    @Test
+    void placeOrder_reserveMode_releasesHoldWhenInsertFails() {
+        when(inventoryClient.reserve(SKU_SUCCESS, 3, null)).thenReturn(held("R1"));
+        when(orderRepository.save(any(Order.class))).thenThrow(new RuntimeException("insert failed"));
+
+        assertThatThrownBy(() -> reserveModeService().placeOrder(new OrderRequest(SKU_SUCCESS, 3, null, null)))
+                .hasMessage("insert failed");
+
+        verify(inventoryClient).releaseReservation("R1");
+        verify(inventoryClient, never()).confirmReservation(anyString());
+    }
+
+    @Test
+    void placeOrder_reserveMode_failedConfirmReleasesHoldAndRemovesOrder() {
+        when(inventoryClient.reserve(SKU_SUCCESS, 3, null)).thenReturn(held("R1"));
+        when(orderRepository.save(any(Order.class))).thenAnswer(i -> i.getArguments()[0]);
+        doThrow(new RuntimeException("confirm failed")).when(inventoryClient).confirmReservation("R1");
+        when(inventoryClient.releaseReservation("R1")).thenReturn(true);
+
+        assertThatThrownBy(() -> reserveModeService().placeOrder(new OrderRequest(SKU_SUCCESS, 3, null, null)))
+                .hasMessage("confirm failed");
+
+        verify(orderRepository).delete(any(Order.class));
+    }
+
+    @Test
+    void placeOrder_reserveMode_keepsOrderWhenLostConfirmHadSucceeded() {
+        when(inventoryClient.reserve(SKU_SUCCESS, 3, null)).thenReturn(held("R1"));
+        when(orderRepository.save(any(Order.class))).thenAnswer(i -> i.getArguments()[0]);
+        doThrow(new RuntimeException("read timeout")).when(inventoryClient).confirmReservation("R1");
+        // inventory refuses to release a confirmed hold
+        when(inventoryClient.releaseReservation("R1")).thenReturn(false);
+
+        var response = reserveModeService().placeOrder(new OrderRequest(SKU_SUCCESS, 3, null, null));
+
+        assertThat(response.isSuccess()).isTrue();
+        verify(orderRepository, never()).delete(any(Order.class));
+    }
+
+    @Test
+    void placeOrder_reserveMode_keepsOrderUnknownWhenReleaseAlsoFails() {
+        when(inventoryClient.reserve(SKU_SUCCESS, 3, null)).thenReturn(held("R1"));
+        when(orderRepository.save(any(Order.class))).thenAnswer(i -> i.getArguments()[0]);
+        doThrow(new RuntimeException("read timeout")).when(inventoryClient).confirmReservation("R1");
+        // the confirm may have gone through; nothing tells until the hold is settled
+        when(inventoryClient.releaseReservation("R1")).thenThrow(new RuntimeException("release timeout"));
+
+        assertThatThrownBy(() -> reserveModeService().placeOrder(new OrderRequest(SKU_SUCCESS, 3, null, null)))
+                .hasMessage("read timeout");
+
+        verify(orderRepository, never()).delete(any(Order.class));
+        verify(orderRepository, times(2)).save(argThat(order -> Order.STATUS_UNKNOWN.equals(order.getStatus())));
+    }
+
+    @Test
+    void placeOrderReactive_reserveMode_confirmsAfterSaveAndReleasesOnFailure() {
+        when(inventoryClient.reserveAsync(SKU_SUCCESS, 3, null)).thenReturn(Mono.just(held("R1")));
+        when(inventoryClient.confirmReservationAsync("R1")).thenReturn(Mono.empty());
+        when(orderRepository.save(any(Order.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        var response = reserveModeService().placeOrderReactive(new OrderRequest(SKU_SUCCESS, 3, null, null)).block();
+
+        assertThat(response).isNotNull();
+        assertThat(response.getOrder().getReservationId()).isEqualTo("R1");
+        assertThat(meterRegistry.get("order.placement.stage").tags("path", "reactive", "stage", "confirm").timer().count())
+                .isEqualTo(1);
+
+        when(inventoryClient.confirmReservationAsync("R1")).thenReturn(Mono.error(new RuntimeException("confirm failed")));
+        when(inventoryClient.releaseReservation("R1")).thenReturn(true);
+
+        Mono<?> failed = reserveModeService().placeOrderReactive(new OrderRequest(SKU_SUCCESS, 3, null, null));
+
+        assertThatThrownBy(failed::block).hasMessage("confirm failed");
+        verify(orderRepository).delete(any(Order.class));
+    }
 }
@@ -33,6 +33,26 @@ class OrderRequestValidatorTest {
         assertThrows(IllegalArgumentException.class, () -> validator.validate(r));
     }
 
+    @Test
+    void validate_negativeMinShelfLifeThrows() {
+        OrderRequest r = new OrderRequest();
+        r.setSku(SKU_1);
+        r.setQuantity(1);
+        r.setMinShelfLifeDays(-1);
+        assertThrows(IllegalArgumentException.class, () -> validator.validate(r));
+    }
+
+    @Test
+    void validate_unknownAllocationStrategyThrows() {
+        OrderRequest r = new OrderRequest();
+        r.setSku(SKU_1);
+        r.setQuantity(1);
+        r.setAllocationStrategy("CHEAPEST");
+        assertThrows(IllegalArgumentException.class, () -> validator.validate(r));
+        r.setAllocationStrategy("FEWEST_BATCHES");
+        validator.validate(r);
+    }
+
     @Test
     void validate_negativeQuantityThrows() {
         OrderRequest r = new OrderRequest();